@@ -0,0 +1,60 @@
+#!/usr/bin/env sh
+# Compares cold-start time and peak RSS of the unpacked application in each startup mode.
+#
+# Usage: startup-compare.sh <unpacked-dir> [runs]
+#
+# <unpacked-dir> holds application.jar, lib/, classpath.args and, when present, app.jsa (AppCDS) and
+# an AOT-processed application.jar (detected by its generated bean registrations). Every run stops
+# right after the context refresh (spring.context.exit=onRefresh) with the database stubbed out, so
+# the numbers isolate what the JVM and Spring do at startup and need no running Postgres.
+set -eu
+
+dir=${1:?usage: startup-compare.sh <unpacked-dir> [runs]}
+runs=${2:-5}
+main=com.apps.deen_sa.PersonalAiApplication
+cd "$dir"
+
+training_opts="-Djava.awt.headless=true -Dspring.context.exit=onRefresh -Dspring.profiles.active=cds-training"
+
+# Milliseconds since boot; /proc/uptime works with busybox too, unlike date +%N.
+now_ms() {
+  awk '{printf "%d", $1 * 1000}' /proc/uptime
+}
+
+# Prints "<millis> <peak-rss-kb>" for one run of java with the given options.
+measure() {
+  start=$(now_ms)
+  # shellcheck disable=SC2086
+  java $training_opts "$@" @classpath.args "$main" >/dev/null 2>&1 &
+  pid=$!
+  peak=0
+  while kill -0 "$pid" 2>/dev/null; do
+    hwm=$(awk '/^VmHWM:/ {print $2}' "/proc/$pid/status" 2>/dev/null || true)
+    [ -n "$hwm" ] && [ "$hwm" -gt "$peak" ] && peak=$hwm
+    sleep 0.05
+  done
+  wait "$pid"
+  echo "$(( $(now_ms) - start )) $peak"
+}
+
+report() {
+  name=$1; shift
+  total_ms=0; total_kb=0; i=0
+  while [ "$i" -lt "$runs" ]; do
+    result=$(measure "$@")
+    total_ms=$((total_ms + ${result% *})); total_kb=$((total_kb + ${result#* })); i=$((i + 1))
+  done
+  printf '%-10s %8d ms %8d MB\n' "$name" $((total_ms / runs)) $((total_kb / runs / 1024))
+}
+
+aot=false
+if jar tf application.jar 2>/dev/null | grep -q '__BeanFactoryRegistrations.class$'; then aot=true; fi
+if ! command -v jar >/dev/null 2>&1 && unzip -l application.jar 2>/dev/null | grep -q '__BeanFactoryRegistrations'; then aot=true; fi
+
+echo "Startup to context refresh, mean of $runs runs (wall time, peak RSS)"
+report baseline
+if [ "$aot" = true ]; then report aot -Dspring.aot.enabled=true; fi
+if [ -f app.jsa ]; then
+  report cds -XX:SharedArchiveFile=app.jsa -Xshare:auto
+  if [ "$aot" = true ]; then report aot+cds -Dspring.aot.enabled=true -XX:SharedArchiveFile=app.jsa -Xshare:auto; fi
+fi
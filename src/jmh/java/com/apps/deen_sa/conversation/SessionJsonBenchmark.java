@@ -0,0 +1,108 @@
+package com.apps.deen_sa.conversation;
+
+import com.apps.deen_sa.conversation.interpretation.ConversationTurn;
+import com.apps.deen_sa.conversation.interpretation.FieldEvidence;
+import com.apps.deen_sa.conversation.interpretation.PendingEvent;
+import com.apps.deen_sa.dto.ExpenseDto;
+import com.apps.deen_sa.jmh.BenchmarkCorpus;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sessions per millisecond through the JSON work of {@link ConversationSessionService}: the partial
+ * object converted to and from its {@code jsonb} map, and the pending events and recent turns written
+ * to and read from their columns. The session holds two pending events and the engine's four recent
+ * turns, taken from the corpus. The mapper is configured like the application's, with the JSR-310
+ * module registered.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SessionJsonBenchmark {
+    private static final TypeReference<List<PendingEvent>> PENDING = new TypeReference<>() { };
+    private static final TypeReference<List<ConversationTurn>> TURNS = new TypeReference<>() { };
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private ExpenseDto partial;
+    private Map<?, ?> partialJson;
+    private List<PendingEvent> pendingEvents;
+    private List<ConversationTurn> recentTurns;
+    private byte[] pendingEventsJson;
+    private byte[] recentTurnsJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<String> messages = BenchmarkCorpus.messages();
+        partial = new ExpenseDto();
+        partial.setAmount(new BigDecimal("3500"));
+        partial.setCategory("Utilities");
+        partial.setSubcategory("Internet");
+        partial.setSourceAccount("BANK_ACCOUNT");
+        partial.setTransactionDate(LocalDate.parse("2026-08-14"));
+        partial.setTags(List.of("internet", "monthly"));
+        partial.setRawText(messages.get(0));
+        partial.setMissingFields(new ArrayList<>(List.of("merchantName")));
+        partialJson = objectMapper.convertValue(partial, Map.class);
+
+        pendingEvents = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Map<String, Object> facts = new LinkedHashMap<>();
+            facts.put("amount", BigDecimal.valueOf(350L + i * 1150L));
+            facts.put("rawText", messages.get(i));
+            facts.put("transactionDate", "2026-08-14");
+            pendingEvents.add(new PendingEvent("event-" + i, "EXPENSE", null, facts, List.of("category"), List.of(),
+                    List.of(new FieldEvidence("amount", facts.get("amount").toString(), messages.get(i), 0.92))));
+        }
+        recentTurns = new ArrayList<>();
+        Instant at = Instant.parse("2026-08-14T09:30:00Z");
+        for (int i = 0; i < 4; i++) {
+            recentTurns.add(new ConversationTurn(i % 2 == 0 ? "user" : "assistant", messages.get(i + 2),
+                    at.plusSeconds(i * 20L)));
+        }
+        pendingEventsJson = objectMapper.writeValueAsBytes(pendingEvents);
+        recentTurnsJson = objectMapper.writeValueAsBytes(recentTurns);
+    }
+
+    @Benchmark
+    public Map<?, ?> savePartial() {
+        return objectMapper.convertValue(partial, Map.class);
+    }
+
+    @Benchmark
+    public ExpenseDto loadPartial() {
+        return objectMapper.convertValue(partialJson, ExpenseDto.class);
+    }
+
+    @Benchmark
+    public int writeSession() throws IOException {
+        return objectMapper.writeValueAsBytes(pendingEvents).length + objectMapper.writeValueAsBytes(recentTurns).length;
+    }
+
+    @Benchmark
+    public int readSession() throws IOException {
+        return objectMapper.readValue(pendingEventsJson, PENDING).size() + objectMapper.readValue(recentTurnsJson, TURNS).size();
+    }
+}
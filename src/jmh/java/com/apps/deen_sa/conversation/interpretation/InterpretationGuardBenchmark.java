@@ -0,0 +1,75 @@
+package com.apps.deen_sa.conversation.interpretation;
+
+import com.apps.deen_sa.finance.expense.HumanAmountParser;
+import com.apps.deen_sa.jmh.BenchmarkCorpus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Messages per millisecond through the checks the engine runs on every interpreted turn: the
+ * NFKC grounding check of {@link MutationAuthorizationPolicy} and the help-request match. Each corpus
+ * message is paired with a NEW_EVENT carrying the amount it states, or an amount it does not state,
+ * so both the grounded and the full-scan rejection paths are measured.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class InterpretationGuardBenchmark {
+
+    private final MutationAuthorizationPolicy policy = new MutationAuthorizationPolicy();
+    private String[] messages;
+    private TurnInterpretation[] turns;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        List<String> corpus = BenchmarkCorpus.messages();
+        messages = corpus.toArray(String[]::new);
+        turns = new TurnInterpretation[messages.length];
+        for (int i = 0; i < messages.length; i++) {
+            String message = messages[i];
+            Optional<BigDecimal> stated = HumanAmountParser.parse(message);
+            BigDecimal amount = stated.orElse(new BigDecimal("987654"));
+            List<FieldEvidence> evidence = stated.isPresent()
+                    ? List.of(new FieldEvidence("amount", amount.toPlainString(), message, 0.9)) : List.of();
+            EventPatch event = new EventPatch(null, "EXPENSE", Map.of("amount", amount, "rawText", message),
+                    List.of(), List.of(), evidence);
+            turns[i] = new TurnInterpretation(TurnType.NEW_EVENT, "EXPENSE", "en", null, List.of(event),
+                    null, null, List.of(), 0.9);
+        }
+    }
+
+    @Benchmark
+    public boolean isAuthorized() {
+        int index = advance();
+        return policy.isAuthorized(turns[index], messages[index]);
+    }
+
+    @Benchmark
+    public boolean isHelpRequest() {
+        return UnifiedConversationEngine.isHelpRequest(messages[advance()]);
+    }
+
+    private int advance() {
+        int index = next;
+        next = next + 1 == messages.length ? 0 : next + 1;
+        return index;
+    }
+}
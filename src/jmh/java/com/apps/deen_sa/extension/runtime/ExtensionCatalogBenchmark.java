@@ -0,0 +1,155 @@
+package com.apps.deen_sa.extension.runtime;
+
+import com.apps.deen_sa.extension.api.BusinessExtension;
+import com.apps.deen_sa.extension.api.CapabilityContext;
+import com.apps.deen_sa.extension.api.CapabilityResult;
+import com.apps.deen_sa.extension.api.DeterministicEventCandidate;
+import com.apps.deen_sa.extension.api.DeterministicEventRouter;
+import com.apps.deen_sa.extension.api.EventCapability;
+import com.apps.deen_sa.extension.api.ExtensionDescriptor;
+import com.apps.deen_sa.extension.api.ExtensionEvent;
+import com.apps.deen_sa.extension.api.InterpretationPromptContributor;
+import com.apps.deen_sa.finance.extension.PersonalFinanceExtension;
+import com.apps.deen_sa.jmh.BenchmarkCorpus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Per-turn catalog reads with 1, 10 and 50 registered extensions. The first extension routes with
+ * the personal-finance router and declares the event types it produces; the others are synthetic extensions whose routers never match the corpus, so
+ * the score shows what each extra extension costs a turn that falls through every router.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ExtensionCatalogBenchmark {
+    private static final Long TENANT = 1L;
+    private static final List<String> FINANCE_EVENTS =
+            List.of("EXPENSE", "INCOME", "BUDGET_SET", "ACCOUNT_SETUP", "ACCOUNT_BALANCE", "CURRENT_STATUS");
+
+    @Param({"1", "10", "50"})
+    public int extensions;
+
+    private ExtensionCatalog catalog;
+    private String[] messages;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        List<BusinessExtension> discovered = new ArrayList<>();
+        DeterministicEventRouter finance = new PersonalFinanceExtension(List.of(), null, null, null)
+                .deterministicRouters().iterator().next();
+        discovered.add(new SyntheticExtension(0, finance, FINANCE_EVENTS));
+        for (int id = 1; id < extensions; id++) {
+            discovered.add(new SyntheticExtension(id, new KeywordRouter(id),
+                    List.of("EXT_" + id + "_CREATED", "EXT_" + id + "_UPDATED")));
+        }
+        catalog = new ExtensionCatalog(discovered, mock(TenantExtensionRepository.class));
+        messages = BenchmarkCorpus.messages().toArray(String[]::new);
+    }
+
+    @Benchmark
+    public Optional<EventCapability> routeDeterministically() {
+        return catalog.routeDeterministically(TENANT, message());
+    }
+
+    @Benchmark
+    public List<DeterministicEventCandidate> extractDeterministically() {
+        return catalog.extractDeterministically(TENANT, message());
+    }
+
+    @Benchmark
+    public Optional<String> queryDeterministically() {
+        return catalog.queryDeterministically(TENANT, message());
+    }
+
+    @Benchmark
+    public Collection<EventCapability> enabledEvents() {
+        return catalog.enabledEvents(TENANT);
+    }
+
+    @Benchmark
+    public String interpretationInstructions() {
+        return catalog.interpretationInstructions(TENANT);
+    }
+
+    @Benchmark
+    public String help() {
+        return catalog.help(TENANT, "ta-IN");
+    }
+
+    private String message() {
+        String message = messages[next];
+        next = next + 1 == messages.length ? 0 : next + 1;
+        return message;
+    }
+
+    private record SyntheticExtension(int id, DeterministicEventRouter router, List<String> eventTypes) implements BusinessExtension {
+        @Override public ExtensionDescriptor descriptor() {
+            return new ExtensionDescriptor("ext-" + id, "1.0.0", ExtensionCatalog.SUPPORTED_API_VERSION,
+                    "Extension " + id, true, Set.of("en-IN", "ta-IN"), List.of("log widget " + id));
+        }
+
+        @Override public Collection<EventCapability> events() {
+            return eventTypes.stream().map(type -> (EventCapability) new SyntheticEvent(type)).toList();
+        }
+
+        @Override public Collection<DeterministicEventRouter> deterministicRouters() {
+            return List.of(router);
+        }
+
+        @Override public Collection<InterpretationPromptContributor> promptContributors() {
+            return List.of(() -> "Extension " + id + " records widgets when the user says log widget.");
+        }
+
+        @Override public String help(String locale) {
+            return "Extension " + id + " help for " + locale;
+        }
+    }
+
+    private record SyntheticEvent(String eventType) implements EventCapability {
+        @Override public String schemaVersion() { return "1"; }
+        @Override public Set<String> fields() { return Set.of("name"); }
+        @Override public String extractionInstructions() { return "Extract the widget name."; }
+        @Override public CapabilityResult handle(ExtensionEvent event, String rawText, CapabilityContext context,
+                                                 boolean continuation) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static final class KeywordRouter implements DeterministicEventRouter {
+        private final Pattern keyword;
+        private final String eventType;
+
+        KeywordRouter(int id) {
+            this.keyword = Pattern.compile("(?i)\\blog widget " + id + "\\b");
+            this.eventType = "EXT_" + id + "_CREATED";
+        }
+
+        @Override public Optional<String> eventType(String text) {
+            return keyword.matcher(text).find() ? Optional.of(eventType) : Optional.empty();
+        }
+    }
+}
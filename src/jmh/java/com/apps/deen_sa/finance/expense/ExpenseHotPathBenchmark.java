@@ -0,0 +1,94 @@
+package com.apps.deen_sa.finance.expense;
+
+import com.apps.deen_sa.conversation.ConversationContext;
+import com.apps.deen_sa.dto.ExpenseDto;
+import com.apps.deen_sa.jmh.BenchmarkCorpus;
+import com.apps.deen_sa.llm.impl.TagSemanticMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Messages per millisecond through expense normalisation and the taxonomy and amount lookups it is
+ * built from. The semantic matcher never finds anything, so {@link #normalize()} measures the
+ * deterministic path only; a model call would dwarf it anyway.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ExpenseHotPathBenchmark {
+    private static final String[] SOURCES = {"my upi today", "bank account", "Credit card", null, "cash", "HDFC Bank"};
+
+    private final ExpenseTaxonomyRegistry taxonomy = new ExpenseTaxonomyRegistry();
+    private final ExpenseInputNormalizer normalizer = new ExpenseInputNormalizer(new ExpenseCategoryResolver(taxonomy,
+            new TagSemanticMatcher(null, null, null) {
+                @Override
+                public Map<String, String> match(List<String> canonical, List<String> values) {
+                    return Map.of();
+                }
+            }));
+    private final ConversationContext context = new ConversationContext();
+    private String[] messages;
+    private String[] labels;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        messages = BenchmarkCorpus.messages().toArray(String[]::new);
+        labels = taxonomy.allLabels().stream().sorted().toArray(String[]::new);
+    }
+
+    @Benchmark
+    public ExpenseDto normalize() {
+        int index = advance();
+        ExpenseDto expense = new ExpenseDto();
+        expense.setCategory(labels[index % labels.length]);
+        expense.setSourceAccount(SOURCES[index % SOURCES.length]);
+        return normalizer.normalize(expense, messages[index], context);
+    }
+
+    @Benchmark
+    public Optional<String> canonicalAliasInText() {
+        return taxonomy.canonicalAliasInText(messages[advance()]);
+    }
+
+    @Benchmark
+    public Optional<String> canonicalLabel() {
+        int index = advance();
+        return taxonomy.canonicalLabel(labels[index % labels.length].toLowerCase(Locale.ROOT));
+    }
+
+    @Benchmark
+    public Optional<String> parentCategory() {
+        int index = advance();
+        return taxonomy.parentCategory(labels[index % labels.length]);
+    }
+
+    @Benchmark
+    public Optional<BigDecimal> humanAmount() {
+        return HumanAmountParser.parse(messages[advance()]);
+    }
+
+    private int advance() {
+        int index = next;
+        next = next + 1 == messages.length ? 0 : next + 1;
+        return index;
+    }
+}
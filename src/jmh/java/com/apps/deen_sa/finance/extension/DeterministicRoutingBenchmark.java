@@ -0,0 +1,62 @@
+package com.apps.deen_sa.finance.extension;
+
+import com.apps.deen_sa.extension.api.DeterministicEventCandidate;
+import com.apps.deen_sa.jmh.BenchmarkCorpus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Messages per millisecond through the deterministic router, which every turn passes before the
+ * model is asked. Each invocation takes the next corpus message, so a score is the mean over the
+ * whole corpus rather than over one lucky phrasing.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class DeterministicRoutingBenchmark {
+
+    private final FinanceDeterministicEventRouter router = new FinanceDeterministicEventRouter();
+    private String[] messages;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        messages = BenchmarkCorpus.messages().toArray(String[]::new);
+    }
+
+    @Benchmark
+    public Optional<String> eventType() {
+        return router.eventType(message());
+    }
+
+    @Benchmark
+    public List<DeterministicEventCandidate> events() {
+        return router.events(message());
+    }
+
+    @Benchmark
+    public Optional<String> query() {
+        return router.query(message());
+    }
+
+    private String message() {
+        String message = messages[next];
+        next = next + 1 == messages.length ? 0 : next + 1;
+        return message;
+    }
+}
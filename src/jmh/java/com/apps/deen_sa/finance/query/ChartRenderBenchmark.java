@@ -0,0 +1,111 @@
+package com.apps.deen_sa.finance.query;
+
+import com.apps.deen_sa.conversation.ResponseMedia;
+import com.apps.deen_sa.dto.ExpenseSummary;
+import com.apps.deen_sa.finance.budget.BudgetProgress;
+import com.apps.deen_sa.finance.presentation.AnalysisIntent;
+import com.apps.deen_sa.finance.presentation.FlowPoint;
+import com.apps.deen_sa.finance.presentation.HierarchyPoint;
+import com.apps.deen_sa.finance.presentation.PresentationDataset;
+import com.apps.deen_sa.finance.presentation.PresentationMood;
+import com.apps.deen_sa.finance.presentation.VisualizationPlan;
+import com.apps.deen_sa.finance.presentation.VisualizationType;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Milliseconds per chart for every {@link VisualizationType}, with PNG bytes per chart as an
+ * auxiliary counter. Run with {@code -prof gc} for allocation rate and bytes allocated per chart.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class ChartRenderBenchmark {
+
+    @Param
+    public VisualizationType type;
+
+    private final ExpenseChartRenderer renderer = new ExpenseChartRenderer();
+    private VisualizationPlan plan;
+    private ExpenseSummary summary;
+    private PresentationDataset dataset;
+    private List<BudgetProgress> budgets;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Output {
+        public long pngBytes;
+        public long charts;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            pngBytes = 0;
+            charts = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        plan = new VisualizationPlan(type, AnalysisIntent.SPENDING_OVERVIEW, PresentationMood.CONCERNED, Set.of(), Set.of(), false);
+        Map<String, BigDecimal> categories = new LinkedHashMap<>();
+        String[] names = {"Food & Dining", "Groceries", "Transport", "Shopping", "Bills", "Health", "Education",
+                "Entertainment", "Family Support"};
+        for (int i = 0; i < names.length; i++) categories.put(names[i], BigDecimal.valueOf(9_000L - i * 850L));
+        summary = new ExpenseSummary();
+        summary.setSpendByCategory(categories);
+        summary.setTotalSpend(categories.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add));
+
+        Map<String, BigDecimal> daily = new LinkedHashMap<>();
+        LocalDate first = LocalDate.parse("2026-08-01");
+        for (int day = 0; day < 31; day++) daily.put(first.plusDays(day).toString(), BigDecimal.valueOf(150L + day * 37L % 900));
+        Map<String, BigDecimal> previous = new LinkedHashMap<>();
+        categories.forEach((name, amount) -> previous.put(name, amount.multiply(new BigDecimal("0.8"))));
+        List<FlowPoint> flows = new ArrayList<>();
+        List<HierarchyPoint> hierarchy = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            flows.add(new FlowPoint(i % 2 == 0 ? "HDFC Bank" : "ICICI Card", names[i], BigDecimal.valueOf(4_000L - i * 300L)));
+            hierarchy.add(new HierarchyPoint(names[i], "Sub " + i, "Merchant " + i, BigDecimal.valueOf(4_000L - i * 300L)));
+        }
+        dataset = new PresentationDataset(daily, categories, previous, hierarchy, flows, new BigDecimal("85000"));
+        budgets = List.of(new BudgetProgress("Groceries", new BigDecimal("8200"), new BigDecimal("10000")),
+                new BudgetProgress("Dining", new BigDecimal("6400"), new BigDecimal("5000")),
+                new BudgetProgress("Transport", new BigDecimal("1200"), new BigDecimal("4000")));
+    }
+
+    @Benchmark
+    public ResponseMedia render(Output output) {
+        ResponseMedia media = switch (type) {
+            case ACCOUNT_STACK -> renderer.accountStack("Balances across accounts", Map.of(
+                    "HDFC Bank", new BigDecimal("52000"), "ICICI Card", new BigDecimal("-18000"),
+                    "Wallet", new BigDecimal("1500")), plan.mood(), "en-IN");
+            case BUDGET_PROGRESS_BARS -> renderer.budgetProgress("Monthly budget progress", budgets, plan.mood(), "en-IN");
+            default -> renderer.render(plan, "August spending", summary, dataset, "en-IN");
+        };
+        output.pngBytes += media.content().length;
+        output.charts++;
+        return media;
+    }
+}
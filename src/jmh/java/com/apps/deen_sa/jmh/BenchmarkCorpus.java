@@ -0,0 +1,67 @@
+package com.apps.deen_sa.jmh;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Real user wording for the hot-path benchmarks: the sample prompts from {@code test-prompts.yml}
+ * and every message and pending question from the semantic eval turns, in English, Tamil and Tanglish.
+ */
+public final class BenchmarkCorpus {
+    private static final String PROMPTS = "test-prompts.yml";
+    private static final String EVAL_TURNS = "semantic-evals/conversation-turns.jsonl";
+
+    private BenchmarkCorpus() {
+    }
+
+    public static List<String> messages() {
+        Set<String> messages = new LinkedHashSet<>(prompts());
+        for (JsonNode turn : evalTurns()) {
+            messages.add(turn.path("message").asText());
+            if (turn.hasNonNull("lastQuestion")) messages.add(turn.get("lastQuestion").asText());
+        }
+        messages.removeIf(String::isBlank);
+        return List.copyOf(messages);
+    }
+
+    public static List<String> prompts() {
+        try (InputStream in = open(PROMPTS)) {
+            Map<String, Object> raw = new Yaml().load(in);
+            return ((List<?>) raw.get("prompts")).stream().map(String::valueOf).toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static List<JsonNode> evalTurns() {
+        ObjectMapper json = new ObjectMapper();
+        List<JsonNode> turns = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(open(EVAL_TURNS), StandardCharsets.UTF_8))) {
+            for (String line; (line = reader.readLine()) != null; ) {
+                if (!line.isBlank()) turns.add(json.readTree(line));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return turns;
+    }
+
+    private static InputStream open(String resource) {
+        InputStream in = BenchmarkCorpus.class.getClassLoader().getResourceAsStream(resource);
+        if (in == null) throw new IllegalStateException(resource + " not found on the benchmark class path");
+        return in;
+    }
+}
@@ -0,0 +1,116 @@
+package com.apps.deen_sa.jmh;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.TreeSet;
+
+/**
+ * Runs JMH with its usual command line and compares every result with a local baseline file.
+ * A benchmark regresses when its score is more than {@code jmh.tolerance} (default 10%) worse than
+ * the baseline, or when it allocates more than that fraction plus 16 bytes per operation over the
+ * baseline; the slack keeps allocation-free benchmarks from failing on noise. Scores only compare on
+ * the same machine, so the baseline ({@code jmh.baseline}) is kept out of git and out of
+ * {@code target/}: the first run, or any run with {@code -Djmh.save=true}, records it.
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="Routing|Guard|HotPath|SessionJson -prof gc" -Djmh.save=true
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="Routing|Guard|HotPath|SessionJson -prof gc"
+ * </pre>
+ */
+public final class BenchmarkGate {
+    static final String ALLOCATION = "gc.alloc.rate.norm";
+    static final double ALLOCATION_SLACK_BYTES = 16;
+
+    private BenchmarkGate() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Collection<RunResult> results = new Runner(new CommandLineOptions(args)).run();
+        Path baseline = Path.of(System.getProperty("jmh.baseline", "jmh-baseline.properties"));
+        double tolerance = Double.parseDouble(System.getProperty("jmh.tolerance", "0.10"));
+        Properties current = scores(results);
+        if (Boolean.getBoolean("jmh.save") || !Files.exists(baseline)) {
+            save(current, baseline);
+            System.out.println("Saved " + current.size() / 3 + " benchmark baselines to " + baseline);
+            return;
+        }
+        Properties previous = new Properties();
+        try (Reader reader = Files.newBufferedReader(baseline)) {
+            previous.load(reader);
+        }
+        List<String> regressions = compare(previous, current, tolerance);
+        regressions.forEach(System.out::println);
+        if (!regressions.isEmpty()) {
+            System.out.println(regressions.size() + " regression(s) beyond " + Math.round(tolerance * 100) + "% of " + baseline);
+            System.exit(1);
+        }
+        System.out.println("No regressions beyond " + Math.round(tolerance * 100) + "% of " + baseline);
+    }
+
+    /** Flattens results to {@code <key>.score}, {@code <key>.higherIsBetter} and {@code <key>.alloc}. */
+    static Properties scores(Collection<RunResult> results) {
+        Properties scores = new Properties();
+        for (RunResult result : results) {
+            BenchmarkParams params = result.getParams();
+            String key = key(params);
+            scores.setProperty(key + ".score", Double.toString(result.getPrimaryResult().getScore()));
+            scores.setProperty(key + ".higherIsBetter", Boolean.toString(params.getMode() == Mode.Throughput));
+            double allocation = Double.NaN;
+            for (var secondary : result.getSecondaryResults().entrySet()) {
+                if (secondary.getKey().endsWith(ALLOCATION)) allocation = ((Result<?>) secondary.getValue()).getScore();
+            }
+            scores.setProperty(key + ".alloc", Double.toString(allocation));
+        }
+        return scores;
+    }
+
+    static List<String> compare(Properties baseline, Properties current, double tolerance) {
+        List<String> regressions = new ArrayList<>();
+        for (String name : new TreeSet<>(current.stringPropertyNames())) {
+            if (!name.endsWith(".score") || baseline.getProperty(name) == null) continue;
+            String key = name.substring(0, name.length() - ".score".length());
+            double before = Double.parseDouble(baseline.getProperty(name));
+            double after = Double.parseDouble(current.getProperty(name));
+            boolean higherIsBetter = Boolean.parseBoolean(current.getProperty(key + ".higherIsBetter"));
+            double change = before == 0 ? 0 : (after - before) / before;
+            if (higherIsBetter ? change < -tolerance : change > tolerance) {
+                regressions.add(String.format(Locale.ROOT, "%s: score %.3f -> %.3f (%+.1f%%)", key, before, after, change * 100));
+            }
+            double allocBefore = Double.parseDouble(baseline.getProperty(key + ".alloc", "NaN"));
+            double allocAfter = Double.parseDouble(current.getProperty(key + ".alloc", "NaN"));
+            if (!Double.isNaN(allocBefore) && !Double.isNaN(allocAfter)
+                    && allocAfter > allocBefore * (1 + tolerance) + ALLOCATION_SLACK_BYTES) {
+                regressions.add(String.format(Locale.ROOT, "%s: allocation %.0f -> %.0f B/op", key, allocBefore, allocAfter));
+            }
+        }
+        return regressions;
+    }
+
+    private static String key(BenchmarkParams params) {
+        StringBuilder key = new StringBuilder(params.getBenchmark()).append('.').append(params.getMode().shortLabel());
+        for (String param : params.getParamsKeys()) key.append('[').append(param).append('=').append(params.getParam(param)).append(']');
+        return key.toString();
+    }
+
+    private static void save(Properties scores, Path baseline) throws IOException {
+        if (baseline.getParent() != null) Files.createDirectories(baseline.getParent());
+        try (Writer writer = Files.newBufferedWriter(baseline)) {
+            scores.store(writer, "JMH baseline: primary score and " + ALLOCATION + " per benchmark");
+        }
+    }
+}
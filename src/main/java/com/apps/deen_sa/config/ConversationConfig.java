@@ -1,8 +1,15 @@
 package com.apps.deen_sa.config;
 
 import com.apps.deen_sa.conversation.ConversationContext;
+import com.apps.deen_sa.conversation.LeasedUserTurnLock;
+import com.apps.deen_sa.conversation.LocalUserTurnLock;
+import com.apps.deen_sa.conversation.UserTurnLock;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
 
 @Configuration
 public class ConversationConfig {
@@ -11,4 +18,22 @@ public class ConversationConfig {
     public ConversationContext conversationContext() {
         return new ConversationContext();
     }
+
+    /**
+     * The turn lock named by {@code conversation.ordering}. It is chosen here when the context starts,
+     * not by a condition, because an AOT-built image fixes conditions at build time and would ignore
+     * the setting it runs with.
+     */
+    @Bean
+    public UserTurnLock userTurnLock(@Value("${conversation.ordering:local}") String ordering, JdbcTemplate jdbc,
+                                     @Value("${conversation.turn-lease.ttl:PT2M}") Duration ttl,
+                                     @Value("${conversation.turn-lease.max-wait:PT2M}") Duration maxWait,
+                                     @Value("${conversation.turn-lease.heartbeat:PT30S}") Duration heartbeat) {
+        return switch (ordering) {
+            case "local" -> new LocalUserTurnLock();
+            case "cluster" -> new LeasedUserTurnLock(jdbc, ttl, maxWait).heartbeat(heartbeat);
+            default -> throw new IllegalStateException(
+                    "conversation.ordering must be local or cluster, not " + ordering);
+        };
+    }
 }
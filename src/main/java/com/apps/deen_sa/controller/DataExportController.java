@@ -0,0 +1,57 @@
+package com.apps.deen_sa.controller;
+
+import com.apps.deen_sa.export.ExportDataset;
+import com.apps.deen_sa.export.ExportFormat;
+import com.apps.deen_sa.export.UserDataExporter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+
+/**
+ * Download of the user's ledger and conversation history. The body is written while the rows are
+ * read, without a length, so it goes out chunked and nothing is buffered whole. The endpoint has no
+ * authentication and serves the whole history, so it answers 404 unless {@code export.http.enabled=true}.
+ */
+@RestController
+@RequestMapping("/api/v1/export")
+public class DataExportController {
+
+    private final UserDataExporter exporter;
+    private final boolean enabled;
+
+    public DataExportController(UserDataExporter exporter, @Value("${export.http.enabled:false}") boolean enabled) {
+        this.exporter = exporter;
+        this.enabled = enabled;
+    }
+
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(value = "format", defaultValue = "ndjson") String format,
+            @RequestParam(value = "datasets", required = false) String datasets) {
+        if (!enabled) return ResponseEntity.notFound().build();
+        ExportFormat exportFormat;
+        List<ExportDataset> selected;
+        try {
+            exportFormat = ExportFormat.of(format);
+            selected = ExportDataset.parse(datasets);
+        } catch (IllegalArgumentException unknown) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (!exportFormat.mixesDatasets() && selected.size() != 1) return ResponseEntity.badRequest().build();
+
+        String name = (selected.size() == 1 ? selected.getFirst().id() : "export") + "." + exportFormat.extension();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(name).build().toString())
+                .body(out -> exporter.export(1L, selected, exportFormat, out));
+    }
+}
@@ -0,0 +1,50 @@
+package com.apps.deen_sa.controller;
+
+import com.apps.deen_sa.finance.expense.statement.ExpenseStatementImporter;
+import com.apps.deen_sa.finance.expense.statement.StatementImportReport;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Statement CSV upload; the request body is read as it arrives, so the file is never buffered whole.
+ * The endpoint has no authentication and writes into the ledger, so it answers 404 unless
+ * {@code finance.import.http.enabled=true}. The switch is read per request rather than as a condition,
+ * so it also holds on an AOT-built image.
+ */
+@RestController
+@RequestMapping("/api/v1/expenses")
+public class StatementImportController {
+    // REST callers are not authenticated; every upload belongs to user 1, the single local user.
+    private static final Long REST_USER_ID = 1L;
+
+    private final ExpenseStatementImporter importer;
+    private final boolean enabled;
+
+    public StatementImportController(ExpenseStatementImporter importer,
+                                     @Value("${finance.import.http.enabled:false}") boolean enabled) {
+        this.importer = importer;
+        this.enabled = enabled;
+    }
+
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE,
+            MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<StatementImportReport> importStatement(
+            @RequestParam(value = "account", required = false) String account, InputStream body) throws IOException {
+        if (!enabled) return ResponseEntity.notFound().build();
+        try {
+            return ResponseEntity.ok(importer.importCsv(REST_USER_ID, account, new InputStreamReader(body, StandardCharsets.UTF_8)));
+        } catch (IllegalArgumentException unreadable) {
+            return ResponseEntity.unprocessableEntity().build();
+        }
+    }
+}
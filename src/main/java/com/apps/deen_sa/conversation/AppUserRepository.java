@@ -1,9 +1,17 @@
 package com.apps.deen_sa.conversation;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
 public interface AppUserRepository extends JpaRepository<AppUserEntity, Long> {
     Optional<AppUserEntity> findByChannelAndExternalUserId(String channel, String externalUserId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM AppUserEntity u WHERE u.id = :id")
+    Optional<AppUserEntity> findForUpdate(@Param("id") Long id);
 }
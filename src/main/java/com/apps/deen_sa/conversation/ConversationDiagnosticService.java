@@ -33,6 +33,8 @@ public class ConversationDiagnosticService {
             turn.setResponseMediaSize(media == null ? null : media.content().length);
             turn.setNeedFollowup(result.getNeedFollowup());
             turn.setActiveIntent(context.getActiveIntent());
+            Object routed = context.getMetadata() == null ? null : context.getMetadata().get("routedIntent");
+            turn.setRoutedIntent(routed == null ? null : routed.toString());
             turn.setWaitingForField(context.getWaitingForField());
             turn.setPartialJson(json(context.getPartialObject()));
             Object saved = result.getSavedEntity();
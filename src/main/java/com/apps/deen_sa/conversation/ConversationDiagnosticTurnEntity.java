@@ -43,6 +43,8 @@ public class ConversationDiagnosticTurnEntity {
     private Boolean needFollowup;
     @Column(name = "active_intent", length = 50)
     private String activeIntent;
+    @Column(name = "routed_intent", length = 50)
+    private String routedIntent;
     @Column(name = "waiting_for_field", length = 100)
     private String waitingForField;
     @JdbcTypeCode(SqlTypes.JSON)
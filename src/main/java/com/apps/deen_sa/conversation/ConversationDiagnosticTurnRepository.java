@@ -1,7 +1,15 @@
 package com.apps.deen_sa.conversation;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 public interface ConversationDiagnosticTurnRepository
         extends JpaRepository<ConversationDiagnosticTurnEntity, Long> {
+
+    /** Reviewed model-routed messages as (text, routed intent) pairs. */
+    @Query("select t.inputText, t.routedIntent from ConversationDiagnosticTurnEntity t"
+            + " where t.reviewed = true and t.routedIntent is not null and t.inputKind = 'MESSAGE'")
+    List<Object[]> findReviewedRoutedMessages();
 }
@@ -1,6 +1,7 @@
 package com.apps.deen_sa.conversation;
 
 import com.apps.deen_sa.conversation.interpretation.UnifiedConversationEngine;
+import com.apps.deen_sa.llm.AiCallTelemetry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -13,33 +14,70 @@ public class DefaultConversationChannelGateway implements ConversationChannelGat
     private final ConversationSessionService sessions;
     private final UnifiedConversationEngine engine;
     private final ConversationDiagnosticService diagnostics;
+    private final StartupReadiness readiness;
+    private final TurnTrace trace;
+    private final AiCallTelemetry telemetry;
+
+    /** This gateway with every collaborator shared but {@code other} answering turns. */
+    public DefaultConversationChannelGateway withEngine(UnifiedConversationEngine other) {
+        return new DefaultConversationChannelGateway(users, sessions, other, diagnostics, readiness, trace, telemetry);
+    }
 
     @Override public SpeechResult process(String channel, String externalUserId, String messageId, String text) {
-        Context context = context(channel, externalUserId, messageId);
-        SpeechResult result = engine.process(text, context.value());
-        sessions.save(context.value());
-        diagnostics.record("MESSAGE", externalUserId, messageId, text, context.value(), result);
-        return result;
+        try (var turn = trace.begin(channel, "message", messageId)) {
+            long started = System.nanoTime();
+            Context context = context(channel, externalUserId, messageId);
+            SpeechResult result;
+            try (var tenant = telemetry.forTenant(context.tenantId())) {
+                result = engine.process(text, context.value());
+            }
+            finish("MESSAGE", externalUserId, messageId, text, context.value(), result);
+            readiness.recordTurn(System.nanoTime() - started);
+            return result;
+        }
     }
 
     @Override public SpeechResult processTrustedAnswer(String channel, String externalUserId, String messageId, String answer) {
-        Context context = context(channel, externalUserId, messageId);
-        SpeechResult result = engine.processTrustedAnswer(answer, context.value());
-        sessions.save(context.value());
-        diagnostics.record("TRUSTED_ANSWER", externalUserId, messageId, answer, context.value(), result);
-        return result;
+        try (var turn = trace.begin(channel, "trusted_answer", messageId)) {
+            long started = System.nanoTime();
+            Context context = context(channel, externalUserId, messageId);
+            SpeechResult result;
+            try (var tenant = telemetry.forTenant(context.tenantId())) {
+                result = engine.processTrustedAnswer(answer, context.value());
+            }
+            finish("TRUSTED_ANSWER", externalUserId, messageId, answer, context.value(), result);
+            readiness.recordTurn(System.nanoTime() - started);
+            return result;
+        }
+    }
+
+    private void finish(String kind, String externalUserId, String messageId, String text, ConversationContext context,
+                        SpeechResult result) {
+        try (var stage = trace.stage("session.save")) {
+            sessions.save(context);
+        }
+        try (var stage = trace.stage("diagnostics")) {
+            diagnostics.record(kind, externalUserId, messageId, text, context, result);
+        }
     }
 
     private Context context(String channel, String externalUserId, String messageId) {
+        try (var stage = trace.stage("session.load")) {
+            return load(channel, externalUserId, messageId);
+        }
+    }
+
+    private Context load(String channel, String externalUserId, String messageId) {
         AppUserEntity user = users.resolve(channel, externalUserId);
         ConversationContext value = sessions.load(user.getId(), channel);
         value.setTimezone(user.getTimezone()); value.setLocale(user.getLocale()); value.setCurrency(user.getCurrency());
         var metadata = value.getMetadata() == null ? new HashMap<String, Object>() : new HashMap<>(value.getMetadata());
         if (messageId != null) metadata.put("inboundMessageId", messageId);
+        metadata.remove("routedIntent");
         metadata.put("tenantId", user.getId());
         value.setMetadata(metadata);
-        return new Context(value);
+        return new Context(value, user.getId());
     }
 
-    private record Context(ConversationContext value) { }
+    private record Context(ConversationContext value, Long tenantId) { }
 }
@@ -1,7 +1,49 @@
 package com.apps.deen_sa.conversation;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The inbound ledger is written with single statements: a claim is an insert that yields no row when
+ * the message was already delivered, and a status change or a release is guarded by the current status.
+ */
 public interface InboundMessageRepository extends JpaRepository<InboundMessageEntity, Long> {
-    boolean existsByChannelAndExternalMessageId(String channel, String externalMessageId);
+    @Query(value = """
+            INSERT INTO inbound_message (channel, external_message_id, external_user_id, status, created_at)
+            VALUES (:channel, :messageId, :userId, 'PROCESSING', :now)
+            ON CONFLICT ON CONSTRAINT uq_inbound_channel_message DO NOTHING
+            RETURNING id
+            """, nativeQuery = true)
+    Long claim(@Param("channel") String channel, @Param("messageId") String externalMessageId,
+               @Param("userId") String externalUserId, @Param("now") Instant now);
+
+    /**
+     * Claims every message in {@code messages}, a JSON array of {@code {"id": ..., "sender": ...}}, and
+     * returns {@code [id, external_message_id]} for those not seen before.
+     */
+    @Query(value = """
+            INSERT INTO inbound_message (channel, external_message_id, external_user_id, status, created_at)
+            SELECT :channel, m.id, m.sender, 'PROCESSING', :now
+            FROM jsonb_to_recordset(CAST(:messages AS jsonb)) AS m(id text, sender text)
+            ON CONFLICT ON CONSTRAINT uq_inbound_channel_message DO NOTHING
+            RETURNING id, external_message_id
+            """, nativeQuery = true)
+    List<Object[]> claimAll(@Param("channel") String channel, @Param("messages") String messages,
+                            @Param("now") Instant now);
+
+    @Modifying
+    @Query(value = """
+            UPDATE inbound_message SET status = :status, processed_at = :now
+            WHERE id = :id AND status = 'PROCESSING'
+            """, nativeQuery = true)
+    int finish(@Param("id") Long id, @Param("status") String status, @Param("now") Instant now);
+
+    @Modifying
+    @Query(value = "DELETE FROM inbound_message WHERE id = :id AND status = 'PROCESSING'", nativeQuery = true)
+    int release(@Param("id") Long id);
 }
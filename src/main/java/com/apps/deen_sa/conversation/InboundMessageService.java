@@ -1,50 +1,73 @@
 package com.apps.deen_sa.conversation;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
-import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
+/**
+ * Exactly-once ledger for inbound channel messages. A claim is one {@code INSERT ... ON CONFLICT DO
+ * NOTHING RETURNING id}: the first delivery of a message gets its ledger id, every redelivery gets
+ * null, and a racing duplicate never surfaces as an exception. Completing or failing a message is one
+ * {@code UPDATE} that only moves a message out of PROCESSING; releasing one deletes a claim that was
+ * never worked on, so the next delivery claims it again.
+ */
 @Service
 @RequiredArgsConstructor
 public class InboundMessageService {
     private final InboundMessageRepository repository;
+    private final ObjectMapper objectMapper;
 
+    /** The ledger id for the first delivery of a message, or null for a redelivery or a message without an id. */
     @Transactional
     public Long claim(String channel, String externalMessageId, String externalUserId) {
         if (externalMessageId == null || externalMessageId.isBlank()) return null;
-        if (repository.existsByChannelAndExternalMessageId(channel, externalMessageId)) return null;
-        InboundMessageEntity message = new InboundMessageEntity();
-        message.setChannel(channel);
-        message.setExternalMessageId(externalMessageId);
-        message.setExternalUserId(externalUserId);
-        message.setStatus("PROCESSING");
+        return repository.claim(channel, externalMessageId, externalUserId, Instant.now());
+    }
+
+    /**
+     * Claims every message of one delivery in a single statement. Keys are external message ids mapped
+     * to their senders; the result holds a ledger id only for messages delivered for the first time.
+     */
+    @Transactional
+    public Map<String, Long> claimAll(String channel, Map<String, String> sendersByMessageId) {
+        List<Map<String, String>> messages = new ArrayList<>(sendersByMessageId.size());
+        sendersByMessageId.forEach((messageId, sender) -> {
+            if (messageId != null && !messageId.isBlank()) messages.add(Map.of("id", messageId, "sender", sender));
+        });
+        if (messages.isEmpty()) return Map.of();
+        String json;
         try {
-            return repository.saveAndFlush(message).getId();
-        } catch (DataIntegrityViolationException duplicate) {
-            return null;
+            json = objectMapper.writeValueAsString(messages);
+        } catch (JsonProcessingException impossible) {
+            throw new IllegalStateException("Cannot encode inbound message ids", impossible);
+        }
+        Map<String, Long> claimed = new HashMap<>();
+        for (Object[] row : repository.claimAll(channel, json, Instant.now())) {
+            claimed.put((String) row[1], ((Number) row[0]).longValue());
         }
+        return claimed;
     }
 
     @Transactional
     public void complete(Long id) {
-        if (id == null) return;
-        repository.findById(id).ifPresent(message -> {
-            message.setStatus("PROCESSED");
-            message.setProcessedAt(Instant.now());
-            repository.save(message);
-        });
+        if (id != null) repository.finish(id, "PROCESSED", Instant.now());
     }
 
     @Transactional
     public void fail(Long id) {
-        if (id == null) return;
-        repository.findById(id).ifPresent(message -> {
-            message.setStatus("FAILED");
-            message.setProcessedAt(Instant.now());
-            repository.save(message);
-        });
+        if (id != null) repository.finish(id, "FAILED", Instant.now());
+    }
+
+    @Transactional
+    public void release(Long id) {
+        if (id != null) repository.release(id);
     }
 }
@@ -0,0 +1,136 @@
+package com.apps.deen_sa.conversation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-user turn lock shared by every node through {@code conversation_turn_lease}. A lease row is
+ * taken with one upsert and deleted on release, so no connection is held while the model runs. A live
+ * node renews the leases it holds every {@code heartbeat} on its own thread, so a turn longer than the
+ * ttl keeps its lease however busy the shared scheduler is; a node that dies mid-turn loses its lease
+ * when it expires. A turn for a claimed inbound
+ * message also waits until every earlier message from the same user has left PROCESSING, so turns run
+ * in the order the webhook claimed them, whichever node received them. Waiters poll with backoff.
+ */
+@Log4j2
+public class LeasedUserTurnLock implements UserTurnLock, DisposableBean {
+    private static final String ACQUIRE = """
+            INSERT INTO conversation_turn_lease AS lease (channel, external_user_id, owner, expires_at)
+            SELECT ?, ?, ?, clock_timestamp() + make_interval(secs => ?)
+            WHERE NOT EXISTS (
+                SELECT 1 FROM inbound_message earlier
+                WHERE earlier.channel = ? AND earlier.external_user_id = ? AND earlier.status = 'PROCESSING'
+                  AND earlier.id < (SELECT id FROM inbound_message WHERE channel = ? AND external_message_id = ?)
+                  AND earlier.created_at > LOCALTIMESTAMP - make_interval(secs => ?))
+            ON CONFLICT ON CONSTRAINT pk_conversation_turn_lease DO UPDATE
+                SET owner = EXCLUDED.owner, expires_at = EXCLUDED.expires_at
+                WHERE lease.expires_at < clock_timestamp()
+            RETURNING owner
+            """;
+    private static final String RENEW = """
+            UPDATE conversation_turn_lease SET expires_at = clock_timestamp() + make_interval(secs => ?)
+            WHERE channel = ? AND external_user_id = ? AND owner = ?
+            """;
+    private static final String RELEASE =
+            "DELETE FROM conversation_turn_lease WHERE channel = ? AND external_user_id = ? AND owner = ?";
+
+    private final JdbcTemplate jdbc;
+    private final double leaseSeconds;
+    private final long maxWaitNanos;
+    private final Map<String, Lease> held = new ConcurrentHashMap<>();
+    private ScheduledExecutorService heartbeat;
+
+    private final Counter contended = Metrics.counter("deen.conversation.turn.lock", "result", "contended");
+    private final Counter timeouts = Metrics.counter("deen.conversation.turn.lock", "result", "timeout");
+    private final Counter lost = Metrics.counter("deen.conversation.turn.lock", "result", "lost");
+
+    public LeasedUserTurnLock(JdbcTemplate jdbc, Duration lease, Duration maxWait) {
+        this.jdbc = jdbc;
+        this.leaseSeconds = lease.toMillis() / 1000.0;
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    /** Starts renewing held leases every {@code every}; without it, leases only last their ttl. */
+    public LeasedUserTurnLock heartbeat(Duration every) {
+        heartbeat = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "turn-lease-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeat.scheduleWithFixedDelay(this::renewHeld, every.toMillis(), every.toMillis(), TimeUnit.MILLISECONDS);
+        return this;
+    }
+
+    @Override
+    public void destroy() {
+        if (heartbeat != null) heartbeat.shutdownNow();
+    }
+
+    @Override
+    public Held acquire(String channel, String externalUserId, String messageId) {
+        String owner = UUID.randomUUID().toString();
+        long deadline = System.nanoTime() + maxWaitNanos;
+        long backoffMillis = 10;
+        while (!tryAcquire(channel, externalUserId, messageId, owner)) {
+            if (backoffMillis == 10) contended.increment();
+            if (System.nanoTime() > deadline) {
+                timeouts.increment();
+                throw new IllegalStateException("Timed out waiting for the turn lock of " + channel + " user " + externalUserId);
+            }
+            try {
+                Thread.sleep(backoffMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the turn lock", e);
+            }
+            backoffMillis = Math.min(backoffMillis * 2, 500);
+        }
+        held.put(owner, new Lease(channel, externalUserId));
+        return () -> release(owner);
+    }
+
+    /** Extends every lease this node holds; a lease is only left to expire when its node stops. */
+    void renewHeld() {
+        try {
+            held.forEach((owner, lease) -> {
+                if (jdbc.update(RENEW, leaseSeconds, lease.channel(), lease.externalUserId(), owner) == 0
+                        && held.remove(owner) != null) lost(owner, lease);
+            });
+        } catch (RuntimeException e) {
+            // A failure would cancel the schedule; the next beat retries while the leases are still live.
+            log.warn("Could not renew turn leases", e);
+        }
+    }
+
+    private void release(String owner) {
+        Lease lease = held.remove(owner);
+        if (lease != null && jdbc.update(RELEASE, lease.channel(), lease.externalUserId(), owner) == 0)
+            lost(owner, lease);
+    }
+
+    private void lost(String owner, Lease lease) {
+        lost.increment();
+        log.warn("Turn lease {} of {} user {} expired and was taken by another turn", owner, lease.channel(),
+                lease.externalUserId());
+    }
+
+    private boolean tryAcquire(String channel, String externalUserId, String messageId, String owner) {
+        List<String> acquired = jdbc.queryForList(ACQUIRE, String.class, channel, externalUserId, owner, leaseSeconds,
+                channel, externalUserId, channel, messageId, leaseSeconds);
+        return !acquired.isEmpty();
+    }
+
+    private record Lease(String channel, String externalUserId) { }
+}
@@ -0,0 +1,17 @@
+package com.apps.deen_sa.conversation;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+
+/** Striped in-JVM locks; enough while a single node takes all the traffic. */
+public class LocalUserTurnLock implements UserTurnLock {
+    private final ReentrantLock[] stripes = IntStream.range(0, 64).mapToObj(ignored -> new ReentrantLock(true))
+            .toArray(ReentrantLock[]::new);
+
+    @Override
+    public Held acquire(String channel, String externalUserId, String messageId) {
+        ReentrantLock lock = stripes[Math.floorMod(externalUserId.hashCode(), stripes.length)];
+        lock.lock();
+        return lock::unlock;
+    }
+}
@@ -0,0 +1,34 @@
+package com.apps.deen_sa.conversation;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@code /actuator/turns}: the slowest recent turns with their exclusive per-stage milliseconds;
+ * {@code /actuator/turns/{limit}} lists more or fewer than the default twenty.
+ */
+@Component
+@Endpoint(id = "turns")
+public class SlowTurnsEndpoint {
+    private final TurnTraceRecorder recorder;
+
+    public SlowTurnsEndpoint(TurnTraceRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @ReadOperation
+    public SlowTurns slowest() {
+        return top(20);
+    }
+
+    @ReadOperation
+    public SlowTurns top(@Selector int limit) {
+        return new SlowTurns(recorder.window(), recorder.slowest(Math.max(1, limit)));
+    }
+
+    public record SlowTurns(int recentTurns, List<TurnTrace.TurnRecord> slowest) { }
+}
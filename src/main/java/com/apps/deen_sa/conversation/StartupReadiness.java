@@ -0,0 +1,82 @@
+package com.apps.deen_sa.conversation;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Readiness contributor for the startup warm-up, and the measure of whether it worked: the time from
+ * JVM start until the first real turn that completes within {@code warmup.fast-response}.
+ * Reports UP unless a warm-up has begun and not yet finished; a failed warm-up still ends in UP, since
+ * a cold node is better than one that never takes traffic.
+ */
+@Log4j2
+@Component
+public class StartupReadiness implements HealthIndicator {
+    private enum State { COLD, WARMING, WARM, FAILED }
+
+    private final long fastResponseNanos;
+    private volatile State state = State.COLD;
+    private volatile Duration warmup;
+    private final AtomicLong slowTurns = new AtomicLong();
+    private volatile double firstFastResponseSeconds = Double.NaN;
+
+    public StartupReadiness(@Value("${warmup.fast-response:PT2S}") Duration fastResponse) {
+        this.fastResponseNanos = fastResponse.toNanos();
+        Gauge.builder("deen.startup.first.fast.response", this, readiness -> readiness.firstFastResponseSeconds)
+                .baseUnit("seconds").register(Metrics.globalRegistry);
+        Gauge.builder("deen.startup.slow.turns", slowTurns, AtomicLong::get).register(Metrics.globalRegistry);
+    }
+
+    public void warming() {
+        state = State.WARMING;
+    }
+
+    public void warm(Duration took) {
+        warmup = took;
+        state = State.WARM;
+    }
+
+    public void failed(Duration took) {
+        warmup = took;
+        state = State.FAILED;
+    }
+
+    public boolean warmingUp() {
+        return state == State.WARMING;
+    }
+
+    /** Called for every turn; only the first fast one outside the warm-up is recorded. */
+    public void recordTurn(long elapsedNanos) {
+        if (state == State.WARMING || !Double.isNaN(firstFastResponseSeconds)) return;
+        if (elapsedNanos > fastResponseNanos) {
+            slowTurns.incrementAndGet();
+            return;
+        }
+        synchronized (this) {
+            if (!Double.isNaN(firstFastResponseSeconds)) return;
+            firstFastResponseSeconds = (System.currentTimeMillis()
+                    - ManagementFactory.getRuntimeMXBean().getStartTime()) / 1000.0;
+        }
+        log.info("First fast response {}s after JVM start, {} slow turns before it",
+                firstFastResponseSeconds, slowTurns.get());
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder health = state == State.WARMING ? Health.outOfService() : Health.up();
+        health.withDetail("warmup", state.name());
+        if (warmup != null) health.withDetail("warmupMillis", warmup.toMillis());
+        if (!Double.isNaN(firstFastResponseSeconds))
+            health.withDetail("firstFastResponseSeconds", firstFastResponseSeconds);
+        return health.build();
+    }
+}
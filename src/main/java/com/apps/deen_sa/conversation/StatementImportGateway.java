@@ -0,0 +1,18 @@
+package com.apps.deen_sa.conversation;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Bulk import of a bank or UPI statement a user sent as a file. The finance module implements it;
+ * channels only stream the file in and relay the summary.
+ */
+public interface StatementImportGateway {
+
+    /**
+     * Imports the CSV in {@code content} for the channel user and returns the reply to send them.
+     * {@code sourceAccount} names the account the statement belongs to and may be null.
+     */
+    String importStatement(String channel, String externalUserId, String sourceAccount, InputStream content)
+            throws IOException;
+}
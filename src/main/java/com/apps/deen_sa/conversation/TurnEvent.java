@@ -0,0 +1,21 @@
+package com.apps.deen_sa.conversation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.apps.deen_sa.Turn")
+@Label("Conversation Turn")
+@Category({"Deen", "Conversation"})
+@Description("One inbound message from arrival on the worker thread to the reply being sent")
+@StackTrace(false)
+final class TurnEvent extends Event {
+    @Label("Turn Id") long turnId;
+    @Label("Channel") String channel;
+    @Label("Kind") String kind;
+    @Label("Outcome") String outcome;
+    @Label("Exclusive Stage Milliseconds") String breakdown;
+}
@@ -0,0 +1,16 @@
+package com.apps.deen_sa.conversation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.apps.deen_sa.TurnStage")
+@Label("Conversation Turn Stage")
+@Category({"Deen", "Conversation"})
+@StackTrace(false)
+final class TurnStageEvent extends Event {
+    @Label("Turn Id") long turnId;
+    @Label("Stage") String stage;
+}
@@ -0,0 +1,161 @@
+package com.apps.deen_sa.conversation;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Latency breakdown of one conversation turn. A turn is begun where a message enters the pipeline;
+ * every stage inside it is timed with {@link #stage}. Both are Micrometer observations
+ * ({@code deen.turn}, {@code deen.turn.stage}) and JFR events ({@code com.apps.deen_sa.Turn},
+ * {@code com.apps.deen_sa.TurnStage}). Observations and JFR events cover a stage's full duration. The
+ * turn's own breakdown counts exclusive time, so a chart rendered inside a handler is not counted
+ * twice and the stages add up to the turn.
+ *
+ * <p>State is per thread. A stage started on another thread is still observed, but it is not
+ * attributed to any turn; time the waiting caller instead. Completed turns go to
+ * {@link TurnTraceRecorder}.
+ */
+@Component
+public class TurnTrace {
+    private final ThreadLocal<Turn> current = new ThreadLocal<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final ObservationRegistry observations;
+    private final Consumer<TurnRecord> completed;
+
+    @Autowired
+    public TurnTrace(ObservationRegistry observations, TurnTraceRecorder recorder) {
+        this(observations, recorder::record);
+    }
+
+    public TurnTrace(ObservationRegistry observations, Consumer<TurnRecord> completed) {
+        this.observations = observations;
+        this.completed = completed;
+    }
+
+    /** Starts a turn on this thread; inside an open turn it returns a no-op scope. */
+    public Scope begin(String channel, String kind, String messageId) {
+        if (current.get() != null) return Scope.NOOP;
+        Turn turn = new Turn(ids.incrementAndGet(), channel, kind, messageId);
+        current.set(turn);
+        return turn;
+    }
+
+    public Scope stage(String name) {
+        return new Stage(name, current.get());
+    }
+
+    /** Marks the current turn as failed; its timer and record carry {@code outcome=error}. */
+    public void failed() {
+        Turn turn = current.get();
+        if (turn != null) turn.outcome = "error";
+    }
+
+    public interface Scope extends AutoCloseable {
+        Scope NOOP = () -> { };
+
+        @Override void close();
+    }
+
+    /** A completed turn; stage times are exclusive and {@code other} is the time outside any stage. */
+    public record TurnRecord(long id, String channel, String kind, String messageId, Instant startedAt,
+                             double totalMillis, String outcome, Map<String, Double> stageMillis) { }
+
+    private final class Turn implements Scope {
+        private final long id;
+        private final String channel;
+        private final String kind;
+        private final String messageId;
+        private final Instant startedAt = Instant.now();
+        private final long started = System.nanoTime();
+        private final Map<String, Long> stageNanos = new LinkedHashMap<>();
+        private final Deque<Stage> open = new ArrayDeque<>();
+        private final Observation observation;
+        private final Observation.Scope observationScope;
+        private final TurnEvent event = new TurnEvent();
+        private String outcome = "success";
+
+        Turn(long id, String channel, String kind, String messageId) {
+            this.id = id;
+            this.channel = channel;
+            this.kind = kind;
+            this.messageId = messageId;
+            this.observation = Observation.start("deen.turn", observations)
+                    .lowCardinalityKeyValue("channel", String.valueOf(channel))
+                    .lowCardinalityKeyValue("kind", kind);
+            this.observationScope = observation.openScope();
+            event.begin();
+        }
+
+        @Override
+        public void close() {
+            long total = System.nanoTime() - started;
+            current.remove();
+            Map<String, Double> stages = new LinkedHashMap<>();
+            long staged = 0;
+            for (var stage : stageNanos.entrySet()) {
+                stages.put(stage.getKey(), stage.getValue() / 1e6);
+                staged += stage.getValue();
+            }
+            stages.put("other", Math.max(0, total - staged) / 1e6);
+            observationScope.close();
+            observation.lowCardinalityKeyValue("outcome", outcome).stop();
+            event.end();
+            if (event.shouldCommit()) {
+                event.turnId = id;
+                event.channel = channel;
+                event.kind = kind;
+                event.outcome = outcome;
+                event.breakdown = stages.toString();
+                event.commit();
+            }
+            completed.accept(new TurnRecord(id, channel, kind, messageId, startedAt, total / 1e6, outcome, stages));
+        }
+    }
+
+    private final class Stage implements Scope {
+        private final String name;
+        private final Turn turn;
+        private final long started = System.nanoTime();
+        private final Observation observation;
+        private final Observation.Scope observationScope;
+        private final TurnStageEvent event = new TurnStageEvent();
+        private long childNanos;
+
+        Stage(String name, Turn turn) {
+            this.name = name;
+            this.turn = turn;
+            this.observation = Observation.start("deen.turn.stage", observations).lowCardinalityKeyValue("stage", name);
+            this.observationScope = observation.openScope();
+            if (turn != null) turn.open.push(this);
+            event.begin();
+        }
+
+        @Override
+        public void close() {
+            long elapsed = System.nanoTime() - started;
+            event.end();
+            if (event.shouldCommit()) {
+                event.turnId = turn == null ? 0 : turn.id;
+                event.stage = name;
+                event.commit();
+            }
+            observationScope.close();
+            observation.stop();
+            if (turn == null || turn.open.peek() != this) return;
+            turn.open.pop();
+            turn.stageNanos.merge(name, elapsed - childNanos, Long::sum);
+            Stage parent = turn.open.peek();
+            if (parent != null) parent.childNanos += elapsed;
+        }
+    }
+}
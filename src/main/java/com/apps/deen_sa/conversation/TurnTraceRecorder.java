@@ -0,0 +1,49 @@
+package com.apps.deen_sa.conversation;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Keeps the last {@code turns.trace.recent} turns completed by {@link TurnTrace} for {@link SlowTurnsEndpoint}. Warm-up turns are
+ * observed, but they are left out of the recent list.
+ */
+@Component
+public class TurnTraceRecorder {
+    private final StartupReadiness readiness;
+    private final int capacity;
+    private final ArrayDeque<TurnTrace.TurnRecord> recent;
+
+    public TurnTraceRecorder(StartupReadiness readiness, @Value("${turns.trace.recent:500}") int capacity) {
+        this.readiness = readiness;
+        this.capacity = capacity;
+        this.recent = new ArrayDeque<>(capacity);
+    }
+
+    void record(TurnTrace.TurnRecord turn) {
+        if (readiness.warmingUp()) return;
+        synchronized (recent) {
+            if (recent.size() == capacity) recent.removeFirst();
+            recent.addLast(turn);
+        }
+    }
+
+    public List<TurnTrace.TurnRecord> slowest(int limit) {
+        List<TurnTrace.TurnRecord> turns;
+        synchronized (recent) {
+            turns = new ArrayList<>(recent);
+        }
+        turns.sort(Comparator.comparingDouble(TurnTrace.TurnRecord::totalMillis).reversed());
+        return List.copyOf(turns.subList(0, Math.min(limit, turns.size())));
+    }
+
+    public int window() {
+        synchronized (recent) {
+            return recent.size();
+        }
+    }
+}
@@ -1,8 +1,14 @@
 package com.apps.deen_sa.conversation;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 import java.util.Optional;
 
 public interface UnprocessedConversationMessageRepository extends JpaRepository<UnprocessedConversationMessageEntity, Long> {
     Optional<UnprocessedConversationMessageEntity> findByChannelAndExternalMessageId(String channel, String externalMessageId);
+
+    @Query("select u.messageText from UnprocessedConversationMessageEntity u")
+    List<String> findAllMessageTexts();
 }
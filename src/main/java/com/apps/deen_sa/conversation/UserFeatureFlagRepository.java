@@ -1,11 +1,17 @@
 package com.apps.deen_sa.conversation;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserFeatureFlagRepository extends JpaRepository<UserFeatureFlagEntity, Long> {
     boolean existsByChannelAndExternalUserIdAndEnabledTrue(String channel, String externalUserId);
 
     Optional<UserFeatureFlagEntity> findByChannelAndExternalUserId(String channel, String externalUserId);
+
+    @Query("select f.externalUserId from UserFeatureFlagEntity f where f.channel = :channel and f.enabled = true")
+    List<String> findEnabledExternalUserIds(@Param("channel") String channel);
 }
@@ -5,6 +5,7 @@ import org.springframework.stereotype.Service;
 
 import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -20,6 +21,11 @@ public class UserFeatureFlagService {
                 normalizeChannel(channel), normalizeExternalUserId(channel, externalUserId));
     }
 
+    /** Every subject with access on {@code channel}, normalized as {@link #normalizeExternalUserId} does. */
+    public Set<String> enabledExternalUserIds(String channel) {
+        return Set.copyOf(repository.findEnabledExternalUserIds(normalizeChannel(channel)));
+    }
+
     public boolean isSuperAdmin(String channel, String externalUserId) {
         return find(channel, externalUserId)
                 .filter(UserFeatureFlagEntity::isEnabled)
@@ -0,0 +1,19 @@
+package com.apps.deen_sa.conversation;
+
+/**
+ * Serializes the turns of one user: a turn loads the conversation session, runs the engine and saves
+ * the session while holding the lock, so consecutive messages never see each other's state half-written.
+ * Selected with {@code conversation.ordering} when the context starts (see {@code ConversationConfig}):
+ * {@code local} orders turns within this JVM only, {@code cluster} orders them across every node
+ * sharing the database.
+ */
+public interface UserTurnLock {
+
+    /** Blocks until the caller may run the turn for {@code messageId}; closing the result releases it. */
+    Held acquire(String channel, String externalUserId, String messageId);
+
+    interface Held extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
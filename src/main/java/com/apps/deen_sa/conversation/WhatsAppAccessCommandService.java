@@ -15,9 +15,11 @@ public class WhatsAppAccessCommandService {
             "(?i)^\\s*(?:please\\s+)?(?:remove|disable|revoke|block)\\s+(?:(?:this\\s+)?(?:user|number)\\s+)?([+0-9][0-9\\s()-]{7,20})(?:\\s+as\\s+(?:a\\s+)?user)?\\s*[.!]?\\s*$");
 
     private final UserFeatureFlagService access;
+    private final WhatsAppAdmission admission;
 
-    public WhatsAppAccessCommandService(UserFeatureFlagService access) {
+    public WhatsAppAccessCommandService(UserFeatureFlagService access, WhatsAppAdmission admission) {
         this.access = access;
+        this.admission = admission;
     }
 
     public Optional<String> execute(String sender, String text) {
@@ -26,12 +28,14 @@ public class WhatsAppAccessCommandService {
         if (add.matches()) {
             String number = access.normalizeExternalUserId("WHATSAPP", add.group(1));
             access.grantWhatsAppAccess(number);
+            admission.refreshEntitled();
             return Optional.of("Access enabled for +" + number + ".");
         }
         Matcher remove = REMOVE.matcher(text == null ? "" : text);
         if (remove.matches()) {
             String number = access.normalizeExternalUserId("WHATSAPP", remove.group(1));
             boolean removed = access.revokeWhatsAppAccess(number);
+            if (removed) admission.refreshEntitled();
             return Optional.of(removed ? "Access removed for +" + number + "."
                     : "No user access was found for +" + number + ".");
         }
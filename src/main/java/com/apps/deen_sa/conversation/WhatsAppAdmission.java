@@ -0,0 +1,161 @@
+package com.apps.deen_sa.conversation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.IntSupplier;
+
+/**
+ * Admission control in front of {@link WhatsAppMessageProcessor}, decided on the webhook thread
+ * without touching the database. Senders are checked against an in-memory set of entitled numbers,
+ * refreshed in the background and after each access command, so a number granted access is admitted
+ * within one refresh. Each entitled sender has a token bucket, and a delivery holding a message over
+ * it is refused so that Meta redelivers it; an unknown sender is told at most once per
+ * {@code denial-interval} that access is not enabled, and whole deliveries are shed while the
+ * executor queue is over {@code shed-queue-depth} so that Meta redelivers them later.
+ */
+@Log4j2
+@Component
+public class WhatsAppAdmission {
+    public enum Decision { ADMIT, THROTTLE, DENY, IGNORE, SHED }
+
+    private final UserFeatureFlagService featureFlags;
+    private final IntSupplier queueDepth;
+    private final int shedQueueDepth;
+    private final int senderBurst;
+    private final long refillMillis;
+    private final long denialIntervalMillis;
+    private final Clock clock;
+
+    private volatile Set<String> entitled;
+    private final Map<String, Bucket> buckets;
+    private final Map<String, Long> deniedAt;
+    private final Map<Decision, Counter> decisions = new EnumMap<>(Decision.class);
+
+    @Autowired
+    public WhatsAppAdmission(UserFeatureFlagService featureFlags,
+                             @Qualifier("whatsappExecutor") Executor executor,
+                             @Value("${whatsapp.admission.shed-queue-depth:80}") int shedQueueDepth,
+                             @Value("${whatsapp.admission.sender-burst:10}") int senderBurst,
+                             @Value("${whatsapp.admission.sender-refill:PT3S}") Duration senderRefill,
+                             @Value("${whatsapp.admission.denial-interval:PT1H}") Duration denialInterval,
+                             @Value("${whatsapp.admission.max-senders:10000}") int maxSenders) {
+        this(featureFlags, queueDepth(executor), shedQueueDepth, senderBurst, senderRefill, denialInterval,
+                maxSenders, Clock.systemUTC());
+    }
+
+    WhatsAppAdmission(UserFeatureFlagService featureFlags, IntSupplier queueDepth, int shedQueueDepth,
+                      int senderBurst, Duration senderRefill, Duration denialInterval, int maxSenders, Clock clock) {
+        this.featureFlags = featureFlags;
+        this.queueDepth = queueDepth;
+        this.shedQueueDepth = shedQueueDepth;
+        this.senderBurst = senderBurst;
+        this.refillMillis = Math.max(1, senderRefill.toMillis());
+        this.denialIntervalMillis = denialInterval.toMillis();
+        this.clock = clock;
+        this.buckets = bounded(maxSenders);
+        this.deniedAt = bounded(maxSenders);
+        for (Decision decision : Decision.values())
+            decisions.put(decision, Metrics.counter("deen.whatsapp.admission.decisions",
+                    "decision", decision.name().toLowerCase()));
+        Gauge.builder("deen.whatsapp.executor.queue", queueDepth, IntSupplier::getAsInt)
+                .register(Metrics.globalRegistry);
+        Gauge.builder("deen.whatsapp.admission.entitled", this, admission -> admission.entitled == null
+                ? Double.NaN : admission.entitled.size()).register(Metrics.globalRegistry);
+    }
+
+    /** True when a delivery of {@code messages} messages should be refused as a whole; the caller answers 503. */
+    public boolean shed(int messages) {
+        if (messages == 0 || queueDepth.getAsInt() < shedQueueDepth) return false;
+        decisions.get(Decision.SHED).increment(messages);
+        return true;
+    }
+
+    /**
+     * The decision for one message from {@code from}. {@link Decision#DENY} means the caller should send
+     * the access-denied reply; {@link Decision#IGNORE} is an unknown sender who was already told.
+     */
+    public Decision admit(String from) {
+        Decision decision = decide(featureFlags.normalizeExternalUserId("WHATSAPP", from));
+        decisions.get(decision).increment();
+        return decision;
+    }
+
+    private Decision decide(String number) {
+        Set<String> known = entitled;
+        if (known == null) return Decision.ADMIT;
+        long now = clock.millis();
+        if (!known.contains(number)) {
+            synchronized (deniedAt) {
+                Long last = deniedAt.get(number);
+                if (last != null && now - last < denialIntervalMillis) return Decision.IGNORE;
+                deniedAt.put(number, now);
+                return Decision.DENY;
+            }
+        }
+        synchronized (buckets) {
+            return buckets.computeIfAbsent(number, ignored -> new Bucket(senderBurst, now)).take(now)
+                    ? Decision.ADMIT : Decision.THROTTLE;
+        }
+    }
+
+    /**
+     * Reloads the entitled numbers; until the first load succeeds every sender is admitted. Other nodes
+     * see a grant or revoke at their next scheduled refresh.
+     */
+    @Scheduled(fixedDelayString = "${whatsapp.admission.entitled-refresh:PT30S}")
+    public void refreshEntitled() {
+        try {
+            entitled = featureFlags.enabledExternalUserIds("WHATSAPP");
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh entitled WhatsApp senders; keeping the previous set", e);
+        }
+    }
+
+    private final class Bucket {
+        private double tokens;
+        private long refilledAt;
+
+        Bucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.refilledAt = now;
+        }
+
+        boolean take(long now) {
+            tokens = Math.min(senderBurst, tokens + (now - refilledAt) / (double) refillMillis);
+            refilledAt = now;
+            if (tokens < 1) return false;
+            tokens--;
+            return true;
+        }
+    }
+
+    private static IntSupplier queueDepth(Executor executor) {
+        if (executor instanceof ThreadPoolTaskExecutor pool) return () -> pool.getThreadPoolExecutor().getQueue().size();
+        return () -> 0;
+    }
+
+    private static <V> Map<String, V> bounded(int maxEntries) {
+        return new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+}
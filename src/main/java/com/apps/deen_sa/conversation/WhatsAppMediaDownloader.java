@@ -9,6 +9,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.io.InputStream;
+
 @Service
 public class WhatsAppMediaDownloader {
 
@@ -24,22 +27,39 @@ public class WhatsAppMediaDownloader {
 
     public byte[] download(String mediaId) {
         HttpEntity<Void> request = new HttpEntity<>(authorizationHeaders());
-        String metadataUrl = apiBaseUrl + "/v19.0/" + mediaId;
+        ResponseEntity<byte[]> mediaResponse = restTemplate.exchange(
+                mediaUrl(mediaId, request), HttpMethod.GET, request, byte[].class);
+        byte[] audio = mediaResponse.getBody();
+        if (audio == null || audio.length == 0) {
+            throw new IllegalStateException("Downloaded WhatsApp audio is empty");
+        }
+        return audio;
+    }
 
+    /**
+     * Streams a media file to {@code reader} without holding it in memory; used for documents, which
+     * can be far larger than a voice note.
+     */
+    public <T> T stream(String mediaId, MediaReader<T> reader) {
+        String url = mediaUrl(mediaId, new HttpEntity<>(authorizationHeaders()));
+        return restTemplate.execute(url, HttpMethod.GET,
+                request -> request.getHeaders().setBearerAuth(accessToken),
+                response -> reader.read(response.getBody()));
+    }
+
+    private String mediaUrl(String mediaId, HttpEntity<Void> request) {
         ResponseEntity<MediaMetadata> metadataResponse = restTemplate.exchange(
-                metadataUrl, HttpMethod.GET, request, MediaMetadata.class);
+                apiBaseUrl + "/v19.0/" + mediaId, HttpMethod.GET, request, MediaMetadata.class);
         MediaMetadata metadata = metadataResponse.getBody();
         if (metadata == null || metadata.url() == null || metadata.url().isBlank()) {
             throw new IllegalStateException("WhatsApp did not return a media download URL");
         }
+        return metadata.url();
+    }
 
-        ResponseEntity<byte[]> mediaResponse = restTemplate.exchange(
-                metadata.url(), HttpMethod.GET, request, byte[].class);
-        byte[] audio = mediaResponse.getBody();
-        if (audio == null || audio.length == 0) {
-            throw new IllegalStateException("Downloaded WhatsApp audio is empty");
-        }
-        return audio;
+    @FunctionalInterface
+    public interface MediaReader<T> {
+        T read(InputStream body) throws IOException;
     }
 
     private HttpHeaders authorizationHeaders() {
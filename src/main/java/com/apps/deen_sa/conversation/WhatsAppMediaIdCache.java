@@ -0,0 +1,95 @@
+package com.apps.deen_sa.conversation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Meta media ids of media already uploaded, keyed by a SHA-256 of the content type and bytes, so an
+ * identical chart is sent by id instead of being uploaded again. Ids are kept for less than Meta's
+ * media retention; the map is bounded and expired ids are swept in the background.
+ */
+@Component
+public class WhatsAppMediaIdCache {
+
+    private final int maxEntries;
+    private final Duration ttl;
+    private final Clock clock;
+    private final Map<String, Entry> entries;
+
+    private final Counter hits = Metrics.counter("deen.whatsapp.media.cache.requests", "result", "hit");
+    private final Counter misses = Metrics.counter("deen.whatsapp.media.cache.requests", "result", "miss");
+
+    @Autowired
+    public WhatsAppMediaIdCache(@Value("${whatsapp.media-cache.max-entries:1000}") int maxEntries,
+                                @Value("${whatsapp.media-cache.ttl:P25D}") Duration ttl) {
+        this(maxEntries, ttl, Clock.systemUTC());
+    }
+
+    WhatsAppMediaIdCache(int maxEntries, Duration ttl, Clock clock) {
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > WhatsAppMediaIdCache.this.maxEntries;
+            }
+        };
+    }
+
+    public static String hash(ResponseMedia media) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(media.contentType().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(media.content());
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public synchronized String get(String hash) {
+        Entry entry = entries.get(hash);
+        if (entry != null && entry.expiresAt().isBefore(clock.instant())) {
+            entries.remove(hash);
+            entry = null;
+        }
+        (entry == null ? misses : hits).increment();
+        return entry == null ? null : entry.mediaId();
+    }
+
+    public synchronized void put(String hash, String mediaId) {
+        entries.put(hash, new Entry(mediaId, clock.instant().plus(ttl)));
+    }
+
+    public synchronized void invalidate(String hash) {
+        entries.remove(hash);
+    }
+
+    @Scheduled(fixedDelayString = "${whatsapp.media-cache.sweep-interval:PT1H}")
+    synchronized void sweepExpired() {
+        Instant now = clock.instant();
+        entries.values().removeIf(entry -> entry.expiresAt().isBefore(now));
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private record Entry(String mediaId, Instant expiresAt) {}
+}
@@ -6,15 +6,12 @@ import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import java.util.UUID;
-import java.util.stream.IntStream;
 
 @Service
 @RequiredArgsConstructor
 @Log4j2
 public class WhatsAppMessageProcessor {
 
-    private final Object[] userLocks = IntStream.range(0, 64).mapToObj(ignored -> new Object()).toArray();
-
     private final ConversationChannelGateway conversation;
     private final InboundMessageService inboundMessageService;
     private final WhatsAppReplySender replySender;
@@ -23,19 +20,24 @@ public class WhatsAppMessageProcessor {
     private final AudioConfirmationService confirmationService;
     private final UserFeatureFlagService featureFlags;
     private final WhatsAppAccessCommandService accessCommands;
+    private final UserTurnLock turnLock;
+    private final StatementImportGateway statementImports;
+    private final TurnTrace trace;
 
     private static final String ACCESS_DENIED_MESSAGE =
             "Access is not enabled for this mobile number. Please contact the administrator.";
 
+    /** A text message the webhook already claimed; {@code inboundId} is null when the message has no id. */
     @Async("whatsappExecutor")
-    public void processIncomingMessage(String from, String text, String messageId) {
-
-        Long inboundId = inboundMessageService.claim("WHATSAPP", messageId, from);
-        if (messageId != null && inboundId == null) return;
-
-        if (!hasFeatureAccess(from, inboundId)) return;
+    public void processClaimedMessage(String from, String text, String messageId, Long inboundId) {
+        try (var turn = trace.begin("WHATSAPP", "text", messageId)) {
+            handleText(from, text, messageId, inboundId);
+        }
+    }
 
+    private void handleText(String from, String text, String messageId, Long inboundId) {
         try {
+            if (!hasFeatureAccess(from, inboundId)) return;
             var adminReply = accessCommands.execute(from, text);
             if (adminReply.isPresent()) {
                 replySender.sendTextReply(from, adminReply.get());
@@ -46,6 +48,7 @@ public class WhatsAppMessageProcessor {
             inboundMessageService.complete(inboundId);
 
         } catch (Exception e) {
+            trace.failed();
             inboundMessageService.fail(inboundId);
             log.error("Failed to process WhatsApp text message {} from {}", messageId, from, e);
             // Never let async failure kill future messages
@@ -56,42 +59,64 @@ public class WhatsAppMessageProcessor {
         }
     }
 
+    /** A voice note the webhook already claimed; {@code inboundId} is null when the message has no id. */
     @Async("whatsappExecutor")
-    public void processIncomingAudio(String from, String mediaId, String mimeType, String messageId) {
-        Long inboundId = inboundMessageService.claim("WHATSAPP", messageId, from);
-        if (messageId != null && inboundId == null) return;
-        if (!hasFeatureAccess(from, inboundId)) return;
+    public void processClaimedAudio(String from, String mediaId, String mimeType, String messageId, Long inboundId) {
+        try (var turn = trace.begin("WHATSAPP", "audio", messageId)) {
+            handleAudio(from, mediaId, mimeType, messageId, inboundId);
+        }
+    }
+
+    private void handleAudio(String from, String mediaId, String mimeType, String messageId, Long inboundId) {
         try {
-            byte[] audio = mediaDownloader.download(mediaId);
-            String transcription = audioHandler.transcribe(audio, mimeType);
+            if (!hasFeatureAccess(from, inboundId)) return;
+            byte[] audio;
+            try (var stage = trace.stage("media.download")) {
+                audio = mediaDownloader.download(mediaId);
+            }
+            String transcription;
+            try (var stage = trace.stage("transcription")) {
+                transcription = audioHandler.transcribe(audio, mimeType);
+            }
 
             if (transcription == null || transcription.isBlank()) {
                 replySender.sendTextReply(from, "I could not understand that voice note. Please try again.");
+                inboundMessageService.complete(inboundId);
                 return;
             }
 
             log.info("Transcribed WhatsApp voice note {} from {} as {}", mediaId, from, transcription);
             AudioConfirmationEntity confirmation = confirmationService.create(from, mediaId, transcription);
-            replySender.sendAudioConfirmation(from, transcription, confirmation.getId().toString());
+            try (var stage = trace.stage("reply")) {
+                replySender.sendAudioConfirmation(from, transcription, confirmation.getId().toString());
+            }
             inboundMessageService.complete(inboundId);
         } catch (Exception e) {
+            trace.failed();
             inboundMessageService.fail(inboundId);
             log.error("Failed to process WhatsApp voice note {} from {}", mediaId, from, e);
             replySender.sendTextReply(from, "I could not transcribe that voice note. Please try again.");
         }
     }
 
+    /** A button or list reply the webhook already claimed; {@code inboundId} is null when the message has no id. */
     @Async("whatsappExecutor")
-    public void processInteractiveReply(String from, String buttonId, String messageId) {
-        if (buttonId == null) return;
+    public void processClaimedInteractiveReply(String from, String buttonId, String messageId, Long inboundId) {
+        if (buttonId == null) {
+            inboundMessageService.complete(inboundId);
+            return;
+        }
 
-        Long inboundId = inboundMessageService.claim("WHATSAPP", messageId, from);
-        if (messageId != null && inboundId == null) return;
-        if (!hasFeatureAccess(from, inboundId)) return;
+        try (var turn = trace.begin("WHATSAPP", "interactive", messageId)) {
+            handleInteractive(from, buttonId, messageId, inboundId);
+        }
+    }
 
+    private void handleInteractive(String from, String buttonId, String messageId, Long inboundId) {
         try {
+            if (!hasFeatureAccess(from, inboundId)) return;
             if (buttonId.startsWith("audio_confirm:")) {
-                confirmAudio(from, confirmationId(buttonId, "audio_confirm:"));
+                confirmAudio(from, confirmationId(buttonId, "audio_confirm:"), messageId);
             } else if (buttonId.startsWith("audio_retry:")) {
                 retryAudio(from, confirmationId(buttonId, "audio_retry:"));
             } else if (buttonId.startsWith("answer:")) {
@@ -103,13 +128,73 @@ public class WhatsAppMessageProcessor {
             }
             inboundMessageService.complete(inboundId);
         } catch (IllegalArgumentException e) {
+            trace.failed();
             inboundMessageService.fail(inboundId);
             log.warn("Ignoring invalid WhatsApp audio confirmation button {} from {}", buttonId, from);
             replySender.sendTextReply(from, "That confirmation is invalid or has expired. Please send the voice note again.");
+        } catch (Exception e) {
+            trace.failed();
+            inboundMessageService.fail(inboundId);
+            log.error("Failed to process WhatsApp button {} from {}", buttonId, from, e);
+            replySender.sendTextReply(
+                    from,
+                    "Something went wrong. Please try again. If it keeps happening, take a screenshot and send it to the owner of this app."
+            );
         }
     }
 
-    private void confirmAudio(String from, UUID confirmationId) {
+    /**
+     * A document the webhook already claimed; a CSV is imported as a bank or UPI statement, with the
+     * caption naming the account it belongs to.
+     */
+    @Async("whatsappExecutor")
+    public void processClaimedDocument(String from, String mediaId, String mimeType, String fileName, String caption,
+                                       String messageId, Long inboundId) {
+        try (var turn = trace.begin("WHATSAPP", "document", messageId)) {
+            handleDocument(from, mediaId, mimeType, fileName, caption, messageId, inboundId);
+        }
+    }
+
+    private void handleDocument(String from, String mediaId, String mimeType, String fileName, String caption,
+                                String messageId, Long inboundId) {
+        try {
+            if (!hasFeatureAccess(from, inboundId)) return;
+            if (!isCsv(mimeType, fileName)) {
+                replySender.sendTextReply(from, "Please send your bank or UPI statement as a CSV file.");
+                inboundMessageService.complete(inboundId);
+                return;
+            }
+
+            try (var held = awaitTurn(from, messageId)) {
+                String reply;
+                try (var stage = trace.stage("statement.import")) {
+                    reply = mediaDownloader.stream(mediaId,
+                            body -> statementImports.importStatement("WHATSAPP", from, caption, body));
+                }
+                deliver(from, SpeechResult.info(reply));
+            }
+            inboundMessageService.complete(inboundId);
+        } catch (Exception e) {
+            trace.failed();
+            inboundMessageService.fail(inboundId);
+            log.error("Failed to import WhatsApp statement {} from {}", mediaId, from, e);
+            replySender.sendTextReply(from, "I could not import that statement. Please try again.");
+        }
+    }
+
+    private static boolean isCsv(String mimeType, String fileName) {
+        return mimeType != null && (mimeType.startsWith("text/csv") || mimeType.startsWith("text/comma-separated-values"))
+                || fileName != null && fileName.toLowerCase(java.util.Locale.ROOT).endsWith(".csv");
+    }
+
+    /** The access-denied reply for a sender turned away at the webhook; {@link WhatsAppAdmission} limits how often. */
+    @Async("whatsappExecutor")
+    public void denyAccess(String from) {
+        replySender.sendTextReply(from, ACCESS_DENIED_MESSAGE);
+    }
+
+    /** Runs the confirmed transcription as the turn of {@code messageId}, the button reply that confirmed it. */
+    private void confirmAudio(String from, UUID confirmationId, String messageId) {
         AudioConfirmationEntity confirmation = confirmationService.claim(confirmationId, from)
                 .orElse(null);
         if (confirmation == null) {
@@ -118,7 +203,7 @@ public class WhatsAppMessageProcessor {
         }
 
         try {
-            processText(from, confirmation.getTranscribedText(), confirmationId.toString());
+            processText(from, confirmation.getTranscribedText(), messageId);
             confirmationService.complete(confirmationId);
         } catch (Exception e) {
             confirmationService.release(confirmationId);
@@ -149,8 +234,7 @@ public class WhatsAppMessageProcessor {
     }
 
     private void processText(String from, String text, String messageId) {
-        Object lock = userLocks[Math.floorMod(from.hashCode(), userLocks.length)];
-        synchronized (lock) {
+        try (var held = awaitTurn(from, messageId)) {
             log.info("Received message - {} from {}", text, from);
             SpeechResult result = conversation.process("WHATSAPP", from, messageId, text);
 
@@ -160,14 +244,26 @@ public class WhatsAppMessageProcessor {
     }
 
     private void processTrustedAnswer(String from, String answer, String messageId) {
-        Object lock = userLocks[Math.floorMod(from.hashCode(), userLocks.length)];
-        synchronized (lock) {
+        try (var held = awaitTurn(from, messageId)) {
             SpeechResult result = conversation.processTrustedAnswer("WHATSAPP", from, messageId, answer);
             deliver(from, result);
         }
     }
 
+    /** Waits for the user's turn lock; the wait is timed as {@code lock.wait} even when it fails. */
+    private UserTurnLock.Held awaitTurn(String from, String messageId) {
+        try (var stage = trace.stage("lock.wait")) {
+            return turnLock.acquire("WHATSAPP", from, messageId);
+        }
+    }
+
     private void deliver(String to, SpeechResult result) {
+        try (var stage = trace.stage("reply")) {
+            send(to, result);
+        }
+    }
+
+    private void send(String to, SpeechResult result) {
         if (result.getMedia() != null) {
             if (!replySender.sendImageReply(to, result.getMedia(), result.getMessage()) && result.getMessage() != null)
                 replySender.sendTextReply(to, result.getMessage());
@@ -19,16 +19,19 @@ import java.util.List;
 public class WhatsAppReplySender {
 
     private final RestTemplate restTemplate;
+    private final WhatsAppMediaIdCache mediaIds;
     private final String apiBaseUrl;
     private final String phoneNumberId;
     private final String accessToken;
+    private final TurnTrace trace;
 
-    public WhatsAppReplySender(RestTemplate restTemplate,
+    public WhatsAppReplySender(RestTemplate restTemplate, WhatsAppMediaIdCache mediaIds, TurnTrace trace,
             @Value("${whatsapp.api-base-url:https://graph.facebook.com}") String apiBaseUrl,
             @Value("${whatsapp.phone-number-id:}") String phoneNumberId,
             @Value("${whatsapp.access-token:}") String accessToken) {
-        this.restTemplate = restTemplate; this.apiBaseUrl = apiBaseUrl;
+        this.restTemplate = restTemplate; this.mediaIds = mediaIds; this.apiBaseUrl = apiBaseUrl;
         this.phoneNumberId = phoneNumberId; this.accessToken = accessToken;
+        this.trace = trace;
     }
 
     public void sendTextReply(String to, String message) {
@@ -41,18 +44,35 @@ public class WhatsAppReplySender {
         ));
     }
 
-    /** Uploads media to Meta and sends it by media id. Returns false so callers can fall back to text. */
+    /**
+     * Sends media by Meta media id, uploading it only when identical bytes have not been uploaded
+     * recently. A send that fails with a reused id drops that id and retries once with a fresh upload.
+     * Returns false so callers can fall back to text.
+     */
     public boolean sendImageReply(String to, ResponseMedia media, String caption) {
+        String hash = WhatsAppMediaIdCache.hash(media);
+        String cached = mediaIds.get(hash);
+        if (cached != null) {
+            try {
+                sendImage(to, cached, caption);
+                return true;
+            } catch (Exception e) {
+                mediaIds.invalidate(hash);
+                log.warn("Reused WhatsApp media id {} was rejected, uploading again", cached);
+            }
+        }
         try {
-            String mediaId = upload(media);
-            Map<String, Object> image = new java.util.HashMap<>();
-            image.put("id", mediaId);
-            if (caption != null && !caption.isBlank()) image.put("caption", limit(caption, 1024));
-            sendPayloadOrThrow(to, "expense chart", Map.of(
-                    "messaging_product", "whatsapp",
-                    "to", to,
-                    "type", "image",
-                    "image", image));
+            String mediaId;
+            try (var stage = trace.stage("media.upload")) {
+                mediaId = upload(media);
+            }
+            mediaIds.put(hash, mediaId);
+            try {
+                sendImage(to, mediaId, caption);
+            } catch (Exception e) {
+                mediaIds.invalidate(hash);
+                throw e;
+            }
             return true;
         } catch (Exception e) {
             log.error("Failed to upload or send WhatsApp image to {}", to, e);
@@ -60,6 +80,17 @@ public class WhatsAppReplySender {
         }
     }
 
+    private void sendImage(String to, String mediaId, String caption) {
+        Map<String, Object> image = new java.util.HashMap<>();
+        image.put("id", mediaId);
+        if (caption != null && !caption.isBlank()) image.put("caption", limit(caption, 1024));
+        sendPayloadOrThrow(to, "expense chart", Map.of(
+                "messaging_product", "whatsapp",
+                "to", to,
+                "type", "image",
+                "image", image));
+    }
+
     private String upload(ResponseMedia media) {
         String url = apiBaseUrl + "/v19.0/" + phoneNumberId + "/media";
         HttpHeaders headers = new HttpHeaders();
@@ -8,6 +8,10 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
 @RestController
 @RequestMapping("/webhook/whatsapp")
 @RequiredArgsConstructor
@@ -15,6 +19,9 @@ import org.springframework.web.bind.annotation.*;
 public class WhatsAppWebhookController {
 
     private final WhatsAppMessageProcessor messageProcessor;
+    private final InboundMessageService inboundMessageService;
+    private final WhatsAppAdmission admission;
+    private final TurnTrace trace;
 
     // 🔹 1. Verification endpoint (GET)
     @GetMapping
@@ -38,26 +45,95 @@ public class WhatsAppWebhookController {
 
         log.info("Received message - {}", payload);
 
-        payload.extractUserMessages().forEach(msg -> {
-            messageProcessor.processIncomingMessage(
-                    msg.from(),
-                    msg.text(),
-                    msg.messageId()
-            );
+        var texts = payload.extractUserMessages();
+        var audios = payload.extractAudioMessages();
+        var replies = payload.extractInteractiveMessages().stream().filter(msg -> msg.buttonId() != null).toList();
+        var documents = payload.extractDocumentMessages();
+
+        if (admission.shed(texts.size() + audios.size() + replies.size() + documents.size())) {
+            log.warn("Shedding WhatsApp delivery while the message queue is full");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        // One statement claims the whole delivery; Meta redelivers whole payloads, so most retries claim nothing.
+        Map<String, String> senders = new LinkedHashMap<>();
+        texts.forEach(msg -> senders.put(msg.messageId(), msg.from()));
+        audios.forEach(msg -> senders.put(msg.messageId(), msg.from()));
+        replies.forEach(msg -> senders.put(msg.messageId(), msg.from()));
+        documents.forEach(msg -> senders.put(msg.messageId(), msg.from()));
+        Map<String, Long> claimed;
+        try (var stage = trace.stage("inbound.claim")) {
+            claimed = inboundMessageService.claimAll("WHATSAPP", senders);
+        }
+
+        // Only new messages reach admission, so a redelivery never charges the sender's bucket twice.
+        AtomicInteger throttled = new AtomicInteger();
+        texts.forEach(msg -> {
+            if (admitted(msg.from(), msg.messageId(), claimed, throttled))
+                messageProcessor.processClaimedMessage(msg.from(), msg.text(), msg.messageId(), claimed.get(msg.messageId()));
         });
 
-        payload.extractAudioMessages().forEach(msg ->
-                messageProcessor.processIncomingAudio(
-                        msg.from(),
-                        msg.mediaId(),
-                        msg.mimeType(),
-                        msg.messageId()
-                ));
+        audios.forEach(msg -> {
+            if (admitted(msg.from(), msg.messageId(), claimed, throttled))
+                messageProcessor.processClaimedAudio(msg.from(), msg.mediaId(), msg.mimeType(), msg.messageId(),
+                        claimed.get(msg.messageId()));
+        });
 
-        payload.extractInteractiveMessages().forEach(msg ->
-                messageProcessor.processInteractiveReply(msg.from(), msg.buttonId(), msg.messageId()));
+        replies.forEach(msg -> {
+            if (admitted(msg.from(), msg.messageId(), claimed, throttled))
+                messageProcessor.processClaimedInteractiveReply(msg.from(), msg.buttonId(), msg.messageId(),
+                        claimed.get(msg.messageId()));
+        });
+
+        documents.forEach(msg -> {
+            if (admitted(msg.from(), msg.messageId(), claimed, throttled))
+                messageProcessor.processClaimedDocument(msg.from(), msg.mediaId(), msg.mimeType(), msg.fileName(),
+                        msg.caption(), msg.messageId(), claimed.get(msg.messageId()));
+        });
+
+        // A throttled message's claim is released, so refusing the delivery makes Meta redeliver it; the
+        // messages admitted alongside it stay claimed and are skipped on the redelivery.
+        if (throttled.get() > 0) {
+            log.warn("Refusing WhatsApp delivery with {} message(s) over the per-sender rate", throttled.get());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
 
         // IMMEDIATE response to Meta
         return ResponseEntity.ok().build();
     }
+
+    /**
+     * Admits a newly claimed message. A denied sender's message is completed, since it was answered;
+     * a throttled one is released so its redelivery is claimed and admitted again.
+     */
+    private boolean admitted(String from, String messageId, Map<String, Long> claimed, AtomicInteger throttled) {
+        if (!isNew(messageId, claimed)) return false;
+        Long inboundId = claimed.get(messageId);
+        return switch (admission.admit(from)) {
+            case ADMIT -> true;
+            case DENY -> {
+                log.info("Blocked WhatsApp message from {} because no feature is enabled", from);
+                messageProcessor.denyAccess(from);
+                inboundMessageService.complete(inboundId);
+                yield false;
+            }
+            case THROTTLE -> {
+                log.warn("Deferring WhatsApp message from {} over the per-sender rate", from);
+                inboundMessageService.release(inboundId);
+                throttled.incrementAndGet();
+                yield false;
+            }
+            default -> {
+                inboundMessageService.complete(inboundId);
+                yield false;
+            }
+        };
+    }
+
+    /** Messages without an id cannot be deduplicated and are always processed. */
+    private static boolean isNew(String messageId, Map<String, Long> claimed) {
+        if (messageId == null || messageId.isBlank()) return true;
+        if (claimed.containsKey(messageId)) return true;
+        log.info("Skipping redelivered WhatsApp message {}", messageId);
+        return false;
+    }
 }
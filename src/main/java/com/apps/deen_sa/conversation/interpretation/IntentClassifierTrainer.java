@@ -0,0 +1,132 @@
+package com.apps.deen_sa.conversation.interpretation;
+
+import com.apps.deen_sa.conversation.ConversationDiagnosticTurnRepository;
+import com.apps.deen_sa.conversation.UnprocessedConversationMessageRepository;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Training command: start the app with {@code --intent.classifier.train=true} to build the intent
+ * pre-classifier from reviewed, model-routed diagnostic turns, plus unprocessed messages labelled
+ * NONE. A fifth of the examples is held out to report accuracy and how many confident predictions
+ * were right. The final model is trained on every example and written to
+ * {@code intent.classifier.output}; point {@code intent.classifier.artifact} at it to load it. The
+ * process exits once training ends, with status 0 when a model was written, so it never goes on to
+ * serve traffic; add {@code --spring.main.web-application-type=none} to skip starting the web server.
+ * Without the switch the trainer does nothing.
+ */
+@Log4j2
+@Component
+class IntentClassifierTrainer implements ApplicationRunner {
+    private static final int BUCKETS = 1 << 16;
+    private static final int EPOCHS = 12;
+    private static final double LEARNING_RATE = 0.5;
+    private static final long SEED = 42;
+
+    private final ConversationDiagnosticTurnRepository diagnostics;
+    private final UnprocessedConversationMessageRepository unprocessed;
+    private final Path output;
+    private final double minConfidence;
+    private final boolean enabled;
+    private final ConfigurableApplicationContext application;
+
+    IntentClassifierTrainer(ConversationDiagnosticTurnRepository diagnostics,
+                            UnprocessedConversationMessageRepository unprocessed,
+                            @Value("${intent.classifier.output:intent-classifier.bin}") Path output,
+                            @Value("${intent.classifier.min-confidence:0.9}") double minConfidence,
+                            @Value("${intent.classifier.train:false}") boolean enabled,
+                            ConfigurableApplicationContext application) {
+        this.diagnostics = diagnostics;
+        this.unprocessed = unprocessed;
+        this.output = output;
+        this.minConfidence = minConfidence;
+        this.enabled = enabled;
+        this.application = application;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) return;
+        int status = 1;
+        try {
+            if (train()) status = 0;
+        } catch (Exception e) {
+            log.error("Intent classifier training failed", e);
+        }
+        int exitCode = status;
+        System.exit(SpringApplication.exit(application, () -> exitCode));
+    }
+
+    private boolean train() throws Exception {
+        List<IntentModel.Example> examples = examples();
+        if (examples.size() < 50) {
+            log.warn("Only {} labelled examples; review more diagnostic turns before training", examples.size());
+            return false;
+        }
+        String version = "intent-" + LocalDateTime.now(ZoneOffset.UTC).format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"))
+                + "-" + examples.size();
+        Evaluation evaluation = evaluate(examples, minConfidence);
+        log.info("Held-out accuracy {}%; {}% of messages confident, {}% of those correct",
+                percent(evaluation.accuracy()), percent(evaluation.coverage()), percent(evaluation.confidentAccuracy()));
+        IntentModel model = IntentModel.train(examples, version, BUCKETS, EPOCHS, LEARNING_RATE, SEED);
+        try (OutputStream out = Files.newOutputStream(output)) {
+            model.write(out);
+        }
+        log.info("Wrote intent pre-classifier {} with labels {} to {}", version, model.labels(), output.toAbsolutePath());
+        return true;
+    }
+
+    private List<IntentModel.Example> examples() {
+        List<IntentModel.Example> examples = new ArrayList<>();
+        for (Object[] row : diagnostics.findReviewedRoutedMessages()) {
+            examples.add(new IntentModel.Example((String) row[0], (String) row[1]));
+        }
+        for (String text : unprocessed.findAllMessageTexts()) examples.add(new IntentModel.Example(text, IntentModel.NONE));
+        return examples;
+    }
+
+    static Evaluation evaluate(List<IntentModel.Example> examples, double minConfidence) {
+        List<IntentModel.Example> shuffled = new ArrayList<>(examples);
+        Collections.shuffle(shuffled, new Random(SEED));
+        int split = shuffled.size() * 4 / 5;
+        IntentModel model = IntentModel.train(shuffled.subList(0, split), "holdout", BUCKETS, EPOCHS, LEARNING_RATE, SEED);
+        List<IntentModel.Example> holdout = shuffled.subList(split, shuffled.size());
+        int correct = 0;
+        int confident = 0;
+        int confidentCorrect = 0;
+        for (IntentModel.Example example : holdout) {
+            IntentModel.Prediction prediction = model.predict(example.text());
+            boolean right = prediction.label().equals(example.label());
+            if (right) correct++;
+            if (prediction.confidence() >= minConfidence) {
+                confident++;
+                if (right) confidentCorrect++;
+            }
+        }
+        int total = Math.max(1, holdout.size());
+        return new Evaluation((double) correct / total, (double) confident / total,
+                confident == 0 ? 0 : (double) confidentCorrect / confident);
+    }
+
+    private static long percent(double share) {
+        return Math.round(share * 100);
+    }
+
+    record Evaluation(double accuracy, double coverage, double confidentAccuracy) { }
+}
@@ -0,0 +1,184 @@
+package com.apps.deen_sa.conversation.interpretation;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Softmax classifier over hashed character 3- to 5-grams of a message. It predicts the event type
+ * the router would select, or {@link #NONE}. It is small enough to score on the request thread in
+ * microseconds and is shipped as a gzip artifact that records its own version.
+ */
+final class IntentModel {
+    static final String NONE = "NONE";
+    private static final int FORMAT = 1;
+    private static final int MIN_GRAM = 3;
+    private static final int MAX_GRAM = 5;
+
+    private final String version;
+    private final String[] labels;
+    private final int buckets;
+    private final float[] weights;
+    private final float[] bias;
+
+    private IntentModel(String version, String[] labels, int buckets, float[] weights, float[] bias) {
+        this.version = version;
+        this.labels = labels;
+        this.buckets = buckets;
+        this.weights = weights;
+        this.bias = bias;
+    }
+
+    record Example(String text, String label) { }
+
+    record Prediction(String label, double confidence) { }
+
+    String version() {
+        return version;
+    }
+
+    List<String> labels() {
+        return List.of(labels);
+    }
+
+    Prediction predict(String text) {
+        int[] features = features(text, buckets);
+        double[] probabilities = probabilities(features);
+        int best = 0;
+        for (int label = 1; label < labels.length; label++) if (probabilities[label] > probabilities[best]) best = label;
+        return new Prediction(labels[best], probabilities[best]);
+    }
+
+    /** Stochastic gradient descent on the softmax loss, touching only the weights of present n-grams. */
+    static IntentModel train(List<Example> examples, String version, int buckets, int epochs, double learningRate,
+                             long seed) {
+        if (examples.isEmpty()) throw new IllegalArgumentException("No examples to train on");
+        TreeSet<String> distinct = new TreeSet<>();
+        examples.forEach(example -> distinct.add(example.label()));
+        distinct.add(NONE);
+        String[] labels = distinct.toArray(String[]::new);
+        IntentModel model = new IntentModel(version, labels, buckets, new float[labels.length * buckets],
+                new float[labels.length]);
+        List<int[]> features = new ArrayList<>(examples.size());
+        int[] targets = new int[examples.size()];
+        for (int index = 0; index < examples.size(); index++) {
+            features.add(features(examples.get(index).text(), buckets));
+            targets[index] = Arrays.binarySearch(labels, examples.get(index).label());
+        }
+        List<Integer> order = new ArrayList<>(examples.size());
+        for (int index = 0; index < examples.size(); index++) order.add(index);
+        Random random = new Random(seed);
+        for (int epoch = 0; epoch < epochs; epoch++) {
+            Collections.shuffle(order, random);
+            double rate = learningRate / (1 + epoch * 0.5);
+            for (int index : order) model.step(features.get(index), targets[index], rate);
+        }
+        return model;
+    }
+
+    void write(OutputStream target) throws IOException {
+        GZIPOutputStream zip = new GZIPOutputStream(target);
+        DataOutputStream out = new DataOutputStream(zip);
+        out.writeInt(FORMAT);
+        out.writeUTF(version);
+        out.writeInt(buckets);
+        out.writeInt(labels.length);
+        for (String label : labels) out.writeUTF(label);
+        for (float value : bias) out.writeFloat(value);
+        for (float value : weights) out.writeFloat(value);
+        out.flush();
+        zip.finish();
+    }
+
+    static IntentModel read(InputStream source) throws IOException {
+        DataInputStream in = new DataInputStream(new GZIPInputStream(source));
+        int format = in.readInt();
+        if (format != FORMAT) throw new IOException("Unsupported intent model format " + format);
+        String version = in.readUTF();
+        int buckets = in.readInt();
+        String[] labels = new String[in.readInt()];
+        for (int label = 0; label < labels.length; label++) labels[label] = in.readUTF();
+        float[] bias = new float[labels.length];
+        for (int label = 0; label < bias.length; label++) bias[label] = in.readFloat();
+        float[] weights = new float[labels.length * buckets];
+        for (int index = 0; index < weights.length; index++) weights[index] = in.readFloat();
+        return new IntentModel(version, labels, buckets, weights, bias);
+    }
+
+    private void step(int[] features, int target, double rate) {
+        double[] probabilities = probabilities(features);
+        float scale = (float) (1 / Math.sqrt(Math.max(1, features.length)));
+        for (int label = 0; label < labels.length; label++) {
+            float gradient = (float) (rate * ((label == target ? 1 : 0) - probabilities[label]));
+            bias[label] += gradient;
+            int offset = label * buckets;
+            for (int feature : features) weights[offset + feature] += gradient * scale;
+        }
+    }
+
+    private double[] probabilities(int[] features) {
+        double[] scores = new double[labels.length];
+        float scale = (float) (1 / Math.sqrt(Math.max(1, features.length)));
+        double max = Double.NEGATIVE_INFINITY;
+        for (int label = 0; label < labels.length; label++) {
+            int offset = label * buckets;
+            double score = bias[label];
+            for (int feature : features) score += weights[offset + feature] * scale;
+            scores[label] = score;
+            max = Math.max(max, score);
+        }
+        double sum = 0;
+        for (int label = 0; label < scores.length; label++) {
+            scores[label] = Math.exp(scores[label] - max);
+            sum += scores[label];
+        }
+        for (int label = 0; label < scores.length; label++) scores[label] /= sum;
+        return scores;
+    }
+
+    /** Bucket of every 3- to 5-gram of the lower-cased message, with digits folded and spaces as boundaries. */
+    static int[] features(String text, int buckets) {
+        String normalized = normalize(text);
+        int length = normalized.length();
+        int count = 0;
+        for (int n = MIN_GRAM; n <= MAX_GRAM; n++) count += Math.max(0, length - n + 1);
+        int[] features = new int[count];
+        int next = 0;
+        for (int start = 0; start < length; start++) {
+            int hash = 0x811c9dc5;
+            for (int end = start; end < Math.min(length, start + MAX_GRAM); end++) {
+                hash = (hash ^ normalized.charAt(end)) * 0x01000193;
+                if (end - start + 1 >= MIN_GRAM) features[next++] = Math.floorMod(hash * 31 + (end - start), buckets);
+            }
+        }
+        return features;
+    }
+
+    private static String normalize(String text) {
+        StringBuilder normalized = new StringBuilder(text == null ? 2 : text.length() + 2).append(' ');
+        boolean space = true;
+        if (text != null) {
+            for (int index = 0; index < text.length(); index++) {
+                char c = text.charAt(index);
+                if (Character.isDigit(c)) c = '0';
+                else if (Character.isLetter(c)) c = Character.toLowerCase(c);
+                else if (Character.isWhitespace(c) || c == ',' || c == '.' || c == '?' || c == '!') c = ' ';
+                if (c == ' ' && space) continue;
+                normalized.append(c);
+                space = c == ' ';
+            }
+        }
+        if (!space) normalized.append(' ');
+        return normalized.toString();
+    }
+}
@@ -0,0 +1,93 @@
+package com.apps.deen_sa.conversation.interpretation;
+
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+
+/**
+ * Local intent model consulted before the routing call. In {@code shadow} mode it only predicts, and
+ * {@code deen.intent.preclassifier.shadow} counts how often it agrees with the router, split by
+ * label and by whether it was confident. In {@code enforce} mode a confident event-type prediction
+ * replaces the routing call. Only switch to enforce after the shadow counters show the confident
+ * predictions agree. Without an artifact the classifier is off.
+ */
+@Log4j2
+@Component
+public class IntentPreClassifier {
+    public enum Mode { OFF, SHADOW, ENFORCE }
+
+    private final IntentModel model;
+    private final Mode mode;
+    private final double minConfidence;
+
+    @Autowired
+    public IntentPreClassifier(@Value("${intent.classifier.artifact:}") String artifact,
+                               @Value("${intent.classifier.mode:shadow}") String mode,
+                               @Value("${intent.classifier.min-confidence:0.9}") double minConfidence) {
+        this(load(artifact), Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT)), minConfidence);
+    }
+
+    IntentPreClassifier(IntentModel model, Mode mode, double minConfidence) {
+        this.model = model;
+        this.mode = model == null ? Mode.OFF : mode;
+        this.minConfidence = minConfidence;
+    }
+
+    /** The prediction for a message, or null when the classifier is off. */
+    IntentModel.Prediction predict(String message) {
+        return mode == Mode.OFF ? null : model.predict(message);
+    }
+
+    /** The event type to extract without routing, or null when the router must decide. */
+    String decide(IntentModel.Prediction prediction) {
+        if (mode != Mode.ENFORCE || !confident(prediction) || IntentModel.NONE.equals(prediction.label())) return null;
+        Metrics.counter("deen.intent.preclassifier.decisions", "label", prediction.label(), "version", model.version())
+                .increment();
+        return prediction.label();
+    }
+
+    /** Compares a shadow prediction with the label the router chose. */
+    void compare(IntentModel.Prediction prediction, String routedLabel) {
+        if (prediction == null) return;
+        Metrics.counter("deen.intent.preclassifier.shadow", "label", prediction.label(),
+                "outcome", prediction.label().equals(routedLabel) ? "agree" : "disagree",
+                "confident", String.valueOf(confident(prediction)), "version", model.version()).increment();
+    }
+
+    /** Only a fresh message is pre-classified; pending events and open questions need the router's context. */
+    static boolean applies(InterpretationContext context) {
+        return (context.pendingEvents() == null || context.pendingEvents().isEmpty()) && context.lastQuestion() == null;
+    }
+
+    /** The label the classifier is trained on for a routed turn: its event type, or NONE. */
+    static String label(TurnType turnType, String eventType) {
+        boolean event = turnType == TurnType.NEW_EVENT || turnType == TurnType.NEW_EVENTS;
+        return event && eventType != null && !eventType.isBlank() ? eventType.toUpperCase(Locale.ROOT) : IntentModel.NONE;
+    }
+
+    private boolean confident(IntentModel.Prediction prediction) {
+        return prediction != null && prediction.confidence() >= minConfidence;
+    }
+
+    private static IntentModel load(String artifact) {
+        if (artifact == null || artifact.isBlank()) return null;
+        Resource resource = new DefaultResourceLoader().getResource(artifact);
+        try (InputStream in = resource.getInputStream()) {
+            IntentModel model = IntentModel.read(in);
+            log.info("Loaded intent pre-classifier {} with labels {}", model.version(), model.labels());
+            return model;
+        } catch (IOException failure) {
+            log.warn("Intent pre-classifier artifact {} could not be loaded; routing every turn with the model",
+                    artifact, failure);
+            return null;
+        }
+    }
+}
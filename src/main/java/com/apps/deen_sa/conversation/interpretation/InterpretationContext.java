@@ -1,5 +1,7 @@
 package com.apps.deen_sa.conversation.interpretation;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.util.List;
 import java.util.Map;
 
@@ -10,5 +12,27 @@ public record InterpretationContext(
         String lastQuestion,
         List<PendingEvent> pendingEvents,
         List<ConversationTurn> recentTurns,
-        Map<String, Object> extensionContext
-) { }
+        @JsonIgnore ExtensionContext extensionContext,
+        @JsonIgnore RouteListener routeListener
+) {
+    public InterpretationContext {
+        if (extensionContext == null) extensionContext = ExtensionContext.NONE;
+        if (routeListener == null) routeListener = RouteListener.NONE;
+    }
+
+    /** Extension reference data, fetched only for the event type the model is asked to extract. */
+    @FunctionalInterface
+    public interface ExtensionContext {
+        ExtensionContext NONE = (eventType, tokenBudget) -> Map.of();
+
+        Map<String, Object> forEvent(String eventType, int tokenBudget);
+    }
+
+    /** Told when the model router chose the turn's route, as opposed to a local pre-classifier. */
+    @FunctionalInterface
+    public interface RouteListener {
+        RouteListener NONE = () -> { };
+
+        void modelRouted();
+    }
+}
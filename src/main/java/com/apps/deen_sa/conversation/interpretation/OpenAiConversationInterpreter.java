@@ -50,44 +50,60 @@ public class OpenAiConversationInterpreter implements ConversationInterpreter {
     private final String model;
     private final String escalationModel;
     private final double escalationConfidence;
+    private final int contextTokenBudget;
+    private final IntentPreClassifier preClassifier;
+    private final AiCallTelemetry telemetry;
 
     public OpenAiConversationInterpreter(OpenAIClient client, ObjectMapper mapper, ExtensionCatalog extensions,
+            IntentPreClassifier preClassifier, AiCallTelemetry telemetry,
             @Value("${openai.model:gpt-4.1-mini}") String model,
             @Value("${openai.escalation-model:gpt-4.1-mini}") String escalationModel,
-            @Value("${openai.escalation-confidence:0.55}") double escalationConfidence) {
+            @Value("${openai.escalation-confidence:0.55}") double escalationConfidence,
+            @Value("${openai.context-token-budget:160}") int contextTokenBudget) {
         this.client = client;
         this.mapper = mapper;
         this.extensions = extensions;
+        this.preClassifier = preClassifier;
+        this.telemetry = telemetry;
         this.model = model;
         this.escalationModel = escalationModel;
         this.escalationConfidence = escalationConfidence;
+        this.contextTokenBudget = contextTokenBudget;
     }
 
     @Override public TurnInterpretation interpret(String userMessage, InterpretationContext context) {
         try {
             Long tenantId = context.userId() == null ? 1L : context.userId();
             Collection<EventCapability> capabilities = extensions.enabledEvents(tenantId);
-            String input = mapper.writeValueAsString(Map.of("userMessage", userMessage, "context", context));
             String instructions = CORE_PROMPT + extensions.interpretationInstructions(tenantId) + pendingInstruction(context);
             EventCapability pendingCapability = pendingCapability(context, capabilities);
             if (pendingCapability != null) {
                 String extractionInstructions = instructions + "\nSELECTED CAPABILITY: " + pendingCapability.eventType()
                         + "\n" + pendingCapability.extractionInstructions();
-                return callModel(input, extractionInstructions, model, "conversation_pending_extraction",
-                        List.of(pendingCapability));
+                return callModel(extractionInput(userMessage, context, pendingCapability), extractionInstructions,
+                        model, "conversation_pending_extraction", List.of(pendingCapability));
+            }
+            IntentModel.Prediction prediction = IntentPreClassifier.applies(context) ? preClassifier.predict(userMessage) : null;
+            EventCapability selected = enabled(capabilities, preClassifier.decide(prediction));
+            if (selected != null) {
+                telemetry.avoided("intent_preclassifier");
+            } else {
+                String input = mapper.writeValueAsString(Map.of("userMessage", userMessage, "context", context));
+                RouteWire route = callRouter(input, instructions, model, capabilities);
+                context.routeListener().modelRouted();
+                preClassifier.compare(prediction, routedLabel(route));
+                if (route.selectedEventType() == null || route.selectedEventType().isBlank()) return routeOnly(route);
+                selected = enabled(capabilities, route.selectedEventType());
+                if (selected == null) return ambiguous(route, "Selected capability is not enabled for this tenant");
             }
-            RouteWire route = callRouter(input, instructions, model, capabilities);
-            if (route.selectedEventType() == null || route.selectedEventType().isBlank()) return routeOnly(route);
-            EventCapability selected = capabilities.stream()
-                    .filter(value -> value.eventType().equalsIgnoreCase(route.selectedEventType())).findFirst().orElse(null);
-            if (selected == null) return ambiguous(route, "Selected capability is not enabled for this tenant");
             String extractionInstructions = instructions + "\nSELECTED CAPABILITY: " + selected.eventType()
                     + "\n" + selected.extractionInstructions();
-            TurnInterpretation primary = callModel(input, extractionInstructions, model,
+            String extractionInput = extractionInput(userMessage, context, selected);
+            TurnInterpretation primary = callModel(extractionInput, extractionInstructions, model,
                     "conversation_extraction", List.of(selected));
             if ((primary.confidence() == null ? 0 : primary.confidence()) < escalationConfidence
                     && escalationModel != null && !escalationModel.isBlank() && !escalationModel.equals(model)) {
-                return callModel(input, extractionInstructions, escalationModel,
+                return callModel(extractionInput, extractionInstructions, escalationModel,
                         "conversation_extraction_escalation", List.of(selected));
             }
             return primary;
@@ -96,6 +112,27 @@ public class OpenAiConversationInterpreter implements ConversationInterpreter {
         }
     }
 
+    private static EventCapability enabled(Collection<EventCapability> capabilities, String eventType) {
+        if (eventType == null) return null;
+        return capabilities.stream().filter(value -> value.eventType().equalsIgnoreCase(eventType)).findFirst().orElse(null);
+    }
+
+    private static String routedLabel(RouteWire route) {
+        TurnType type;
+        try { type = TurnType.valueOf(route.turnType()); }
+        catch (RuntimeException invalid) { type = TurnType.AMBIGUOUS; }
+        return IntentPreClassifier.label(type, route.selectedEventType());
+    }
+
+    /** The routing input plus the extension context for the one capability being extracted. */
+    private String extractionInput(String userMessage, InterpretationContext context, EventCapability capability)
+            throws Exception {
+        Map<String, Object> extensionContext = context.extensionContext().forEvent(capability.eventType(), contextTokenBudget);
+        if (extensionContext.isEmpty()) return mapper.writeValueAsString(Map.of("userMessage", userMessage, "context", context));
+        return mapper.writeValueAsString(Map.of("userMessage", userMessage, "context", context,
+                "extensionContext", extensionContext));
+    }
+
     private RouteWire callRouter(String input, String instructions, String model,
                                  Collection<EventCapability> capabilities) {
         long started = System.nanoTime();
@@ -107,16 +144,16 @@ public class OpenAiConversationInterpreter implements ConversationInterpreter {
             Response response = client.responses().create(ResponseCreateParams.builder().model(model)
                     .instructions(instructions + "\nSelect at most one enabled capability. Do not extract event facts yet.")
                     .input(input).text(ResponseTextConfig.builder().format(format).build()).build());
-            response.usage().ifPresentOrElse(usage -> AiCallTelemetry.success("conversation_routing", model,
+            response.usage().ifPresentOrElse(usage -> telemetry.success("conversation_routing", model,
                             usage.inputTokens(), usage.inputTokensDetails().cachedTokens(), usage.outputTokens(), started),
-                    () -> AiCallTelemetry.success("conversation_routing", model, 0, 0, 0, started));
+                    () -> telemetry.success("conversation_routing", model, 0, 0, 0, started));
             String json = response.output().stream().flatMap(item -> item.message().stream())
                     .flatMap(message -> message.content().stream()).flatMap(content -> content.outputText().stream())
                     .map(ResponseOutputText::text).findFirst()
                     .orElseThrow(() -> new IllegalStateException("Router returned no output"));
             return mapper.readValue(json, RouteWire.class);
         } catch (Exception exception) {
-            AiCallTelemetry.failure("conversation_routing", model, started);
+            telemetry.failure("conversation_routing", model, started);
             if (exception instanceof RuntimeException runtime) throw runtime;
             throw new IllegalStateException("Routing model call failed", exception);
         }
@@ -163,16 +200,16 @@ public class OpenAiConversationInterpreter implements ConversationInterpreter {
             ResponseCreateParams params = ResponseCreateParams.builder().model(model).instructions(instructions).input(input)
                     .text(ResponseTextConfig.builder().format(format).build()).build();
             Response response = client.responses().create(params);
-            response.usage().ifPresentOrElse(usage -> AiCallTelemetry.success(purpose, model, usage.inputTokens(),
+            response.usage().ifPresentOrElse(usage -> telemetry.success(purpose, model, usage.inputTokens(),
                             usage.inputTokensDetails().cachedTokens(), usage.outputTokens(), started),
-                    () -> AiCallTelemetry.success(purpose, model, 0, 0, 0, started));
+                    () -> telemetry.success(purpose, model, 0, 0, 0, started));
             String json = response.output().stream().flatMap(item -> item.message().stream())
                     .flatMap(message -> message.content().stream()).flatMap(content -> content.outputText().stream())
                     .map(ResponseOutputText::text)
                     .findFirst().orElseThrow(() -> new IllegalStateException("Interpreter returned no output"));
             return fromWire(mapper.readValue(json, TurnWire.class));
         } catch (Exception exception) {
-            AiCallTelemetry.failure(purpose, model, started);
+            telemetry.failure(purpose, model, started);
             if (exception instanceof RuntimeException runtime) throw runtime;
             throw new IllegalStateException("Model call failed", exception);
         }
@@ -5,20 +5,25 @@ import com.apps.deen_sa.conversation.ResponseAction;
 import com.apps.deen_sa.conversation.SpeechHandler;
 import com.apps.deen_sa.conversation.SpeechResult;
 import com.apps.deen_sa.conversation.SpeechStatus;
+import com.apps.deen_sa.conversation.TurnTrace;
 import com.apps.deen_sa.conversation.ConversationMessages;
 import com.apps.deen_sa.conversation.UnprocessedConversationService;
 import com.apps.deen_sa.extension.api.EventCapability;
+import com.apps.deen_sa.extension.api.ContextRequest;
 import com.apps.deen_sa.extension.runtime.ExtensionCatalog;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import java.util.Locale;
 import java.util.Set;
+import java.util.function.Supplier;
 
 @Service
 public class UnifiedConversationEngine {
@@ -31,37 +36,45 @@ public class UnifiedConversationEngine {
     private final MutationAuthorizationPolicy mutationPolicy;
     private final ConversationMessages messages;
     private final UnprocessedConversationService unprocessed;
+    private final TurnTrace trace;
 
     public UnifiedConversationEngine(ConversationInterpreter interpreter, ExtensionCatalog extensions,
                                      MutationAuthorizationPolicy mutationPolicy, ConversationMessages messages,
-                                     UnprocessedConversationService unprocessed) {
+                                     UnprocessedConversationService unprocessed, TurnTrace trace) {
         this.interpreter = interpreter;
         this.extensions = extensions;
         this.mutationPolicy = mutationPolicy;
         this.messages = messages;
         this.unprocessed = unprocessed;
+        this.trace = trace;
+    }
+
+    /** This engine with every collaborator shared but {@code other} interpreting, as the startup warm-up runs it. */
+    public UnifiedConversationEngine withInterpreter(ConversationInterpreter other) {
+        return new UnifiedConversationEngine(other, extensions, mutationPolicy, messages, unprocessed, trace);
     }
 
     public SpeechResult process(String text, ConversationContext context) {
-        SpeechResult deterministic = deterministicTurn(text, context);
+        SpeechResult deterministic = staged("route", () -> deterministicTurn(text, context));
         if (deterministic != null) return finishDeterministicTurn(text, deterministic, context);
 
-        String deterministicQuery = extensions.queryDeterministically(tenantId(context), text).orElse(null);
+        String deterministicQuery = staged("route", () -> extensions.queryDeterministically(tenantId(context), text))
+                .orElse(null);
         if (deterministicQuery != null) {
             QueryPeriod query;
             try { query = QueryPeriod.valueOf(deterministicQuery); }
             catch (IllegalArgumentException invalid) { query = QueryPeriod.NONE; }
             if (query != QueryPeriod.NONE) {
                 String queryName = query.name();
-                SpeechResult result = extensions.query(tenantId(context), "QUERY")
+                SpeechResult result = staged("handler", () -> extensions.query(tenantId(context), "QUERY")
                         .map(capability -> toSpeechResult(capability.handle(queryName, text, context)))
-                        .orElseGet(() -> SpeechResult.unknown("That query capability is not enabled for this business."));
+                        .orElseGet(() -> SpeechResult.unknown("That query capability is not enabled for this business.")));
                 return finishDeterministicTurn(text, result, context);
             }
         }
 
         List<com.apps.deen_sa.extension.api.DeterministicEventCandidate> extracted =
-                extensions.extractDeterministically(tenantId(context), text);
+                staged("route", () -> extensions.extractDeterministically(tenantId(context), text));
         if (!extracted.isEmpty()) {
             List<EventPatch> events = extracted.stream().map(candidate -> new EventPatch(null, candidate.eventType(),
                     candidate.fields(), List.of(), List.of(), candidate.fields().entrySet().stream()
@@ -76,18 +89,29 @@ public class UnifiedConversationEngine {
             return finishDeterministicTurn(text, execute(turn, text, context), context);
         }
 
-        EventCapability routed = extensions.routeDeterministically(tenantId(context), text).orElse(null);
+        EventCapability routed = staged("route", () -> extensions.routeDeterministically(tenantId(context), text))
+                .orElse(null);
         if (routed != null) {
             EventPatch patch = new EventPatch(null, routed.eventType(), Map.of("rawText", text),
                     List.of(), List.of(), List.of(new FieldEvidence("rawText", text, text, 1.0)));
-            SpeechResult result = toSpeechResult(routed.handle(patch, text, context, false));
+            SpeechResult result = staged("handler", () -> toSpeechResult(routed.handle(patch, text, context, false)));
             return finishDeterministicTurn(text, result, context);
         }
 
+        Long tenantId = tenantId(context);
+        AtomicBoolean modelRouted = new AtomicBoolean();
         InterpretationContext input = new InterpretationContext(
                 context.getUserId(), context.getTimezone(), context.getCurrency(), context.getLastQuestion(),
-                context.getPendingEvents(), context.getRecentTurns(), extensions.context(tenantId(context), context.getUserId()));
-        TurnInterpretation turn = scopePendingTurn(interpreter.interpret(text, input), context);
+                context.getPendingEvents(), context.getRecentTurns(), (eventType, tokenBudget) -> {
+                    try (var stage = trace.stage("extension.context")) {
+                        return extensions.context(new ContextRequest(tenantId, context.getUserId(), eventType, text, tokenBudget));
+                    }
+                }, () -> modelRouted.set(true));
+        TurnInterpretation turn = scopePendingTurn(staged("model", () -> interpreter.interpret(text, input)), context);
+        // Only the model router's decisions become training data; the pre-classifier's own would feed back into it.
+        if (modelRouted.get() && IntentPreClassifier.applies(input)) {
+            recordRoutedIntent(context, IntentPreClassifier.label(turn.turnType(), turn.intent()));
+        }
         String pendingFieldType = context.isInFollowup()
                 ? extensions.event(tenantId(context), context.getActiveIntent())
                         .map(capability -> capability.fieldTypes().get(context.getWaitingForField())).orElse(null)
@@ -134,6 +158,16 @@ public class UnifiedConversationEngine {
     }
 
     private SpeechResult execute(TurnInterpretation turn, String text, ConversationContext context) {
+        return staged("handler", () -> executeTurn(turn, text, context));
+    }
+
+    private <T> T staged(String stage, Supplier<T> work) {
+        try (var scope = trace.stage(stage)) {
+            return work.get();
+        }
+    }
+
+    private SpeechResult executeTurn(TurnInterpretation turn, String text, ConversationContext context) {
         if (turn.turnType() == TurnType.COMMAND) return command(turn.command(), text, context);
         if (context.isInFollowup() && (turn.turnType() == TurnType.AMBIGUOUS
                 || turn.events().isEmpty() && turn.turnType() != TurnType.QUERY && turn.turnType() != TurnType.COMMAND)) {
@@ -333,6 +367,14 @@ public class UnifiedConversationEngine {
         else if (turn.language().equalsIgnoreCase("en-IN")) context.setLocale("en-IN");
     }
 
+    /** Kept in the turn's diagnostics as a training label for {@link IntentPreClassifier}. */
+    private static void recordRoutedIntent(ConversationContext context, String label) {
+        Map<String, Object> metadata = context.getMetadata() == null ? new HashMap<>()
+                : new HashMap<>(context.getMetadata());
+        metadata.put("routedIntent", label);
+        context.setMetadata(metadata);
+    }
+
     private Long tenantId(ConversationContext context) {
         Object configured = context.getMetadata() == null ? null : context.getMetadata().get("tenantId");
         if (configured instanceof Number number) return number.longValue();
@@ -51,12 +51,28 @@ public record WhatsAppWebhookPayload(List<Entry> entry) {
                 .toList();
     }
 
+    public List<DocumentMessage> extractDocumentMessages() {
+        if (entry == null) return List.of();
+
+        return entry.stream()
+                .flatMap(e -> e.changes().stream())
+                .flatMap(c -> c.value().messages() != null
+                        ? c.value().messages().stream()
+                        : Stream.empty())
+                .filter(m -> "document".equals(m.type()) && m.document() != null)
+                .map(m -> new DocumentMessage(m.from(), m.document().id(), m.document().mimeType(),
+                        m.document().filename(), m.document().caption(), m.id()))
+                .toList();
+    }
+
     public record Entry(List<Change> changes) {}
     public record Change(Value value) {}
     public record Value(List<Message> messages) {}
-    public record Message(String id, String from, String type, Text text, Audio audio, Interactive interactive) {}
+    public record Message(String id, String from, String type, Text text, Audio audio, Interactive interactive,
+                          Document document) {}
     public record Text(String body) {}
     public record Audio(String id, @JsonProperty("mime_type") String mimeType) {}
+    public record Document(String id, @JsonProperty("mime_type") String mimeType, String filename, String caption) {}
     public record Interactive(
             String type,
             @JsonProperty("button_reply") ButtonReply buttonReply,
@@ -68,4 +84,6 @@ public record WhatsAppWebhookPayload(List<Entry> entry) {
     public record ListReply(String id, String title, String description) {}
     public record AudioMessage(String from, String mediaId, String mimeType, String messageId) {}
     public record InteractiveMessage(String from, String buttonId, String messageId) {}
+    public record DocumentMessage(String from, String mediaId, String mimeType, String fileName, String caption,
+                                  String messageId) {}
 }
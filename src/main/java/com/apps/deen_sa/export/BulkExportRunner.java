@@ -0,0 +1,127 @@
+package com.apps.deen_sa.export;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Backup command: start the app with {@code --export.bulk=true} to export every user. Users are split
+ * into {@code export.bulk.partitions} partitions by id, exported in parallel, and each partition
+ * writes one file per dataset, {@code <dataset>-part-<n>.<format>}, under a timestamped directory in
+ * {@code export.bulk.directory}. Every row is streamed, as for a single user's export, and each user's
+ * datasets come from one snapshot. The process exits once the export ends, with status 0 when every
+ * partition was written; add {@code --spring.main.web-application-type=none} to skip starting the web
+ * server. Without the switch the runner does nothing, and the format and datasets are not checked.
+ */
+@Log4j2
+@Component
+class BulkExportRunner implements ApplicationRunner {
+    private final UserDataExporter exporter;
+    private final JdbcTemplate jdbc;
+    private final Path directory;
+    private final int partitions;
+    private final String format;
+    private final String datasets;
+    private final boolean enabled;
+    private final ConfigurableApplicationContext application;
+
+    BulkExportRunner(UserDataExporter exporter, JdbcTemplate jdbc,
+                     @Value("${export.bulk.directory:exports}") Path directory,
+                     @Value("${export.bulk.partitions:0}") int partitions,
+                     @Value("${export.bulk.format:ndjson}") String format,
+                     @Value("${export.bulk.datasets:}") String datasets,
+                     @Value("${export.bulk:false}") boolean enabled,
+                     ConfigurableApplicationContext application) {
+        this.exporter = exporter;
+        this.jdbc = jdbc;
+        this.directory = directory;
+        this.partitions = partitions > 0 ? partitions : Runtime.getRuntime().availableProcessors();
+        this.format = format;
+        this.datasets = datasets;
+        this.enabled = enabled;
+        this.application = application;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) return;
+        int status = 1;
+        try {
+            exportAll();
+            status = 0;
+        } catch (Exception e) {
+            log.error("Bulk export failed", e);
+        }
+        int exitCode = status;
+        System.exit(SpringApplication.exit(application, () -> exitCode));
+    }
+
+    private void exportAll() throws Exception {
+        long started = System.nanoTime();
+        Path target = directory.resolve(LocalDateTime.now(ZoneOffset.UTC)
+                .format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss")));
+        Files.createDirectories(target);
+        List<Partition> exported = export(target, ExportFormat.of(format), ExportDataset.parse(datasets));
+        long users = exported.stream().mapToLong(Partition::users).sum();
+        long rows = exported.stream().mapToLong(Partition::rows).sum();
+        log.info("Exported {} rows for {} users in {} partitions to {} in {} ms", rows, users, partitions,
+                target.toAbsolutePath(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    List<Partition> export(Path target, ExportFormat format, List<ExportDataset> datasets) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(partitions);
+        try {
+            List<Future<Partition>> results = new ArrayList<>(partitions);
+            for (int partition = 0; partition < partitions; partition++) {
+                int index = partition;
+                results.add(pool.submit(() -> exportPartition(target, index, format, datasets)));
+            }
+            List<Partition> exported = new ArrayList<>(partitions);
+            for (Future<Partition> result : results) exported.add(result.get());
+            return exported;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Partition exportPartition(Path target, int partition, ExportFormat format, List<ExportDataset> datasets)
+            throws IOException {
+        List<Long> users = jdbc.queryForList("SELECT id FROM app_user WHERE mod(id, ?) = ? ORDER BY id",
+                Long.class, partitions, partition);
+        long rows = 0;
+        Map<ExportDataset, ExportWriter> writers = new EnumMap<>(ExportDataset.class);
+        try {
+            for (ExportDataset dataset : datasets) {
+                Path file = target.resolve("%s-part-%03d.%s".formatted(dataset.id(), partition, format.extension()));
+                writers.put(dataset, format.open(new BufferedOutputStream(Files.newOutputStream(file))));
+            }
+            for (Long user : users) rows += exporter.write(user, datasets, writers::get);
+        } finally {
+            for (ExportWriter writer : writers.values()) writer.close();
+        }
+        log.info("Export partition {} done: {} users, {} rows", partition, users.size(), rows);
+        return new Partition(partition, users.size(), rows);
+    }
+
+    record Partition(int partition, long users, long rows) {}
+}
@@ -0,0 +1,58 @@
+package com.apps.deen_sa.export;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/** One exported column and how its values are read, so writers never see driver-specific types. */
+record ExportColumn(String name, Kind kind) {
+
+    enum Kind { TEXT, NUMBER, BOOLEAN, JSON, DATE, TIMESTAMP, TIMESTAMPTZ }
+
+    static List<ExportColumn> of(ResultSetMetaData metaData) throws SQLException {
+        List<ExportColumn> columns = new ArrayList<>(metaData.getColumnCount());
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            columns.add(new ExportColumn(metaData.getColumnLabel(i),
+                    kind(metaData.getColumnType(i), metaData.getColumnTypeName(i))));
+        }
+        return columns;
+    }
+
+    /**
+     * The value at {@code index}: a {@link java.math.BigDecimal}, {@link Boolean} or {@code java.time}
+     * value for typed columns, the JSON text for json and jsonb, and a string otherwise.
+     */
+    Object read(ResultSet rs, int index) throws SQLException {
+        return switch (kind) {
+            case NUMBER -> rs.getBigDecimal(index);
+            case BOOLEAN -> {
+                boolean value = rs.getBoolean(index);
+                yield rs.wasNull() ? null : value;
+            }
+            case DATE -> rs.getObject(index, LocalDate.class);
+            case TIMESTAMP -> rs.getObject(index, LocalDateTime.class);
+            case TIMESTAMPTZ -> rs.getObject(index, OffsetDateTime.class);
+            case TEXT, JSON -> rs.getString(index);
+        };
+    }
+
+    private static Kind kind(int type, String typeName) {
+        return switch (type) {
+            case Types.BIGINT, Types.INTEGER, Types.SMALLINT, Types.TINYINT, Types.NUMERIC, Types.DECIMAL,
+                 Types.DOUBLE, Types.FLOAT, Types.REAL -> Kind.NUMBER;
+            case Types.BIT, Types.BOOLEAN -> Kind.BOOLEAN;
+            case Types.DATE -> Kind.DATE;
+            // The driver reports timestamptz as TIMESTAMP too; only the type name tells them apart.
+            case Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE ->
+                    "timestamptz".equalsIgnoreCase(typeName) || type == Types.TIMESTAMP_WITH_TIMEZONE
+                            ? Kind.TIMESTAMPTZ : Kind.TIMESTAMP;
+            default -> "json".equalsIgnoreCase(typeName) || "jsonb".equalsIgnoreCase(typeName) ? Kind.JSON : Kind.TEXT;
+        };
+    }
+}
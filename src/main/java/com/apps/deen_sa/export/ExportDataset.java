@@ -0,0 +1,71 @@
+package com.apps.deen_sa.export;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The per-user tables an export can contain. Each query selects whole rows for one user in id order,
+ * so an export reads like a {@code \copy} of the table and keeps up with new columns without changes.
+ */
+public enum ExportDataset {
+    STATE_CHANGE("state_change", "SELECT t.* FROM state_change t WHERE t.user_id = ? ORDER BY t.id", true),
+    // Mutations carry no user column; they belong to the user who owns the container they moved.
+    STATE_MUTATION("state_mutation", """
+            SELECT c.owner_id AS user_id, m.*
+            FROM state_mutation m
+            JOIN state_container c ON c.id = m.container_id
+            WHERE c.owner_type = 'USER' AND c.owner_id = ?
+            ORDER BY m.id
+            """, false),
+    STATE_CONTAINER("state_container",
+            "SELECT t.* FROM state_container t WHERE t.owner_type = 'USER' AND t.owner_id = ? ORDER BY t.id", false),
+    BUDGETS("budgets", "SELECT t.* FROM fin_monthly_budget t WHERE t.user_id = ? ORDER BY t.id", false),
+    DIAGNOSTICS("diagnostics", "SELECT t.* FROM conversation_diagnostic_turn t WHERE t.user_id = ? ORDER BY t.id",
+            false);
+
+    private final String id;
+    private final String sql;
+    private final boolean textUserKey;
+
+    ExportDataset(String id, String sql, boolean textUserKey) {
+        this.id = id;
+        this.sql = sql;
+        this.textUserKey = textUserKey;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    String sql() {
+        return sql;
+    }
+
+    /** The query parameter for {@code userId}; {@code state_change} keys users by their id as text. */
+    Object userKey(Long userId) {
+        return textUserKey ? userId.toString() : userId;
+    }
+
+    public static ExportDataset of(String id) {
+        for (ExportDataset dataset : values()) {
+            if (dataset.id.equalsIgnoreCase(id.trim())) return dataset;
+        }
+        throw new IllegalArgumentException("Unknown export dataset: " + id);
+    }
+
+    /** Datasets named in a comma-separated list, in the order given; every dataset when blank. */
+    public static List<ExportDataset> parse(String ids) {
+        if (ids == null || ids.isBlank()) return List.of(values());
+        List<ExportDataset> datasets = new ArrayList<>();
+        for (String id : ids.split(",")) {
+            ExportDataset dataset = of(id);
+            if (!datasets.contains(dataset)) datasets.add(dataset);
+        }
+        return datasets;
+    }
+
+    @Override
+    public String toString() {
+        return id;
+    }
+}
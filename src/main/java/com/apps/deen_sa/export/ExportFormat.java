@@ -0,0 +1,43 @@
+package com.apps.deen_sa.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    /** Whether one stream can hold rows of several datasets. */
+    public boolean mixesDatasets() {
+        return this == NDJSON;
+    }
+
+    ExportWriter open(OutputStream out) throws IOException {
+        return this == NDJSON ? new ExportWriter.Ndjson(out) : new ExportWriter.Csv(out);
+    }
+
+    public static ExportFormat of(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown export format: " + name);
+        }
+    }
+}
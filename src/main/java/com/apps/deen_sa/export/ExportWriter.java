@@ -0,0 +1,127 @@
+package com.apps.deen_sa.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes exported rows as they are read. Nothing is kept between rows, so an export of any length
+ * runs in the writer's buffer. Closing the writer flushes and closes the underlying stream.
+ */
+interface ExportWriter extends Closeable {
+
+    /** Starts the rows of {@code dataset}; the same writer may be given several queries in turn. */
+    void begin(ExportDataset dataset, List<ExportColumn> columns) throws IOException;
+
+    /** One row, with values as read by {@link ExportColumn#read}. */
+    void row(Object[] values) throws IOException;
+
+    /** One JSON object per line, tagged with its dataset so several tables can share a stream. */
+    final class Ndjson implements ExportWriter {
+        private static final JsonFactory JSON = new JsonFactory();
+
+        private final JsonGenerator json;
+        private ExportDataset dataset;
+        private List<ExportColumn> columns;
+
+        Ndjson(OutputStream out) throws IOException {
+            json = JSON.createGenerator(out);
+            json.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void begin(ExportDataset dataset, List<ExportColumn> columns) {
+            this.dataset = dataset;
+            this.columns = columns;
+        }
+
+        @Override
+        public void row(Object[] values) throws IOException {
+            json.writeStartObject();
+            json.writeStringField("dataset", dataset.id());
+            for (int i = 0; i < values.length; i++) {
+                ExportColumn column = columns.get(i);
+                Object value = values[i];
+                json.writeFieldName(column.name());
+                if (value == null) {
+                    json.writeNull();
+                    continue;
+                }
+                switch (column.kind()) {
+                    case NUMBER -> json.writeNumber((BigDecimal) value);
+                    case BOOLEAN -> json.writeBoolean((Boolean) value);
+                    case JSON -> json.writeRawValue((String) value);
+                    default -> json.writeString(value.toString());
+                }
+            }
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            json.close();
+        }
+    }
+
+    /** RFC 4180 with a header row; one dataset per file, since tables do not share columns. */
+    final class Csv implements ExportWriter {
+        private final Writer out;
+        private ExportDataset dataset;
+
+        Csv(OutputStream out) {
+            this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024);
+        }
+
+        @Override
+        public void begin(ExportDataset dataset, List<ExportColumn> columns) throws IOException {
+            if (this.dataset == dataset) return;
+            if (this.dataset != null) {
+                throw new IllegalStateException("A CSV export holds one dataset, not " + this.dataset + " and " + dataset);
+            }
+            this.dataset = dataset;
+            Object[] header = columns.stream().map(ExportColumn::name).toArray();
+            row(header);
+        }
+
+        @Override
+        public void row(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) out.write(',');
+                Object value = values[i];
+                if (value != null) field(value instanceof BigDecimal number ? number.toPlainString() : value.toString());
+            }
+            out.write('\n');
+        }
+
+        private void field(String value) throws IOException {
+            // Like Postgres CSV, an empty string is quoted so it stays distinct from a null.
+            boolean quote = value.isEmpty();
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                out.write(value);
+                return;
+            }
+            out.write('"');
+            out.write(value.replace("\"", "\"\""));
+            out.write('"');
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.apps.deen_sa.export;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Streams one user's ledger and conversation history out of Postgres. Each dataset is read through a
+ * server-side cursor, {@code export.fetch-size} rows at a time, and every row is written before the
+ * next is fetched, so memory stays flat however long the history is. All of one user's datasets are
+ * read in a single read-only REPEATABLE READ transaction: the driver only uses a cursor inside a
+ * transaction, and one snapshot keeps the datasets consistent with each other, so a mutation in the
+ * export always has its change.
+ */
+@Service
+public class UserDataExporter {
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate snapshot;
+    private final int fetchSize;
+
+    public UserDataExporter(JdbcTemplate jdbc, PlatformTransactionManager transactionManager,
+                            @Value("${export.fetch-size:500}") int fetchSize) {
+        this.jdbc = jdbc;
+        this.snapshot = new TransactionTemplate(transactionManager);
+        this.snapshot.setReadOnly(true);
+        this.snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.fetchSize = fetchSize;
+    }
+
+    /** Writes {@code datasets} for {@code userId} to {@code out} and closes it; returns the rows written. */
+    public long export(Long userId, List<ExportDataset> datasets, ExportFormat format, OutputStream out)
+            throws IOException {
+        if (!format.mixesDatasets() && datasets.size() != 1) {
+            throw new IllegalArgumentException(format + " exports hold exactly one dataset");
+        }
+        Timer.Sample sample = Timer.start();
+        long rows = 0;
+        try (ExportWriter writer = format.open(out)) {
+            rows = write(userId, datasets, dataset -> writer);
+        } finally {
+            sample.stop(Metrics.timer("deen.export.duration", "mode", "user", "format", format.extension()));
+        }
+        return rows;
+    }
+
+    /**
+     * Appends each of {@code datasets} for {@code userId} to {@code writers.apply(dataset)}, all from one
+     * snapshot; returns the rows written.
+     */
+    long write(Long userId, List<ExportDataset> datasets, Function<ExportDataset, ExportWriter> writers)
+            throws IOException {
+        try {
+            Long written = snapshot.execute(status -> {
+                long rows = 0;
+                for (ExportDataset dataset : datasets) rows += write(userId, dataset, writers.apply(dataset));
+                return rows;
+            });
+            return written == null ? 0 : written;
+        } catch (UncheckedIOException e) {
+            // Usually the client went away mid-download; the cursor is closed with the transaction.
+            throw e.getCause();
+        }
+    }
+
+    private long write(Long userId, ExportDataset dataset, ExportWriter writer) {
+        PreparedStatementCreator query = connection -> {
+            PreparedStatement statement = connection.prepareStatement(dataset.sql(), ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            statement.setObject(1, dataset.userKey(userId));
+            return statement;
+        };
+        ResultSetExtractor<Long> rows = rs -> stream(dataset, rs, writer);
+        Long written = jdbc.query(query, rows);
+        long count = written == null ? 0 : written;
+        Metrics.counter("deen.export.rows", "dataset", dataset.id()).increment(count);
+        return count;
+    }
+
+    private static long stream(ExportDataset dataset, ResultSet rs, ExportWriter writer) throws SQLException {
+        List<ExportColumn> columns = ExportColumn.of(rs.getMetaData());
+        Object[] values = new Object[columns.size()];
+        long rows = 0;
+        try {
+            writer.begin(dataset, columns);
+            while (rs.next()) {
+                for (int i = 0; i < values.length; i++) values[i] = columns.get(i).read(rs, i + 1);
+                writer.row(values);
+                rows++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return rows;
+    }
+}
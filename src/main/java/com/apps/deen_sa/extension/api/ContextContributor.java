@@ -1,11 +1,24 @@
 package com.apps.deen_sa.extension.api;
 
 import java.util.Map;
+import java.util.Set;
 
+/**
+ * Reference data given to the model when it extracts an event. Contributors are evaluated only once an
+ * event type has been selected, never for routing, queries or commands.
+ */
 public interface ContextContributor {
     String namespace();
     Object contribute(Long tenantId, Long userId);
 
+    /** Event types this context helps extract; empty means every event type. */
+    default Set<String> eventTypes() { return Set.of(); }
+
+    /** Budget-aware variant; the default ignores the message and budget. */
+    default Object contribute(ContextRequest request) {
+        return contribute(request.tenantId(), request.userId());
+    }
+
     default Map.Entry<String, Object> entry(Long tenantId, Long userId) {
         return Map.entry(namespace(), contribute(tenantId, userId));
     }
@@ -0,0 +1,9 @@
+package com.apps.deen_sa.extension.api;
+
+/**
+ * What the model is about to extract: the selected event type, the user's message, and roughly how
+ * many prompt tokens the contributor may spend. Contributors should keep what matches the message
+ * and fill the rest of the budget with the most recent entries.
+ */
+public record ContextRequest(Long tenantId, Long userId, String eventType, String message, int tokenBudget) {
+}
@@ -1,19 +1,36 @@
 package com.apps.deen_sa.extension.runtime;
 
 import com.apps.deen_sa.extension.api.*;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+/**
+ * The extensions enabled for each tenant. A tenant's enabled set is compiled once into an immutable
+ * {@link Snapshot} holding its capability maps, prompt instructions, help text and router chain, and
+ * tenants with the same set share one snapshot. A tenant without {@code tenant_extension} rows gets
+ * the extensions installed for new tenants. Changing a tenant's enablement replaces its snapshot in
+ * one step, and changes made on other nodes are picked up by {@link #refreshChangedTenants}: an
+ * updated row by its {@code updated_at}, a deleted one by the tenant's row count.
+ */
+@Slf4j
 @Service
 public class ExtensionCatalog {
     public static final int SUPPORTED_API_VERSION = 1;
     private final Map<String, BusinessExtension> extensions;
-    private final Map<String, EventCapability> events;
-    private final Map<String, QueryCapability> queries;
-    public ExtensionCatalog(List<BusinessExtension> discovered) {
+    private final TenantExtensionRepository tenantExtensions;
+    private final Snapshot defaults;
+    private final Map<Set<String>, Snapshot> compiled = new ConcurrentHashMap<>();
+    private final Map<Long, Loaded> tenants = new ConcurrentHashMap<>();
+    private volatile Instant refreshedAt = Instant.now();
+
+    public ExtensionCatalog(List<BusinessExtension> discovered, TenantExtensionRepository tenantExtensions) {
         discovered.forEach(extension -> {
             if (extension.descriptor().apiVersion() != SUPPORTED_API_VERSION) {
                 throw new IllegalStateException("Incompatible extension " + extension.descriptor().id()
@@ -21,61 +38,142 @@ public class ExtensionCatalog {
             }
         });
         extensions = unique(discovered, extension -> extension.descriptor().id(), "extension");
-        events = unique(discovered.stream().flatMap(e -> e.events().stream()).toList(),
+        unique(discovered.stream().flatMap(e -> e.events().stream()).toList(),
                 capability -> capability.eventType().toUpperCase(Locale.ROOT), "event capability");
-        queries = unique(discovered.stream().flatMap(e -> e.queries().stream()).toList(),
+        unique(discovered.stream().flatMap(e -> e.queries().stream()).toList(),
                 capability -> capability.queryType().toUpperCase(Locale.ROOT), "query capability");
+        this.tenantExtensions = tenantExtensions;
+        this.defaults = snapshot(extensions.values().stream().filter(e -> e.descriptor().installForNewTenant())
+                .map(e -> e.descriptor().id()).collect(Collectors.toUnmodifiableSet()));
     }
 
     public Optional<EventCapability> event(Long tenantId, String type) {
-        EventCapability capability = events.get(normalize(type));
-        return Optional.ofNullable(capability);
+        return Optional.ofNullable(tenant(tenantId).events.get(normalize(type)));
     }
 
     public Optional<QueryCapability> query(Long tenantId, String type) {
-        QueryCapability capability = queries.get(normalize(type));
-        return Optional.ofNullable(capability);
+        return Optional.ofNullable(tenant(tenantId).queries.get(normalize(type)));
     }
 
     public Map<String, Object> context(Long tenantId, Long userId) {
-        return extensions.values().stream()
-                .flatMap(e -> e.contextContributors().stream()).map(c -> c.entry(tenantId, userId))
+        return tenant(tenantId).contributors.stream().map(c -> c.entry(tenantId, userId))
                 .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, Map.Entry::getValue));
     }
 
+    /** Context for extracting one event type, from only the contributors that declared it. */
+    public Map<String, Object> context(ContextRequest request) {
+        List<ContextContributor> contributors = tenant(request.tenantId()).contributorsByEvent
+                .getOrDefault(normalize(request.eventType()), List.of());
+        if (contributors.isEmpty()) return Map.of();
+        Map<String, Object> context = new LinkedHashMap<>();
+        for (ContextContributor contributor : contributors) {
+            Object value = contributor.contribute(request);
+            if (value != null) context.put(contributor.namespace(), value);
+        }
+        return Collections.unmodifiableMap(context);
+    }
+
     public String help(Long tenantId, String locale) {
-        return extensions.values().stream()
-                .map(extension -> extension.help(locale)).filter(value -> value != null && !value.isBlank())
-                .collect(Collectors.joining("\n\n"));
+        return tenant(tenantId).help(locale);
     }
 
     public Optional<EventCapability> routeDeterministically(Long tenantId, String text) {
-        return extensions.values().stream()
-                .flatMap(e -> e.deterministicRouters().stream()).map(router -> router.eventType(text))
-                .flatMap(Optional::stream).findFirst().flatMap(type -> event(tenantId, type));
+        Snapshot snapshot = tenant(tenantId);
+        for (DeterministicEventRouter router : snapshot.routers) {
+            Optional<String> type = router.eventType(text);
+            if (type.isPresent()) return Optional.ofNullable(snapshot.events.get(normalize(type.get())));
+        }
+        return Optional.empty();
     }
 
     public List<DeterministicEventCandidate> extractDeterministically(Long tenantId, String text) {
-        return extensions.values().stream()
-                .flatMap(e -> e.deterministicRouters().stream()).flatMap(router -> router.events(text).stream())
-                .filter(candidate -> event(tenantId, candidate.eventType()).isPresent()).toList();
+        Snapshot snapshot = tenant(tenantId);
+        List<DeterministicEventCandidate> candidates = null;
+        for (DeterministicEventRouter router : snapshot.routers) {
+            for (DeterministicEventCandidate candidate : router.events(text)) {
+                if (!snapshot.events.containsKey(normalize(candidate.eventType()))) continue;
+                if (candidates == null) candidates = new ArrayList<>();
+                candidates.add(candidate);
+            }
+        }
+        return candidates == null ? List.of() : List.copyOf(candidates);
     }
 
     public Optional<String> queryDeterministically(Long tenantId, String text) {
-        return extensions.values().stream()
-                .flatMap(e -> e.deterministicRouters().stream()).map(router -> router.query(text))
-                .flatMap(Optional::stream).findFirst();
+        for (DeterministicEventRouter router : tenant(tenantId).routers) {
+            Optional<String> query = router.query(text);
+            if (query.isPresent()) return query;
+        }
+        return Optional.empty();
     }
 
     public String interpretationInstructions(Long tenantId) {
-        return extensions.values().stream()
-                .flatMap(e -> e.promptContributors().stream()).map(InterpretationPromptContributor::instructions)
-                .filter(value -> value != null && !value.isBlank()).collect(Collectors.joining("\n\n"));
+        return tenant(tenantId).instructions;
     }
 
     public Collection<EventCapability> enabledEvents(Long tenantId) {
-        return extensions.values().stream()
-                .flatMap(e -> e.events().stream()).toList();
+        return tenant(tenantId).enabledEvents;
+    }
+
+    /** Ids of the extensions enabled for the tenant, in discovery order. */
+    public Set<String> enabledExtensions(Long tenantId) {
+        return tenant(tenantId).extensionIds;
+    }
+
+    /** Enables or disables one extension for a tenant and swaps in the tenant's new snapshot. */
+    public void setEnabled(Long tenantId, String extensionId, boolean enabled) {
+        if (!extensions.containsKey(extensionId)) throw new IllegalArgumentException("Unknown extension " + extensionId);
+        TenantExtensionEntity row = tenantExtensions.findByTenantIdAndExtensionId(tenantId, extensionId)
+                .orElseGet(TenantExtensionEntity::new);
+        row.setTenantId(tenantId);
+        row.setExtensionId(extensionId);
+        row.setEnabled(enabled);
+        tenantExtensions.save(row);
+        tenants.put(tenantId, load(tenantId));
+    }
+
+    @Scheduled(fixedDelayString = "${extensions.tenant-refresh:PT1M}")
+    void refreshChangedTenants() {
+        Instant since = refreshedAt;
+        refreshedAt = Instant.now();
+        Set<Long> changed = tenantExtensions.findByUpdatedAtAfter(since.minusSeconds(5)).stream()
+                .map(TenantExtensionEntity::getTenantId).collect(Collectors.toCollection(HashSet::new));
+        Map<Long, Long> rows = tenantExtensions.countRowsByTenant().stream()
+                .collect(Collectors.toMap(count -> count.getTenantId(), count -> count.getRowCount()));
+        tenants.forEach((tenantId, loaded) -> {
+            if (loaded.rows() != rows.getOrDefault(tenantId, 0L)) changed.add(tenantId);
+        });
+        changed.forEach(tenantId -> {
+            if (tenants.containsKey(tenantId)) tenants.put(tenantId, load(tenantId));
+        });
+        if (!changed.isEmpty()) log.debug("Reloaded extension snapshots for {} tenants", changed.size());
+    }
+
+    private Snapshot tenant(Long tenantId) {
+        if (tenantId == null) return defaults;
+        Loaded cached = tenants.get(tenantId);
+        if (cached != null) return cached.snapshot();
+        // Loaded outside the map so a slow query does not hold up other tenants.
+        Loaded loaded = load(tenantId);
+        Loaded raced = tenants.putIfAbsent(tenantId, loaded);
+        return (raced != null ? raced : loaded).snapshot();
+    }
+
+    private Loaded load(Long tenantId) {
+        List<TenantExtensionEntity> overrides = tenantExtensions.findByTenantId(tenantId);
+        if (overrides.isEmpty()) return new Loaded(defaults, 0);
+        Set<String> enabled = new HashSet<>(defaults.extensionIds);
+        for (TenantExtensionEntity row : overrides) {
+            if (row.isEnabled()) enabled.add(row.getExtensionId());
+            else enabled.remove(row.getExtensionId());
+        }
+        enabled.retainAll(extensions.keySet());
+        return new Loaded(snapshot(enabled), overrides.size());
+    }
+
+    private Snapshot snapshot(Set<String> enabled) {
+        return compiled.computeIfAbsent(Set.copyOf(enabled), ids -> new Snapshot(extensions.values().stream()
+                .filter(extension -> ids.contains(extension.descriptor().id())).toList()));
     }
 
     private static String normalize(String value) { return value == null ? "" : value.toUpperCase(Locale.ROOT); }
@@ -86,6 +184,65 @@ public class ExtensionCatalog {
             String id = key.apply(value);
             if (result.putIfAbsent(id, value) != null) throw new IllegalStateException("Duplicate " + label + ": " + id);
         }
-        return Map.copyOf(result);
+        return Collections.unmodifiableMap(result);
+    }
+
+    /** A tenant's snapshot and the number of override rows it was built from. */
+    private record Loaded(Snapshot snapshot, long rows) { }
+
+    /** Everything a turn reads from one enabled set, built once. Help for unlisted locales is built on first use. */
+    private static final class Snapshot {
+        private static final int MAX_HELP_LOCALES = 32;
+
+        private final List<BusinessExtension> extensions;
+        private final Set<String> extensionIds;
+        private final Map<String, EventCapability> events;
+        private final Map<String, QueryCapability> queries;
+        private final List<EventCapability> enabledEvents;
+        private final List<ContextContributor> contributors;
+        private final Map<String, List<ContextContributor>> contributorsByEvent;
+        private final DeterministicEventRouter[] routers;
+        private final String instructions;
+        private final Map<String, String> help = new ConcurrentHashMap<>();
+
+        Snapshot(List<BusinessExtension> extensions) {
+            this.extensions = extensions;
+            this.extensionIds = Collections.unmodifiableSet(new LinkedHashSet<>(
+                    extensions.stream().map(e -> e.descriptor().id()).toList()));
+            this.enabledEvents = extensions.stream().flatMap(e -> e.events().stream()).toList();
+            this.events = unique(enabledEvents, capability -> capability.eventType().toUpperCase(Locale.ROOT), "event capability");
+            this.queries = unique(extensions.stream().flatMap(e -> e.queries().stream()).toList(),
+                    capability -> capability.queryType().toUpperCase(Locale.ROOT), "query capability");
+            this.contributors = extensions.stream().flatMap(e -> e.contextContributors().stream()).toList();
+            this.contributorsByEvent = events.keySet().stream().collect(Collectors.toUnmodifiableMap(type -> type,
+                    type -> contributors.stream().filter(contributor -> serves(contributor, type)).toList()));
+            this.routers = extensions.stream().flatMap(e -> e.deterministicRouters().stream())
+                    .toArray(DeterministicEventRouter[]::new);
+            this.instructions = extensions.stream()
+                    .flatMap(e -> e.promptContributors().stream()).map(InterpretationPromptContributor::instructions)
+                    .filter(value -> value != null && !value.isBlank()).collect(Collectors.joining("\n\n"));
+            extensions.stream().flatMap(e -> e.descriptor().supportedLocales().stream()).distinct()
+                    .forEach(locale -> help.put(locale, joinHelp(locale)));
+        }
+
+        private static boolean serves(ContextContributor contributor, String eventType) {
+            Set<String> declared = contributor.eventTypes();
+            return declared.isEmpty() || declared.stream().anyMatch(type -> type.equalsIgnoreCase(eventType));
+        }
+
+        String help(String locale) {
+            if (locale == null) return joinHelp(null);
+            String value = help.get(locale);
+            if (value != null) return value;
+            value = joinHelp(locale);
+            if (help.size() < MAX_HELP_LOCALES) help.putIfAbsent(locale, value);
+            return value;
+        }
+
+        private String joinHelp(String locale) {
+            return extensions.stream()
+                    .map(extension -> extension.help(locale)).filter(value -> value != null && !value.isBlank())
+                    .collect(Collectors.joining("\n\n"));
+        }
     }
 }
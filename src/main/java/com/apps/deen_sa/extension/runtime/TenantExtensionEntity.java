@@ -0,0 +1,38 @@
+package com.apps.deen_sa.extension.runtime;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "tenant_extension", uniqueConstraints =
+        @UniqueConstraint(name = "uq_tenant_extension", columnNames = {"tenant_id", "extension_id"}))
+@Getter
+@Setter
+public class TenantExtensionEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private Long tenantId;
+
+    @Column(name = "extension_id", nullable = false, length = 64)
+    private String extensionId;
+
+    @Column(nullable = false)
+    private boolean enabled;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt = Instant.now();
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt = Instant.now();
+
+    @PreUpdate
+    void markUpdated() {
+        updatedAt = Instant.now();
+    }
+}
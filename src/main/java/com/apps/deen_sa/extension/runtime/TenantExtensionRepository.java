@@ -0,0 +1,26 @@
+package com.apps.deen_sa.extension.runtime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface TenantExtensionRepository extends JpaRepository<TenantExtensionEntity, Long> {
+    List<TenantExtensionEntity> findByTenantId(Long tenantId);
+
+    Optional<TenantExtensionEntity> findByTenantIdAndExtensionId(Long tenantId, String extensionId);
+
+    List<TenantExtensionEntity> findByUpdatedAtAfter(Instant since);
+
+    /** Rows per tenant; a tenant whose count dropped had a row deleted, which leaves no updated_at behind. */
+    @Query("SELECT t.tenantId AS tenantId, COUNT(t) AS rowCount FROM TenantExtensionEntity t GROUP BY t.tenantId")
+    List<TenantRowCount> countRowsByTenant();
+
+    interface TenantRowCount {
+        Long getTenantId();
+
+        long getRowCount();
+    }
+}
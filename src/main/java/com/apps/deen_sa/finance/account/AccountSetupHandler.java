@@ -153,6 +153,7 @@ public class AccountSetupHandler implements SpeechHandler {
         e.setDetails(dto.getDetails());
 
         StateContainerEntity saved = repo.save(e);
+        stateContainerService.declareBalance(saved, "ACCOUNT_SETUP");
         stateContainerService.evictCache(userId);
         return saved;
     }
@@ -201,6 +202,7 @@ public class AccountSetupHandler implements SpeechHandler {
         existing.setExternalRefId(dto.getExternalRefId());
         existing.setDetails(dto.getDetails());
         StateContainerEntity saved = repo.save(existing);
+        stateContainerService.declareBalance(saved, "ACCOUNT_UPDATE");
         stateContainerService.evictCache(existing.getOwnerId());
         return SpeechResult.builder()
                 .status(com.apps.deen_sa.conversation.SpeechStatus.SAVED)
@@ -1,6 +1,7 @@
 package com.apps.deen_sa.finance.account.strategy;
 
 import com.apps.deen_sa.dto.StateMutationCommand;
+import com.apps.deen_sa.finance.legacy.mutation.strategy.BalanceDelta;
 import com.apps.deen_sa.finance.legacy.state.StateContainerEntity;
 import com.apps.deen_sa.finance.legacy.mutation.strategy.StateMutationStrategy;
 import org.springframework.stereotype.Component;
@@ -16,46 +17,28 @@ public class CashLikeStrategy implements StateMutationStrategy {
     }
 
     @Override
-    public void apply(StateContainerEntity container, StateMutationCommand cmd) {
-        switch (cmd.getType()) {
-            case DEBIT, PAYMENT -> {
-                // DEBIT/PAYMENT: money leaves (expenses, transfers out, payments)
-                container.setCurrentValue(
-                        container.getCurrentValue().subtract(cmd.getAmount())
-                );
-            }
-            case CREDIT -> {
-                // CREDIT: money arrives (income, transfers in)
-                container.setCurrentValue(
-                        container.getCurrentValue().add(cmd.getAmount())
-                );
-            }
+    public BalanceDelta apply(StateContainerEntity container, StateMutationCommand cmd) {
+        return switch (cmd.getType()) {
+            // DEBIT/PAYMENT: money leaves (expenses, transfers out, payments)
+            case DEBIT, PAYMENT -> BalanceDelta.asset(cmd.getAmount().negate());
+            // CREDIT: money arrives (income, transfers in)
+            case CREDIT -> BalanceDelta.asset(cmd.getAmount());
             default -> throw new IllegalArgumentException(
                     "Unsupported mutation type for cash-like container: " + cmd.getType()
             );
-        }
-        container.setAvailableValue(container.getCurrentValue());
+        };
     }
 
     @Override
-    public void reverse(StateContainerEntity container, StateMutationCommand cmd) {
-        switch (cmd.getType()) {
-            case DEBIT, PAYMENT -> {
-                // Reverse DEBIT/PAYMENT: add money back
-                container.setCurrentValue(
-                        container.getCurrentValue().add(cmd.getAmount())
-                );
-            }
-            case CREDIT -> {
-                // Reverse CREDIT: subtract money
-                container.setCurrentValue(
-                        container.getCurrentValue().subtract(cmd.getAmount())
-                );
-            }
+    public BalanceDelta reverse(StateContainerEntity container, StateMutationCommand cmd) {
+        return switch (cmd.getType()) {
+            // Reverse DEBIT/PAYMENT: add money back
+            case DEBIT, PAYMENT -> BalanceDelta.asset(cmd.getAmount());
+            // Reverse CREDIT: subtract money
+            case CREDIT -> BalanceDelta.asset(cmd.getAmount().negate());
             default -> throw new IllegalArgumentException(
                     "Unsupported mutation type for cash-like container: " + cmd.getType()
             );
-        }
-        container.setAvailableValue(container.getCurrentValue());
+        };
     }
 }
@@ -1,14 +1,18 @@
 package com.apps.deen_sa.finance.account.strategy;
 
 import com.apps.deen_sa.dto.StateMutationCommand;
+import com.apps.deen_sa.finance.legacy.mutation.strategy.BalanceDelta;
 import com.apps.deen_sa.finance.legacy.state.StateContainerEntity;
 import com.apps.deen_sa.finance.account.strategy.CreditSettlementStrategy;
 import com.apps.deen_sa.finance.legacy.mutation.strategy.StateMutationStrategy;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
-import java.time.Instant;
 
+/**
+ * Credit card outstanding moves as a liability delta: an unknown outstanding counts as zero and
+ * the over-limit flags are re-evaluated against the capacity limit in the same update.
+ */
 @Component
 public class CreditCardStrategy implements StateMutationStrategy, CreditSettlementStrategy {
 
@@ -21,77 +25,24 @@ public class CreditCardStrategy implements StateMutationStrategy, CreditSettleme
      * Expense on credit card → increases outstanding amount
      */
     @Override
-    public void apply(StateContainerEntity container, StateMutationCommand cmd) {
-
-        BigDecimal outstanding = defaultZero(container.getCurrentValue());
-        BigDecimal newOutstanding = outstanding.add(cmd.getAmount());
-
-        container.setCurrentValue(newOutstanding);
-        evaluateOverLimit(container, newOutstanding);
-        container.setLastActivityAt(Instant.now());
+    public BalanceDelta apply(StateContainerEntity container, StateMutationCommand cmd) {
+        return BalanceDelta.liability(cmd.getAmount(), false);
     }
 
     /**
-     * Refund / reversal → reduces outstanding amount
+     * Refund / reversal → reduces outstanding amount, never below zero
      */
     @Override
-    public void reverse(StateContainerEntity container, StateMutationCommand cmd) {
-
-        BigDecimal outstanding = defaultZero(container.getCurrentValue());
-        BigDecimal newOutstanding = outstanding.subtract(cmd.getAmount());
-
-        if (newOutstanding.signum() < 0) {
-            newOutstanding = BigDecimal.ZERO;
-        }
-
-        container.setCurrentValue(newOutstanding);
-        evaluateOverLimit(container, newOutstanding);
-        container.setLastActivityAt(Instant.now());
+    public BalanceDelta reverse(StateContainerEntity container, StateMutationCommand cmd) {
+        return BalanceDelta.liability(cmd.getAmount().negate(), true);
     }
 
     /**
-     * Payment → reduces outstanding amount
+     * Payment → reduces outstanding amount, never below zero
      * Exists only for credit cards
      */
     @Override
-    public void applyPayment(StateContainerEntity container, BigDecimal amount) {
-
-        BigDecimal outstanding = defaultZero(container.getCurrentValue());
-        BigDecimal newOutstanding = outstanding.subtract(amount);
-
-        if (newOutstanding.signum() < 0) {
-            newOutstanding = BigDecimal.ZERO;
-        }
-
-        container.setCurrentValue(newOutstanding);
-        evaluateOverLimit(container, newOutstanding);
-        container.setLastActivityAt(Instant.now());
-    }
-
-    private BigDecimal defaultZero(BigDecimal val) {
-        return val == null ? BigDecimal.ZERO : val;
-    }
-
-    /**
-     * Determines over-limit state without blocking persistence
-     */
-    private void evaluateOverLimit(StateContainerEntity container,
-                                   BigDecimal outstanding) {
-
-        BigDecimal limit = container.getCapacityLimit();
-
-        if (limit == null) {
-            container.setOverLimit(false);
-            container.setOverLimitAmount(BigDecimal.ZERO);
-            return;
-        }
-
-        if (outstanding.compareTo(limit) > 0) {
-            container.setOverLimit(true);
-            container.setOverLimitAmount(outstanding.subtract(limit));
-        } else {
-            container.setOverLimit(false);
-            container.setOverLimitAmount(BigDecimal.ZERO);
-        }
+    public BalanceDelta applyPayment(StateContainerEntity container, BigDecimal amount) {
+        return BalanceDelta.liability(amount.negate(), true);
     }
 }
@@ -1,9 +1,10 @@
 package com.apps.deen_sa.finance.account.strategy;
 
+import com.apps.deen_sa.finance.legacy.mutation.strategy.BalanceDelta;
 import com.apps.deen_sa.finance.legacy.state.StateContainerEntity;
 
 import java.math.BigDecimal;
 
 public interface CreditSettlementStrategy {
-    void applyPayment(StateContainerEntity container, BigDecimal amount);
+    BalanceDelta applyPayment(StateContainerEntity container, BigDecimal amount);
 }
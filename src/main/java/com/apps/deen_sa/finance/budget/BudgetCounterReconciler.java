@@ -0,0 +1,44 @@
+package com.apps.deen_sa.finance.budget;
+
+import com.apps.deen_sa.finance.rollup.DailyRollupService;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+/**
+ * Nightly check of the current and previous month's counters against {@code state_change}.
+ * The previous month is included because corrections may still land on last month's expenses.
+ */
+@Log4j2
+@Component
+class BudgetCounterReconciler {
+    private final BudgetSpendCounterRepository repository;
+    private final BudgetSpendCounters counters;
+    private final DailyRollupService rollups;
+
+    BudgetCounterReconciler(BudgetSpendCounterRepository repository, BudgetSpendCounters counters,
+                            DailyRollupService rollups) {
+        this.repository = repository;
+        this.counters = counters;
+        this.rollups = rollups;
+    }
+
+    @Scheduled(cron = "${finance.budget-counters.reconcile-cron:0 30 3 * * *}")
+    void reconcileRecentMonths() {
+        YearMonth previous = YearMonth.now(ZoneOffset.UTC).minusMonths(1);
+        Instant since = previous.atDay(1).minusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        int repaired = 0;
+        for (String userId : repository.findUsersActiveSince(since, previous.atDay(1))) {
+            var zone = rollups.zoneFor(userId);
+            YearMonth current = YearMonth.now(zone);
+            repaired += counters.reconcile(userId, current.minusMonths(1), zone) + counters.reconcile(userId, current, zone);
+        }
+        Metrics.counter("deen.finance.budget.counter.repairs").increment(repaired);
+        if (repaired > 0) log.warn("Budget counter reconciliation repaired {} drifted counters", repaired);
+    }
+}
@@ -1,7 +1,6 @@
 package com.apps.deen_sa.finance.budget;
 
 import com.apps.deen_sa.finance.legacy.state.StateChangeEntity;
-import com.apps.deen_sa.finance.legacy.state.StateChangeRepository;
 import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
 import java.time.*;
@@ -10,23 +9,24 @@ import java.util.*;
 @Service
 public class BudgetInsightService {
     private final MonthlyBudgetRepository budgets;
-    private final StateChangeRepository changes;
-    public BudgetInsightService(MonthlyBudgetRepository budgets, StateChangeRepository changes) {
-        this.budgets = budgets; this.changes = changes;
+    private final BudgetSpendCounters counters;
+    public BudgetInsightService(MonthlyBudgetRepository budgets, BudgetSpendCounters counters) {
+        this.budgets = budgets; this.counters = counters;
     }
 
     public String status(Long userId, String timezone) {
         List<MonthlyBudgetEntity> active = budgets.findByUserIdAndActiveTrueOrderByCategoryAsc(userId);
         if (active.isEmpty()) return "You have no active monthly budgets. Try: Set my monthly groceries budget to ₹10,000.";
-        ZoneId zone = zone(timezone); YearMonth month = YearMonth.now(zone);
-        return active.stream().map(budget -> line(budget, spend(userId, budget.getCategory(), month, zone))).reduce((a, b) -> a + "\n" + b).orElseThrow();
+        Map<String, BigDecimal> spent = counters.monthToDate(userId, YearMonth.now(zone(timezone)));
+        return active.stream().map(budget -> line(budget, spend(spent, budget))).reduce((a, b) -> a + "\n" + b).orElseThrow();
     }
 
     public List<BudgetProgress> progress(Long userId, String timezone) {
-        ZoneId zone = zone(timezone); YearMonth month = YearMonth.now(zone);
-        return budgets.findByUserIdAndActiveTrueOrderByCategoryAsc(userId).stream()
-                .map(budget -> new BudgetProgress(budget.getCategory(),
-                        spend(userId, budget.getCategory(), month, zone), budget.getMonthlyLimit()))
+        List<MonthlyBudgetEntity> active = budgets.findByUserIdAndActiveTrueOrderByCategoryAsc(userId);
+        if (active.isEmpty()) return List.of();
+        Map<String, BigDecimal> spent = counters.monthToDate(userId, YearMonth.now(zone(timezone)));
+        return active.stream()
+                .map(budget -> new BudgetProgress(budget.getCategory(), spend(spent, budget), budget.getMonthlyLimit()))
                 .toList();
     }
 
@@ -38,8 +38,8 @@ public class BudgetInsightService {
                 .or(() -> budgets.findByUserIdAndCategoryIgnoreCase(userId, expense.getCategory()))
                 .filter(MonthlyBudgetEntity::isActive).orElse(null);
         if (budget == null) return Optional.empty();
-        ZoneId zone = zone(timezone); YearMonth month = YearMonth.from(expense.getTimestamp().atZone(zone));
-        BigDecimal spent = spend(userId, budget.getCategory(), month, zone);
+        YearMonth month = YearMonth.from(expense.getTimestamp().atZone(zone(timezone)));
+        BigDecimal spent = counters.spent(userId, budget.getCategory(), month);
         BigDecimal ratio = spent.divide(budget.getMonthlyLimit(), 4, java.math.RoundingMode.HALF_UP);
         if (ratio.compareTo(BigDecimal.ONE) > 0) return Optional.of("Budget alert: " + budget.getCategory()
                 + " is ₹" + money(spent.subtract(budget.getMonthlyLimit())) + " over its ₹" + money(budget.getMonthlyLimit()) + " monthly budget.");
@@ -56,11 +56,8 @@ public class BudgetInsightService {
         return budget.getCategory() + ": spent ₹" + money(spent) + " of ₹" + money(budget.getMonthlyLimit())
                 + " — ₹" + money(remaining) + " remaining.";
     }
-    private BigDecimal spend(Long userId, String category, YearMonth month, ZoneId zone) {
-        Instant start = month.atDay(1).atStartOfDay(zone).toInstant();
-        Instant end = month.plusMonths(1).atDay(1).atStartOfDay(zone).toInstant();
-        BigDecimal value = changes.sumExpenseCategory(String.valueOf(userId), category, start, end);
-        return value == null ? BigDecimal.ZERO : value;
+    private BigDecimal spend(Map<String, BigDecimal> monthToDate, MonthlyBudgetEntity budget) {
+        return monthToDate.getOrDefault(BudgetSpendCounters.scope(budget.getCategory()), BigDecimal.ZERO);
     }
     private ZoneId zone(String value) { try { return ZoneId.of(value); } catch (Exception ignored) { return ZoneId.of("Asia/Kolkata"); } }
     private String money(BigDecimal value) { return value.stripTrailingZeros().toPlainString(); }
@@ -14,10 +14,12 @@ public class BudgetSetHandler implements StructuredEventHandler {
     private final MonthlyBudgetRepository budgets;
     private final com.apps.deen_sa.finance.expense.ExpenseCategoryResolver categories;
     private final com.apps.deen_sa.finance.legacy.state.StateChangeRepository expenses;
+    private final com.apps.deen_sa.finance.ledger.LedgerVersions versions;
     public BudgetSetHandler(MonthlyBudgetRepository budgets,
                             com.apps.deen_sa.finance.expense.ExpenseCategoryResolver categories,
-                            com.apps.deen_sa.finance.legacy.state.StateChangeRepository expenses) {
-        this.budgets = budgets; this.categories = categories; this.expenses = expenses;
+                            com.apps.deen_sa.finance.legacy.state.StateChangeRepository expenses,
+                            com.apps.deen_sa.finance.ledger.LedgerVersions versions) {
+        this.budgets = budgets; this.categories = categories; this.expenses = expenses; this.versions = versions;
     }
     @Override public String intentType() { return "BUDGET_SET"; }
     @Override public SpeechResult handleSpeech(String text, ConversationContext context) {
@@ -73,6 +75,7 @@ public class BudgetSetHandler implements StructuredEventHandler {
         if (budget.getId() == null) { budget.setUserId(context.getUserId()); budget.setCreatedAt(now); }
         budget.setCategory(preview.scope()); budget.setMonthlyLimit(preview.amount()); budget.setActive(true); budget.setUpdatedAt(now);
         MonthlyBudgetEntity saved = budgets.save(budget);
+        versions.bump(String.valueOf(context.getUserId()));
         context.reset();
         return SpeechResult.builder().status(SpeechStatus.SAVED).savedEntity(saved).needFollowup(false)
                 .message("Set your monthly " + saved.getCategory() + " budget to ₹" + money(preview.amount()) + ".").build();
@@ -0,0 +1,22 @@
+package com.apps.deen_sa.finance.budget;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "fin_budget_spend_counter", uniqueConstraints =
+        @UniqueConstraint(name = "uq_fin_budget_spend_counter", columnNames = {"user_id", "month_start", "scope"}))
+@Getter @Setter
+public class BudgetSpendCounterEntity {
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY) private Long id;
+    @Column(name = "user_id", nullable = false) private String userId;
+    @Column(nullable = false, length = 100) private String scope;
+    @Column(name = "month_start", nullable = false) private LocalDate monthStart;
+    @Column(nullable = false, precision = 19, scale = 2) private BigDecimal spent;
+    @Column(name = "entry_count", nullable = false) private int entryCount;
+    @Column(name = "updated_at", nullable = false) private Instant updatedAt;
+}
@@ -0,0 +1,103 @@
+package com.apps.deen_sa.finance.budget;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface BudgetSpendCounterRepository extends JpaRepository<BudgetSpendCounterEntity, Long> {
+    List<BudgetSpendCounterEntity> findByUserIdAndMonthStart(String userId, LocalDate monthStart);
+    Optional<BudgetSpendCounterEntity> findByUserIdAndMonthStartAndScope(String userId, LocalDate monthStart, String scope);
+
+    /** Locks the user's row until commit; every counter write for the user takes it first. */
+    @Query(value = "SELECT id FROM app_user WHERE id = CAST(:userId AS BIGINT) FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockUser(@Param("userId") String userId);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO fin_budget_spend_counter (user_id, scope, month_start, spent, entry_count, updated_at)
+            VALUES (:userId, :scope, :monthStart, :amount, :entries, CURRENT_TIMESTAMP)
+            ON CONFLICT ON CONSTRAINT uq_fin_budget_spend_counter DO UPDATE
+            SET spent = fin_budget_spend_counter.spent + EXCLUDED.spent,
+                entry_count = fin_budget_spend_counter.entry_count + EXCLUDED.entry_count,
+                updated_at = CURRENT_TIMESTAMP
+            """, nativeQuery = true)
+    int add(@Param("userId") String userId, @Param("scope") String scope, @Param("monthStart") LocalDate monthStart,
+            @Param("amount") BigDecimal amount, @Param("entries") int entries);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO fin_budget_spend_counter (user_id, scope, month_start, spent, entry_count, updated_at)
+            VALUES (:userId, :scope, :monthStart, :amount, :entries, CURRENT_TIMESTAMP)
+            ON CONFLICT ON CONSTRAINT uq_fin_budget_spend_counter DO UPDATE
+            SET spent = EXCLUDED.spent, entry_count = EXCLUDED.entry_count, updated_at = CURRENT_TIMESTAMP
+            """, nativeQuery = true)
+    int overwrite(@Param("userId") String userId, @Param("scope") String scope, @Param("monthStart") LocalDate monthStart,
+                  @Param("amount") BigDecimal amount, @Param("entries") int entries);
+
+    @Modifying
+    @Query(value = """
+            DELETE FROM fin_budget_spend_counter
+            WHERE user_id = :userId AND month_start = :monthStart AND entry_count <= 0
+            """, nativeQuery = true)
+    int pruneEmpty(@Param("userId") String userId, @Param("monthStart") LocalDate monthStart);
+
+    @Modifying
+    @Query(value = "DELETE FROM fin_budget_spend_counter WHERE user_id = :userId", nativeQuery = true)
+    int deleteForUser(@Param("userId") String userId);
+
+    /** Recreates every month of one user's counters, bucketed by month in the user's stored timezone. */
+    @Modifying
+    @Query(value = """
+            INSERT INTO fin_budget_spend_counter (user_id, scope, month_start, spent, entry_count, updated_at)
+            SELECT s.user_id, s.scope, s.month_start, SUM(s.amount), COUNT(*), CURRENT_TIMESTAMP FROM (
+                SELECT t.user_id, LOWER(t.category) AS scope, t.amount,
+                       CAST(DATE_TRUNC('month', (t.tx_time AT TIME ZONE 'UTC')
+                           AT TIME ZONE COALESCE(u.timezone, 'Asia/Kolkata')) AS DATE) AS month_start
+                FROM state_change t
+                LEFT JOIN app_user u ON CAST(u.id AS VARCHAR) = t.user_id
+                WHERE t.user_id = :userId AND t.transaction_type = 'EXPENSE' AND t.record_status = 'ACTIVE'
+                  AND COALESCE(t.category, '') <> ''
+                UNION ALL
+                SELECT t.user_id, LOWER(t.subcategory), t.amount,
+                       CAST(DATE_TRUNC('month', (t.tx_time AT TIME ZONE 'UTC')
+                           AT TIME ZONE COALESCE(u.timezone, 'Asia/Kolkata')) AS DATE)
+                FROM state_change t
+                LEFT JOIN app_user u ON CAST(u.id AS VARCHAR) = t.user_id
+                WHERE t.user_id = :userId AND t.transaction_type = 'EXPENSE' AND t.record_status = 'ACTIVE'
+                  AND COALESCE(t.subcategory, '') <> ''
+                  AND LOWER(t.subcategory) <> LOWER(COALESCE(t.category, ''))
+            ) s
+            GROUP BY s.user_id, s.scope, s.month_start
+            """, nativeQuery = true)
+    int rebuildForUser(@Param("userId") String userId);
+
+    /** Ground truth for one user-month, in the same scope shape the counters are kept in. */
+    @Query(value = """
+            SELECT s.scope, SUM(s.amount), COUNT(*) FROM (
+                SELECT LOWER(t.category) AS scope, t.amount FROM state_change t
+                WHERE t.user_id = :userId AND t.transaction_type = 'EXPENSE' AND t.record_status = 'ACTIVE'
+                  AND t.tx_time >= :start AND t.tx_time < :end AND COALESCE(t.category, '') <> ''
+                UNION ALL
+                SELECT LOWER(t.subcategory), t.amount FROM state_change t
+                WHERE t.user_id = :userId AND t.transaction_type = 'EXPENSE' AND t.record_status = 'ACTIVE'
+                  AND t.tx_time >= :start AND t.tx_time < :end AND COALESCE(t.subcategory, '') <> ''
+                  AND LOWER(t.subcategory) <> LOWER(COALESCE(t.category, ''))
+            ) s
+            GROUP BY s.scope
+            """, nativeQuery = true)
+    List<Object[]> computeMonth(@Param("userId") String userId, @Param("start") Instant start, @Param("end") Instant end);
+
+    @Query(value = """
+            SELECT DISTINCT user_id FROM state_change
+            WHERE transaction_type = 'EXPENSE' AND tx_time >= :since
+            UNION
+            SELECT DISTINCT user_id FROM fin_budget_spend_counter WHERE month_start >= :sinceMonth
+            """, nativeQuery = true)
+    List<String> findUsersActiveSince(@Param("since") Instant since, @Param("sinceMonth") LocalDate sinceMonth);
+}
@@ -0,0 +1,107 @@
+package com.apps.deen_sa.finance.budget;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Month-to-date spend per budget scope, so budget checks are a single keyed read regardless
+ * of history size. Counters are written by the expense write paths through the daily rollup
+ * maintenance and verified by {@link BudgetCounterReconciler}.
+ * Every write locks the user's {@code app_user} row first, so a reconcile or rebuild, which reads
+ * {@code state_change} and then overwrites counters, never runs between an expense and its counter
+ * update and overwrites that update with a total computed without it.
+ */
+@Service
+public class BudgetSpendCounters {
+    private final BudgetSpendCounterRepository counters;
+
+    public BudgetSpendCounters(BudgetSpendCounterRepository counters) {
+        this.counters = counters;
+    }
+
+    /** Takes the user's {@code app_user} row lock for the rest of the surrounding transaction. */
+    @Transactional
+    public void lockUser(String userId) {
+        counters.lockUser(userId);
+    }
+
+    @Transactional
+    public void add(String userId, LocalDate day, String category, String subcategory, BigDecimal amount, int entries) {
+        LocalDate month = day.withDayOfMonth(1);
+        counters.lockUser(userId);
+        for (String scope : scopes(category, subcategory)) counters.add(userId, scope, month, amount, entries);
+        if (entries < 0) counters.pruneEmpty(userId, month);
+    }
+
+    public Map<String, BigDecimal> monthToDate(Long userId, YearMonth month) {
+        Map<String, BigDecimal> spent = new HashMap<>();
+        counters.findByUserIdAndMonthStart(String.valueOf(userId), month.atDay(1))
+                .forEach(counter -> spent.put(counter.getScope(), counter.getSpent()));
+        return spent;
+    }
+
+    public BigDecimal spent(Long userId, String budgetCategory, YearMonth month) {
+        return counters.findByUserIdAndMonthStartAndScope(String.valueOf(userId), month.atDay(1), scope(budgetCategory))
+                .map(BudgetSpendCounterEntity::getSpent).orElse(BigDecimal.ZERO);
+    }
+
+    /** Recomputes one user-month from {@code state_change} and overwrites drifted counters; returns the repair count. */
+    @Transactional
+    public int reconcile(String userId, YearMonth month, ZoneId zone) {
+        counters.lockUser(userId);
+        Map<String, Object[]> expected = new HashMap<>();
+        counters.computeMonth(userId, month.atDay(1).atStartOfDay(zone).toInstant(),
+                        month.plusMonths(1).atDay(1).atStartOfDay(zone).toInstant())
+                .forEach(row -> expected.put((String) row[0], row));
+        int repaired = 0;
+        for (BudgetSpendCounterEntity actual : counters.findByUserIdAndMonthStart(userId, month.atDay(1))) {
+            Object[] truth = expected.remove(actual.getScope());
+            BigDecimal spent = truth == null ? BigDecimal.ZERO : decimal(truth[1]);
+            int entries = truth == null ? 0 : ((Number) truth[2]).intValue();
+            if (actual.getSpent().compareTo(spent) != 0 || actual.getEntryCount() != entries) {
+                counters.overwrite(userId, actual.getScope(), month.atDay(1), spent, entries);
+                repaired++;
+            }
+        }
+        for (Object[] missing : expected.values()) {
+            counters.overwrite(userId, (String) missing[0], month.atDay(1), decimal(missing[1]), ((Number) missing[2]).intValue());
+            repaired++;
+        }
+        if (repaired > 0) counters.pruneEmpty(userId, month.atDay(1));
+        return repaired;
+    }
+
+    /** Recomputes all of one user's counters from {@code state_change}; returns the counter rows written. */
+    @Transactional
+    public int rebuild(String userId) {
+        counters.lockUser(userId);
+        counters.deleteForUser(userId);
+        return counters.rebuildForUser(userId);
+    }
+
+    static List<String> scopes(String category, String subcategory) {
+        Set<String> scopes = new LinkedHashSet<>();
+        if (category != null && !category.isBlank()) scopes.add(scope(category));
+        if (subcategory != null && !subcategory.isBlank()) scopes.add(scope(subcategory));
+        return List.copyOf(scopes);
+    }
+
+    static String scope(String label) {
+        return label.toLowerCase(Locale.ROOT);
+    }
+
+    private BigDecimal decimal(Object value) {
+        return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+    }
+}
@@ -15,6 +15,7 @@ import com.apps.deen_sa.finance.legacy.state.StateChangeTypeEnum;
 import com.apps.deen_sa.finance.legacy.state.StateContainerEntity;
 import com.apps.deen_sa.finance.legacy.state.StateContainerService;
 import com.apps.deen_sa.finance.account.strategy.AdjustmentCommandFactory;
+import com.apps.deen_sa.finance.rollup.DailyRollupService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -38,6 +39,7 @@ public class IncomingCreditHandler implements StructuredEventHandler {
     private final StateContainerService containerService;
     private final StateMutationService mutationService;
     private final AdjustmentCommandFactory commandFactory;
+    private final DailyRollupService rollups;
 
     @Override
     public String intentType() {
@@ -99,6 +101,7 @@ public class IncomingCreditHandler implements StructuredEventHandler {
         credit.setFinanciallyApplied(false);
 
         StateChangeEntity saved = stateChangeRepository.save(credit);
+        rollups.record(saved);
         mutationService.apply(destination, commandFactory.forIncomingCredit(saved));
         saved.setFinanciallyApplied(true);
         stateChangeRepository.save(saved);
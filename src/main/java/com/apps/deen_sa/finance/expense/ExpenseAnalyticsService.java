@@ -3,7 +3,7 @@ package com.apps.deen_sa.finance.expense;
 import com.apps.deen_sa.dto.ExpenseQuery;
 import com.apps.deen_sa.dto.ExpenseSummary;
 import com.apps.deen_sa.dto.TimeRange;
-import com.apps.deen_sa.finance.legacy.state.StateChangeRepository;
+import com.apps.deen_sa.finance.rollup.DailyRollupQueries;
 import java.math.BigDecimal;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -13,10 +13,10 @@ import org.springframework.stereotype.Service;
 @Service
 public class ExpenseAnalyticsService {
 
-    private final StateChangeRepository repo;
+    private final DailyRollupQueries rollups;
 
-    public ExpenseAnalyticsService(StateChangeRepository repo) {
-        this.repo = repo;
+    public ExpenseAnalyticsService(DailyRollupQueries rollups) {
+        this.rollups = rollups;
     }
 
     public ExpenseSummary analyze(ExpenseQuery query) {
@@ -27,7 +27,7 @@ public class ExpenseAnalyticsService {
 
         if (query.isIncludeTotal()) {
             summary.setTotalSpend(
-                    repo.sumExpenses(
+                    rollups.sumExpenses(
                             query.getUserId(),
                             range.start(),
                             range.end(),
@@ -39,17 +39,17 @@ public class ExpenseAnalyticsService {
 
         if (query.isGroupByCategory()) {
             summary.setSpendByCategory(
-                    rows(repo.sumByCategory(query.getUserId(), range.start(), range.end(), query.getSourceAccount()))
+                    rows(rollups.sumByCategory(query.getUserId(), range.start(), range.end(), query.getSourceAccount()))
             );
             summary.setSpendBySubcategory(
-                    rows(repo.sumBySubcategory(query.getUserId(), range.start(), range.end(),
+                    rows(rollups.sumBySubcategory(query.getUserId(), range.start(), range.end(),
                             query.getCategory(), query.getSourceAccount()))
             );
         }
 
         if (query.isGroupBySourceAccount()) {
             summary.setSpendBySourceAccount(
-                    rows(repo.sumBySourceAccount(query.getUserId(), range.start(), range.end(), query.getCategory()))
+                    rows(rollups.sumBySourceAccount(query.getUserId(), range.start(), range.end(), query.getCategory()))
             );
         }
 
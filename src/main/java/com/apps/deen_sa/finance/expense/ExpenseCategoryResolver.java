@@ -15,6 +15,18 @@ public class ExpenseCategoryResolver {
     }
 
     public void canonicalize(ExpenseDto expense, String originalText) {
+        canonicalize(expense, originalText, true);
+    }
+
+    /**
+     * Same resolution from the taxonomy and its aliases only; text no alias covers is left
+     * uncategorised instead of being sent to the semantic matcher. Used for bulk imports.
+     */
+    public void canonicalizeLocally(ExpenseDto expense, String originalText) {
+        canonicalize(expense, originalText, false);
+    }
+
+    private void canonicalize(ExpenseDto expense, String originalText, boolean semantic) {
         String subcategory = taxonomy.canonicalLabel(expense.getSubcategory()).orElse(null);
         String category = taxonomy.canonicalLabel(expense.getCategory()).orElse(null);
         String evidence = firstMeaningful(expense.getMerchantName(), originalText);
@@ -41,7 +53,7 @@ public class ExpenseCategoryResolver {
             boolean alreadyConsistent = parent.equals(category);
             expense.setSubcategory(explicitAlias != null ? explicitAlias
                     : alreadyConsistent ? subcategory
-                    : resolveWithinCategory(parent, raw).orElse(subcategory));
+                    : resolveWithinCategory(parent, raw, semantic).orElse(subcategory));
             expense.setCategory(parent);
             return;
         }
@@ -51,7 +63,7 @@ public class ExpenseCategoryResolver {
             else {
                 expense.setCategory(category);
                 expense.setSubcategory(resolveWithinCategory(category,
-                        firstMeaningful(expense.getMerchantName(), originalText)).orElse(null));
+                        firstMeaningful(expense.getMerchantName(), originalText), semantic).orElse(null));
             }
             return;
         }
@@ -66,6 +78,7 @@ public class ExpenseCategoryResolver {
             else { expense.setCategory(alias); expense.setSubcategory(null); }
             return;
         }
+        if (!semantic) { expense.setCategory(null); expense.setSubcategory(null); return; }
         Map<String, String> matches = semanticMatcher.match(taxonomy.allLabels().stream().sorted().toList(), List.of(raw));
         String resolved = taxonomy.canonicalLabel(matches == null ? null : matches.get(raw)).orElse(null);
         if (resolved == null) { expense.setCategory(null); expense.setSubcategory(null); return; }
@@ -100,13 +113,14 @@ public class ExpenseCategoryResolver {
         return matcher.find() ? matcher.group(1).trim() : null;
     }
 
-    private Optional<String> resolveWithinCategory(String category, String raw) {
+    private Optional<String> resolveWithinCategory(String category, String raw, boolean semantic) {
         if (raw == null) return Optional.empty();
         List<String> candidates = taxonomy.subcategoriesFor(category).stream().sorted().toList();
         if (candidates.isEmpty()) return Optional.empty();
         String alias = taxonomy.canonicalAlias(raw).or(() -> taxonomy.canonicalAliasInText(raw))
                 .filter(candidates::contains).orElse(null);
         if (alias != null) return Optional.of(alias);
+        if (!semantic) return Optional.empty();
         Map<String, String> matches = semanticMatcher.match(candidates, List.of(raw));
         String resolved = matches == null ? null : matches.get(raw);
         return candidates.stream().filter(candidate -> candidate.equalsIgnoreCase(resolved)).findFirst();
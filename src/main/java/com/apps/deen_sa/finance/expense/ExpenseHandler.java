@@ -14,6 +14,7 @@ import com.apps.deen_sa.finance.account.enrichment.AccountEnrichmentService;
 import com.apps.deen_sa.finance.legacy.mutation.StateMutationService;
 import com.apps.deen_sa.finance.legacy.state.StateContainerService;
 import com.apps.deen_sa.finance.legacy.state.CompletenessLevelEnum;
+import com.apps.deen_sa.finance.rollup.DailyRollupService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.stereotype.Service;
@@ -52,6 +53,7 @@ public class ExpenseHandler implements SpeechHandler {
     private final ObjectMapper objectMapper;
     private final com.apps.deen_sa.finance.budget.BudgetInsightService budgetInsights;
     private final AccountEnrichmentService accountEnrichment;
+    private final DailyRollupService rollups;
 
     @Override
     public String intentType() {
@@ -257,6 +259,9 @@ public class ExpenseHandler implements SpeechHandler {
                 repo.findById(transactionId)
                         .orElseThrow(() ->
                                 new IllegalStateException("Transaction not found"));
+        rollups.lockUser(tx.getUserId());
+
+        DailyRollupService.Bucket rolledUp = rollups.snapshot(tx);
 
         // ----------------------------
         // Step E – Merge DTO into entity
@@ -301,6 +306,7 @@ public class ExpenseHandler implements SpeechHandler {
         // Step I – Persist updates
         // ----------------------------
         repo.save(tx);
+        rollups.moved(rolledUp, tx);
 
         // ----------------------------
         // Step J – Check if more follow-ups are needed
@@ -368,7 +374,9 @@ public class ExpenseHandler implements SpeechHandler {
             transaction.setSourceContainerId(source.getId());
         }
 
-        return repo.save(transaction);
+        StateChangeEntity saved = repo.save(transaction);
+        rollups.record(saved);
+        return saved;
     }
 
     private StateContainerEntity resolveSourceContainer(ExpenseDto dto, Long userId) {
@@ -416,7 +424,7 @@ public class ExpenseHandler implements SpeechHandler {
                 .replaceAll("[^\\p{L}\\p{N}]", "");
     }
 
-    static String normalizeSourceType(String source) {
+    public static String normalizeSourceType(String source) {
         String normalized = source.trim().replaceFirst("(?i)^(?:my|the)\\s+", "").toUpperCase(Locale.ROOT)
                 .replaceAll("[^A-Z0-9]+", "_")
                 .replaceAll("^_+|_+$", "");
@@ -763,12 +771,15 @@ public class ExpenseHandler implements SpeechHandler {
         }
 
         ExpenseDto dto = (ExpenseDto) ctx.getPartialObject();
+        rollups.lockUser(tx.getUserId());
         String type = normalizeSourceType(dto.getSourceAccount());
         StateContainerEntity source = stateContainerService.createProvisional(
                 ctx.getUserId(), type, specificAccountName(dto.getSourceAccount()));
+        DailyRollupService.Bucket rolledUp = rollups.snapshot(tx);
         tx.setSourceContainerId(source.getId());
         tx.setNeedsEnrichment(true);
         repo.save(tx);
+        rollups.moved(rolledUp, tx);
         return accountInitializationFollowup(tx, dto, ctx);
     }
 
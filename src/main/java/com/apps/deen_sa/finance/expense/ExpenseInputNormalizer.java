@@ -42,6 +42,17 @@ public class ExpenseInputNormalizer {
         return dto;
     }
 
+    /**
+     * Normalises a row read from a bank or UPI statement. The date and amount come from their own
+     * columns, so the narration is not searched for relative dates or spend phrases, and categories
+     * are resolved without the semantic matcher.
+     */
+    public ExpenseDto normalizeStatementRow(ExpenseDto dto) {
+        dto.setSourceAccount(canonicalPaymentSource(dto.getSourceAccount()));
+        categoryResolver.canonicalizeLocally(dto, dto.getRawText());
+        return dto;
+    }
+
     private String canonicalPaymentSource(String source) {
         if (source == null || source.isBlank()) return source;
         String normalized = source.trim();
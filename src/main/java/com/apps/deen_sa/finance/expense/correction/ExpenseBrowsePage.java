@@ -1,8 +1,12 @@
 package com.apps.deen_sa.finance.expense.correction;
 
 import com.apps.deen_sa.finance.legacy.state.StateChangeEntity;
+import java.time.Instant;
 import java.util.List;
 
-record ExpenseBrowsePage(List<StateChangeEntity> transactions, Long nextCursor) {
+record ExpenseBrowsePage(List<StateChangeEntity> transactions, Cursor nextCursor) {
     boolean hasMore() { return nextCursor != null; }
+
+    /** The last row shown; the next page starts strictly before it in (tx_time, id) order. */
+    record Cursor(Instant txTime, Long id) { }
 }
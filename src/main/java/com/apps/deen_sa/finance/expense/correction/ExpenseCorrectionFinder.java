@@ -1,19 +1,25 @@
 package com.apps.deen_sa.finance.expense.correction;
 
-import com.apps.deen_sa.finance.expense.ExpenseRecordStatus;
 import com.apps.deen_sa.finance.legacy.state.StateChangeEntity;
 import com.apps.deen_sa.finance.legacy.state.StateChangeRepository;
-import com.apps.deen_sa.finance.legacy.state.StateChangeTypeEnum;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
+import java.time.Instant;
 import java.util.List;
 
+/**
+ * Pages through a user's active expenses for correction, newest first, with one indexed query per
+ * page. Pages are keyset cursors on (tx_time, id), so a page costs the same however far back it is;
+ * the first page starts from a cursor after every row, so the cursor is always an index condition. A
+ * search term switches to the query its text indexes can serve, and the category, period, amount range
+ * and account narrow either one.
+ */
 @Service
 class ExpenseCorrectionFinder {
+    private static final Instant FIRST_PAGE_TIME = Instant.parse("9999-12-31T00:00:00Z");
+    private static final long FIRST_PAGE_ID = Long.MAX_VALUE;
+
     private final StateChangeRepository transactions;
     private final int pageSize;
 
@@ -24,25 +30,25 @@ class ExpenseCorrectionFinder {
     }
 
     ExpenseBrowsePage find(String userId, ExpenseCorrectionState state) {
-        Specification<StateChangeEntity> specification = (root, query, cb) -> {
-            List<jakarta.persistence.criteria.Predicate> predicates = new ArrayList<>();
-            predicates.add(cb.equal(root.get("userId"), userId));
-            predicates.add(cb.equal(root.get("transactionType"), StateChangeTypeEnum.EXPENSE));
-            predicates.add(cb.equal(root.get("recordStatus"), ExpenseRecordStatus.ACTIVE));
-            if (state.getBeforeId() != null) predicates.add(cb.lessThan(root.get("id"), state.getBeforeId()));
-            if (state.getPeriodStart() != null) predicates.add(cb.greaterThanOrEqualTo(root.get("timestamp"), state.getPeriodStart()));
-            if (state.getPeriodEnd() != null) predicates.add(cb.lessThan(root.get("timestamp"), state.getPeriodEnd()));
-            if (state.getCategory() != null && !state.getCategory().isBlank())
-                predicates.add(cb.equal(cb.lower(root.get("category")), state.getCategory().toLowerCase()));
-            if (state.getSubcategory() != null && !state.getSubcategory().isBlank())
-                predicates.add(cb.equal(cb.lower(root.get("subcategory")), state.getSubcategory().toLowerCase()));
-            query.orderBy(cb.desc(root.get("id")));
-            return cb.and(predicates.toArray(jakarta.persistence.criteria.Predicate[]::new));
-        };
-        List<StateChangeEntity> rows = transactions.findAll(specification, PageRequest.of(0, pageSize + 1)).getContent();
+        boolean paged = state.getBeforeTime() != null && state.getBeforeId() != null;
+        Instant beforeTime = paged ? state.getBeforeTime() : FIRST_PAGE_TIME;
+        long beforeId = paged ? state.getBeforeId() : FIRST_PAGE_ID;
+        String search = blankToNull(state.getSearchTerm());
+        List<StateChangeEntity> rows = search == null
+                ? transactions.pageActiveExpenses(userId, beforeTime, beforeId, state.getPeriodStart(),
+                        state.getPeriodEnd(), blankToNull(state.getCategory()), blankToNull(state.getSubcategory()),
+                        state.getMinAmount(), state.getMaxAmount(), blankToNull(state.getSourceAccount()), pageSize + 1)
+                : transactions.searchActiveExpenses(userId, search, beforeTime, beforeId, state.getPeriodStart(),
+                        state.getPeriodEnd(), blankToNull(state.getCategory()), blankToNull(state.getSubcategory()),
+                        state.getMinAmount(), state.getMaxAmount(), blankToNull(state.getSourceAccount()), pageSize + 1);
         boolean more = rows.size() > pageSize;
         List<StateChangeEntity> visible = more ? rows.subList(0, pageSize) : rows;
-        Long cursor = more && !visible.isEmpty() ? visible.getLast().getId() : null;
-        return new ExpenseBrowsePage(List.copyOf(visible), cursor);
+        StateChangeEntity last = more && !visible.isEmpty() ? visible.getLast() : null;
+        return new ExpenseBrowsePage(List.copyOf(visible),
+                last == null ? null : new ExpenseBrowsePage.Cursor(last.getTimestamp(), last.getId()));
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
     }
 }
@@ -54,6 +54,10 @@ public class ExpenseCorrectionHandler implements StructuredEventHandler {
         state.setAction(enumValue(event.fields().asMap().get("correctionAction")));
         state.setCategory(text(event.fields().asMap().get("category")));
         state.setSubcategory(text(event.fields().asMap().get("subcategory")));
+        state.setSearchTerm(text(event.fields().asMap().get("searchText")));
+        state.setMinAmount(amount(event.fields().asMap().get("minAmount")));
+        state.setMaxAmount(amount(event.fields().asMap().get("maxAmount")));
+        state.setSourceAccount(text(event.fields().asMap().get("sourceAccount")));
         return start(state, context);
     }
 
@@ -184,12 +188,14 @@ public class ExpenseCorrectionHandler implements StructuredEventHandler {
             StateChangeEntity expense = page.transactions().getFirst();
             state.setVisibleTransactionIds(List.of(expense.getId()));
             state.setBeforeId(null);
+            state.setBeforeTime(null);
             state.setStage(CorrectionStage.BROWSING);
             return followup(context, state, "Is this the transaction you want to " + actionVerb(state) + "?\n\n"
                     + summary(expense, context), List.of(action("SELECT_" + expense.getId(), "Yes"), cancel()));
         }
         state.setVisibleTransactionIds(page.transactions().stream().map(StateChangeEntity::getId).toList());
-        state.setBeforeId(page.nextCursor());
+        state.setBeforeId(page.hasMore() ? page.nextCursor().id() : null);
+        state.setBeforeTime(page.hasMore() ? page.nextCursor().txTime() : null);
         state.setStage(CorrectionStage.BROWSING);
         StringBuilder message = new StringBuilder(prefix == null ? "Select a transaction:" : prefix + "\n\n");
         List<ResponseAction> actions = new ArrayList<>();
@@ -217,6 +223,12 @@ public class ExpenseCorrectionHandler implements StructuredEventHandler {
         return value == null || value.toString().isBlank() ? null : value.toString().trim();
     }
 
+    private BigDecimal amount(Object value) {
+        if (value == null || value.toString().isBlank()) return null;
+        try { return new BigDecimal(value.toString().replaceAll("(?i)[₹,\\s]|rs\\.?|inr", "")); }
+        catch (NumberFormatException ignored) { return null; }
+    }
+
     private Long selectedId(ExpenseCorrectionState state, String answer) {
         String normalized = answer.toUpperCase(Locale.ROOT);
         if (normalized.startsWith("SELECT_")) {
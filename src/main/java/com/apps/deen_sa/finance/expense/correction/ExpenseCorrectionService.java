@@ -10,6 +10,7 @@ import com.apps.deen_sa.finance.legacy.state.StateChangeEntity;
 import com.apps.deen_sa.finance.legacy.state.StateChangeRepository;
 import com.apps.deen_sa.finance.legacy.state.StateContainerEntity;
 import com.apps.deen_sa.finance.legacy.state.StateContainerRepository;
+import com.apps.deen_sa.finance.rollup.DailyRollupService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,32 +26,39 @@ class ExpenseCorrectionService {
     private final StateMutationRepository mutationRecords;
     private final StateMutationService mutations;
     private final StateContainerRepository containers;
+    private final DailyRollupService rollups;
 
     ExpenseCorrectionService(StateChangeRepository transactions, StateMutationRepository mutationRecords,
-                             StateMutationService mutations, StateContainerRepository containers) {
+                             StateMutationService mutations, StateContainerRepository containers,
+                             DailyRollupService rollups) {
         this.transactions = transactions;
         this.mutationRecords = mutationRecords;
         this.mutations = mutations;
         this.containers = containers;
+        this.rollups = rollups;
     }
 
     @Transactional
     CorrectionOutcome voidExpense(Long userId, Long transactionId) {
         StateChangeEntity original = activeOwnedExpense(userId, transactionId);
+        DailyRollupService.Bucket rolledUp = rollups.snapshot(original);
         reverseLegacyImpact(original);
         original.setRecordStatus(ExpenseRecordStatus.VOIDED);
         original.setCorrectedAt(Instant.now());
         original.setCorrectionReason("USER_DELETED");
         transactions.save(original);
+        rollups.moved(rolledUp, original);
         return new CorrectionOutcome(original, null, balanceImpact(original.getAmount(), BigDecimal.ZERO));
     }
 
     @Transactional
     CorrectionOutcome editExpense(Long userId, Long transactionId, CorrectionField field, Object value) {
         StateChangeEntity original = activeOwnedExpense(userId, transactionId);
+        DailyRollupService.Bucket rolledUp = rollups.snapshot(original);
         StateChangeEntity replacement = copy(original);
         apply(replacement, field, value);
         replacement = transactions.save(replacement);
+        rollups.record(replacement);
 
         if (original.isFinanciallyApplied()) {
             reverseLegacyImpact(original);
@@ -61,6 +69,7 @@ class ExpenseCorrectionService {
         original.setCorrectedAt(Instant.now());
         original.setCorrectionReason("USER_EDITED_" + field.name());
         transactions.save(original);
+        rollups.moved(rolledUp, original);
         final StateChangeEntity savedReplacement = replacement;
 
         return new CorrectionOutcome(original, savedReplacement,
@@ -68,6 +77,7 @@ class ExpenseCorrectionService {
     }
 
     private StateChangeEntity activeOwnedExpense(Long userId, Long transactionId) {
+        rollups.lockUser(userId.toString());
         StateChangeEntity value = transactions.findExpenseForUpdate(transactionId, userId.toString())
                 .orElseThrow(() -> new IllegalArgumentException("That expense no longer exists."));
         if (value.getRecordStatus() != ExpenseRecordStatus.ACTIVE)
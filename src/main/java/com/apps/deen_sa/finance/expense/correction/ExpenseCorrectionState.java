@@ -1,6 +1,7 @@
 package com.apps.deen_sa.finance.expense.correction;
 
 import lombok.Data;
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
@@ -10,12 +11,16 @@ public class ExpenseCorrectionState {
     private CorrectionStage stage = CorrectionStage.BROWSING;
     private CorrectionAction action;
     private Long beforeId;
+    private Instant beforeTime;
     private Long selectedTransactionId;
     private CorrectionField field;
     private String proposedValue;
     private String searchTerm;
     private String category;
     private String subcategory;
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+    private String sourceAccount;
     private Instant periodStart;
     private Instant periodEnd;
     private List<Long> visibleTransactionIds = new ArrayList<>();
@@ -0,0 +1,364 @@
+package com.apps.deen_sa.finance.expense.statement;
+
+import com.apps.deen_sa.conversation.AppUserService;
+import com.apps.deen_sa.conversation.StatementImportGateway;
+import com.apps.deen_sa.dto.ExpenseDto;
+import com.apps.deen_sa.dto.StateMutationCommand;
+import com.apps.deen_sa.finance.expense.ExpenseCompletenessEvaluator;
+import com.apps.deen_sa.finance.expense.ExpenseDtoToEntityMapper;
+import com.apps.deen_sa.finance.expense.ExpenseHandler;
+import com.apps.deen_sa.finance.expense.ExpenseInputNormalizer;
+import com.apps.deen_sa.finance.legacy.mutation.MutationTypeEnum;
+import com.apps.deen_sa.finance.legacy.mutation.StateMutationService;
+import com.apps.deen_sa.finance.legacy.state.StateChangeEntity;
+import com.apps.deen_sa.finance.legacy.state.StateContainerEntity;
+import com.apps.deen_sa.finance.legacy.state.StateContainerService;
+import com.apps.deen_sa.finance.rollup.DailyRollupService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Imports bank and UPI statement CSVs as expenses. The file is streamed and written in batches of
+ * {@code finance.import.batch-size} debits. Each batch is categorised with the local taxonomy only,
+ * checked against the user's active expenses by (day, amount, merchant hash), inserted with one JDBC
+ * batch, and then moved into the account balance and the rollups once, all in one transaction. Days
+ * are the user's days, as the rollups count them. Whether a single amount column is signed is settled
+ * by the rows of the first batch, before anything is written. No row is sent to the model, so a
+ * statement of any length costs nothing to import.
+ */
+@Log4j2
+@Service
+public class ExpenseStatementImporter implements StatementImportGateway {
+    private static final String INSERT = """
+            INSERT INTO state_change (user_id, transaction_type, amount, category, subcategory, main_entity, tx_time,
+                                      raw_text, details, source_container_id, created_at, updated_at,
+                                      completeness_level, financially_applied, needs_enrichment, record_status,
+                                      record_version)
+            VALUES (?, 'EXPENSE', ?, ?, ?, ?, ?, ?, CAST(? AS jsonb), ?, ?, ?, ?, ?, ?, 'ACTIVE', 1)
+            """;
+    private static final String EXISTING = """
+            SELECT tx_time, amount, main_entity FROM state_change
+            WHERE user_id = ? AND transaction_type = 'EXPENSE' AND record_status = 'ACTIVE'
+              AND tx_time >= ? AND tx_time < ?
+              AND (details ->> 'importId') IS DISTINCT FROM ?
+            """;
+    private static final int HEADER_SEARCH_RECORDS = 50;
+    private static final int MAX_CACHED_MERCHANTS = 10_000;
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transactions;
+    private final ExpenseInputNormalizer normalizer;
+    private final ExpenseCompletenessEvaluator completeness;
+    private final StateContainerService containers;
+    private final StateMutationService mutations;
+    private final DailyRollupService rollups;
+    private final AppUserService users;
+    private final int batchSize;
+
+    private final Counter importedRows = Metrics.counter("deen.finance.import.rows", "outcome", "imported");
+    private final Counter duplicateRows = Metrics.counter("deen.finance.import.rows", "outcome", "duplicate");
+    private final Counter skippedRows = Metrics.counter("deen.finance.import.rows", "outcome", "skipped");
+    private final Counter rejectedRows = Metrics.counter("deen.finance.import.rows", "outcome", "rejected");
+    private final Timer batches = Metrics.timer("deen.finance.import.batch");
+    private final DistributionSummary throughput = DistributionSummary.builder("deen.finance.import.throughput")
+            .baseUnit("rows/s").register(Metrics.globalRegistry);
+
+    public ExpenseStatementImporter(JdbcTemplate jdbc, TransactionTemplate transactions,
+                                    ExpenseInputNormalizer normalizer, ExpenseCompletenessEvaluator completeness,
+                                    StateContainerService containers, StateMutationService mutations,
+                                    DailyRollupService rollups, AppUserService users,
+                                    @Value("${finance.import.batch-size:1000}") int batchSize) {
+        this.jdbc = jdbc;
+        this.transactions = transactions;
+        this.normalizer = normalizer;
+        this.completeness = completeness;
+        this.containers = containers;
+        this.mutations = mutations;
+        this.rollups = rollups;
+        this.users = users;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public String importStatement(String channel, String externalUserId, String sourceAccount, InputStream content)
+            throws IOException {
+        Long userId = users.resolve(channel, externalUserId).getId();
+        StatementImportReport report;
+        try {
+            report = importCsv(userId, sourceAccount, new InputStreamReader(content, StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException unreadable) {
+            return "I could not find the date, amount and description columns in that file. "
+                    + "Please send the CSV statement exported from your bank or UPI app.";
+        }
+        StringBuilder reply = new StringBuilder("Imported " + report.imported() + " expenses");
+        if (report.sourceAccount() != null) reply.append(" to ").append(report.sourceAccount());
+        reply.append('.');
+        if (report.duplicates() > 0) reply.append(' ').append(report.duplicates()).append(" were already recorded.");
+        if (report.rejected() > 0) reply.append(' ').append(report.rejected())
+                .append(" rows could not be read, the first on line ").append(report.firstRejectedLine()).append('.');
+        return reply.toString();
+    }
+
+    /**
+     * Imports one statement for {@code userId}. {@code sourceAccount} is matched against the user's
+     * accounts once; when it names a single account with a known balance, each batch debits it once.
+     *
+     * @throws IllegalArgumentException when no header row with date, amount and description columns is found
+     */
+    public StatementImportReport importCsv(Long userId, String sourceAccount, Reader csv) throws IOException {
+        long started = System.nanoTime();
+        String importId = UUID.randomUUID().toString();
+        StateContainerEntity source = sourceFor(userId, sourceAccount);
+        StatementCsvReader reader = new StatementCsvReader(csv);
+
+        long line = 0;
+        StatementLayout layout = null;
+        while (layout == null) {
+            List<String> record = reader.next();
+            line++;
+            if (record == null || line > HEADER_SEARCH_RECORDS)
+                throw new IllegalArgumentException("No statement header with date, amount and description columns");
+            layout = StatementLayout.detect(record).orElse(null);
+        }
+
+        ImportRun run = new ImportRun(userId, importId, sourceAccount, source, rollups.zoneFor(userId.toString()), layout);
+        for (List<String> record = reader.next(); record != null; record = reader.next()) {
+            line++;
+            if (record.size() == 1 && record.getFirst().isEmpty()) continue;
+            run.tally.rows++;
+            try {
+                StatementRow row = layout.read(record, line);
+                if (row == null) {
+                    run.tally.skipped++;
+                    continue;
+                }
+                run.pending.add(row);
+                if (run.pending.size() == batchSize) write(run);
+            } catch (IllegalArgumentException unreadable) {
+                run.tally.rejected++;
+                if (run.tally.firstRejectedLine == null) run.tally.firstRejectedLine = line;
+            }
+        }
+        if (!run.pending.isEmpty()) write(run);
+
+        Tally tally = run.tally;
+        skippedRows.increment(tally.skipped);
+        rejectedRows.increment(tally.rejected);
+        StatementImportReport report = new StatementImportReport(importId, tally.rows, tally.imported,
+                tally.duplicates, tally.skipped, tally.rejected, tally.firstRejectedLine,
+                source == null ? null : source.getName(), Duration.ofNanos(System.nanoTime() - started));
+        throughput.record(report.rowsPerSecond());
+        log.info("Imported statement {} for user {}: {} rows, {} new, {} duplicate, {} skipped, {} rejected in {} ms ({} rows/s)",
+                importId, userId, report.rows(), report.imported(), report.duplicates(), report.skipped(),
+                report.rejected(), report.elapsed().toMillis(), Math.round(report.rowsPerSecond()));
+        return report;
+    }
+
+    private void write(ImportRun run) {
+        // The rows before the first write are the look-ahead for the sign of a single amount column. When
+        // they hold a negative amount, their positive rows were credits; otherwise the statement is read as
+        // unsigned from here on, so no committed row is reinterpreted by a later one.
+        if (run.layout.settleSign()) {
+            int before = run.pending.size();
+            run.pending.removeIf(StatementRow::assumedDebit);
+            run.tally.skipped += before - run.pending.size();
+            if (run.pending.isEmpty()) return;
+        }
+        batches.record(() -> {
+            List<StateChangeEntity> expenses = new ArrayList<>(run.pending.size());
+            for (StatementRow row : run.pending) expenses.add(expense(run, row));
+            Integer inserted = transactions.execute(status -> insertNew(run, expenses));
+            int written = inserted == null ? 0 : inserted;
+            run.tally.imported += written;
+            run.tally.duplicates += expenses.size() - written;
+            importedRows.increment(written);
+            duplicateRows.increment(expenses.size() - written);
+        });
+        run.pending.clear();
+    }
+
+    private int insertNew(ImportRun run, List<StateChangeEntity> expenses) {
+        // Imports for one user run one batch at a time, so two uploads of the same file cannot both insert a row.
+        rollups.lockUser(run.userId.toString());
+        Map<DedupeKey, Integer> existing = existing(run, expenses);
+        List<StateChangeEntity> fresh = new ArrayList<>(expenses.size());
+        BigDecimal total = BigDecimal.ZERO;
+        for (StateChangeEntity expense : expenses) {
+            DedupeKey key = DedupeKey.of(expense.getTimestamp(), run.zone, expense.getAmount(), expense.getMainEntity());
+            Integer remaining = existing.get(key);
+            if (remaining != null && remaining > 0) {
+                existing.put(key, remaining - 1);
+                continue;
+            }
+            fresh.add(expense);
+            total = total.add(expense.getAmount());
+        }
+        if (fresh.isEmpty()) return 0;
+
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbc.batchUpdate(INSERT, fresh, fresh.size(), (statement, expense) -> {
+            statement.setString(1, expense.getUserId());
+            statement.setBigDecimal(2, expense.getAmount());
+            statement.setString(3, expense.getCategory());
+            statement.setString(4, expense.getSubcategory());
+            statement.setString(5, expense.getMainEntity());
+            statement.setTimestamp(6, Timestamp.from(expense.getTimestamp()));
+            statement.setString(7, expense.getRawText());
+            statement.setString(8, run.details);
+            statement.setObject(9, expense.getSourceContainerId(), Types.BIGINT);
+            statement.setTimestamp(10, now);
+            statement.setTimestamp(11, now);
+            statement.setString(12, expense.getCompletenessLevel().name());
+            statement.setBoolean(13, expense.isFinanciallyApplied());
+            statement.setBoolean(14, expense.isNeedsEnrichment());
+        });
+        if (run.appliesBalance) {
+            mutations.apply(run.source, new StateMutationCommand(total, MutationTypeEnum.DEBIT, "EXPENSE_IMPORT",
+                    null, Instant.now()));
+        }
+        rollups.recordAll(fresh);
+        return fresh.size();
+    }
+
+    /** How many active expenses the user already has per key around the batch's dates. */
+    private Map<DedupeKey, Integer> existing(ImportRun run, List<StateChangeEntity> expenses) {
+        Instant first = expenses.getFirst().getTimestamp();
+        Instant last = first;
+        for (StateChangeEntity expense : expenses) {
+            if (expense.getTimestamp().isBefore(first)) first = expense.getTimestamp();
+            if (expense.getTimestamp().isAfter(last)) last = expense.getTimestamp();
+        }
+        Map<DedupeKey, Integer> counts = new HashMap<>();
+        jdbc.query(EXISTING, (RowCallbackHandler) rs -> counts.merge(DedupeKey.of(rs.getTimestamp("tx_time").toInstant(),
+                        run.zone, rs.getBigDecimal("amount"), rs.getString("main_entity")), 1, Integer::sum),
+                run.userId.toString(), Timestamp.from(first.minus(Duration.ofDays(1))),
+                Timestamp.from(last.plus(Duration.ofDays(2))), run.importId);
+        return counts;
+    }
+
+    private StateChangeEntity expense(ImportRun run, StatementRow row) {
+        ExpenseDto dto = new ExpenseDto();
+        dto.setAmount(row.amount());
+        dto.setTransactionDate(row.date());
+        dto.setMerchantName(row.merchant());
+        dto.setRawText(row.narration());
+        dto.setSourceAccount(run.sourceAccount);
+        dto.setSourceResolved(run.source != null);
+        categorise(dto, run.categories);
+        completeness.evaluate(dto);
+
+        StateChangeEntity expense = ExpenseDtoToEntityMapper.toEntity(dto, run.userId);
+        // The statement day is the user's day, as the rollups and the duplicate check read it.
+        expense.setTimestamp(row.date().atStartOfDay(run.zone).toInstant());
+        if (run.source != null) expense.setSourceContainerId(run.source.getId());
+        expense.setFinanciallyApplied(run.appliesBalance);
+        expense.setNeedsEnrichment(!run.appliesBalance);
+        return expense;
+    }
+
+    /**
+     * Runs the statement normaliser once per merchant. With no category on the row, resolution depends
+     * only on the merchant, and statements repeat the same few merchants many times.
+     */
+    private void categorise(ExpenseDto dto, Map<String, ExpenseDto> resolved) {
+        ExpenseDto known = dto.getMerchantName() == null ? null : resolved.get(dto.getMerchantName());
+        if (known != null) {
+            dto.setCategory(known.getCategory());
+            dto.setSubcategory(known.getSubcategory());
+            dto.setSourceAccount(known.getSourceAccount());
+            return;
+        }
+        normalizer.normalizeStatementRow(dto);
+        if (dto.getMerchantName() != null && resolved.size() < MAX_CACHED_MERCHANTS)
+            resolved.put(dto.getMerchantName(), dto);
+    }
+
+    private StateContainerEntity sourceFor(Long userId, String sourceAccount) {
+        if (sourceAccount == null || sourceAccount.isBlank()) return null;
+        List<StateContainerEntity> active = containers.getActiveContainers(userId);
+        String name = compact(sourceAccount);
+        List<StateContainerEntity> named = active.stream().filter(c -> compact(c.getName()).equals(name)).toList();
+        if (named.size() == 1) return named.getFirst();
+        String type = ExpenseHandler.normalizeSourceType(sourceAccount);
+        List<StateContainerEntity> typed = active.stream().filter(c -> type.equals(c.getContainerType())).toList();
+        return typed.size() == 1 ? typed.getFirst() : null;
+    }
+
+    private static String compact(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]", "");
+    }
+
+    /**
+     * An expense's day in the user's timezone, its amount and a hash of its merchant; equal keys are
+     * treated as the same expense.
+     */
+    private record DedupeKey(LocalDate day, BigDecimal amount, int merchant) {
+        static DedupeKey of(Instant time, ZoneId zone, BigDecimal amount, String merchant) {
+            return new DedupeKey(LocalDate.ofInstant(time, zone),
+                    amount.setScale(2, RoundingMode.HALF_UP), compact(merchant).hashCode());
+        }
+    }
+
+    private static final class ImportRun {
+        final Long userId;
+        final String importId;
+        final String details;
+        final String sourceAccount;
+        final StateContainerEntity source;
+        final boolean appliesBalance;
+        final ZoneId zone;
+        final StatementLayout layout;
+        final List<StatementRow> pending = new ArrayList<>();
+        final Map<String, ExpenseDto> categories = new HashMap<>();
+        final Tally tally = new Tally();
+
+        ImportRun(Long userId, String importId, String sourceAccount, StateContainerEntity source, ZoneId zone,
+                  StatementLayout layout) {
+            this.userId = userId;
+            this.importId = importId;
+            this.details = "{\"importId\": \"" + importId + "\"}";
+            this.sourceAccount = sourceAccount;
+            this.source = source;
+            this.appliesBalance = source != null && source.getCurrentValue() != null;
+            this.zone = zone;
+            this.layout = layout;
+        }
+    }
+
+    private static final class Tally {
+        long rows;
+        long imported;
+        long duplicates;
+        long skipped;
+        long rejected;
+        Long firstRejectedLine;
+    }
+}
@@ -0,0 +1,19 @@
+package com.apps.deen_sa.finance.expense.statement;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Duration;
+
+/**
+ * Outcome of one statement import. {@code skipped} rows are credits and balance lines; {@code rejected}
+ * rows had an amount but an unreadable date or amount, and {@code firstRejectedLine} points at one.
+ */
+public record StatementImportReport(String importId, long rows, long imported, long duplicates, long skipped,
+                                    long rejected, Long firstRejectedLine, String sourceAccount, Duration elapsed) {
+
+    @JsonProperty
+    public double rowsPerSecond() {
+        double seconds = elapsed.toNanos() / 1e9;
+        return seconds == 0 ? rows : rows / seconds;
+    }
+}
@@ -0,0 +1,208 @@
+package com.apps.deen_sa.finance.expense.statement;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Where the columns of one bank or UPI statement are, found from its header row by name. Banks put
+ * a few lines of account details above the header and disagree on column names, date formats and
+ * whether debits have their own column, so all of that is settled once here and every data row is
+ * then read by index.
+ */
+final class StatementLayout {
+    private static final List<String> DATE = List.of("transaction date", "txn date", "tran date", "trans date",
+            "date", "posting date", "value date", "date time");
+    private static final List<String> NARRATION = List.of("description", "narration", "particulars", "remarks",
+            "transaction details", "transaction remarks", "transaction description", "details");
+    private static final List<String> MERCHANT = List.of("merchant", "merchant name", "payee", "paid to",
+            "beneficiary", "receiver", "name");
+    private static final List<String> AMOUNT = List.of("amount", "transaction amount", "txn amount", "amount inr",
+            "amount rs", "amt");
+    private static final List<String> DEBIT = List.of("debit", "debit amount", "debit amt", "withdrawal",
+            "withdrawals", "withdrawal amount", "withdrawal amt", "dr", "paid out");
+    private static final List<String> TYPE = List.of("type", "dr cr", "cr dr", "debit credit", "transaction type",
+            "txn type");
+
+    private static final List<DateTimeFormatter> DATE_FORMATS = List.of(
+            "uuuu-MM-dd", "d/M/uuuu", "d-M-uuuu", "d.M.uuuu", "d/M/uu", "d-M-uu", "d MMM uuuu", "d-MMM-uuuu",
+            "d MMM uu", "d-MMM-uu", "MMM d, uuuu", "d MMMM uuuu").stream()
+            .map(pattern -> new DateTimeFormatterBuilder().parseCaseInsensitive().appendPattern(pattern)
+                    .toFormatter(Locale.ENGLISH))
+            .toList();
+    private static final Pattern TIME_OF_DAY = Pattern.compile(
+            "(?i)(?:[T\\s,]+\\d{1,2}:\\d{2}(?::\\d{2}(?:\\.\\d+)?)?\\s*(?:am|pm)?(?:Z|[+-]\\d{2}:?\\d{2})?)$");
+    private static final Pattern CURRENCY = Pattern.compile("(?i)(?:rs\\.?|inr|₹)");
+    private static final Pattern DIRECTION_SUFFIX = Pattern.compile("(?i)\\s*(dr|cr)\\.?$");
+    private static final Pattern SEPARATORS = Pattern.compile("[,\\s+]");
+    private static final Pattern SEGMENT = Pattern.compile("[/|\\-:*]+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+    // UPI ids, IFSC codes, reference numbers and masked card numbers
+    private static final Pattern VPA_OR_REFERENCE = Pattern.compile(
+            "(?i)^(?:.*@.*|[A-Z]{4}0[A-Z0-9]{6}|[A-Z0-9]*\\d{5,}[A-Z0-9]*|(?=.*\\d)(?=.*x)[0-9x]{4,})$");
+    private static final Set<String> RAIL_WORDS = Set.of("upi", "dr", "cr", "pos", "neft", "imps", "rtgs", "ach",
+            "ecs", "nach", "p2m", "p2a", "payment", "txn", "ref", "mb", "ib", "inb", "onl", "bil", "billpay",
+            "sent", "paid", "to", "via", "using", "debit", "card", "purchase", "collect", "request", "mandate",
+            "autopay", "yesb", "icic", "hdfc", "sbin", "utib", "kkbk", "pytm", "axis", "ybl", "okaxis", "oksbi",
+            "okhdfcbank", "okicici", "paytm", "phonepe", "gpay");
+
+    private final int date;
+    private final int narration;
+    private final int merchant;
+    private final int amount;
+    private final int debit;
+    private final int type;
+    private int lastDateFormat;
+    private Boolean signed;
+
+    private StatementLayout(List<String> header) {
+        date = column(header, DATE);
+        narration = column(header, NARRATION);
+        merchant = column(header, MERCHANT);
+        amount = column(header, AMOUNT);
+        debit = column(header, DEBIT);
+        type = column(header, TYPE);
+    }
+
+    /** The layout when {@code record} is a usable header row: a date, an amount or debit, and some text. */
+    static Optional<StatementLayout> detect(List<String> record) {
+        StatementLayout layout = new StatementLayout(record);
+        boolean usable = layout.date >= 0 && (layout.amount >= 0 || layout.debit >= 0)
+                && (layout.narration >= 0 || layout.merchant >= 0);
+        return usable ? Optional.of(layout) : Optional.empty();
+    }
+
+    /**
+     * The expense on one data row, or {@code null} when the row is not a debit (a credit, a blank line
+     * or a balance line without an amount). With one amount column and no type column, a negative amount
+     * is a debit and makes the statement {@link #signed()}; after that a positive amount is a credit.
+     * Until the sign is {@link #settleSign() settled}, a positive amount is an assumed debit.
+     *
+     * @throws IllegalArgumentException when the row has an amount but its date or amount cannot be read, or
+     *                                  a negative amount follows the statement being settled as unsigned
+     */
+    StatementRow read(List<String> record, long line) {
+        String amountText = debit >= 0 ? field(record, debit) : field(record, amount);
+        String dateText = field(record, date);
+        if (amountText.isEmpty()) return null;
+
+        BigDecimal value = amount(amountText);
+        if (value.signum() == 0) return null;
+        boolean assumedDebit = false;
+        if (debit < 0) {
+            // One amount column: the type column decides, then an amount suffix, then the amount's sign.
+            String direction = field(record, type).toLowerCase(Locale.ROOT);
+            var suffix = DIRECTION_SUFFIX.matcher(amountText);
+            boolean credited;
+            if (!direction.isEmpty()) credited = direction.startsWith("c") || direction.startsWith("r");
+            else if (suffix.find()) credited = suffix.group(1).equalsIgnoreCase("cr");
+            else {
+                if (value.signum() < 0) {
+                    if (Boolean.FALSE.equals(signed))
+                        throw new IllegalArgumentException("Negative amount in an unsigned statement: " + amountText);
+                    signed = true;
+                }
+                credited = Boolean.TRUE.equals(signed) && value.signum() > 0;
+                assumedDebit = signed == null && value.signum() > 0;
+            }
+            if (credited) return null;
+        }
+
+        String text = field(record, narration);
+        String payee = field(record, merchant);
+        String merchantName = payee.isEmpty() ? merchantFrom(text) : payee;
+        return new StatementRow(line, date(dateText), value.abs(),
+                merchantName == null ? null : truncate(merchantName, 150),
+                text.isEmpty() ? payee : text, assumedDebit);
+    }
+
+    /** True once a row has shown that the single amount column is signed, with debits negative. */
+    boolean signed() {
+        return Boolean.TRUE.equals(signed);
+    }
+
+    /**
+     * Ends the look-ahead for the sign: a statement that has shown no negative amount yet is read as
+     * unsigned from now on. Returns whether the statement is signed.
+     */
+    boolean settleSign() {
+        if (signed == null) signed = false;
+        return signed;
+    }
+
+    /**
+     * The payee in a bank narration such as {@code UPI/DR/412345678901/SWIGGY/YESB/swiggy@yesbank/Payment}:
+     * the first segment that is not a payment rail, bank code, reference number or UPI id.
+     */
+    static String merchantFrom(String narration) {
+        if (narration == null || narration.isBlank()) return null;
+        for (String segment : SEGMENT.split(narration)) {
+            String[] words = SPACES.split(segment.trim());
+            for (int i = 0; i < words.length; i++) {
+                String word = words[i];
+                if (word.chars().noneMatch(Character::isLetter) || RAIL_WORDS.contains(word.toLowerCase(Locale.ROOT))
+                        || VPA_OR_REFERENCE.matcher(word).matches()) continue;
+                return String.join(" ", List.of(words).subList(i, words.length));
+            }
+        }
+        return narration.trim();
+    }
+
+    private LocalDate date(String text) {
+        if (text.isEmpty()) throw new IllegalArgumentException("Row has an amount but no date");
+        String day = TIME_OF_DAY.matcher(text).replaceFirst("").trim();
+        for (int i = 0; i < DATE_FORMATS.size(); i++) {
+            int index = (lastDateFormat + i) % DATE_FORMATS.size();
+            try {
+                LocalDate parsed = LocalDate.parse(day, DATE_FORMATS.get(index));
+                lastDateFormat = index;
+                return parsed;
+            } catch (DateTimeParseException ignored) {
+                // try the next format; a statement uses one format, so the last match is tried first
+            }
+        }
+        throw new IllegalArgumentException("Unreadable date: " + text);
+    }
+
+    static BigDecimal amount(String text) {
+        String cleaned = SEPARATORS.matcher(DIRECTION_SUFFIX.matcher(CURRENCY.matcher(text).replaceAll(""))
+                .replaceAll("")).replaceAll("");
+        boolean negative = cleaned.startsWith("(") && cleaned.endsWith(")");
+        if (negative) cleaned = cleaned.substring(1, cleaned.length() - 1);
+        try {
+            BigDecimal value = new BigDecimal(cleaned).setScale(2, RoundingMode.HALF_UP);
+            return negative ? value.negate() : value;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Unreadable amount: " + text);
+        }
+    }
+
+    private static int column(List<String> header, List<String> names) {
+        for (String name : names) {
+            for (int i = 0; i < header.size(); i++) {
+                if (name.equals(normalizeHeader(header.get(i)))) return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String normalizeHeader(String value) {
+        return value.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+    }
+
+    private static String field(List<String> record, int index) {
+        return index < 0 || index >= record.size() ? "" : record.get(index);
+    }
+
+    private static String truncate(String value, int length) {
+        return value.length() <= length ? value : value.substring(0, length);
+    }
+}
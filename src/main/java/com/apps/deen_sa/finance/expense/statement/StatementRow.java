@@ -0,0 +1,12 @@
+package com.apps.deen_sa.finance.expense.statement;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One debit read from a statement; {@code line} is its record number in the file. {@code assumedDebit}
+ * marks a positive amount that nothing else marked as a debit; it is a credit once the statement turns
+ * out to sign its amounts.
+ */
+record StatementRow(long line, LocalDate date, BigDecimal amount, String merchant, String narration,
+                    boolean assumedDebit) {}
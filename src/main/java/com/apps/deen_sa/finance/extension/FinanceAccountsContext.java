@@ -0,0 +1,97 @@
+package com.apps.deen_sa.finance.extension;
+
+import com.apps.deen_sa.extension.api.ContextContributor;
+import com.apps.deen_sa.extension.api.ContextRequest;
+import com.apps.deen_sa.finance.legacy.state.StateContainerEntity;
+import com.apps.deen_sa.finance.legacy.state.StateContainerService;
+
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * The user's active accounts as reference candidates for events that name an account. Within a token
+ * budget, accounts the message seems to mention come first, either by a name word or by the account
+ * kind ("card", "cash", "upi"). The most recently used accounts fill whatever budget is left.
+ */
+final class FinanceAccountsContext implements ContextContributor {
+    static final Set<String> EVENT_TYPES = Set.of("EXPENSE", "EXPENSE_CORRECTION", "INCOME", "TRANSFER",
+            "LIABILITY_PAYMENT", "ACCOUNT_SETUP");
+    private static final Map<String, String> TYPE_WORDS = Map.of("card", "CREDIT", "credit", "CREDIT",
+            "cash", "CASH", "bank", "BANK", "upi", "BANK", "account", "BANK");
+
+    private final StateContainerService containers;
+
+    FinanceAccountsContext(StateContainerService containers) {
+        this.containers = containers;
+    }
+
+    @Override public String namespace() { return "accounts"; }
+
+    @Override public Set<String> eventTypes() { return EVENT_TYPES; }
+
+    @Override public Object contribute(Long tenantId, Long userId) {
+        return containers.getActiveContainers(userId).stream().map(FinanceAccountsContext::account).toList();
+    }
+
+    @Override public Object contribute(ContextRequest request) {
+        List<StateContainerEntity> accounts = containers.getActiveContainers(request.userId());
+        Set<String> words = words(request.message());
+        List<Ranked> ranked = new ArrayList<>(accounts.size());
+        for (StateContainerEntity account : accounts) ranked.add(new Ranked(account, relevance(account, words)));
+        ranked.sort(Comparator.comparingInt(Ranked::relevance).reversed()
+                .thenComparing(Ranked::lastUsed, Comparator.reverseOrder()));
+        List<Map<String, Object>> selected = new ArrayList<>();
+        int remaining = request.tokenBudget();
+        for (Ranked candidate : ranked) {
+            int cost = tokens(candidate.account());
+            if (cost > remaining && !selected.isEmpty()) break;
+            selected.add(account(candidate.account()));
+            remaining -= cost;
+        }
+        return selected;
+    }
+
+    static Map<String, Object> account(StateContainerEntity account) {
+        return Map.of("id", account.getId(), "name", account.getName(), "type", account.getContainerType(),
+                "balanceKnown", account.getCurrentValue() != null);
+    }
+
+    /** Two points per name word found in the message, including a four-letter prefix, one for the account kind. */
+    private static int relevance(StateContainerEntity account, Set<String> words) {
+        int score = 0;
+        for (String part : words(account.getName())) {
+            if (part.length() < 3) continue;
+            if (words.contains(part)) score += 2;
+            else if (part.length() >= 4 && words.stream().anyMatch(word -> word.length() >= 4
+                    && (word.startsWith(part.substring(0, 4)) || part.startsWith(word.substring(0, 4))))) score += 2;
+        }
+        for (String word : words) {
+            if (Objects.equals(TYPE_WORDS.get(word), account.getContainerType())) {
+                score++;
+                break;
+            }
+        }
+        return score;
+    }
+
+    /** JSON for one account is about a dozen tokens plus its name. */
+    private static int tokens(StateContainerEntity account) {
+        return 12 + (account.getName() == null ? 0 : account.getName().length() / 4 + 1);
+    }
+
+    private static Set<String> words(String text) {
+        if (text == null || text.isBlank()) return Set.of();
+        Set<String> words = new HashSet<>();
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) words.add(word);
+        }
+        return words;
+    }
+
+    private record Ranked(StateContainerEntity account, int relevance) {
+        Instant lastUsed() {
+            Instant used = account.getLastActivityAt() != null ? account.getLastActivityAt() : account.getUpdatedAt();
+            return used == null ? Instant.EPOCH : used;
+        }
+    }
+}
@@ -14,7 +14,7 @@ final class FinanceEventCapability implements EventCapability {
             "sourceAccount", "destinationAccount", "sourceBalance", "creditLimit", "creditCardBillingDay", "creditCardDueDay",
             "transactionDate", "tags", "rawText", "confirmBudget", "correctionChoice");
     private static final Set<String> CORRECTION_FIELDS = Set.of("correctionAction", "category", "subcategory",
-            "correctionChoice");
+            "searchText", "minAmount", "maxAmount", "sourceAccount", "correctionChoice");
     private final String eventType;
     private final SpeechHandler delegate;
     private final TransactionTemplate transactions;
@@ -32,6 +32,7 @@ final class FinanceEventCapability implements EventCapability {
         java.util.Map<String, String> values = new java.util.LinkedHashMap<>();
         fields().forEach(field -> values.put(field, "string"));
         java.util.Set.of("amount", "sourceBalance", "creditLimit").forEach(field -> values.put(field, "number"));
+        if (fields().contains("minAmount")) { values.put("minAmount", "number"); values.put("maxAmount", "number"); }
         values.put("creditCardBillingDay", "integer"); values.put("creditCardDueDay", "integer"); values.put("tags", "array");
         return java.util.Map.copyOf(values);
     }
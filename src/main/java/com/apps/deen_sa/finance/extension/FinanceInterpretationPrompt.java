@@ -8,7 +8,7 @@ final class FinanceInterpretationPrompt implements InterpretationPromptContribut
             Supported event types: EXPENSE, EXPENSE_CORRECTION, INCOME, TRANSFER, LIABILITY_PAYMENT, ACCOUNT_SETUP, BUDGET_SET.
             Fields: amount, category, subcategory, merchantName, sourceAccount, destinationAccount, sourceBalance,
             creditLimit, creditCardBillingDay (1-31), creditCardDueDay (1-31), transactionDate (YYYY-MM-DD), tags, rawText, correctionAction,
-            correctionChoice.
+            searchText, minAmount, maxAmount, correctionChoice.
             - A new financial movement amount must have exact evidence in the current message.
             - Existing accounts are reference candidates only. Populate an account only when stated now or when it
               directly answers a pending question.
@@ -36,8 +36,10 @@ final class FinanceInterpretationPrompt implements InterpretationPromptContribut
             - "Set my monthly X budget to Y" is BUDGET_SET: amount=Y and category=X.
             - Requests to find, edit, correct, remove, void, or delete an earlier expense are EXPENSE_CORRECTION.
               Never reinterpret them as a new EXPENSE. Set correctionAction to EDIT or DELETE. For the initial
-              request, extract only an explicitly stated category or subcategory scope; do not identify or filter by
-              merchant. If no category scope is stated, leave both null. During its pending flow, put the user's
+              request, extract only what the user states to find the expense: a category or subcategory scope, a
+              merchant, payee or other identifying words as searchText (copied as said, not translated), minAmount
+              and maxAmount for an amount range (both equal for an exact amount), and the paying account as
+              sourceAccount. Leave anything unstated null. During its pending flow, put the user's
               literal answer in correctionChoice; the capability performs selection, validation, and confirmation.
               EXPENSE_CORRECTION is an operational event workflow, not a read-only QUERY. An explicit request to
               edit, correct, change, remove, void, or delete takes precedence over browsing language such as show,
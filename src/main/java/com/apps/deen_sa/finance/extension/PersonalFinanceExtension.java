@@ -1,7 +1,6 @@
 package com.apps.deen_sa.finance.extension;
 
 import com.apps.deen_sa.conversation.SpeechHandler;
-import com.apps.deen_sa.finance.legacy.state.StateContainerEntity;
 import com.apps.deen_sa.finance.legacy.state.StateContainerService;
 import com.apps.deen_sa.extension.api.*;
 import com.apps.deen_sa.finance.query.QueryHandler;
@@ -67,17 +66,7 @@ public class PersonalFinanceExtension implements BusinessExtension {
                 """;
     }
     @Override public Collection<ContextContributor> contextContributors() {
-        return List.of(new ContextContributor() {
-            @Override public String namespace() { return "accounts"; }
-            @Override public Object contribute(Long tenantId, Long userId) {
-                return containers.getActiveContainers(userId).stream().map(PersonalFinanceExtension::account).toList();
-            }
-        });
-    }
-
-    private static Map<String, Object> account(StateContainerEntity account) {
-        return Map.of("id", account.getId(), "name", account.getName(), "type", account.getContainerType(),
-                "balanceKnown", account.getCurrentValue() != null);
+        return List.of(new FinanceAccountsContext(containers));
     }
 
     private static Optional<SpeechHandler> handler(List<SpeechHandler> handlers, String type) {
@@ -0,0 +1,24 @@
+package com.apps.deen_sa.finance.ledger;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * A container's balance folded through {@code lastMovementId}. {@code asOf} is the latest
+ * {@code recorded_at} among the folded movements, so the snapshot is valid for any instant at or after it.
+ */
+@Entity
+@Table(name = "ledger_balance_snapshot", uniqueConstraints = @UniqueConstraint(name = "uq_ledger_balance_snapshot",
+        columnNames = {"container_id", "last_movement_id"}))
+@Getter @Setter
+public class LedgerBalanceSnapshotEntity {
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY) private Long id;
+    @Column(name = "container_id", nullable = false) private Long containerId;
+    @Column(name = "last_movement_id", nullable = false) private Long lastMovementId;
+    @Column(precision = 19, scale = 4) private BigDecimal balance;
+    @Column(name = "as_of", nullable = false) private Instant asOf;
+    @Column(name = "created_at", nullable = false) private Instant createdAt;
+}
@@ -0,0 +1,26 @@
+package com.apps.deen_sa.finance.ledger;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Optional;
+
+public interface LedgerBalanceSnapshotRepository extends JpaRepository<LedgerBalanceSnapshotEntity, Long> {
+
+    Optional<LedgerBalanceSnapshotEntity> findFirstByContainerIdOrderByLastMovementIdDesc(Long containerId);
+
+    Optional<LedgerBalanceSnapshotEntity> findFirstByContainerIdAndAsOfLessThanEqualOrderByLastMovementIdDesc(
+            Long containerId, Instant asOf);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO ledger_balance_snapshot (container_id, last_movement_id, balance, as_of, created_at)
+            VALUES (:containerId, :lastMovementId, :balance, :asOf, CURRENT_TIMESTAMP)
+            ON CONFLICT ON CONSTRAINT uq_ledger_balance_snapshot DO NOTHING
+            """, nativeQuery = true)
+    int insert(@Param("containerId") Long containerId, @Param("lastMovementId") Long lastMovementId,
+               @Param("balance") BigDecimal balance, @Param("asOf") Instant asOf);
+}
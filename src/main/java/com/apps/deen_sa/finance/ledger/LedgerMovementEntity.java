@@ -0,0 +1,30 @@
+package com.apps.deen_sa.finance.ledger;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * One committed balance change on a container. Append-only: rows are inserted through
+ * {@link LedgerMovementRepository#append} and a database trigger rejects updates and deletes.
+ */
+@Entity
+@Table(name = "ledger_movement", uniqueConstraints =
+        @UniqueConstraint(name = "uq_ledger_movement_key", columnNames = "idempotency_key"))
+@Getter @Setter
+public class LedgerMovementEntity {
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY) private Long id;
+    @Column(name = "idempotency_key", nullable = false) private String idempotencyKey;
+    @Column(name = "container_id", nullable = false) private Long containerId;
+    @Column(length = 20) private String unit;
+    @Enumerated(EnumType.STRING) @Column(nullable = false, length = 20) private MovementKind kind;
+    @Column(precision = 19, scale = 4) private BigDecimal quantity;
+    @Column(name = "floor_at_zero", nullable = false) private boolean floorAtZero;
+    @Column(name = "causal_event_id", nullable = false, length = 200) private String causalEventId;
+    @Column(name = "rule_version", nullable = false, length = 20) private String ruleVersion;
+    @Column(length = 100) private String reason;
+    @Column(name = "occurred_at", nullable = false) private Instant occurredAt;
+    @Column(name = "recorded_at", nullable = false) private Instant recordedAt;
+}
@@ -0,0 +1,55 @@
+package com.apps.deen_sa.finance.ledger;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface LedgerMovementRepository extends JpaRepository<LedgerMovementEntity, Long> {
+
+    /** Returns 1 when the movement was appended, 0 when its idempotency key already committed. */
+    @Modifying
+    @Query(value = """
+            INSERT INTO ledger_movement (idempotency_key, container_id, unit, kind, quantity, floor_at_zero,
+                                         causal_event_id, rule_version, reason, occurred_at, recorded_at)
+            VALUES (:key, :containerId, :unit, :kind, :quantity, :floor, :causalEventId, :ruleVersion, :reason,
+                    :occurredAt, :recordedAt)
+            ON CONFLICT ON CONSTRAINT uq_ledger_movement_key DO NOTHING
+            """, nativeQuery = true)
+    int append(@Param("key") String key, @Param("containerId") Long containerId, @Param("unit") String unit,
+               @Param("kind") String kind, @Param("quantity") BigDecimal quantity, @Param("floor") boolean floor,
+               @Param("causalEventId") String causalEventId, @Param("ruleVersion") String ruleVersion,
+               @Param("reason") String reason, @Param("occurredAt") Instant occurredAt,
+               @Param("recordedAt") Instant recordedAt);
+
+    /**
+     * Locks the container row until commit. Appends take it before their movement id is drawn and
+     * snapshots before reading the tail, so no movement can commit below a snapshot's last id.
+     */
+    @Query(value = "SELECT id FROM state_container WHERE id = :containerId FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockContainer(@Param("containerId") Long containerId);
+
+    List<LedgerMovementEntity> findByContainerIdAndIdGreaterThanOrderByIdAsc(Long containerId, Long afterId);
+
+    List<LedgerMovementEntity> findByContainerIdAndIdGreaterThanAndRecordedAtLessThanEqualOrderByIdAsc(
+            Long containerId, Long afterId, Instant recordedAt);
+
+    /** Containers whose unsnapshotted tail has reached {@code minTail} movements. */
+    @Query(value = """
+            SELECT m.container_id
+            FROM ledger_movement m
+            WHERE m.id > COALESCE((SELECT MAX(s.last_movement_id) FROM ledger_balance_snapshot s
+                                   WHERE s.container_id = m.container_id), 0)
+            GROUP BY m.container_id
+            HAVING COUNT(*) >= :minTail
+            """, nativeQuery = true)
+    List<Long> findContainersDueForSnapshot(@Param("minTail") int minTail);
+
+    /** Every container with its stored balance: {@code [id, current_value]}. */
+    @Query(value = "SELECT c.id, c.current_value FROM state_container c ORDER BY c.id", nativeQuery = true)
+    List<Object[]> findStoredBalances();
+}
@@ -0,0 +1,97 @@
+package com.apps.deen_sa.finance.ledger;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Verification command: start the app with {@code --finance.ledger.replay=true} to rebuild every
+ * container's balance from its full movement history, ignoring snapshots, and diff it against
+ * {@code state_container}. Containers replay in parallel; nothing is written. The process exits once
+ * the replay ends, with status 0 only when no container drifted; add
+ * {@code --spring.main.web-application-type=none} to skip starting the web server. Without the switch
+ * the runner does nothing.
+ */
+@Log4j2
+@Component
+class LedgerReplayRunner implements ApplicationRunner {
+    private final LedgerMovementRepository movements;
+    private final int threads;
+    private final boolean enabled;
+    private final ConfigurableApplicationContext application;
+
+    LedgerReplayRunner(LedgerMovementRepository movements,
+                       @Value("${finance.ledger.replay-threads:0}") int threads,
+                       @Value("${finance.ledger.replay:false}") boolean enabled,
+                       ConfigurableApplicationContext application) {
+        this.movements = movements;
+        this.enabled = enabled;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.application = application;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) return;
+        int status = 1;
+        try {
+            if (verify()) status = 0;
+        } catch (Exception e) {
+            log.error("Ledger replay failed", e);
+        }
+        int exitCode = status;
+        System.exit(SpringApplication.exit(application, () -> exitCode));
+    }
+
+    private boolean verify() throws Exception {
+        long started = System.nanoTime();
+        List<Object[]> stored = movements.findStoredBalances();
+        List<Drift> drifts = replay(stored);
+        for (Drift drift : drifts) {
+            log.warn("Ledger drift on container {}: stored={} replayed={}", drift.containerId(), drift.stored(),
+                    drift.replayed());
+        }
+        log.info("Replayed {} containers in {} ms: {} drifted", stored.size(),
+                (System.nanoTime() - started) / 1_000_000, drifts.size());
+        return drifts.isEmpty();
+    }
+
+    List<Drift> replay(List<Object[]> stored) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Drift>> results = new ArrayList<>(stored.size());
+            for (Object[] row : stored) {
+                Long containerId = ((Number) row[0]).longValue();
+                BigDecimal balance = (BigDecimal) row[1];
+                results.add(pool.submit(() -> diff(containerId, balance)));
+            }
+            List<Drift> drifts = new ArrayList<>();
+            for (Future<Drift> result : results) {
+                Drift drift = result.get();
+                if (drift != null) drifts.add(drift);
+            }
+            return drifts;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Drift diff(Long containerId, BigDecimal stored) {
+        BigDecimal replayed = MovementLedger.fold(null,
+                movements.findByContainerIdAndIdGreaterThanOrderByIdAsc(containerId, 0L));
+        return MovementLedger.same(stored, replayed) ? null : new Drift(containerId, stored, replayed);
+    }
+
+    record Drift(Long containerId, BigDecimal stored, BigDecimal replayed) {}
+}
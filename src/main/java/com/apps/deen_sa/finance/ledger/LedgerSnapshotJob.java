@@ -0,0 +1,36 @@
+package com.apps.deen_sa.finance.ledger;
+
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically snapshots containers whose unsnapshotted tail has grown past {@code minTail}, so a
+ * point-in-time balance never folds more than one interval's worth of movements.
+ */
+@Log4j2
+@Component
+class LedgerSnapshotJob {
+    private final LedgerMovementRepository movements;
+    private final MovementLedger ledger;
+    private final int minTail;
+
+    LedgerSnapshotJob(LedgerMovementRepository movements, MovementLedger ledger,
+                      @Value("${finance.ledger.snapshot-min-tail:20}") int minTail) {
+        this.movements = movements;
+        this.ledger = ledger;
+        this.minTail = minTail;
+    }
+
+    @Scheduled(cron = "${finance.ledger.snapshot-cron:0 15 * * * *}")
+    void snapshotBusyContainers() {
+        int taken = 0;
+        for (Long containerId : movements.findContainersDueForSnapshot(minTail)) {
+            if (ledger.snapshot(containerId)) taken++;
+        }
+        Metrics.counter("deen.finance.ledger.snapshots").increment(taken);
+        if (taken > 0) log.info("Took {} ledger balance snapshots", taken);
+    }
+}
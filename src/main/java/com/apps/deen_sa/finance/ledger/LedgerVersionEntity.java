@@ -0,0 +1,16 @@
+package com.apps.deen_sa.finance.ledger;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import java.time.Instant;
+
+/** A user's ledger version. Rows are written only through {@link LedgerVersionRepository#bump}. */
+@Entity
+@Table(name = "fin_ledger_version")
+@Getter @Setter
+public class LedgerVersionEntity {
+    @Id @Column(name = "user_id") private String userId;
+    @Column(nullable = false) private long version;
+    @Column(name = "updated_at", nullable = false) private Instant updatedAt;
+}
@@ -0,0 +1,21 @@
+package com.apps.deen_sa.finance.ledger;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface LedgerVersionRepository extends JpaRepository<LedgerVersionEntity, String> {
+
+    @Query(value = "SELECT version FROM fin_ledger_version WHERE user_id = :userId", nativeQuery = true)
+    Long findVersion(@Param("userId") String userId);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO fin_ledger_version (user_id, version, updated_at)
+            VALUES (:userId, 1, CURRENT_TIMESTAMP)
+            ON CONFLICT (user_id) DO UPDATE
+            SET version = fin_ledger_version.version + 1, updated_at = CURRENT_TIMESTAMP
+            """, nativeQuery = true)
+    int bump(@Param("userId") String userId);
+}
@@ -0,0 +1,67 @@
+package com.apps.deen_sa.finance.ledger;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Per-user monotonic version of the financial ledger. Writers call {@link #bump} inside their
+ * transaction; the version moves once per user just before that transaction commits, as part of it,
+ * so a write can never commit without its bump. Deferring the bump to the end keeps the version row
+ * lock short, and bumping users in sorted order keeps concurrent multi-user writers from deadlocking.
+ * A reader that cached a result under the old version from the pre-commit state can no longer reach it.
+ */
+@Service
+public class LedgerVersions {
+    private static final Object PENDING = LedgerVersions.class.getName() + ".pending";
+
+    private final LedgerVersionRepository repository;
+    private final TransactionTemplate standalone;
+
+    public LedgerVersions(LedgerVersionRepository repository, PlatformTransactionManager transactions) {
+        this.repository = repository;
+        this.standalone = new TransactionTemplate(transactions);
+    }
+
+    public long current(String userId) {
+        Long version = repository.findVersion(userId);
+        return version == null ? 0 : version;
+    }
+
+    public void bump(String userId) {
+        if (userId == null) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bumpNow(Set.of(userId));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<String> pending = (Set<String>) TransactionSynchronizationManager.getResource(PENDING);
+        if (pending == null) {
+            Set<String> users = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(PENDING, users);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    new TreeSet<>(users).forEach(repository::bump);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING);
+                }
+            });
+            pending = users;
+        }
+        pending.add(userId);
+    }
+
+    private void bumpNow(Set<String> users) {
+        standalone.executeWithoutResult(status -> users.forEach(repository::bump));
+    }
+}
@@ -0,0 +1,27 @@
+package com.apps.deen_sa.finance.ledger;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Why a movement happened. The idempotency key is the causal event plus the rule version that
+ * turned it into a delta, so replaying the same event under the same rules cannot move money twice.
+ */
+public record MovementCause(String causalEventId, String ruleVersion, String reason, Instant occurredAt) {
+
+    public String idempotencyKey() {
+        return causalEventId + "@" + ruleVersion;
+    }
+
+    /**
+     * A movement caused by a transaction: one per (transaction, reason, container). Commands without a
+     * transaction reference are ad-hoc and never deduplicated.
+     */
+    public static MovementCause forTransaction(Long transactionId, String reason, Long containerId,
+                                               String ruleVersion, Instant occurredAt) {
+        String event = transactionId == null
+                ? "adhoc:" + UUID.randomUUID()
+                : "state_change:" + transactionId + ":" + reason + ":" + containerId;
+        return new MovementCause(event, ruleVersion, reason, occurredAt != null ? occurredAt : Instant.now());
+    }
+}
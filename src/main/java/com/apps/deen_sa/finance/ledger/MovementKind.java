@@ -0,0 +1,7 @@
+package com.apps.deen_sa.finance.ledger;
+
+/**
+ * How a movement folds into a balance. ASSET and LIABILITY replay the SQL of the matching
+ * {@code BalanceDelta}; SET declares an absolute balance written outside the mutation engine.
+ */
+public enum MovementKind { ASSET, LIABILITY, SET }
@@ -0,0 +1,117 @@
+package com.apps.deen_sa.finance.ledger;
+
+import com.apps.deen_sa.finance.legacy.mutation.strategy.BalanceDelta;
+import com.apps.deen_sa.finance.legacy.state.StateContainerEntity;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Append-only record of every balance change. {@code state_container.current_value} stays the fast
+ * read path; the ledger is what it can be verified against and rebuilt from.
+ * A balance at any instant is the nearest snapshot plus the movements recorded after it.
+ * Movement ids are drawn at insert but become visible at commit, so appends and snapshots of one
+ * container are serialized on its {@code state_container} row; otherwise a movement committing
+ * after a snapshot with a higher last id would be skipped by every later fold.
+ */
+@Log4j2
+@Service
+public class MovementLedger {
+    static final String DECLARATION_RULES = "v1";
+
+    private final LedgerMovementRepository movements;
+    private final LedgerBalanceSnapshotRepository snapshots;
+
+    public MovementLedger(LedgerMovementRepository movements, LedgerBalanceSnapshotRepository snapshots) {
+        this.movements = movements;
+        this.snapshots = snapshots;
+    }
+
+    /**
+     * Appends the movement for {@code delta}. Returns false when the cause's idempotency key has
+     * already committed; the caller must then leave the balance alone. A concurrent duplicate waits
+     * on the unique key until the first transaction settles.
+     */
+    public boolean append(StateContainerEntity container, BalanceDelta delta, MovementCause cause) {
+        MovementKind kind = delta.kind() == BalanceDelta.Kind.ASSET ? MovementKind.ASSET : MovementKind.LIABILITY;
+        movements.lockContainer(container.getId());
+        boolean appended = movements.append(cause.idempotencyKey(), container.getId(), container.getCurrency(),
+                kind.name(), delta.amount(), delta.floorAtZero(), cause.causalEventId(), cause.ruleVersion(),
+                cause.reason(), cause.occurredAt(), Instant.now()) == 1;
+        if (!appended) log.info("Skipping duplicate movement {} on container {}", cause.idempotencyKey(), container.getId());
+        return appended;
+    }
+
+    /**
+     * Records a balance written directly on the container (account setup, manual edits) as a SET
+     * movement, but only when it differs from what the ledger already folds to. Keyed by the
+     * container version, so re-declaring the same saved state is a no-op.
+     */
+    public boolean declare(StateContainerEntity container, String reason) {
+        if (container.getId() == null) return false;
+        movements.lockContainer(container.getId());
+        if (same(currentBalance(container.getId()), container.getCurrentValue())) return false;
+        String event = "declared:" + container.getId() + ":" + container.getVersion();
+        Instant now = Instant.now();
+        return movements.append(event + "@" + DECLARATION_RULES, container.getId(), container.getCurrency(),
+                MovementKind.SET.name(), container.getCurrentValue(), false, event, DECLARATION_RULES, reason,
+                now, now) == 1;
+    }
+
+    public BigDecimal currentBalance(Long containerId) {
+        var snapshot = snapshots.findFirstByContainerIdOrderByLastMovementIdDesc(containerId);
+        long after = snapshot.map(LedgerBalanceSnapshotEntity::getLastMovementId).orElse(0L);
+        BigDecimal base = snapshot.map(LedgerBalanceSnapshotEntity::getBalance).orElse(null);
+        return fold(base, movements.findByContainerIdAndIdGreaterThanOrderByIdAsc(containerId, after));
+    }
+
+    /** Balance as the ledger stood at {@code at}: null when the container had no balance yet. */
+    public BigDecimal balanceAt(Long containerId, Instant at) {
+        var snapshot = snapshots.findFirstByContainerIdAndAsOfLessThanEqualOrderByLastMovementIdDesc(containerId, at);
+        long after = snapshot.map(LedgerBalanceSnapshotEntity::getLastMovementId).orElse(0L);
+        BigDecimal base = snapshot.map(LedgerBalanceSnapshotEntity::getBalance).orElse(null);
+        return fold(base, movements.findByContainerIdAndIdGreaterThanAndRecordedAtLessThanEqualOrderByIdAsc(
+                containerId, after, at));
+    }
+
+    /** Folds the unsnapshotted tail into a new snapshot; false when there was nothing to fold. */
+    @Transactional
+    public boolean snapshot(Long containerId) {
+        movements.lockContainer(containerId);
+        var latest = snapshots.findFirstByContainerIdOrderByLastMovementIdDesc(containerId);
+        List<LedgerMovementEntity> tail = movements.findByContainerIdAndIdGreaterThanOrderByIdAsc(containerId,
+                latest.map(LedgerBalanceSnapshotEntity::getLastMovementId).orElse(0L));
+        if (tail.isEmpty()) return false;
+        Instant asOf = latest.map(LedgerBalanceSnapshotEntity::getAsOf).orElse(Instant.EPOCH);
+        for (LedgerMovementEntity movement : tail) {
+            if (movement.getRecordedAt().isAfter(asOf)) asOf = movement.getRecordedAt();
+        }
+        BigDecimal balance = fold(latest.map(LedgerBalanceSnapshotEntity::getBalance).orElse(null), tail);
+        return snapshots.insert(containerId, tail.get(tail.size() - 1).getId(), balance, asOf) == 1;
+    }
+
+    static BigDecimal fold(BigDecimal balance, List<LedgerMovementEntity> tail) {
+        for (LedgerMovementEntity movement : tail) balance = fold(balance, movement);
+        return balance;
+    }
+
+    /** Mirrors the balance UPDATEs in {@code StateContainerRepository}, including their NULL handling. */
+    static BigDecimal fold(BigDecimal balance, LedgerMovementEntity movement) {
+        return switch (movement.getKind()) {
+            case SET -> movement.getQuantity();
+            case ASSET -> balance == null ? null : balance.add(movement.getQuantity());
+            case LIABILITY -> {
+                BigDecimal next = (balance == null ? BigDecimal.ZERO : balance).add(movement.getQuantity());
+                yield movement.isFloorAtZero() && next.signum() < 0 ? BigDecimal.ZERO : next;
+            }
+        };
+    }
+
+    static boolean same(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
+    }
+}
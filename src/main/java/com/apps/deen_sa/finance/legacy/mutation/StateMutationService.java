@@ -7,6 +7,7 @@ import com.apps.deen_sa.finance.legacy.mutation.StateMutationRepository;
 import com.apps.deen_sa.finance.legacy.mutation.strategy.StateMutationStrategyResolver;
 import com.apps.deen_sa.finance.legacy.mutation.strategy.StateMutationStrategy;
 import com.apps.deen_sa.finance.legacy.state.StateContainerService;
+import com.apps.deen_sa.finance.ledger.MovementCause;
 import jakarta.transaction.Transactional;
 import org.springframework.stereotype.Service;
 
@@ -33,7 +34,16 @@ public class StateMutationService {
     public void apply(StateContainerEntity container,
                       StateMutationCommand command) {
 
-        // 1️⃣ Persist audit record
+        // 1️⃣ Resolve the balance delta
+        StateMutationStrategy strategy =
+                strategyResolver.resolve(container);
+        MovementCause cause = MovementCause.forTransaction(command.getReferenceTxId(), command.getReason(),
+                container.getId(), strategy.ruleVersion(), command.getOccurredAt());
+
+        // 2️⃣ Apply it atomically; a movement that already committed is not applied or audited again
+        if (!stateContainerService.applyDelta(container, strategy.apply(container, command), cause)) return;
+
+        // 3️⃣ Persist audit record in the same transaction
         StateMutationEntity audit = new StateMutationEntity();
         audit.setTransactionId(command.getReferenceTxId());
         audit.setContainerId(container.getId());
@@ -44,32 +54,23 @@ public class StateMutationService {
         audit.setCreatedAt(Instant.now());
 
         adjustmentRepository.save(audit);
-
-        // 2️⃣ Apply strategy
-        StateMutationStrategy strategy =
-                strategyResolver.resolve(container);
-
-        strategy.apply(container, command);
-
-        // 3️⃣ Persist container
-        container.setLastActivityAt(Instant.now());
-        stateContainerService.UpdateValueContainer(container);
     }
 
     @Transactional
     public void reverse(StateContainerEntity container, StateMutationCommand original, String reason) {
+        StateMutationStrategy strategy = strategyResolver.resolve(container);
+        MovementCause cause = MovementCause.forTransaction(original.getReferenceTxId(), reason,
+                container.getId(), strategy.ruleVersion(), Instant.now());
+        if (!stateContainerService.applyDelta(container, strategy.reverse(container, original), cause)) return;
+
         StateMutationEntity audit = new StateMutationEntity();
         audit.setTransactionId(original.getReferenceTxId());
         audit.setContainerId(container.getId());
         audit.setAdjustmentType(original.getType());
         audit.setAmount(original.getAmount().negate());
         audit.setReason(reason);
-        audit.setOccurredAt(Instant.now());
+        audit.setOccurredAt(cause.occurredAt());
         audit.setCreatedAt(Instant.now());
         adjustmentRepository.save(audit);
-
-        strategyResolver.resolve(container).reverse(container, original);
-        container.setLastActivityAt(Instant.now());
-        stateContainerService.UpdateValueContainer(container);
     }
 }
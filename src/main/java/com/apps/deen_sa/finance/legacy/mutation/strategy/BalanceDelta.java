@@ -0,0 +1,25 @@
+package com.apps.deen_sa.finance.legacy.mutation.strategy;
+
+import java.math.BigDecimal;
+
+/**
+ * A signed change to a container's {@code current_value}, applied in SQL rather than by
+ * rewriting the loaded entity so concurrent mutations on one account compose instead of racing.
+ *
+ * @param amount      signed delta added to {@code current_value}
+ * @param kind        ASSET mirrors the new value into {@code available_value};
+ *                    LIABILITY treats a missing balance as zero and re-evaluates the over-limit flags
+ * @param floorAtZero clamp the resulting value at zero (settlements and refunds on liabilities)
+ */
+public record BalanceDelta(BigDecimal amount, Kind kind, boolean floorAtZero) {
+
+    public enum Kind { ASSET, LIABILITY }
+
+    public static BalanceDelta asset(BigDecimal signedAmount) {
+        return new BalanceDelta(signedAmount, Kind.ASSET, false);
+    }
+
+    public static BalanceDelta liability(BigDecimal signedAmount, boolean floorAtZero) {
+        return new BalanceDelta(signedAmount, Kind.LIABILITY, floorAtZero);
+    }
+}
@@ -3,11 +3,23 @@ package com.apps.deen_sa.finance.legacy.mutation.strategy;
 import com.apps.deen_sa.dto.StateMutationCommand;
 import com.apps.deen_sa.finance.legacy.state.StateContainerEntity;
 
+/**
+ * Translates a mutation command into the balance delta for one container type.
+ * Strategies never write the container; the mutation service applies the returned delta atomically.
+ */
 public interface StateMutationStrategy {
 
     boolean supports(StateContainerEntity container);
 
-    void apply(StateContainerEntity container, StateMutationCommand command);
+    BalanceDelta apply(StateContainerEntity container, StateMutationCommand command);
 
-    void reverse(StateContainerEntity container, StateMutationCommand command);
+    BalanceDelta reverse(StateContainerEntity container, StateMutationCommand command);
+
+    /**
+     * Part of every movement's idempotency key. Bump it when the delta a command produces changes,
+     * so a deliberate re-application under the new rules is not mistaken for a duplicate.
+     */
+    default String ruleVersion() {
+        return "v1";
+    }
 }
@@ -29,6 +29,79 @@ public interface StateChangeRepository extends JpaRepository<StateChangeEntity,
                                                      @Param("beforeId") Long beforeId,
                                                      Pageable pageable);
 
+    /**
+     * One page of active expenses, newest first, strictly after the {@code (beforeTime, beforeId)} keyset
+     * cursor; the first page passes a cursor after every row. The other filters are optional and are
+     * applied to the rows read from V12's time index. The cursor is never null, so it stays an index
+     * condition when the driver switches to a generic plan, which an {@code :x IS NULL OR} guard would not.
+     */
+    @Query(value = """
+            SELECT t.* FROM state_change t
+            LEFT JOIN state_container c ON c.id = t.source_container_id
+            WHERE t.user_id = :userId AND t.transaction_type = 'EXPENSE' AND t.record_status = 'ACTIVE'
+              AND (t.tx_time, t.id) < (CAST(:beforeTime AS TIMESTAMP), CAST(:beforeId AS BIGINT))
+              AND (CAST(:periodStart AS TIMESTAMP) IS NULL OR t.tx_time >= CAST(:periodStart AS TIMESTAMP))
+              AND (CAST(:periodEnd AS TIMESTAMP) IS NULL OR t.tx_time < CAST(:periodEnd AS TIMESTAMP))
+              AND (CAST(:category AS VARCHAR) IS NULL OR LOWER(t.category) = LOWER(:category))
+              AND (CAST(:subcategory AS VARCHAR) IS NULL OR LOWER(t.subcategory) = LOWER(:subcategory))
+              AND (CAST(:minAmount AS NUMERIC) IS NULL OR t.amount >= CAST(:minAmount AS NUMERIC))
+              AND (CAST(:maxAmount AS NUMERIC) IS NULL OR t.amount <= CAST(:maxAmount AS NUMERIC))
+              AND (CAST(:sourceAccount AS VARCHAR) IS NULL OR LOWER(c.name) = LOWER(:sourceAccount)
+                   OR c.container_type = UPPER(:sourceAccount))
+            ORDER BY t.tx_time DESC, t.id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<StateChangeEntity> pageActiveExpenses(@Param("userId") String userId,
+                                               @Param("beforeTime") Instant beforeTime,
+                                               @Param("beforeId") Long beforeId,
+                                               @Param("periodStart") Instant periodStart,
+                                               @Param("periodEnd") Instant periodEnd,
+                                               @Param("category") String category,
+                                               @Param("subcategory") String subcategory,
+                                               @Param("minAmount") BigDecimal minAmount,
+                                               @Param("maxAmount") BigDecimal maxAmount,
+                                               @Param("sourceAccount") String sourceAccount,
+                                               @Param("limit") int limit);
+
+    /**
+     * {@link #pageActiveExpenses} narrowed by a required {@code search} term, matched against merchant,
+     * category, subcategory and the original message by word or by trigram word similarity. The match
+     * has no null guard, so both of V12's GIN indexes can serve it under a generic plan.
+     */
+    @Query(value = """
+            SELECT t.* FROM state_change t
+            LEFT JOIN state_container c ON c.id = t.source_container_id
+            WHERE t.user_id = :userId AND t.transaction_type = 'EXPENSE' AND t.record_status = 'ACTIVE'
+              AND (to_tsvector('simple', COALESCE(t.main_entity, '') || ' ' || COALESCE(t.category, '') || ' '
+                          || COALESCE(t.subcategory, '') || ' ' || COALESCE(t.raw_text, ''))
+                      @@ plainto_tsquery('simple', :search)
+                   OR LOWER(:search) <% LOWER(COALESCE(t.main_entity, '') || ' ' || COALESCE(t.category, '') || ' '
+                          || COALESCE(t.subcategory, '') || ' ' || COALESCE(t.raw_text, '')))
+              AND (t.tx_time, t.id) < (CAST(:beforeTime AS TIMESTAMP), CAST(:beforeId AS BIGINT))
+              AND (CAST(:periodStart AS TIMESTAMP) IS NULL OR t.tx_time >= CAST(:periodStart AS TIMESTAMP))
+              AND (CAST(:periodEnd AS TIMESTAMP) IS NULL OR t.tx_time < CAST(:periodEnd AS TIMESTAMP))
+              AND (CAST(:category AS VARCHAR) IS NULL OR LOWER(t.category) = LOWER(:category))
+              AND (CAST(:subcategory AS VARCHAR) IS NULL OR LOWER(t.subcategory) = LOWER(:subcategory))
+              AND (CAST(:minAmount AS NUMERIC) IS NULL OR t.amount >= CAST(:minAmount AS NUMERIC))
+              AND (CAST(:maxAmount AS NUMERIC) IS NULL OR t.amount <= CAST(:maxAmount AS NUMERIC))
+              AND (CAST(:sourceAccount AS VARCHAR) IS NULL OR LOWER(c.name) = LOWER(:sourceAccount)
+                   OR c.container_type = UPPER(:sourceAccount))
+            ORDER BY t.tx_time DESC, t.id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<StateChangeEntity> searchActiveExpenses(@Param("userId") String userId,
+                                                 @Param("search") String search,
+                                                 @Param("beforeTime") Instant beforeTime,
+                                                 @Param("beforeId") Long beforeId,
+                                                 @Param("periodStart") Instant periodStart,
+                                                 @Param("periodEnd") Instant periodEnd,
+                                                 @Param("category") String category,
+                                                 @Param("subcategory") String subcategory,
+                                                 @Param("minAmount") BigDecimal minAmount,
+                                                 @Param("maxAmount") BigDecimal maxAmount,
+                                                 @Param("sourceAccount") String sourceAccount,
+                                                 @Param("limit") int limit);
+
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("""
             SELECT t FROM StateChangeEntity t
@@ -115,4 +115,9 @@ public class StateContainerEntity {
 
     @Column(precision = 19, scale = 4)
     private BigDecimal overLimitAmount; // how much exceeded
+
+    // Balance deltas bump this in SQL, so a stale full-entity save fails instead of overwriting them.
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
@@ -1,9 +1,12 @@
 package com.apps.deen_sa.finance.legacy.state;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
 
 public interface StateContainerRepository extends JpaRepository<StateContainerEntity, Long> {
@@ -25,4 +28,40 @@ public interface StateContainerRepository extends JpaRepository<StateContainerEn
     """)
     List<StateContainerEntity> findActiveByOwnerId(@Param("ownerId") Long ownerId);
 
+    /** Asset balances: one atomic read-modify-write; {@code available_value} follows {@code current_value}. */
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+        UPDATE state_container
+        SET current_value = current_value + :delta,
+            available_value = current_value + :delta,
+            last_activity_at = :now,
+            updated_at = :now,
+            version = version + 1
+        WHERE id = :id
+        """, nativeQuery = true)
+    int applyAssetDelta(@Param("id") Long id, @Param("delta") BigDecimal delta, @Param("now") Instant now);
+
+    /** Liability outstanding: missing balance counts as zero, optional zero floor, over-limit re-evaluated. */
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+        UPDATE state_container
+        SET current_value = CASE WHEN :floor THEN GREATEST(COALESCE(current_value, 0) + :delta, 0)
+                                 ELSE COALESCE(current_value, 0) + :delta END,
+            over_limit = capacity_limit IS NOT NULL
+                AND (CASE WHEN :floor THEN GREATEST(COALESCE(current_value, 0) + :delta, 0)
+                          ELSE COALESCE(current_value, 0) + :delta END) > capacity_limit,
+            over_limit_amount = CASE
+                WHEN capacity_limit IS NOT NULL
+                     AND (CASE WHEN :floor THEN GREATEST(COALESCE(current_value, 0) + :delta, 0)
+                               ELSE COALESCE(current_value, 0) + :delta END) > capacity_limit
+                THEN (CASE WHEN :floor THEN GREATEST(COALESCE(current_value, 0) + :delta, 0)
+                           ELSE COALESCE(current_value, 0) + :delta END) - capacity_limit
+                ELSE 0 END,
+            last_activity_at = :now,
+            updated_at = :now,
+            version = version + 1
+        WHERE id = :id
+        """, nativeQuery = true)
+    int applyLiabilityDelta(@Param("id") Long id, @Param("delta") BigDecimal delta, @Param("floor") boolean floor,
+                            @Param("now") Instant now);
 }
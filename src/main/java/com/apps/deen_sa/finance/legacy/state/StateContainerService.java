@@ -1,9 +1,18 @@
 package com.apps.deen_sa.finance.legacy.state;
 
+import com.apps.deen_sa.finance.legacy.state.cache.ContainerCacheNotifications;
 import com.apps.deen_sa.finance.legacy.state.cache.StateContainerCache;
 import com.apps.deen_sa.finance.legacy.state.StateContainerEntity;
 import com.apps.deen_sa.finance.legacy.state.StateContainerRepository;
+import com.apps.deen_sa.finance.legacy.mutation.strategy.BalanceDelta;
+import com.apps.deen_sa.finance.ledger.MovementCause;
+import com.apps.deen_sa.finance.ledger.LedgerVersions;
+import com.apps.deen_sa.finance.ledger.MovementLedger;
+import jakarta.persistence.EntityManager;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 import java.time.Instant;
@@ -13,11 +22,23 @@ public class StateContainerService {
 
     private final StateContainerRepository repository;
     private final StateContainerCache cache;
+    private final EntityManager entityManager;
+    private final MovementLedger ledger;
+    private final ContainerCacheNotifications notifications;
+    private final LedgerVersions versions;
 
     public StateContainerService(StateContainerRepository repository,
-                                 StateContainerCache cache) {
+                                 StateContainerCache cache,
+                                 EntityManager entityManager,
+                                 MovementLedger ledger,
+                                 ContainerCacheNotifications notifications,
+                                 LedgerVersions versions) {
         this.repository = repository;
         this.cache = cache;
+        this.entityManager = entityManager;
+        this.ledger = ledger;
+        this.notifications = notifications;
+        this.versions = versions;
     }
 
     public StateContainerEntity findValueContainerById (Long valueId) {
@@ -26,33 +47,76 @@ public class StateContainerService {
                         new IllegalStateException("Source container not found"));
     }
 
+    @Transactional
     public void UpdateValueContainer (StateContainerEntity entity) {
-        repository.save(entity);
+        StateContainerEntity saved = repository.saveAndFlush(entity);
+        // Detached callers keep using their instance; carry the new version so a later save is not stale.
+        entity.setVersion(saved.getVersion());
+        ledger.declare(saved, "CONTAINER_UPDATE");
         // Evict cache to ensure next read gets fresh data
-        cache.evict(entity.getOwnerId());
+        evictCache(entity.getOwnerId());
     }
 
-    public List<StateContainerEntity> getActiveContainers(Long ownerId) {
+    /**
+     * Records a balance written directly on a saved container in the movement ledger.
+     */
+    @Transactional
+    public void declareBalance(StateContainerEntity saved, String reason) {
+        ledger.declare(saved, reason);
+    }
 
-        // 1️⃣ Try cache
-        List<StateContainerEntity> cached = cache.getActiveContainers(ownerId);
-        if (cached != null) {
-            return cached;
+    /**
+     * Applies a balance delta with a single UPDATE so concurrent mutations on the same account
+     * compose, then copies the committed-so-far balance back onto the caller's instance.
+     * The movement is appended to the ledger first; returns false, leaving the balance untouched,
+     * when the cause has already been applied.
+     */
+    @Transactional
+    public boolean applyDelta(StateContainerEntity container, BalanceDelta delta, MovementCause cause) {
+        if (!ledger.append(container, delta, cause)) return false;
+
+        Instant now = Instant.now();
+        int updated = delta.kind() == BalanceDelta.Kind.ASSET
+                ? repository.applyAssetDelta(container.getId(), delta.amount(), now)
+                : repository.applyLiabilityDelta(container.getId(), delta.amount(), delta.floorAtZero(), now);
+        if (updated == 0) throw new IllegalStateException("Container " + container.getId() + " not found");
+
+        StateContainerEntity fresh = findValueContainerById(container.getId());
+        entityManager.refresh(fresh);
+        if (fresh != container) {
+            container.setCurrentValue(fresh.getCurrentValue());
+            container.setAvailableValue(fresh.getAvailableValue());
+            container.setOverLimit(fresh.getOverLimit());
+            container.setOverLimitAmount(fresh.getOverLimitAmount());
+            container.setLastActivityAt(fresh.getLastActivityAt());
+            container.setUpdatedAt(fresh.getUpdatedAt());
+            container.setVersion(fresh.getVersion());
         }
+        evictCache(container.getOwnerId());
+        return true;
+    }
 
-        // 2️⃣ Hit DB
-        List<StateContainerEntity> containers =
-                repository.findActiveByOwnerId(ownerId);
-
-        // 3️⃣ Populate cache
-        cache.putActiveContainers(ownerId, containers);
-
-        return containers;
+    public List<StateContainerEntity> getActiveContainers(Long ownerId) {
+        return cache.getActiveContainers(ownerId, repository::findActiveByOwnerId);
     }
 
-    // Call this after ANY container update
+    /**
+     * Call this after ANY container update. Evicts locally now and again once the surrounding
+     * transaction commits, so a concurrent reader cannot re-cache the pre-commit state; other nodes
+     * hear about it on commit. Also moves the owner's ledger version so cached query answers go stale.
+     */
     public void evictCache(Long ownerId) {
         cache.evict(ownerId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.evict(ownerId);
+                }
+            });
+        }
+        notifications.publish(ownerId);
+        if (ownerId != null) versions.bump(String.valueOf(ownerId));
     }
 
     public StateContainerEntity createProvisional(Long ownerId, String containerType) {
@@ -70,7 +134,7 @@ public class StateContainerService {
         container.setCurrency("INR");
         container.setOpenedAt(Instant.now());
         StateContainerEntity saved = repository.save(container);
-        cache.evict(ownerId);
+        evictCache(ownerId);
         return saved;
     }
 
@@ -0,0 +1,159 @@
+package com.apps.deen_sa.finance.legacy.state.cache;
+
+import com.apps.deen_sa.finance.legacy.state.StateContainerEntity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Size-bounded, least-recently-used cache of each owner's active containers.
+ * Entries hold detached copies and every read hands out fresh copies, so a handler editing an
+ * account can never leak the edit into another request. Expired entries are swept in the background.
+ */
+@Component
+public class BoundedStateContainerCache implements StateContainerCache {
+
+    private final int maxOwners;
+    private final long ttlNanos;
+    private final Map<Long, Entry> entries;
+    private final Map<Long, CompletableFuture<List<StateContainerEntity>>> loading = new ConcurrentHashMap<>();
+    /** Bumped by every eviction; a load that straddles one is returned but not cached. */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Counter hits = Metrics.counter("deen.finance.container.cache.requests", "result", "hit");
+    private final Counter misses = Metrics.counter("deen.finance.container.cache.requests", "result", "miss");
+    private final Timer loads = Metrics.timer("deen.finance.container.cache.load");
+
+    public BoundedStateContainerCache(@Value("${finance.container-cache.max-owners:10000}") int maxOwners,
+                                      @Value("${finance.container-cache.ttl:PT5M}") Duration ttl) {
+        this.maxOwners = maxOwners;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > BoundedStateContainerCache.this.maxOwners;
+            }
+        };
+        Gauge.builder("deen.finance.container.cache.size", this, BoundedStateContainerCache::size)
+                .register(Metrics.globalRegistry);
+        Gauge.builder("deen.finance.container.cache.hit.ratio", this, BoundedStateContainerCache::hitRatio)
+                .register(Metrics.globalRegistry);
+    }
+
+    @Override
+    public List<StateContainerEntity> getActiveContainers(Long ownerId,
+                                                          Function<Long, List<StateContainerEntity>> loader) {
+        Entry cached = read(ownerId);
+        if (cached != null) {
+            hits.increment();
+            return copies(cached.containers());
+        }
+        misses.increment();
+
+        CompletableFuture<List<StateContainerEntity>> mine = new CompletableFuture<>();
+        CompletableFuture<List<StateContainerEntity>> inFlight = loading.putIfAbsent(ownerId, mine);
+        if (inFlight != null) {
+            try {
+                return copies(inFlight.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) throw cause;
+                throw e;
+            }
+        }
+
+        long seen = generation.get();
+        try {
+            List<StateContainerEntity> snapshot = List.copyOf(copies(loads.record(() -> loader.apply(ownerId))));
+            synchronized (entries) {
+                if (generation.get() == seen) entries.put(ownerId, new Entry(snapshot, System.nanoTime()));
+            }
+            mine.complete(snapshot);
+            return copies(snapshot);
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(ownerId, mine);
+        }
+    }
+
+    @Override
+    public void evict(Long ownerId) {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.remove(ownerId);
+        }
+        loading.remove(ownerId);
+    }
+
+    @Override
+    public void evictAll() {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.clear();
+        }
+        loading.clear();
+    }
+
+    @Scheduled(fixedDelayString = "${finance.container-cache.sweep-interval:PT30S}")
+    void sweepExpired() {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            entries.values().removeIf(entry -> now - entry.loadedAt() > ttlNanos);
+        }
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    private Entry read(Long ownerId) {
+        synchronized (entries) {
+            Entry entry = entries.get(ownerId);
+            if (entry == null) return null;
+            if (System.nanoTime() - entry.loadedAt() > ttlNanos) {
+                entries.remove(ownerId);
+                return null;
+            }
+            return entry;
+        }
+    }
+
+    private static List<StateContainerEntity> copies(List<StateContainerEntity> containers) {
+        return containers.stream().map(BoundedStateContainerCache::copy).collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    private static StateContainerEntity copy(StateContainerEntity source) {
+        StateContainerEntity copy = new StateContainerEntity();
+        BeanUtils.copyProperties(source, copy);
+        if (source.getDetails() != null) copy.setDetails(new HashMap<>(source.getDetails()));
+        return copy;
+    }
+
+    private record Entry(List<StateContainerEntity> containers, long loadedAt) {}
+}
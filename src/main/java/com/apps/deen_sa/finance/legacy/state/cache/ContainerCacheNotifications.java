@@ -0,0 +1,103 @@
+package com.apps.deen_sa.finance.legacy.state.cache;
+
+import lombok.extern.log4j.Log4j2;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Cross-node invalidation over Postgres LISTEN/NOTIFY. {@code pg_notify} is transactional, so a
+ * notification sent inside a balance update reaches other nodes only once that update commits.
+ * One pooled connection per node is held for listening and re-established after failures.
+ */
+@Log4j2
+@Component
+public class ContainerCacheNotifications implements SmartLifecycle {
+    static final String CHANNEL = "state_container_cache";
+
+    private final JdbcTemplate jdbc;
+    private final DataSource dataSource;
+    private final StateContainerCache cache;
+    private final boolean enabled;
+    private volatile Thread listener;
+
+    public ContainerCacheNotifications(JdbcTemplate jdbc, DataSource dataSource, StateContainerCache cache,
+                                       @Value("${finance.container-cache.notify.enabled:true}") boolean enabled) {
+        this.jdbc = jdbc;
+        this.dataSource = dataSource;
+        this.cache = cache;
+        this.enabled = enabled;
+    }
+
+    public void publish(Long ownerId) {
+        if (!enabled || ownerId == null) return;
+        jdbc.queryForList("SELECT pg_notify(?, ?)", CHANNEL, String.valueOf(ownerId));
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) return;
+        Thread thread = new Thread(this::listen, "container-cache-listener");
+        thread.setDaemon(true);
+        listener = thread;
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        Thread thread = listener;
+        listener = null;
+        if (thread != null) thread.interrupt();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return listener != null;
+    }
+
+    private void listen() {
+        long backoffMillis = 1_000;
+        while (listener == Thread.currentThread()) {
+            try (Connection connection = dataSource.getConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                // Anything committed while we were disconnected was missed.
+                cache.evictAll();
+                backoffMillis = 1_000;
+                PGConnection pg = connection.unwrap(PGConnection.class);
+                while (listener == Thread.currentThread()) {
+                    PGNotification[] notifications = pg.getNotifications(5_000);
+                    if (notifications == null) continue;
+                    for (PGNotification notification : notifications) evict(notification.getParameter());
+                }
+            } catch (SQLException e) {
+                if (listener != Thread.currentThread()) return;
+                log.warn("Container cache listener lost its connection, retrying in {} ms: {}", backoffMillis,
+                        e.getMessage());
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+                backoffMillis = Math.min(backoffMillis * 2, 60_000);
+            }
+        }
+    }
+
+    private void evict(String ownerId) {
+        try {
+            cache.evict(Long.valueOf(ownerId));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed container cache notification: {}", ownerId);
+        }
+    }
+}
@@ -3,12 +3,15 @@ package com.apps.deen_sa.finance.legacy.state.cache;
 import com.apps.deen_sa.finance.legacy.state.StateContainerEntity;
 
 import java.util.List;
+import java.util.function.Function;
 
 public interface StateContainerCache {
 
-    List<StateContainerEntity> getActiveContainers(Long ownerId);
-
-    void putActiveContainers(Long ownerId, List<StateContainerEntity> containers);
+    /**
+     * Active containers for the owner, loading through {@code loader} on a miss. Concurrent misses
+     * for one owner share a single load. Callers receive their own copies and may modify them freely.
+     */
+    List<StateContainerEntity> getActiveContainers(Long ownerId, Function<Long, List<StateContainerEntity>> loader);
 
     void evict(Long ownerId);
 
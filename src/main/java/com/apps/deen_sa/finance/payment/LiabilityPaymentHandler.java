@@ -20,6 +20,7 @@ import com.apps.deen_sa.finance.account.strategy.AdjustmentCommandFactory;
 import com.apps.deen_sa.finance.account.strategy.CreditSettlementStrategy;
 import com.apps.deen_sa.finance.legacy.mutation.strategy.StateMutationStrategy;
 import com.apps.deen_sa.finance.legacy.mutation.strategy.StateMutationStrategyResolver;
+import com.apps.deen_sa.finance.ledger.MovementCause;
 import com.apps.deen_sa.llm.impl.LiabilityPaymentClassifier;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -326,6 +327,16 @@ public class LiabilityPaymentHandler implements SpeechHandler {
         StateMutationStrategy strategy = strategyResolver.resolve(targetContainer);
 
         if (strategy instanceof CreditSettlementStrategy) {
+            Instant occurredAt = tx.getTimestamp() != null ? tx.getTimestamp() : Instant.now();
+            MovementCause cause = MovementCause.forTransaction(tx.getId(), reason, targetContainer.getId(),
+                    strategy.ruleVersion(), occurredAt);
+
+            // Apply payment to reduce outstanding
+            if (!stateContainerService.applyDelta(targetContainer,
+                    ((CreditSettlementStrategy) strategy).applyPayment(targetContainer, tx.getAmount()), cause)) {
+                return;
+            }
+
             // Create adjustment record for credit card payment
             StateMutationEntity creditAdjustment = new StateMutationEntity();
             creditAdjustment.setTransactionId(tx.getId());
@@ -333,15 +344,9 @@ public class LiabilityPaymentHandler implements SpeechHandler {
             creditAdjustment.setAdjustmentType(MutationTypeEnum.CREDIT);
             creditAdjustment.setAmount(tx.getAmount());
             creditAdjustment.setReason(reason);
-            creditAdjustment.setOccurredAt(tx.getTimestamp() != null ? tx.getTimestamp() : Instant.now());
+            creditAdjustment.setOccurredAt(occurredAt);
             creditAdjustment.setCreatedAt(Instant.now());
             stateMutationRepository.save(creditAdjustment);
-            
-            // Apply payment to reduce outstanding
-            ((CreditSettlementStrategy) strategy).applyPayment(targetContainer, tx.getAmount());
-            // Save updated container
-            targetContainer.setLastActivityAt(Instant.now());
-            stateContainerService.UpdateValueContainer(targetContainer);
         } else {
             throw new IllegalStateException(
                     "Target container does not support liability payments"
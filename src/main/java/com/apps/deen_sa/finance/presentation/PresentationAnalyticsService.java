@@ -2,6 +2,7 @@ package com.apps.deen_sa.finance.presentation;
 
 import com.apps.deen_sa.dto.TimeRange;
 import com.apps.deen_sa.finance.legacy.state.StateChangeRepository;
+import com.apps.deen_sa.finance.rollup.DailyRollupQueries;
 import java.math.BigDecimal;
 import java.time.*;
 import java.util.*;
@@ -10,13 +11,16 @@ import org.springframework.stereotype.Service;
 @Service
 public class PresentationAnalyticsService {
     private final StateChangeRepository changes;
-    public PresentationAnalyticsService(StateChangeRepository changes) { this.changes = changes; }
+    private final DailyRollupQueries rollups;
+    public PresentationAnalyticsService(StateChangeRepository changes, DailyRollupQueries rollups) {
+        this.changes = changes; this.rollups = rollups;
+    }
 
     public PresentationDataset load(Long userId, TimeRange requested, VisualizationPlan plan, String timezone) {
         String uid = userId.toString(); ZoneId zone = zone(timezone);
         return switch (plan.type()) {
             case CALENDAR_HEATMAP -> new PresentationDataset(
-                    map(changes.sumExpensesByLocalDay(uid, requested.start(), requested.end(), zone.getId())),
+                    map(rollups.sumExpensesByLocalDay(uid, requested.start(), requested.end(), zone.getId())),
                     Map.of(), Map.of(), List.of(), List.of(), BigDecimal.ZERO);
             case PAIRED_BARS, SLOPE_CHART -> comparison(uid, zone);
             case SANKEY_MONEY_FLOW -> flow(uid, requested);
@@ -30,8 +34,8 @@ public class PresentationAnalyticsService {
         Instant currentStart = current.atDay(1).atStartOfDay(zone).toInstant();
         Instant currentEnd = current.plusMonths(1).atDay(1).atStartOfDay(zone).toInstant();
         Instant previousStart = previous.atDay(1).atStartOfDay(zone).toInstant();
-        return new PresentationDataset(Map.of(), map(changes.sumByCategory(userId, currentStart, currentEnd, null)),
-                map(changes.sumByCategory(userId, previousStart, currentStart, null)), List.of(), List.of(), BigDecimal.ZERO);
+        return new PresentationDataset(Map.of(), map(rollups.sumByCategory(userId, currentStart, currentEnd, null)),
+                map(rollups.sumByCategory(userId, previousStart, currentStart, null)), List.of(), List.of(), BigDecimal.ZERO);
     }
 
     private PresentationDataset hierarchy(String userId, TimeRange range) {
@@ -42,9 +46,9 @@ public class PresentationAnalyticsService {
     }
 
     private PresentationDataset flow(String userId, TimeRange range) {
-        List<FlowPoint> points = changes.sumExpenseFlow(userId, range.start(), range.end()).stream()
+        List<FlowPoint> points = rollups.sumExpenseFlow(userId, range.start(), range.end()).stream()
                 .map(row -> new FlowPoint(String.valueOf(row[0]), String.valueOf(row[1]), amount(row[2]))).toList();
-        BigDecimal income = changes.sumIncome(userId, range.start(), range.end());
+        BigDecimal income = rollups.sumIncome(userId, range.start(), range.end());
         return new PresentationDataset(Map.of(), Map.of(), Map.of(), List.of(), points,
                 income == null ? BigDecimal.ZERO : income);
     }
@@ -0,0 +1,60 @@
+package com.apps.deen_sa.finance.query;
+
+import java.awt.image.BufferedImage;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reuses opaque RGB canvases between renders. Requests are rounded up to a size class and served as
+ * an exact-size view of a pooled backing image, so charts whose height depends on row count still
+ * share buffers. Every chart paints its full background first, so a reused canvas needs no clearing.
+ */
+final class ChartCanvasPool {
+    private static final int WIDTH_STEP = 120;
+    private static final int HEIGHT_STEP = 256;
+    private static final int MAX_POOLED_SIDE = 4096;
+
+    private final int perClass;
+    private final Map<Long, BlockingQueue<BufferedImage>> free = new ConcurrentHashMap<>();
+    /** Weak so a render that fails before release does not pin its canvas. */
+    private final Map<BufferedImage, BufferedImage> leased = Collections.synchronizedMap(new WeakHashMap<>());
+
+    ChartCanvasPool(int perClass) {
+        this.perClass = perClass;
+    }
+
+    BufferedImage acquire(int width, int height) {
+        int classWidth = roundUp(width, WIDTH_STEP), classHeight = roundUp(height, HEIGHT_STEP);
+        if (classWidth > MAX_POOLED_SIDE || classHeight > MAX_POOLED_SIDE)
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        BufferedImage backing = queue(classWidth, classHeight).poll();
+        if (backing == null) backing = new BufferedImage(classWidth, classHeight, BufferedImage.TYPE_INT_RGB);
+        // Always a distinct view object: the weak lease map must not have its key reachable from its value.
+        BufferedImage view = backing.getSubimage(0, 0, width, height);
+        leased.put(view, backing);
+        return view;
+    }
+
+    void release(BufferedImage view) {
+        BufferedImage backing = leased.remove(view);
+        if (backing != null) queue(backing.getWidth(), backing.getHeight()).offer(backing);
+    }
+
+    /** Bytes held by idle canvases. */
+    long idleBytes() {
+        return free.values().stream().flatMap(BlockingQueue::stream)
+                .mapToLong(image -> 4L * image.getWidth() * image.getHeight()).sum();
+    }
+
+    private BlockingQueue<BufferedImage> queue(int width, int height) {
+        return free.computeIfAbsent(((long) width << 32) | height, key -> new ArrayBlockingQueue<>(perClass));
+    }
+
+    private static int roundUp(int value, int step) {
+        return ((value + step - 1) / step) * step;
+    }
+}
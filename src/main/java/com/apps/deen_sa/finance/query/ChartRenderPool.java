@@ -0,0 +1,132 @@
+package com.apps.deen_sa.finance.query;
+
+import com.apps.deen_sa.conversation.ResponseMedia;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs chart renders on a small dedicated pool so a burst of chart requests cannot stall the
+ * threads processing turns. Each render is admitted against a budget of canvas pixels, estimated
+ * up front by {@link ExpenseChartRenderer}; when the budget, the queue or the caller's wait runs out
+ * the render is shed and the caller replies with its text alone.
+ */
+@Log4j2
+@Component
+class ChartRenderPool {
+    /** Budget permits are kilopixels, so a budget of a few hundred megapixels still fits an int. */
+    private static final int PIXELS_PER_PERMIT = 1024;
+
+    private final ThreadPoolExecutor executor;
+    private final Semaphore budget;
+    private final int maxPermits;
+    private final long waitNanos;
+
+    private final Timer queueTime = Metrics.timer("deen.charts.render.queue");
+    private final Timer renderTime = Metrics.timer("deen.charts.render.time");
+
+    /**
+     * @param threads      concurrent renders
+     * @param queueDepth   renders allowed to wait for a thread
+     * @param budgetPixels canvas pixels admitted at once, queued renders included
+     * @param wait         how long a turn waits for its chart before replying without it
+     */
+    ChartRenderPool(@Value("${charts.render.threads:2}") int threads,
+                    @Value("${charts.render.queue-depth:16}") int queueDepth,
+                    @Value("${charts.render.budget-pixels:16777216}") long budgetPixels,
+                    @Value("${charts.render.wait:PT4S}") Duration wait) {
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueDepth), runnable -> {
+                    Thread thread = new Thread(runnable, "chart-render-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.maxPermits = permits(budgetPixels);
+        this.budget = new Semaphore(maxPermits);
+        this.waitNanos = wait.toNanos();
+        Gauge.builder("deen.charts.render.budget.used.pixels", this, ChartRenderPool::pixelsInUse)
+                .register(Metrics.globalRegistry);
+        Gauge.builder("deen.charts.render.queued", executor, pool -> pool.getQueue().size())
+                .register(Metrics.globalRegistry);
+    }
+
+    /**
+     * Renders on the pool and waits for the result. Failures inside the renderer propagate as they
+     * would inline; only saturation is turned into {@link Rendered#shed()}.
+     */
+    Rendered render(long estimatedPixels, Supplier<ResponseMedia> renderer) {
+        if (estimatedPixels <= 0) return new Rendered(null, false);
+        // A chart larger than the whole budget is admitted alone rather than never.
+        int permits = Math.min(maxPermits, permits(estimatedPixels));
+        if (!budget.tryAcquire(permits)) return shed("budget", estimatedPixels);
+        long enqueued = System.nanoTime();
+        Future<ResponseMedia> future;
+        try {
+            future = executor.submit(() -> {
+                queueTime.record(System.nanoTime() - enqueued, TimeUnit.NANOSECONDS);
+                try {
+                    return renderTime.record(renderer);
+                } finally {
+                    budget.release(permits);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            budget.release(permits);
+            return shed("queue", estimatedPixels);
+        }
+        try {
+            return new Rendered(future.get(Math.max(0, waitNanos - (System.nanoTime() - enqueued)),
+                    TimeUnit.NANOSECONDS), false);
+        } catch (TimeoutException e) {
+            // Not cancelled: the task releases its own permits, which a cancel before start would skip.
+            return shed("timeout", estimatedPixels);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return shed("interrupted", estimatedPixels);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            if (e.getCause() instanceof Error error) throw error;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    long pixelsInUse() {
+        return (long) (maxPermits - budget.availablePermits()) * PIXELS_PER_PERMIT;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private Rendered shed(String reason, long estimatedPixels) {
+        Counter.builder("deen.charts.render.shed").tag("reason", reason).register(Metrics.globalRegistry).increment();
+        log.info("Replying without chart ({}): {} px estimated, {} px in flight", reason, estimatedPixels, pixelsInUse());
+        return new Rendered(null, true);
+    }
+
+    private static int permits(long pixels) {
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, (pixels + PIXELS_PER_PERMIT - 1) / PIXELS_PER_PERMIT));
+    }
+
+    /** {@code shed} is true when a chart was wanted but dropped under load, so the reply is not final. */
+    record Rendered(ResponseMedia media, boolean shed) {}
+}
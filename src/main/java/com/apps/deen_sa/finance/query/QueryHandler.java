@@ -3,11 +3,14 @@ package com.apps.deen_sa.finance.query;
 import com.apps.deen_sa.dto.ExpenseQuery;
 import com.apps.deen_sa.dto.ExpenseSummary;
 import com.apps.deen_sa.dto.QueryResult;
+import com.apps.deen_sa.llm.AiCallTelemetry;
 import com.apps.deen_sa.llm.impl.ExpenseSummaryExplainer;
 import com.apps.deen_sa.llm.impl.QueryClassifier;
 import com.apps.deen_sa.conversation.ConversationContext;
 import com.apps.deen_sa.conversation.SpeechHandler;
+import com.apps.deen_sa.conversation.ResponseMedia;
 import com.apps.deen_sa.conversation.SpeechResult;
+import com.apps.deen_sa.conversation.TurnTrace;
 import com.apps.deen_sa.finance.expense.ExpenseAnalyticsService;
 import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
@@ -17,7 +20,9 @@ import java.util.stream.Collectors;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 import com.apps.deen_sa.finance.budget.BudgetInsightService;
+import com.apps.deen_sa.finance.budget.BudgetProgress;
 import com.apps.deen_sa.finance.credit.CardDueReminderService;
 import com.apps.deen_sa.finance.legacy.state.StateContainerEntity;
 import com.apps.deen_sa.finance.legacy.state.StateContainerRepository;
@@ -26,6 +31,9 @@ import com.apps.deen_sa.finance.presentation.VisualizationPlan;
 import com.apps.deen_sa.finance.presentation.VisualizationPlanner;
 import com.apps.deen_sa.finance.presentation.PresentationAnalyticsService;
 import com.apps.deen_sa.finance.presentation.PresentationDataset;
+import com.apps.deen_sa.finance.ledger.LedgerVersions;
+import java.time.LocalDate;
+import java.time.ZoneId;
 
 @Service
 public class QueryHandler implements SpeechHandler {
@@ -41,6 +49,11 @@ public class QueryHandler implements SpeechHandler {
     private final ExpenseChartRenderer chartRenderer;
     private final VisualizationPlanner visualizationPlanner;
     private final PresentationAnalyticsService presentationAnalytics;
+    private final LedgerVersions ledgerVersions;
+    private final QueryResultCache results;
+    private final ChartRenderPool renderPool;
+    private final TurnTrace trace;
+    private final AiCallTelemetry telemetry;
 
     public QueryHandler(
             ExpenseQueryBuilder expenseQueryBuilder,
@@ -49,7 +62,9 @@ public class QueryHandler implements SpeechHandler {
             QueryContextFormatter queryContextFormatter, BudgetInsightService budgetInsights,
             CardDueReminderService cardReminders, StateContainerRepository stateContainers,
             ExpenseChartRenderer chartRenderer, VisualizationPlanner visualizationPlanner,
-            PresentationAnalyticsService presentationAnalytics
+            PresentationAnalyticsService presentationAnalytics,
+            LedgerVersions ledgerVersions, QueryResultCache results, ChartRenderPool renderPool,
+            TurnTrace trace, AiCallTelemetry telemetry
     ) {
         this.expenseQueryBuilder = expenseQueryBuilder;
         this.expenseAnalyticsService = expenseAnalyticsService;
@@ -62,6 +77,11 @@ public class QueryHandler implements SpeechHandler {
         this.chartRenderer = chartRenderer;
         this.visualizationPlanner = visualizationPlanner;
         this.presentationAnalytics = presentationAnalytics;
+        this.ledgerVersions = ledgerVersions;
+        this.results = results;
+        this.renderPool = renderPool;
+        this.trace = trace;
+        this.telemetry = telemetry;
     }
 
     /** Executes the query plan already produced by the unified interpreter with no additional model calls. */
@@ -71,25 +91,46 @@ public class QueryHandler implements SpeechHandler {
 
     public SpeechResult handleInterpreted(String period, String analysisIntent, String presentationMood,
                                           ConversationContext context) {
+        if ("UPCOMING_DUE".equals(period)) return SpeechResult.info(cardReminders.reminders(context.getUserId(), context.getTimezone()));
+        QueryResultCache.Key key = new QueryResultCache.Key(context.getUserId(), period, analysisIntent, presentationMood,
+                context.getLocale(), LocalDate.now(ZoneId.of(context.getTimezone())),
+                ledgerVersions.current(String.valueOf(context.getUserId())));
+        QueryResultCache.Answer answer = results.get(key);
+        if (answer == null) {
+            Built built = answer(period, analysisIntent, presentationMood, context);
+            answer = built.answer();
+            // A reply that lost its chart to load is served once, then rendered properly next time.
+            if (!built.chartShed()) results.put(key, answer);
+        }
+        return SpeechResult.builder().status(com.apps.deen_sa.conversation.SpeechStatus.INFO)
+                .message(answer.message())
+                .media(answer.media())
+                .build();
+    }
+
+    private Built answer(String period, String analysisIntent, String presentationMood, ConversationContext context) {
         VisualizationPlan plan = visualizationPlanner.plan(
                 FinancialPresentationRequest.fromAi(analysisIntent, presentationMood));
         if ("ACCOUNT_BALANCE".equals(period)) {
-            Map<String, BigDecimal> balances = accountBalanceValues(context.getUserId());
-            return SpeechResult.builder().status(com.apps.deen_sa.conversation.SpeechStatus.INFO)
-                    .message(accountBalances(context.getUserId()))
-                    .media(chartRenderer.accountStack("Balances across accounts", balances, plan.mood(), context.getLocale()))
-                    .build();
+            Map<String, BigDecimal> balances;
+            String message;
+            try (var stage = trace.stage("query")) {
+                balances = accountBalanceValues(context.getUserId());
+                message = accountBalances(context.getUserId());
+            }
+            return new Built(message, render(chartRenderer.estimatedAccountStackPixels(balances.size()), () ->
+                    chartRenderer.accountStack("Balances across accounts", balances, plan.mood(), context.getLocale())));
         }
         if ("CURRENT_STATUS".equals(period)) {
-            String message = budgetInsights.status(context.getUserId(), context.getTimezone());
-            return SpeechResult.builder().status(com.apps.deen_sa.conversation.SpeechStatus.INFO)
-                    .message(message)
-                    .media(chartRenderer.budgetProgress("Monthly budget progress",
-                            budgetInsights.progress(context.getUserId(), context.getTimezone()),
-                            plan.mood(), context.getLocale()))
-                    .build();
+            List<BudgetProgress> progress;
+            String message;
+            try (var stage = trace.stage("query")) {
+                progress = budgetInsights.progress(context.getUserId(), context.getTimezone());
+                message = budgetInsights.status(context.getUserId(), context.getTimezone());
+            }
+            return new Built(message, render(chartRenderer.estimatedBudgetProgressPixels(progress.size()), () ->
+                    chartRenderer.budgetProgress("Monthly budget progress", progress, plan.mood(), context.getLocale())));
         }
-        if ("UPCOMING_DUE".equals(period)) return SpeechResult.info(cardReminders.reminders(context.getUserId(), context.getTimezone()));
         QueryResult result = new QueryResult();
         result.setIntent("QUERY");
         result.setQueryType("EXPENSE_TOTAL");
@@ -97,15 +138,30 @@ public class QueryHandler implements SpeechHandler {
         result.setIncludeTotal(true);
         result.setGroupByCategory(true);
         ExpenseQuery query = expenseQueryBuilder.from(result, context.getUserId());
-        ExpenseSummary summary = expenseAnalyticsService.analyze(query);
-        PresentationDataset presentation = presentationAnalytics.load(context.getUserId(), query.getTimeRange(),
-                plan, context.getTimezone());
-        com.apps.deen_sa.llm.AiCallTelemetry.avoided("query_classification_and_explanation");
-        String message = summary(context.getLocale(), period, summary);
-        return SpeechResult.builder().status(com.apps.deen_sa.conversation.SpeechStatus.INFO)
-                .message(message)
-                .media(chartRenderer.render(plan, chartTitle(period), summary, presentation, context.getLocale()))
-                .build();
+        ExpenseSummary summary;
+        PresentationDataset presentation;
+        try (var stage = trace.stage("query")) {
+            summary = expenseAnalyticsService.analyze(query);
+            presentation = presentationAnalytics.load(context.getUserId(), query.getTimeRange(), plan, context.getTimezone());
+        }
+        telemetry.avoided("query_classification_and_explanation");
+        return new Built(summary(context.getLocale(), period, summary),
+                render(chartRenderer.estimatedPixels(plan, summary, presentation), () ->
+                        chartRenderer.render(plan, chartTitle(period), summary, presentation, context.getLocale())));
+    }
+
+    /** Timed here, on the turn's thread, because the pool renders on its own threads. */
+    private ChartRenderPool.Rendered render(long estimatedPixels, Supplier<ResponseMedia> chart) {
+        try (var stage = trace.stage("chart")) {
+            return renderPool.render(estimatedPixels, chart);
+        }
+    }
+
+    /** A freshly built answer; when its chart was shed under load it should not be cached. */
+    private record Built(QueryResultCache.Answer answer, boolean chartShed) {
+        Built(String message, ChartRenderPool.Rendered chart) {
+            this(new QueryResultCache.Answer(message, chart.media()), chart.shed());
+        }
     }
 
     private String accountBalances(Long userId) {
@@ -137,22 +193,31 @@ public class QueryHandler implements SpeechHandler {
 
     @Override
     public SpeechResult handleSpeech(String userText, ConversationContext ctx) {
-        QueryResult result = queryClassifier.classify(userText);
+        QueryResult result;
+        try (var stage = trace.stage("model")) {
+            result = queryClassifier.classify(userText);
+        }
 
         ExpenseQuery query = expenseQueryBuilder.from(result, ctx.getUserId());
-        ExpenseSummary summary = expenseAnalyticsService.analyze(query);
+        ExpenseSummary summary;
+        try (var stage = trace.stage("query")) {
+            summary = expenseAnalyticsService.analyze(query);
+        }
         VisualizationPlan plan = visualizationPlanner.plan(FinancialPresentationRequest.fromAi(null, null));
 
         String context =
                 queryContextFormatter.describe(result);
 
-        String response =
-                expenseSummaryExplainer.explain(summary, userText, context);
+        String response;
+        try (var stage = trace.stage("model")) {
+            response = expenseSummaryExplainer.explain(summary, userText, context);
+        }
 
+        PresentationDataset dataset = PresentationDataset.empty();
         return SpeechResult.builder().status(com.apps.deen_sa.conversation.SpeechStatus.INFO)
                 .message(response)
-                .media(chartRenderer.render(plan, "Spending by category", summary,
-                        PresentationDataset.empty(), ctx.getLocale()))
+                .media(render(chartRenderer.estimatedPixels(plan, summary, dataset), () ->
+                        chartRenderer.render(plan, "Spending by category", summary, dataset, ctx.getLocale())).media())
                 .build();
     }
 
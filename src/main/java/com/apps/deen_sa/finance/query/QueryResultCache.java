@@ -0,0 +1,76 @@
+package com.apps.deen_sa.finance.query;
+
+import com.apps.deen_sa.conversation.ResponseMedia;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Rendered answers to interpreted queries, keyed by everything the answer depends on including the
+ * user's ledger version. A write moves the version, so stale answers become unreachable at once and
+ * simply age out of the least-recently-used order. Bounded by the bytes of text and media held.
+ */
+@Component
+class QueryResultCache {
+
+    /** {@code day} is the user's local date, since periods such as "today" resolve against it. */
+    record Key(Long userId, String period, String analysisIntent, String presentationMood, String locale,
+               LocalDate day, long ledgerVersion) {}
+
+    record Answer(String message, ResponseMedia media) {
+        long weight() {
+            return (message == null ? 0 : 2L * message.length()) + (media == null ? 0 : media.content().length) + 64;
+        }
+    }
+
+    private final long maxBytes;
+    private final Map<Key, Stored> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long bytes;
+
+    private final Counter hits = Metrics.counter("deen.finance.query.cache.requests", "result", "hit");
+    private final Counter misses = Metrics.counter("deen.finance.query.cache.requests", "result", "miss");
+
+    QueryResultCache(@Value("${finance.query-cache.max-bytes:33554432}") long maxBytes) {
+        this.maxBytes = maxBytes;
+        Gauge.builder("deen.finance.query.cache.bytes", this, QueryResultCache::bytes).register(Metrics.globalRegistry);
+        Gauge.builder("deen.finance.query.cache.hit.ratio", this, QueryResultCache::hitRatio)
+                .register(Metrics.globalRegistry);
+    }
+
+    synchronized Answer get(Key key) {
+        Stored stored = entries.get(key);
+        (stored == null ? misses : hits).increment();
+        return stored == null ? null : stored.answer();
+    }
+
+    synchronized void put(Key key, Answer answer) {
+        long weight = answer.weight();
+        if (weight > maxBytes) return;
+        Stored previous = entries.put(key, new Stored(answer, weight));
+        if (previous != null) bytes -= previous.weight();
+        bytes += weight;
+        Iterator<Stored> eldest = entries.values().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            bytes -= eldest.next().weight();
+            eldest.remove();
+        }
+    }
+
+    synchronized long bytes() {
+        return bytes;
+    }
+
+    private double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    private record Stored(Answer answer, long weight) {}
+}
@@ -0,0 +1,29 @@
+package com.apps.deen_sa.finance.rollup;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * One user's active spend or income for a local day and (category, subcategory, account) bucket.
+ * Rows are written only through the native upserts in {@link DailyRollupRepository}.
+ */
+@Entity
+@Table(name = "fin_daily_rollup", uniqueConstraints = @UniqueConstraint(name = "uq_fin_daily_rollup_key",
+        columnNames = {"user_id", "transaction_type", "local_date", "category", "subcategory", "container_id"}))
+@Getter @Setter
+public class DailyRollupEntity {
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY) private Long id;
+    @Column(name = "user_id", nullable = false) private String userId;
+    @Column(name = "transaction_type", nullable = false, length = 50) private String transactionType;
+    @Column(name = "local_date", nullable = false) private LocalDate localDate;
+    @Column(nullable = false, length = 100) private String category;
+    @Column(nullable = false, length = 100) private String subcategory;
+    @Column(name = "container_id", nullable = false) private Long containerId;
+    @Column(nullable = false, precision = 19, scale = 2) private BigDecimal amount;
+    @Column(name = "entry_count", nullable = false) private int entryCount;
+    @Column(name = "updated_at", nullable = false) private Instant updatedAt;
+}
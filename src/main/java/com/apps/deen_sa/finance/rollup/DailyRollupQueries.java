@@ -0,0 +1,89 @@
+package com.apps.deen_sa.finance.rollup;
+
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Range aggregates answered from daily rollups for whole local days and from raw rows for the
+ * partial days at the edges, so a month-long range reads about thirty rollup rows plus today's tail.
+ */
+@Service
+public class DailyRollupQueries {
+    private final DailyRollupRepository rollups;
+    private final DailyRollupService maintenance;
+
+    public DailyRollupQueries(DailyRollupRepository rollups, DailyRollupService maintenance) {
+        this.rollups = rollups;
+        this.maintenance = maintenance;
+    }
+
+    public BigDecimal sumExpenses(String userId, Instant start, Instant end, String category, String sourceAccount) {
+        Window w = Window.of(start, end, maintenance.zoneFor(userId));
+        return zeroIfNull(rollups.sumExpenses(userId, w.fromDay(), w.toDay(), start, w.dayStart(), w.dayEnd(), end,
+                category, sourceAccount));
+    }
+
+    public List<Object[]> sumByCategory(String userId, Instant start, Instant end, String sourceAccount) {
+        Window w = Window.of(start, end, maintenance.zoneFor(userId));
+        return rollups.sumByCategory(userId, w.fromDay(), w.toDay(), start, w.dayStart(), w.dayEnd(), end, sourceAccount);
+    }
+
+    public List<Object[]> sumBySubcategory(String userId, Instant start, Instant end, String category, String sourceAccount) {
+        Window w = Window.of(start, end, maintenance.zoneFor(userId));
+        return rollups.sumBySubcategory(userId, w.fromDay(), w.toDay(), start, w.dayStart(), w.dayEnd(), end,
+                category, sourceAccount);
+    }
+
+    public List<Object[]> sumBySourceAccount(String userId, Instant start, Instant end, String category) {
+        Window w = Window.of(start, end, maintenance.zoneFor(userId));
+        return rollups.sumBySourceAccount(userId, w.fromDay(), w.toDay(), start, w.dayStart(), w.dayEnd(), end, category);
+    }
+
+    /**
+     * Rollups are bucketed in the user's stored zone; a different display zone falls back to
+     * raw rows so day boundaries stay exact.
+     */
+    public List<Object[]> sumExpensesByLocalDay(String userId, Instant start, Instant end, String timezone) {
+        ZoneId zone = ZoneId.of(timezone);
+        Window w = zone.equals(maintenance.zoneFor(userId)) ? Window.of(start, end, zone) : Window.rawOnly(start, end);
+        return rollups.sumExpensesByLocalDay(userId, w.fromDay(), w.toDay(), start, w.dayStart(), w.dayEnd(), end, timezone);
+    }
+
+    public List<Object[]> sumExpenseFlow(String userId, Instant start, Instant end) {
+        Window w = Window.of(start, end, maintenance.zoneFor(userId));
+        return rollups.sumExpenseFlow(userId, w.fromDay(), w.toDay(), start, w.dayStart(), w.dayEnd(), end);
+    }
+
+    public BigDecimal sumIncome(String userId, Instant start, Instant end) {
+        Window w = Window.of(start, end, maintenance.zoneFor(userId));
+        return zeroIfNull(rollups.sumIncome(userId, w.fromDay(), w.toDay(), start, w.dayStart(), w.dayEnd(), end));
+    }
+
+    private BigDecimal zeroIfNull(BigDecimal value) {
+        return value == null ? BigDecimal.ZERO : value;
+    }
+
+    /**
+     * Whole local days {@code [fromDay, toDay)} inside {@code [start, end)}; raw rows cover
+     * {@code [start, dayStart)} and {@code [dayEnd, end)}.
+     */
+    record Window(LocalDate fromDay, LocalDate toDay, Instant dayStart, Instant dayEnd) {
+        static Window of(Instant start, Instant end, ZoneId zone) {
+            LocalDate from = start.atZone(zone).toLocalDate();
+            if (from.atStartOfDay(zone).toInstant().isBefore(start)) from = from.plusDays(1);
+            LocalDate to = end.atZone(zone).toLocalDate();
+            if (!from.isBefore(to)) return rawOnly(start, end);
+            return new Window(from, to, from.atStartOfDay(zone).toInstant(), to.atStartOfDay(zone).toInstant());
+        }
+
+        static Window rawOnly(Instant start, Instant end) {
+            LocalDate none = LocalDate.EPOCH;
+            return new Window(none, none, end, end);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.apps.deen_sa.finance.rollup;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Backfill command: start the app with {@code --finance.rollups.rebuild=true} (optionally
+ * {@code --finance.rollups.rebuild-user=<id>}) to recompute rollups and budget counters from
+ * {@code state_change}.
+ * Each user is rebuilt in its own transaction so a large backfill never holds one long lock. The
+ * process exits once the rebuild ends, with status 0 when every user was rebuilt; add
+ * {@code --spring.main.web-application-type=none} to skip starting the web server. Without the switch
+ * the runner does nothing.
+ */
+@Log4j2
+@Component
+class DailyRollupRebuildRunner implements ApplicationRunner {
+    private final DailyRollupRepository rollups;
+    private final DailyRollupService maintenance;
+    private final boolean enabled;
+    private final ConfigurableApplicationContext application;
+
+    DailyRollupRebuildRunner(DailyRollupRepository rollups, DailyRollupService maintenance,
+                             @Value("${finance.rollups.rebuild:false}") boolean enabled,
+                             ConfigurableApplicationContext application) {
+        this.rollups = rollups;
+        this.enabled = enabled;
+        this.maintenance = maintenance;
+        this.application = application;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) return;
+        int status = 1;
+        try {
+            rebuild(args);
+            status = 0;
+        } catch (Exception e) {
+            log.error("Daily rollup rebuild failed", e);
+        }
+        int exitCode = status;
+        System.exit(SpringApplication.exit(application, () -> exitCode));
+    }
+
+    private void rebuild(ApplicationArguments args) {
+        var only = args.getOptionValues("finance.rollups.rebuild-user");
+        var targets = only == null || only.isEmpty() ? rollups.findUsersWithChanges() : only;
+        long started = System.nanoTime();
+        int rows = 0;
+        for (String userId : targets) rows += maintenance.rebuild(userId);
+        log.info("Rebuilt {} daily rollup rows for {} users in {} ms", rows, targets.size(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+}
@@ -0,0 +1,205 @@
+package com.apps.deen_sa.finance.rollup;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Daily aggregates plus the raw-row tail for the partial days at either edge of a range.
+ * Every read takes the full-day window {@code [fromDay, toDay)} answered by rollups and the
+ * raw windows {@code [start, dayStart)} and {@code [dayEnd, end)} answered by {@code state_change}.
+ */
+public interface DailyRollupRepository extends JpaRepository<DailyRollupEntity, Long> {
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO fin_daily_rollup (user_id, transaction_type, local_date, category, subcategory,
+                                          container_id, amount, entry_count, updated_at)
+            VALUES (:userId, :type, :localDate, :category, :subcategory, :containerId, :amount, :entries,
+                    CURRENT_TIMESTAMP)
+            ON CONFLICT ON CONSTRAINT uq_fin_daily_rollup_key DO UPDATE
+            SET amount = fin_daily_rollup.amount + EXCLUDED.amount,
+                entry_count = fin_daily_rollup.entry_count + EXCLUDED.entry_count,
+                updated_at = CURRENT_TIMESTAMP
+            """, nativeQuery = true)
+    int add(@Param("userId") String userId, @Param("type") String type, @Param("localDate") LocalDate localDate,
+            @Param("category") String category, @Param("subcategory") String subcategory,
+            @Param("containerId") long containerId, @Param("amount") BigDecimal amount,
+            @Param("entries") int entries);
+
+    @Modifying
+    @Query(value = "DELETE FROM fin_daily_rollup WHERE user_id = :userId AND entry_count <= 0", nativeQuery = true)
+    int pruneEmpty(@Param("userId") String userId);
+
+    @Modifying
+    @Query(value = "DELETE FROM fin_daily_rollup WHERE user_id = :userId", nativeQuery = true)
+    int deleteForUser(@Param("userId") String userId);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO fin_daily_rollup (user_id, transaction_type, local_date, category, subcategory,
+                                          container_id, amount, entry_count, updated_at)
+            SELECT t.user_id, t.transaction_type,
+                   CAST((t.tx_time AT TIME ZONE 'UTC') AT TIME ZONE COALESCE(u.timezone, 'Asia/Kolkata') AS DATE),
+                   COALESCE(t.category, ''), COALESCE(t.subcategory, ''),
+                   COALESCE(CASE WHEN t.transaction_type = 'INCOME' THEN t.target_container_id
+                                 ELSE t.source_container_id END, 0),
+                   SUM(t.amount), COUNT(*), CURRENT_TIMESTAMP
+            FROM state_change t
+            LEFT JOIN app_user u ON CAST(u.id AS VARCHAR) = t.user_id
+            WHERE t.user_id = :userId AND t.transaction_type IN ('EXPENSE', 'INCOME')
+              AND t.record_status = 'ACTIVE'
+            GROUP BY 1, 2, 3, 4, 5, 6
+            """, nativeQuery = true)
+    int rebuildForUser(@Param("userId") String userId);
+
+    @Query(value = "SELECT DISTINCT user_id FROM state_change ORDER BY user_id", nativeQuery = true)
+    List<String> findUsersWithChanges();
+
+    @Query(value = """
+            SELECT COALESCE(SUM(s.amount), 0) FROM (
+                SELECT r.amount FROM fin_daily_rollup r
+                LEFT JOIN state_container c ON c.id = r.container_id
+                WHERE r.user_id = :userId AND r.transaction_type = 'EXPENSE'
+                  AND r.local_date >= :fromDay AND r.local_date < :toDay
+                  AND (:category IS NULL OR r.category = :category)
+                  AND (:sourceAccount IS NULL OR LOWER(c.name) = LOWER(:sourceAccount))
+                UNION ALL
+                SELECT t.amount FROM state_change t
+                LEFT JOIN state_container c ON c.id = t.source_container_id
+                WHERE t.user_id = :userId AND t.transaction_type = 'EXPENSE' AND t.record_status = 'ACTIVE'
+                  AND ((t.tx_time >= :start AND t.tx_time < :dayStart) OR (t.tx_time >= :dayEnd AND t.tx_time < :end))
+                  AND (:category IS NULL OR t.category = :category)
+                  AND (:sourceAccount IS NULL OR LOWER(c.name) = LOWER(:sourceAccount))
+            ) s
+            """, nativeQuery = true)
+    BigDecimal sumExpenses(@Param("userId") String userId, @Param("fromDay") LocalDate fromDay,
+                           @Param("toDay") LocalDate toDay, @Param("start") Instant start,
+                           @Param("dayStart") Instant dayStart, @Param("dayEnd") Instant dayEnd,
+                           @Param("end") Instant end, @Param("category") String category,
+                           @Param("sourceAccount") String sourceAccount);
+
+    @Query(value = """
+            SELECT s.category, COALESCE(SUM(s.amount), 0) FROM (
+                SELECT NULLIF(r.category, '') AS category, r.amount FROM fin_daily_rollup r
+                LEFT JOIN state_container c ON c.id = r.container_id
+                WHERE r.user_id = :userId AND r.transaction_type = 'EXPENSE'
+                  AND r.local_date >= :fromDay AND r.local_date < :toDay
+                  AND (:sourceAccount IS NULL OR LOWER(c.name) = LOWER(:sourceAccount))
+                UNION ALL
+                SELECT t.category, t.amount FROM state_change t
+                LEFT JOIN state_container c ON c.id = t.source_container_id
+                WHERE t.user_id = :userId AND t.transaction_type = 'EXPENSE' AND t.record_status = 'ACTIVE'
+                  AND ((t.tx_time >= :start AND t.tx_time < :dayStart) OR (t.tx_time >= :dayEnd AND t.tx_time < :end))
+                  AND (:sourceAccount IS NULL OR LOWER(c.name) = LOWER(:sourceAccount))
+            ) s
+            GROUP BY s.category ORDER BY SUM(s.amount) DESC
+            """, nativeQuery = true)
+    List<Object[]> sumByCategory(@Param("userId") String userId, @Param("fromDay") LocalDate fromDay,
+                                 @Param("toDay") LocalDate toDay, @Param("start") Instant start,
+                                 @Param("dayStart") Instant dayStart, @Param("dayEnd") Instant dayEnd,
+                                 @Param("end") Instant end, @Param("sourceAccount") String sourceAccount);
+
+    @Query(value = """
+            SELECT s.subcategory, COALESCE(SUM(s.amount), 0) FROM (
+                SELECT NULLIF(r.subcategory, '') AS subcategory, r.amount FROM fin_daily_rollup r
+                LEFT JOIN state_container c ON c.id = r.container_id
+                WHERE r.user_id = :userId AND r.transaction_type = 'EXPENSE'
+                  AND r.local_date >= :fromDay AND r.local_date < :toDay
+                  AND (:category IS NULL OR r.category = :category)
+                  AND (:sourceAccount IS NULL OR LOWER(c.name) = LOWER(:sourceAccount))
+                UNION ALL
+                SELECT t.subcategory, t.amount FROM state_change t
+                LEFT JOIN state_container c ON c.id = t.source_container_id
+                WHERE t.user_id = :userId AND t.transaction_type = 'EXPENSE' AND t.record_status = 'ACTIVE'
+                  AND ((t.tx_time >= :start AND t.tx_time < :dayStart) OR (t.tx_time >= :dayEnd AND t.tx_time < :end))
+                  AND (:category IS NULL OR t.category = :category)
+                  AND (:sourceAccount IS NULL OR LOWER(c.name) = LOWER(:sourceAccount))
+            ) s
+            GROUP BY s.subcategory ORDER BY SUM(s.amount) DESC
+            """, nativeQuery = true)
+    List<Object[]> sumBySubcategory(@Param("userId") String userId, @Param("fromDay") LocalDate fromDay,
+                                    @Param("toDay") LocalDate toDay, @Param("start") Instant start,
+                                    @Param("dayStart") Instant dayStart, @Param("dayEnd") Instant dayEnd,
+                                    @Param("end") Instant end, @Param("category") String category,
+                                    @Param("sourceAccount") String sourceAccount);
+
+    @Query(value = """
+            SELECT COALESCE(c.name, 'Unallocated'), COALESCE(SUM(s.amount), 0) FROM (
+                SELECT NULLIF(r.container_id, 0) AS container_id, r.amount FROM fin_daily_rollup r
+                WHERE r.user_id = :userId AND r.transaction_type = 'EXPENSE'
+                  AND r.local_date >= :fromDay AND r.local_date < :toDay
+                  AND (:category IS NULL OR r.category = :category)
+                UNION ALL
+                SELECT t.source_container_id, t.amount FROM state_change t
+                WHERE t.user_id = :userId AND t.transaction_type = 'EXPENSE' AND t.record_status = 'ACTIVE'
+                  AND ((t.tx_time >= :start AND t.tx_time < :dayStart) OR (t.tx_time >= :dayEnd AND t.tx_time < :end))
+                  AND (:category IS NULL OR t.category = :category)
+            ) s
+            LEFT JOIN state_container c ON c.id = s.container_id
+            GROUP BY c.name ORDER BY SUM(s.amount) DESC
+            """, nativeQuery = true)
+    List<Object[]> sumBySourceAccount(@Param("userId") String userId, @Param("fromDay") LocalDate fromDay,
+                                      @Param("toDay") LocalDate toDay, @Param("start") Instant start,
+                                      @Param("dayStart") Instant dayStart, @Param("dayEnd") Instant dayEnd,
+                                      @Param("end") Instant end, @Param("category") String category);
+
+    @Query(value = """
+            SELECT s.day, COALESCE(SUM(s.amount), 0) FROM (
+                SELECT TO_CHAR(r.local_date, 'YYYY-MM-DD') AS day, r.amount FROM fin_daily_rollup r
+                WHERE r.user_id = :userId AND r.transaction_type = 'EXPENSE'
+                  AND r.local_date >= :fromDay AND r.local_date < :toDay
+                UNION ALL
+                SELECT TO_CHAR((t.tx_time AT TIME ZONE 'UTC') AT TIME ZONE :timezone, 'YYYY-MM-DD'), t.amount
+                FROM state_change t
+                WHERE t.user_id = :userId AND t.transaction_type = 'EXPENSE' AND t.record_status = 'ACTIVE'
+                  AND ((t.tx_time >= :start AND t.tx_time < :dayStart) OR (t.tx_time >= :dayEnd AND t.tx_time < :end))
+            ) s
+            GROUP BY 1 ORDER BY 1
+            """, nativeQuery = true)
+    List<Object[]> sumExpensesByLocalDay(@Param("userId") String userId, @Param("fromDay") LocalDate fromDay,
+                                         @Param("toDay") LocalDate toDay, @Param("start") Instant start,
+                                         @Param("dayStart") Instant dayStart, @Param("dayEnd") Instant dayEnd,
+                                         @Param("end") Instant end, @Param("timezone") String timezone);
+
+    @Query(value = """
+            SELECT COALESCE(c.name, 'Unallocated'), COALESCE(s.category, 'Uncategorized'), COALESCE(SUM(s.amount), 0)
+            FROM (
+                SELECT NULLIF(r.container_id, 0) AS container_id, NULLIF(r.category, '') AS category, r.amount
+                FROM fin_daily_rollup r
+                WHERE r.user_id = :userId AND r.transaction_type = 'EXPENSE'
+                  AND r.local_date >= :fromDay AND r.local_date < :toDay
+                UNION ALL
+                SELECT t.source_container_id, t.category, t.amount FROM state_change t
+                WHERE t.user_id = :userId AND t.transaction_type = 'EXPENSE' AND t.record_status = 'ACTIVE'
+                  AND ((t.tx_time >= :start AND t.tx_time < :dayStart) OR (t.tx_time >= :dayEnd AND t.tx_time < :end))
+            ) s
+            LEFT JOIN state_container c ON c.id = s.container_id
+            GROUP BY 1, 2 ORDER BY SUM(s.amount) DESC
+            """, nativeQuery = true)
+    List<Object[]> sumExpenseFlow(@Param("userId") String userId, @Param("fromDay") LocalDate fromDay,
+                                  @Param("toDay") LocalDate toDay, @Param("start") Instant start,
+                                  @Param("dayStart") Instant dayStart, @Param("dayEnd") Instant dayEnd,
+                                  @Param("end") Instant end);
+
+    @Query(value = """
+            SELECT COALESCE(SUM(s.amount), 0) FROM (
+                SELECT r.amount FROM fin_daily_rollup r
+                WHERE r.user_id = :userId AND r.transaction_type = 'INCOME'
+                  AND r.local_date >= :fromDay AND r.local_date < :toDay
+                UNION ALL
+                SELECT t.amount FROM state_change t
+                WHERE t.user_id = :userId AND t.transaction_type = 'INCOME' AND t.record_status = 'ACTIVE'
+                  AND ((t.tx_time >= :start AND t.tx_time < :dayStart) OR (t.tx_time >= :dayEnd AND t.tx_time < :end))
+            ) s
+            """, nativeQuery = true)
+    BigDecimal sumIncome(@Param("userId") String userId, @Param("fromDay") LocalDate fromDay,
+                         @Param("toDay") LocalDate toDay, @Param("start") Instant start,
+                         @Param("dayStart") Instant dayStart, @Param("dayEnd") Instant dayEnd,
+                         @Param("end") Instant end);
+}
@@ -0,0 +1,183 @@
+package com.apps.deen_sa.finance.rollup;
+
+import com.apps.deen_sa.conversation.AppUserEntity;
+import com.apps.deen_sa.conversation.AppUserRepository;
+import com.apps.deen_sa.finance.budget.BudgetSpendCounters;
+import com.apps.deen_sa.finance.ledger.LedgerVersions;
+import com.apps.deen_sa.finance.expense.ExpenseRecordStatus;
+import com.apps.deen_sa.finance.legacy.state.StateChangeEntity;
+import com.apps.deen_sa.finance.legacy.state.StateChangeTypeEnum;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Keeps {@code fin_daily_rollup} and the month-to-date budget counters in step with active
+ * expense and income rows.
+ * Write paths call this in the same transaction as the {@code state_change} write; a row whose
+ * dimensions change in place is snapshotted first and then {@link #moved moved}.
+ */
+@Service
+public class DailyRollupService {
+    private static final Set<StateChangeTypeEnum> ROLLED_UP = EnumSet.of(StateChangeTypeEnum.EXPENSE, StateChangeTypeEnum.INCOME);
+    private static final ZoneId DEFAULT_ZONE = ZoneId.of("Asia/Kolkata");
+
+    private final DailyRollupRepository rollups;
+    private final AppUserRepository users;
+    private final BudgetSpendCounters budgetCounters;
+    private final LedgerVersions versions;
+
+    public DailyRollupService(DailyRollupRepository rollups, AppUserRepository users, BudgetSpendCounters budgetCounters,
+                              LedgerVersions versions) {
+        this.rollups = rollups;
+        this.users = users;
+        this.budgetCounters = budgetCounters;
+        this.versions = versions;
+    }
+
+    /** The rollup bucket a change currently contributes to, or {@code null} when it contributes nothing. */
+    public Bucket snapshot(StateChangeEntity change) {
+        return snapshot(change, this::zoneFor);
+    }
+
+    private Bucket snapshot(StateChangeEntity change, Function<String, ZoneId> zones) {
+        if (change == null || change.getUserId() == null || change.getAmount() == null || change.getTimestamp() == null
+                || !ROLLED_UP.contains(change.getTransactionType())
+                || change.getRecordStatus() != ExpenseRecordStatus.ACTIVE) return null;
+        Long container = change.getTransactionType() == StateChangeTypeEnum.INCOME
+                ? change.getTargetContainerId() : change.getSourceContainerId();
+        return new Bucket(change.getUserId(), change.getTransactionType().name(),
+                change.getTimestamp().atZone(zones.apply(change.getUserId())).toLocalDate(),
+                change.getCategory() == null ? "" : change.getCategory(),
+                change.getSubcategory() == null ? "" : change.getSubcategory(),
+                container == null ? 0L : container, change.getAmount());
+    }
+
+    /**
+     * Locks the user's {@code app_user} row until commit. A write path that will also lock an account
+     * calls this before touching the account, so every transaction takes {@code app_user} before
+     * {@code state_container} and two writers for the same user cannot deadlock.
+     */
+    @Transactional
+    public void lockUser(String userId) {
+        budgetCounters.lockUser(userId);
+    }
+
+    @Transactional
+    public void record(StateChangeEntity change) {
+        add(snapshot(change), 1);
+    }
+
+    /**
+     * Records many new changes at once, as a bulk import does: changes falling in the same bucket are
+     * summed into one rollup and counter update, and each user's ledger version moves once.
+     */
+    @Transactional
+    public void recordAll(Collection<StateChangeEntity> changes) {
+        Map<String, ZoneId> zones = new HashMap<>();
+        Map<Bucket, BigDecimal> amounts = new LinkedHashMap<>();
+        Map<Bucket, Integer> entries = new HashMap<>();
+        for (StateChangeEntity change : changes) {
+            Bucket bucket = snapshot(change, userId -> zones.computeIfAbsent(userId, this::zoneFor));
+            if (bucket == null) continue;
+            Bucket key = new Bucket(bucket.userId(), bucket.type(), bucket.localDate(), bucket.category(),
+                    bucket.subcategory(), bucket.containerId(), BigDecimal.ZERO);
+            amounts.merge(key, bucket.amount(), BigDecimal::add);
+            entries.merge(key, 1, Integer::sum);
+        }
+        amounts.forEach((key, amount) -> apply(key, amount, entries.get(key)));
+        amounts.keySet().stream().map(Bucket::userId).distinct().forEach(versions::bump);
+    }
+
+    /** Re-buckets a change whose status or dimensions were edited after {@code before} was taken. */
+    @Transactional
+    public void moved(Bucket before, StateChangeEntity after) {
+        Bucket current = snapshot(after);
+        if (Objects.equals(before, current)) return;
+        add(before, -1);
+        add(current, 1);
+    }
+
+    /**
+     * Recomputes one user's rollups and budget counters from {@code state_change}; used for backfills
+     * and timezone changes.
+     */
+    @Transactional
+    public int rebuild(String userId) {
+        rollups.deleteForUser(userId);
+        int rows = rollups.rebuildForUser(userId);
+        budgetCounters.rebuild(userId);
+        versions.bump(userId);
+        return rows;
+    }
+
+    /**
+     * Moves a user to another timezone. Rollups and counters are bucketed by local day and month, so
+     * they are rebuilt in the same transaction, with the user row locked against concurrent changes.
+     *
+     * @return whether the timezone changed
+     * @throws java.time.DateTimeException when {@code timezone} is not a valid zone id
+     */
+    @Transactional
+    public boolean changeTimezone(Long userId, String timezone) {
+        String zone = ZoneId.of(timezone).getId();
+        AppUserEntity user = users.findForUpdate(userId)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown user " + userId));
+        if (zone.equals(user.getTimezone())) return false;
+        user.setTimezone(zone);
+        users.saveAndFlush(user);
+        rebuild(userId.toString());
+        return true;
+    }
+
+    public ZoneId zoneFor(String userId) {
+        try {
+            return users.findById(Long.valueOf(userId)).map(AppUserEntity::getTimezone).map(ZoneId::of).orElse(DEFAULT_ZONE);
+        } catch (RuntimeException invalid) {
+            return DEFAULT_ZONE;
+        }
+    }
+
+    private void add(Bucket bucket, int sign) {
+        if (bucket == null) return;
+        apply(bucket, sign > 0 ? bucket.amount() : bucket.amount().negate(), sign);
+        if (sign < 0) rollups.pruneEmpty(bucket.userId());
+        versions.bump(bucket.userId());
+    }
+
+    private void apply(Bucket bucket, BigDecimal amount, int entries) {
+        rollups.add(bucket.userId(), bucket.type(), bucket.localDate(), bucket.category(), bucket.subcategory(),
+                bucket.containerId(), amount, entries);
+        if (StateChangeTypeEnum.EXPENSE.name().equals(bucket.type())) {
+            budgetCounters.add(bucket.userId(), bucket.localDate(), bucket.category(), bucket.subcategory(),
+                    amount, entries);
+        }
+    }
+
+    public record Bucket(String userId, String type, LocalDate localDate, String category, String subcategory,
+                         long containerId, BigDecimal amount) {
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Bucket that && userId.equals(that.userId) && type.equals(that.type)
+                    && localDate.equals(that.localDate) && category.equals(that.category)
+                    && subcategory.equals(that.subcategory) && containerId == that.containerId
+                    && amount.compareTo(that.amount) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, type, localDate, category, subcategory, containerId, amount.stripTrailingZeros());
+        }
+    }
+}
@@ -1,36 +1,87 @@
 package com.apps.deen_sa.llm;
 
+import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.Metrics;
 import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
 
-import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
-/** Low-cardinality production metrics for measuring AI cost before optimizing it. */
-public final class AiCallTelemetry {
-    private AiCallTelemetry() { }
+/**
+ * Low-cardinality production metrics for measuring AI cost before optimizing it. Meters are
+ * registered once per (purpose, model, outcome) and reused, so a call only increments them. Token
+ * usage is also handed to the {@link CostSink}, the {@link AiCostLedger} in the application, which
+ * prices it for the tenant set with {@link #forTenant}.
+ */
+@Component
+public class AiCallTelemetry {
+    private final Map<Key, Meters> meters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> avoided = new ConcurrentHashMap<>();
+    private final ThreadLocal<Long> tenant = new ThreadLocal<>();
+    private final CostSink costs;
 
-    public static void success(String purpose, String model, long inputTokens, long cachedInputTokens,
-                               long outputTokens, long startedNanos) {
-        tagsCounter("deen.ai.calls", purpose, model, "success").increment();
-        tagsCounter("deen.ai.tokens.input", purpose, model, "success").increment(inputTokens);
-        tagsCounter("deen.ai.tokens.input.cached", purpose, model, "success").increment(cachedInputTokens);
-        tagsCounter("deen.ai.tokens.output", purpose, model, "success").increment(outputTokens);
-        Timer.builder("deen.ai.latency").tags("purpose", purpose, "model", model, "outcome", "success")
-                .register(Metrics.globalRegistry).record(Duration.ofNanos(System.nanoTime() - startedNanos));
+    public AiCallTelemetry(CostSink costs) {
+        this.costs = costs;
     }
 
-    public static void failure(String purpose, String model, long startedNanos) {
-        tagsCounter("deen.ai.calls", purpose, model, "failure").increment();
-        Timer.builder("deen.ai.latency").tags("purpose", purpose, "model", model, "outcome", "failure")
-                .register(Metrics.globalRegistry).record(Duration.ofNanos(System.nanoTime() - startedNanos));
+    /** Attributes the model calls made on this thread to a tenant until the scope is closed. */
+    public TenantScope forTenant(Long tenantId) {
+        Long previous = tenant.get();
+        tenant.set(tenantId);
+        return previous == null ? tenant::remove : () -> tenant.set(previous);
     }
 
-    public static void avoided(String reason) {
-        Metrics.counter("deen.ai.calls.avoided", "reason", reason).increment();
+    public void success(String purpose, String model, long inputTokens, long cachedInputTokens,
+                        long outputTokens, long startedNanos) {
+        long elapsed = System.nanoTime() - startedNanos;
+        Meters call = meters(purpose, model, "success");
+        call.calls().increment();
+        call.inputTokens().increment(inputTokens);
+        call.cachedInputTokens().increment(cachedInputTokens);
+        call.outputTokens().increment(outputTokens);
+        call.latency().record(elapsed, TimeUnit.NANOSECONDS);
+        costs.record(tenant.get(), purpose, model, inputTokens, cachedInputTokens, outputTokens);
     }
 
-    private static io.micrometer.core.instrument.Counter tagsCounter(
-            String name, String purpose, String model, String outcome) {
-        return Metrics.counter(name, "purpose", purpose, "model", model, "outcome", outcome);
+    public void failure(String purpose, String model, long startedNanos) {
+        long elapsed = System.nanoTime() - startedNanos;
+        Meters call = meters(purpose, model, "failure");
+        call.calls().increment();
+        call.latency().record(elapsed, TimeUnit.NANOSECONDS);
+    }
+
+    public void avoided(String reason) {
+        avoided.computeIfAbsent(reason, key -> Metrics.counter("deen.ai.calls.avoided", "reason", key)).increment();
+    }
+
+    private Meters meters(String purpose, String model, String outcome) {
+        Key key = new Key(purpose, String.valueOf(model), outcome);
+        Meters registered = meters.get(key);
+        return registered != null ? registered : meters.computeIfAbsent(key, Meters::register);
+    }
+
+    public interface TenantScope extends AutoCloseable {
+        @Override void close();
+    }
+
+    public interface CostSink {
+        CostSink NONE = (tenantId, purpose, model, inputTokens, cachedInputTokens, outputTokens) -> { };
+
+        void record(Long tenantId, String purpose, String model, long inputTokens, long cachedInputTokens,
+                    long outputTokens);
+    }
+
+    private record Key(String purpose, String model, String outcome) { }
+
+    private record Meters(Counter calls, Counter inputTokens, Counter cachedInputTokens, Counter outputTokens,
+                          Timer latency) {
+        static Meters register(Key key) {
+            String[] tags = {"purpose", key.purpose(), "model", key.model(), "outcome", key.outcome()};
+            return new Meters(Metrics.counter("deen.ai.calls", tags), Metrics.counter("deen.ai.tokens.input", tags),
+                    Metrics.counter("deen.ai.tokens.input.cached", tags), Metrics.counter("deen.ai.tokens.output", tags),
+                    Timer.builder("deen.ai.latency").tags(tags).register(Metrics.globalRegistry));
+        }
     }
 }
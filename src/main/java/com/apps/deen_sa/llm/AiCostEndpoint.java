@@ -0,0 +1,36 @@
+package com.apps.deen_sa.llm;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code /actuator/aicost}: AI spend per purpose over the last hour, day and thirty days on this node,
+ * and the top ten tenants today across all nodes; {@code /actuator/aicost/{tenants}} lists another number.
+ */
+@Component
+@Endpoint(id = "aicost")
+public class AiCostEndpoint {
+    private final AiCostLedger ledger;
+
+    public AiCostEndpoint(AiCostLedger ledger) {
+        this.ledger = ledger;
+    }
+
+    @ReadOperation
+    public CostSummary summary() {
+        return top(10);
+    }
+
+    @ReadOperation
+    public CostSummary top(@Selector int tenants) {
+        return new CostSummary(ledger.currency(), ledger.byPurpose(), ledger.topTenants(Math.max(1, tenants)));
+    }
+
+    public record CostSummary(String currency, Map<String, Map<String, AiCostLedger.Spend>> byPurpose,
+                              List<AiCostLedger.TenantBudget> topTenantsToday) { }
+}
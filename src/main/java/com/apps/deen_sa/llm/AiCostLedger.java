@@ -0,0 +1,218 @@
+package com.apps.deen_sa.llm;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Prices the token usage reported to {@link AiCallTelemetry}. Spend per purpose over rolling windows
+ * is kept in memory on each node; spend per tenant for the UTC day and month is kept in
+ * {@link AiTenantSpendStore}, so budgets hold across restarts and nodes. Amounts are held in millionths
+ * of the configured currency, so a price per million tokens times a token count is already in that
+ * unit. The call that crosses {@code alert-at} of a tenant budget logs a warning, and the call that
+ * exceeds it logs again; both count {@code deen.ai.budget.alerts}. Calls over budget are not refused.
+ */
+@Slf4j
+@Component
+public class AiCostLedger implements AiCallTelemetry.CostSink {
+    static final List<Duration> WINDOWS = List.of(Duration.ofHours(1), Duration.ofDays(1), Duration.ofDays(30));
+
+    private final AiCostProperties properties;
+    private final AiTenantSpendStore tenants;
+    private final Clock clock;
+    private final Map<String, RollingSpend> purposes = new ConcurrentHashMap<>();
+    private final Map<String, Counter> spendCounters = new ConcurrentHashMap<>();
+    private final Set<String> unpriced = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public AiCostLedger(AiCostProperties properties, AiTenantSpendStore tenants) {
+        this(properties, tenants, Clock.systemUTC());
+    }
+
+    AiCostLedger(AiCostProperties properties, AiTenantSpendStore tenants, Clock clock) {
+        this.properties = properties;
+        this.tenants = tenants;
+        this.clock = clock;
+    }
+
+    @Override
+    public void record(Long tenantId, String purpose, String reportedModel, long inputTokens, long cachedInputTokens,
+                long outputTokens) {
+        String model = String.valueOf(reportedModel);
+        AiCostProperties.Price price = price(model);
+        long micros = 0;
+        if (price == null) {
+            if (unpriced.add(model)) log.warn("No AI price configured for model {}; its calls are counted as free", model);
+        } else {
+            long cached = Math.min(cachedInputTokens, inputTokens);
+            micros = micros(price.input(), inputTokens - cached) + micros(price.cachedInput(), cached)
+                    + micros(price.output(), outputTokens);
+        }
+        long minute = Math.floorDiv(clock.millis(), 60_000L);
+        purposes.computeIfAbsent(purpose, key -> new RollingSpend()).add(minute, micros);
+        spendCounters.computeIfAbsent(purpose + '\u0000' + model, key -> Counter.builder("deen.ai.cost")
+                        .baseUnit(properties.currency()).tags("purpose", purpose, "model", model)
+                        .register(Metrics.globalRegistry))
+                .increment(micros / 1e6);
+        if (tenantId != null) recordTenant(tenantId, micros);
+    }
+
+    private void recordTenant(Long tenantId, long micros) {
+        AiTenantSpendStore.Totals totals;
+        try {
+            totals = tenants.add(tenantId, today(), micros);
+        } catch (DataAccessException e) {
+            log.warn("Could not record AI spend of tenant {}: {}", tenantId, e.getMessage());
+            Metrics.counter("deen.ai.cost.unrecorded").increment();
+            return;
+        }
+        alert(tenantId, "daily", totals.dayMicros(), micros, properties.dailyBudgetPerTenant());
+        alert(tenantId, "monthly", totals.monthMicros(), micros, properties.monthlyBudgetPerTenant());
+    }
+
+    /** Alerts when this call moved the tenant's spend past a budget level; every node sees the same totals. */
+    private void alert(Long tenantId, String period, long spentMicros, long callMicros, BigDecimal budget) {
+        if (budget == null || budget.signum() <= 0) return;
+        int level = level(amount(spentMicros), budget);
+        if (level <= level(amount(spentMicros - callMicros), budget)) return;
+        BigDecimal spent = amount(spentMicros);
+        String name = level == 2 ? "exceeded" : "warning";
+        log.warn("Tenant {} AI spend {} {} has {} its {} budget of {}", tenantId, spent.toPlainString(),
+                properties.currency(), level == 2 ? "exceeded" : "reached " + Math.round(properties.alertAt() * 100) + "% of",
+                period, budget.toPlainString());
+        Metrics.counter("deen.ai.budget.alerts", "period", period, "level", name).increment();
+    }
+
+    private int level(BigDecimal spent, BigDecimal budget) {
+        return spent.compareTo(budget) > 0 ? 2
+                : spent.compareTo(budget.multiply(BigDecimal.valueOf(properties.alertAt()))) >= 0 ? 1 : 0;
+    }
+
+    /** Spend per purpose for each of {@link #WINDOWS}, keyed by the window's ISO duration. */
+    public Map<String, Map<String, Spend>> byPurpose() {
+        long minute = Math.floorDiv(clock.millis(), 60_000L);
+        Map<String, Map<String, Spend>> windows = new LinkedHashMap<>();
+        for (Duration window : WINDOWS) {
+            Map<String, Spend> spend = new TreeMap<>();
+            purposes.forEach((purpose, rolling) -> {
+                Spend value = rolling.sum(minute, window.toMinutes());
+                if (value.calls() > 0) spend.put(purpose, value);
+            });
+            windows.put(window.toString(), spend);
+        }
+        return windows;
+    }
+
+    /** The tenants with the highest spend today, with their month to date. */
+    public List<TenantBudget> topTenants(int limit) {
+        return tenants.top(today(), limit).stream()
+                .map(tenant -> new TenantBudget(tenant.tenantId(), amount(tenant.dayMicros()), amount(tenant.monthMicros())))
+                .toList();
+    }
+
+    public String currency() {
+        return properties.currency();
+    }
+
+    /** Keeps the day rows of this month and the last; month rows are kept for reporting. */
+    @Scheduled(fixedDelayString = "${ai.cost.prune-interval:PT1H}")
+    void pruneOldDays() {
+        tenants.pruneDaysBefore(today().withDayOfMonth(1).minusMonths(1));
+    }
+
+    private AiCostProperties.Price price(String model) {
+        AiCostProperties.Price exact = properties.prices().get(model);
+        if (exact != null) return exact;
+        // Responses name a dated snapshot (gpt-4.1-mini-2025-04-14); price it as its alias.
+        return properties.prices().entrySet().stream().filter(entry -> model.startsWith(entry.getKey() + "-"))
+                .max(Comparator.comparingInt(entry -> entry.getKey().length()))
+                .map(Map.Entry::getValue).orElse(null);
+    }
+
+    private LocalDate today() {
+        return LocalDate.ofInstant(clock.instant(), ZoneOffset.UTC);
+    }
+
+    private static long micros(BigDecimal pricePerMillion, long tokens) {
+        return pricePerMillion == null || tokens <= 0 ? 0
+                : pricePerMillion.multiply(BigDecimal.valueOf(tokens)).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    private static BigDecimal amount(long micros) {
+        return BigDecimal.valueOf(micros, 6).stripTrailingZeros();
+    }
+
+    public record Spend(long calls, BigDecimal amount) { }
+
+    public record TenantBudget(Long tenantId, BigDecimal today, BigDecimal monthToDate) { }
+
+    /** Per-minute slots for the last hour and per-hour slots for the last thirty days. */
+    private static final class RollingSpend {
+        private final Slots minutes = new Slots(60);
+        private final Slots hours = new Slots(30 * 24);
+
+        synchronized void add(long minute, long micros) {
+            minutes.add(minute, micros);
+            hours.add(minute / 60, micros);
+        }
+
+        synchronized Spend sum(long minute, long windowMinutes) {
+            return windowMinutes <= 60 ? minutes.sum(minute, windowMinutes) : hours.sum(minute / 60, windowMinutes / 60);
+        }
+    }
+
+    private static final class Slots {
+        private final long[] stamps;
+        private final long[] calls;
+        private final long[] micros;
+
+        Slots(int size) {
+            stamps = new long[size];
+            calls = new long[size];
+            micros = new long[size];
+            Arrays.fill(stamps, Long.MIN_VALUE);
+        }
+
+        void add(long stamp, long amount) {
+            int slot = (int) Math.floorMod(stamp, stamps.length);
+            if (stamps[slot] != stamp) {
+                stamps[slot] = stamp;
+                calls[slot] = 0;
+                micros[slot] = 0;
+            }
+            calls[slot]++;
+            micros[slot] += amount;
+        }
+
+        Spend sum(long now, long width) {
+            long count = 0;
+            long total = 0;
+            for (int slot = 0; slot < stamps.length; slot++) {
+                if (stamps[slot] > now - width && stamps[slot] <= now) {
+                    count += calls[slot];
+                    total += micros[slot];
+                }
+            }
+            return new Spend(count, amount(total));
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.apps.deen_sa.llm;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Price table and per-tenant budgets for {@link AiCostLedger}. Prices are per million tokens in
+ * {@code currency}; a model without an entry is priced at zero and reported as unpriced. A budget of
+ * zero is not enforced.
+ */
+@ConfigurationProperties("ai.cost")
+public record AiCostProperties(
+        @DefaultValue("USD") String currency,
+        Map<String, Price> prices,
+        @DefaultValue("0") BigDecimal dailyBudgetPerTenant,
+        @DefaultValue("0") BigDecimal monthlyBudgetPerTenant,
+        @DefaultValue("0.8") double alertAt
+) {
+    public AiCostProperties {
+        prices = prices == null ? Map.of() : Map.copyOf(prices);
+    }
+
+    public record Price(BigDecimal input, @DefaultValue("0") BigDecimal cachedInput, BigDecimal output) {
+    }
+}
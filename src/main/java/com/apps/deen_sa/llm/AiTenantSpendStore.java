@@ -0,0 +1,75 @@
+package com.apps.deen_sa.llm;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Per-tenant AI spend in {@code ai_tenant_spend}, one row per tenant and UTC day or month. A call is
+ * added to both rows with one upsert in its own transaction: the money is spent even when the turn
+ * that made the call rolls back, and a failed write must not abort the caller's transaction.
+ */
+@Component
+public class AiTenantSpendStore {
+    private static final String ADD = """
+            INSERT INTO ai_tenant_spend AS spend (tenant_id, period, period_start, spent_micros, calls, updated_at)
+            VALUES (?, 'DAY', ?, ?, 1, CURRENT_TIMESTAMP), (?, 'MONTH', ?, ?, 1, CURRENT_TIMESTAMP)
+            ON CONFLICT ON CONSTRAINT pk_ai_tenant_spend DO UPDATE
+                SET spent_micros = spend.spent_micros + EXCLUDED.spent_micros, calls = spend.calls + 1,
+                    updated_at = CURRENT_TIMESTAMP
+            RETURNING period, spent_micros
+            """;
+    private static final String TOP = """
+            SELECT day.tenant_id, day.spent_micros, COALESCE(month.spent_micros, 0) AS month_micros
+            FROM ai_tenant_spend day
+            LEFT JOIN ai_tenant_spend month
+                ON month.tenant_id = day.tenant_id AND month.period = 'MONTH' AND month.period_start = ?
+            WHERE day.period = 'DAY' AND day.period_start = ?
+            ORDER BY day.spent_micros DESC
+            LIMIT ?
+            """;
+    private static final String PRUNE = "DELETE FROM ai_tenant_spend WHERE period = 'DAY' AND period_start < ?";
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate standalone;
+
+    public AiTenantSpendStore(JdbcTemplate jdbc, PlatformTransactionManager transactionManager) {
+        this.jdbc = jdbc;
+        this.standalone = new TransactionTemplate(transactionManager);
+        this.standalone.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /** Adds {@code micros} to the tenant's day and month; returns both totals after the call. */
+    public Totals add(Long tenantId, LocalDate day, long micros) {
+        LocalDate month = day.withDayOfMonth(1);
+        return standalone.execute(status -> {
+            Totals totals = new Totals(0, 0);
+            for (var row : jdbc.queryForList(ADD, tenantId, day, micros, tenantId, month, micros)) {
+                long spent = ((Number) row.get("spent_micros")).longValue();
+                totals = "DAY".equals(row.get("period")) ? new Totals(spent, totals.monthMicros())
+                        : new Totals(totals.dayMicros(), spent);
+            }
+            return totals;
+        });
+    }
+
+    /** The tenants with the highest spend on {@code day}, with their month to date. */
+    public List<Ranked> top(LocalDate day, int limit) {
+        return jdbc.query(TOP, (rs, row) -> new Ranked(rs.getLong("tenant_id"), rs.getLong("spent_micros"),
+                rs.getLong("month_micros")), day.withDayOfMonth(1), day, limit);
+    }
+
+    /** Deletes day rows before {@code day}; month rows are kept. */
+    public int pruneDaysBefore(LocalDate day) {
+        return jdbc.update(PRUNE, day);
+    }
+
+    public record Totals(long dayMicros, long monthMicros) { }
+
+    public record Ranked(Long tenantId, long dayMicros, long monthMicros) { }
+}
@@ -12,10 +12,12 @@ public abstract class BaseLLMExtractor {
     protected final OpenAIClient client;
     protected final ApplicationProperties properties;
     protected final ObjectMapper mapper;
+    private final AiCallTelemetry telemetry;
 
-    protected BaseLLMExtractor(OpenAIClient client, ApplicationProperties properties) {
+    protected BaseLLMExtractor(OpenAIClient client, ApplicationProperties properties, AiCallTelemetry telemetry) {
         this.client = client;
         this.properties = properties;
+        this.telemetry = telemetry;
         this.mapper = new ObjectMapper()
                 .registerModule(new JavaTimeModule())
                 .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
@@ -52,13 +54,13 @@ public abstract class BaseLLMExtractor {
         ChatCompletion completion;
         try {
             completion = client.chat().completions().create(params);
-            completion.usage().ifPresentOrElse(usage -> AiCallTelemetry.success(
+            completion.usage().ifPresentOrElse(usage -> telemetry.success(
                             purpose, completion.model(), usage.promptTokens(),
                             usage.promptTokensDetails().flatMap(details -> details.cachedTokens()).orElse(0L),
                             usage.completionTokens(), startedNanos),
-                    () -> AiCallTelemetry.success(purpose, completion.model(), 0, 0, 0, startedNanos));
+                    () -> telemetry.success(purpose, completion.model(), 0, 0, 0, startedNanos));
         } catch (RuntimeException failure) {
-            AiCallTelemetry.failure(purpose, properties.openai().model(), startedNanos);
+            telemetry.failure(purpose, properties.openai().model(), startedNanos);
             throw failure;
         }
 
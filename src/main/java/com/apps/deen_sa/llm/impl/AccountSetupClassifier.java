@@ -2,6 +2,7 @@ package com.apps.deen_sa.llm.impl;
 
 import com.apps.deen_sa.config.ApplicationProperties;
 import com.apps.deen_sa.dto.AccountSetupDto;
+import com.apps.deen_sa.llm.AiCallTelemetry;
 import com.apps.deen_sa.llm.BaseLLMExtractor;
 import com.openai.client.OpenAIClient;
 import org.springframework.stereotype.Service;
@@ -137,8 +138,8 @@ public class AccountSetupClassifier extends BaseLLMExtractor {
             a supported setup request invalid.
             """;
 
-    protected AccountSetupClassifier(OpenAIClient client, ApplicationProperties properties) {
-        super(client, properties);
+    protected AccountSetupClassifier(OpenAIClient client, ApplicationProperties properties, AiCallTelemetry telemetry) {
+        super(client, properties, telemetry);
     }
 
     public AccountSetupDto extractAccount(String text) {
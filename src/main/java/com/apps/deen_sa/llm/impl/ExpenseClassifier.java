@@ -4,6 +4,7 @@ import com.apps.deen_sa.config.ApplicationProperties;
 import com.apps.deen_sa.finance.expense.ExpenseTaxonomyRegistry;
 import com.apps.deen_sa.dto.ExpenseDto;
 import com.apps.deen_sa.common.exception.LLMParsingException;
+import com.apps.deen_sa.llm.AiCallTelemetry;
 import com.apps.deen_sa.llm.BaseLLMExtractor;
 import com.apps.deen_sa.llm.PromptLoader;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -20,10 +21,10 @@ public class ExpenseClassifier extends BaseLLMExtractor {
     private final String behaviorPrompt;
 
     protected ExpenseClassifier(OpenAIClient client,
-                                ApplicationProperties properties,
+                                ApplicationProperties properties, AiCallTelemetry telemetry,
                                 PromptLoader promptLoader,
                                 ExpenseTaxonomyRegistry expenseTaxonomyRegistry) {
-        super(client, properties);
+        super(client, properties, telemetry);
         this.promptLoader = promptLoader;
         this.expenseTaxonomyRegistry = expenseTaxonomyRegistry;
         this.behaviorPrompt = buildBehaviorPrompt();
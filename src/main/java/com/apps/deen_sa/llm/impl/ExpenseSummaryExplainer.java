@@ -2,6 +2,7 @@ package com.apps.deen_sa.llm.impl;
 
 import com.apps.deen_sa.config.ApplicationProperties;
 import com.apps.deen_sa.dto.ExpenseSummary;
+import com.apps.deen_sa.llm.AiCallTelemetry;
 import com.apps.deen_sa.llm.BaseLLMExtractor;
 import com.openai.client.OpenAIClient;
 import org.springframework.stereotype.Component;
@@ -24,8 +25,8 @@ public class ExpenseSummaryExplainer extends BaseLLMExtractor {
             Explain the result clearly in one short paragraph.
            """;
 
-    public ExpenseSummaryExplainer(OpenAIClient client, ApplicationProperties properties) {
-        super(client, properties);
+    public ExpenseSummaryExplainer(OpenAIClient client, ApplicationProperties properties, AiCallTelemetry telemetry) {
+        super(client, properties, telemetry);
     }
 
     public String explain(ExpenseSummary summary, String question, String context) {
@@ -2,6 +2,7 @@ package com.apps.deen_sa.llm.impl;
 
 import com.apps.deen_sa.config.ApplicationProperties;
 import com.apps.deen_sa.dto.IntentResult;
+import com.apps.deen_sa.llm.AiCallTelemetry;
 import com.apps.deen_sa.llm.BaseLLMExtractor;
 import com.apps.deen_sa.llm.PromptLoader;
 import com.openai.client.OpenAIClient;
@@ -12,8 +13,8 @@ public class IntentClassifier extends BaseLLMExtractor {
 
     private final String systemPrompt;
 
-    protected IntentClassifier(OpenAIClient client, ApplicationProperties properties, PromptLoader promptLoader) {
-        super(client, properties);
+    protected IntentClassifier(OpenAIClient client, ApplicationProperties properties, AiCallTelemetry telemetry, PromptLoader promptLoader) {
+        super(client, properties, telemetry);
 
         this.systemPrompt = promptLoader.combine(
                 "llm/common/global_rules.md",
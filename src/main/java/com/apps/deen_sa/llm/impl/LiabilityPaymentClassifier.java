@@ -2,6 +2,7 @@ package com.apps.deen_sa.llm.impl;
 
 import com.apps.deen_sa.config.ApplicationProperties;
 import com.apps.deen_sa.dto.LiabilityPaymentDto;
+import com.apps.deen_sa.llm.AiCallTelemetry;
 import com.apps.deen_sa.llm.BaseLLMExtractor;
 import com.apps.deen_sa.llm.PromptLoader;
 import com.openai.client.OpenAIClient;
@@ -12,9 +13,9 @@ public class LiabilityPaymentClassifier extends BaseLLMExtractor {
 
     private final String systemPrompt;
 
-    protected LiabilityPaymentClassifier(OpenAIClient client, ApplicationProperties properties,
+    protected LiabilityPaymentClassifier(OpenAIClient client, ApplicationProperties properties, AiCallTelemetry telemetry,
                                          PromptLoader promptLoader) {
-        super(client, properties);
+        super(client, properties, telemetry);
 
         this.systemPrompt = promptLoader.combine(
                 "llm/common/global_rules.md",
@@ -3,6 +3,7 @@ package com.apps.deen_sa.llm.impl;
 import com.apps.deen_sa.config.ApplicationProperties;
 import com.apps.deen_sa.finance.expense.ExpenseTaxonomyRegistry;
 import com.apps.deen_sa.dto.QueryResult;
+import com.apps.deen_sa.llm.AiCallTelemetry;
 import com.apps.deen_sa.llm.BaseLLMExtractor;
 import com.apps.deen_sa.llm.PromptLoader;
 import com.openai.client.OpenAIClient;
@@ -16,11 +17,11 @@ public class QueryClassifier extends BaseLLMExtractor {
 
     protected QueryClassifier(
             OpenAIClient client,
-            ApplicationProperties properties,
+            ApplicationProperties properties, AiCallTelemetry telemetry,
             PromptLoader promptLoader,
             ExpenseTaxonomyRegistry expenseTaxonomyRegistry
     ) {
-        super(client, properties);
+        super(client, properties, telemetry);
         this.expenseTaxonomyRegistry = expenseTaxonomyRegistry;
 
         this.systemPromptTemplate = promptLoader.combine(
@@ -2,6 +2,7 @@ package com.apps.deen_sa.llm.impl;
 
 import com.apps.deen_sa.config.ApplicationProperties;
 import com.apps.deen_sa.dto.TagMatchResult;
+import com.apps.deen_sa.llm.AiCallTelemetry;
 import com.apps.deen_sa.llm.BaseLLMExtractor;
 import com.openai.client.OpenAIClient;
 import org.springframework.stereotype.Component;
@@ -37,8 +38,8 @@ public class TagSemanticMatcher extends BaseLLMExtractor {
         }
         """;
 
-    public TagSemanticMatcher(OpenAIClient client, ApplicationProperties properties) {
-        super(client, properties);
+    public TagSemanticMatcher(OpenAIClient client, ApplicationProperties properties, AiCallTelemetry telemetry) {
+        super(client, properties, telemetry);
     }
 
     public Map<String, String> match(
@@ -0,0 +1,151 @@
+package com.apps.deen_sa.schduler;
+
+import com.apps.deen_sa.conversation.ConversationChannelGateway;
+import com.apps.deen_sa.conversation.DefaultConversationChannelGateway;
+import com.apps.deen_sa.conversation.StartupReadiness;
+import com.apps.deen_sa.conversation.interpretation.UnifiedConversationEngine;
+import com.apps.deen_sa.dto.ExpenseSummary;
+import com.apps.deen_sa.finance.budget.BudgetProgress;
+import com.apps.deen_sa.finance.presentation.AnalysisIntent;
+import com.apps.deen_sa.finance.presentation.FlowPoint;
+import com.apps.deen_sa.finance.presentation.HierarchyPoint;
+import com.apps.deen_sa.finance.presentation.PresentationDataset;
+import com.apps.deen_sa.finance.presentation.PresentationMood;
+import com.apps.deen_sa.finance.presentation.VisualizationPlan;
+import com.apps.deen_sa.finance.presentation.VisualizationType;
+import com.apps.deen_sa.finance.query.ExpenseChartRenderer;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Pays the first-request costs (JIT, Hibernate query plans, Java2D and font setup) before the node
+ * reports ready. Every test prompt goes through copies of the application's gateway and engine that
+ * differ only in answering with {@link WarmupInterpreter} in place of the model, one transaction per
+ * prompt, each rolled back; replies are discarded, never sent. One chart of every type is then
+ * rendered from sample data. With {@code warmup.enabled=false} the node is ready at once.
+ */
+@Log4j2
+@Component
+@Profile("!integration")
+public class StartupWarmup {
+    static final String CHANNEL = "WARMUP";
+    private static final List<String> QUESTIONS = List.of("How much did I spend this month?",
+            "What is my account balance?", "How is my budget doing?");
+
+    private final LoadTestData prompts;
+    private final ConversationChannelGateway replay;
+    private final TransactionTemplate transactions;
+    private final ExpenseChartRenderer charts;
+    private final StartupReadiness readiness;
+    private final boolean enabled;
+
+    public StartupWarmup(LoadTestData prompts, DefaultConversationChannelGateway gateway,
+                         UnifiedConversationEngine engine, PlatformTransactionManager transactionManager,
+                         ExpenseChartRenderer charts, StartupReadiness readiness,
+                         @Value("${warmup.enabled:true}") boolean enabled) {
+        this.prompts = prompts;
+        this.replay = gateway.withEngine(engine.withInterpreter(new WarmupInterpreter()));
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.charts = charts;
+        this.readiness = readiness;
+        this.enabled = enabled;
+        if (enabled) readiness.warming();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (!enabled) return;
+        Thread thread = new Thread(this::run, "startup-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void run() {
+        long started = System.nanoTime();
+        List<String> turns = new ArrayList<>(prompts.prompts());
+        turns.addAll(QUESTIONS);
+        int failed = 0;
+        for (String prompt : turns) {
+            try {
+                transactions.executeWithoutResult(status -> {
+                    status.setRollbackOnly();
+                    replay.process(CHANNEL, "warmup", null, prompt);
+                });
+            } catch (RuntimeException e) {
+                failed++;
+                log.debug("Warm-up prompt failed: {}", prompt, e);
+            }
+        }
+        boolean chartsRendered = renderCharts();
+        Duration took = Duration.ofNanos(System.nanoTime() - started);
+        Metrics.timer("deen.startup.warmup").record(took);
+        if (failed == turns.size() || !chartsRendered) {
+            readiness.failed(took);
+            log.warn("Warm-up finished in {} ms with {}/{} prompts failing, charts rendered: {}",
+                    took.toMillis(), failed, turns.size(), chartsRendered);
+        } else {
+            readiness.warm(took);
+            log.info("Warm-up finished in {} ms: {} prompts, {} failed", took.toMillis(), turns.size(), failed);
+        }
+    }
+
+    private boolean renderCharts() {
+        try {
+            Map<String, BigDecimal> categories = new LinkedHashMap<>();
+            String[] names = {"Food & Dining", "Groceries", "Transport", "Shopping", "Bills", "Health", "Education",
+                    "Entertainment", "Family Support"};
+            for (int i = 0; i < names.length; i++) categories.put(names[i], BigDecimal.valueOf(9_000L - i * 850L));
+            ExpenseSummary summary = new ExpenseSummary();
+            summary.setSpendByCategory(categories);
+            summary.setTotalSpend(categories.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add));
+            Map<String, BigDecimal> daily = new LinkedHashMap<>();
+            LocalDate first = LocalDate.now().withDayOfMonth(1);
+            for (int day = 0; day < first.lengthOfMonth(); day++)
+                daily.put(first.plusDays(day).toString(), BigDecimal.valueOf(150L + day * 37L % 900));
+            Map<String, BigDecimal> previous = new LinkedHashMap<>();
+            categories.forEach((name, amount) -> previous.put(name, amount.multiply(new BigDecimal("0.8"))));
+            List<FlowPoint> flows = new ArrayList<>();
+            List<HierarchyPoint> hierarchy = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                BigDecimal amount = BigDecimal.valueOf(4_000L - i * 300L);
+                flows.add(new FlowPoint(i % 2 == 0 ? "Bank" : "Card", names[i], amount));
+                hierarchy.add(new HierarchyPoint(names[i], "Sub " + i, "Merchant " + i, amount));
+            }
+            PresentationDataset dataset = new PresentationDataset(daily, categories, previous, hierarchy, flows,
+                    new BigDecimal("85000"));
+            for (VisualizationType type : VisualizationType.values()) {
+                VisualizationPlan plan = new VisualizationPlan(type, AnalysisIntent.SPENDING_OVERVIEW,
+                        PresentationMood.values()[type.ordinal() % PresentationMood.values().length],
+                        Set.of(), Set.of(), false);
+                switch (type) {
+                    case ACCOUNT_STACK -> charts.accountStack("Balances across accounts", Map.of(
+                            "Bank", new BigDecimal("52000"), "Card", new BigDecimal("-18000")), plan.mood(), "en-IN");
+                    case BUDGET_PROGRESS_BARS -> charts.budgetProgress("Monthly budget progress", List.of(
+                            new BudgetProgress("Groceries", new BigDecimal("8200"), new BigDecimal("10000"))),
+                            plan.mood(), "ta-IN");
+                    default -> charts.render(plan, "Spending by category", summary, dataset, "en-IN");
+                }
+            }
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Warm-up chart rendering failed", e);
+            return false;
+        }
+    }
+}
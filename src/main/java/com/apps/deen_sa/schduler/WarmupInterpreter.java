@@ -0,0 +1,49 @@
+package com.apps.deen_sa.schduler;
+
+import com.apps.deen_sa.conversation.interpretation.ConversationInterpreter;
+import com.apps.deen_sa.conversation.interpretation.EventPatch;
+import com.apps.deen_sa.conversation.interpretation.FieldEvidence;
+import com.apps.deen_sa.conversation.interpretation.InterpretationContext;
+import com.apps.deen_sa.conversation.interpretation.QueryPeriod;
+import com.apps.deen_sa.conversation.interpretation.TurnInterpretation;
+import com.apps.deen_sa.conversation.interpretation.TurnType;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Stand-in for the model during warm-up: questions become queries, anything with an amount becomes
+ * an amount-only expense (which drives the category follow-up), everything else is ambiguous.
+ * Good enough to send each prompt down a realistic handler path without a network call.
+ */
+class WarmupInterpreter implements ConversationInterpreter {
+    private static final Pattern AMOUNT = Pattern.compile("(?i)(?<![\\p{L}\\p{N}])([0-9][0-9,]*(?:\\.[0-9]+)?)\\s*(k|l)?(?![\\p{L}\\p{N}])");
+
+    @Override
+    public TurnInterpretation interpret(String userMessage, InterpretationContext context) {
+        String text = userMessage.toLowerCase(Locale.ROOT);
+        if (text.contains("?")) {
+            QueryPeriod period = text.contains("balance") ? QueryPeriod.ACCOUNT_BALANCE
+                    : text.contains("budget") ? QueryPeriod.CURRENT_STATUS : QueryPeriod.THIS_MONTH;
+            return new TurnInterpretation(TurnType.QUERY, "QUERY", "en", null, List.of(), null, period,
+                    List.of(), 1.0);
+        }
+        Matcher amount = AMOUNT.matcher(userMessage);
+        if (!amount.find()) {
+            return new TurnInterpretation(TurnType.AMBIGUOUS, null, "en", null, List.of(), null, QueryPeriod.NONE,
+                    List.of("warm-up"), 0.0);
+        }
+        BigDecimal value = new BigDecimal(amount.group(1).replace(",", ""));
+        if (amount.group(2) != null) value = value.multiply(BigDecimal.valueOf(
+                amount.group(2).equalsIgnoreCase("k") ? 1_000 : 100_000));
+        EventPatch expense = new EventPatch(null, "EXPENSE", Map.of("amount", value, "rawText", userMessage),
+                List.of(), List.of(), List.of(new FieldEvidence("amount", value.toPlainString(), amount.group(), 1.0),
+                new FieldEvidence("rawText", userMessage, userMessage, 1.0)));
+        return new TurnInterpretation(TurnType.NEW_EVENT, "EXPENSE", "en", null, List.of(expense), null,
+                QueryPeriod.NONE, List.of(), 1.0);
+    }
+}
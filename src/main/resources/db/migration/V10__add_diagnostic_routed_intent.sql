@@ -0,0 +1,3 @@
+-- The router's label for a model-routed turn: the selected event type, or NONE. Reviewed rows are
+-- the training set for the local intent pre-classifier.
+ALTER TABLE conversation_diagnostic_turn ADD COLUMN routed_intent VARCHAR(50);
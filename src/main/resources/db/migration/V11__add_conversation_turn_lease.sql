@@ -0,0 +1,12 @@
+-- Per-user turn leases for conversation.ordering=cluster; a row exists only while a turn runs.
+CREATE TABLE conversation_turn_lease (
+    channel VARCHAR(30) NOT NULL,
+    external_user_id VARCHAR(255) NOT NULL,
+    owner VARCHAR(64) NOT NULL,
+    expires_at TIMESTAMPTZ NOT NULL,
+    CONSTRAINT pk_conversation_turn_lease PRIMARY KEY (channel, external_user_id)
+);
+
+-- Finds a user's earlier messages still being processed, which a clustered turn waits for.
+CREATE INDEX idx_inbound_processing_user ON inbound_message(channel, external_user_id, id)
+    WHERE status = 'PROCESSING';
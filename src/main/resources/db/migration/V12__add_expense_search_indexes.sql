@@ -0,0 +1,16 @@
+-- Correction search over active expenses: newest first by (tx_time, id) for keyset paging, and
+-- matching on merchant, category, subcategory and the original message by word or by trigram.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_state_change_active_expense_time ON state_change(user_id, tx_time DESC, id DESC)
+    WHERE transaction_type = 'EXPENSE' AND record_status = 'ACTIVE';
+
+CREATE INDEX idx_state_change_expense_search_trgm ON state_change USING gin (
+    LOWER(COALESCE(main_entity, '') || ' ' || COALESCE(category, '') || ' ' || COALESCE(subcategory, '') || ' '
+        || COALESCE(raw_text, '')) gin_trgm_ops)
+    WHERE transaction_type = 'EXPENSE' AND record_status = 'ACTIVE';
+
+CREATE INDEX idx_state_change_expense_search_fts ON state_change USING gin (
+    to_tsvector('simple', COALESCE(main_entity, '') || ' ' || COALESCE(category, '') || ' ' || COALESCE(subcategory, '')
+        || ' ' || COALESCE(raw_text, '')))
+    WHERE transaction_type = 'EXPENSE' AND record_status = 'ACTIVE';
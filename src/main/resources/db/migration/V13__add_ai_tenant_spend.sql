@@ -0,0 +1,14 @@
+-- AI spend per tenant for each UTC day and month, in millionths of ai.cost.currency. Shared by every node
+-- and kept across restarts; one upsert per model call adds to both the day row and the month row.
+CREATE TABLE ai_tenant_spend (
+    tenant_id BIGINT NOT NULL,
+    period VARCHAR(5) NOT NULL,
+    period_start DATE NOT NULL,
+    spent_micros BIGINT NOT NULL,
+    calls BIGINT NOT NULL,
+    updated_at TIMESTAMPTZ NOT NULL,
+    CONSTRAINT pk_ai_tenant_spend PRIMARY KEY (tenant_id, period, period_start)
+);
+
+-- The top tenants of a day, for /actuator/aicost.
+CREATE INDEX idx_ai_tenant_spend_top ON ai_tenant_spend(period, period_start, spent_micros DESC);
@@ -0,0 +1,21 @@
+-- Per-day spend/income aggregates maintained by the finance write paths.
+-- Null dimensions are stored as '' / 0 so the natural key stays unique.
+CREATE TABLE fin_daily_rollup (
+    id BIGSERIAL PRIMARY KEY,
+    user_id VARCHAR(255) NOT NULL,
+    transaction_type VARCHAR(50) NOT NULL,
+    local_date DATE NOT NULL,
+    category VARCHAR(100) NOT NULL DEFAULT '',
+    subcategory VARCHAR(100) NOT NULL DEFAULT '',
+    container_id BIGINT NOT NULL DEFAULT 0,
+    amount NUMERIC(19,2) NOT NULL DEFAULT 0,
+    entry_count INTEGER NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uq_fin_daily_rollup_key
+        UNIQUE (user_id, transaction_type, local_date, category, subcategory, container_id)
+);
+
+CREATE INDEX idx_fin_daily_rollup_user_day ON fin_daily_rollup(user_id, transaction_type, local_date);
+
+-- Rollup reads only touch raw rows for the partial days at either edge of a range.
+CREATE INDEX idx_state_change_user_type_time ON state_change(user_id, transaction_type, tx_time);
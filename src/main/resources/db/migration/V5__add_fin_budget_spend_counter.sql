@@ -0,0 +1,28 @@
+-- Month-to-date spend per budget scope. A scope is a lower-cased category or subcategory label,
+-- matching how budgets are resolved; an expense counts once per distinct label it carries.
+CREATE TABLE fin_budget_spend_counter (
+    id BIGSERIAL PRIMARY KEY,
+    user_id VARCHAR(255) NOT NULL,
+    scope VARCHAR(100) NOT NULL,
+    month_start DATE NOT NULL,
+    spent NUMERIC(19,2) NOT NULL DEFAULT 0,
+    entry_count INTEGER NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uq_fin_budget_spend_counter UNIQUE (user_id, month_start, scope)
+);
+
+INSERT INTO fin_budget_spend_counter (user_id, scope, month_start, spent, entry_count)
+SELECT s.user_id, s.scope, s.month_start, SUM(s.amount), COUNT(*)
+FROM (
+    SELECT t.user_id, LOWER(t.category) AS scope, t.amount,
+           CAST(DATE_TRUNC('month', (t.tx_time AT TIME ZONE 'UTC') AT TIME ZONE COALESCE(u.timezone, 'Asia/Kolkata')) AS DATE) AS month_start
+    FROM state_change t LEFT JOIN app_user u ON CAST(u.id AS VARCHAR) = t.user_id
+    WHERE t.transaction_type = 'EXPENSE' AND t.record_status = 'ACTIVE' AND COALESCE(t.category, '') <> ''
+    UNION ALL
+    SELECT t.user_id, LOWER(t.subcategory), t.amount,
+           CAST(DATE_TRUNC('month', (t.tx_time AT TIME ZONE 'UTC') AT TIME ZONE COALESCE(u.timezone, 'Asia/Kolkata')) AS DATE)
+    FROM state_change t LEFT JOIN app_user u ON CAST(u.id AS VARCHAR) = t.user_id
+    WHERE t.transaction_type = 'EXPENSE' AND t.record_status = 'ACTIVE' AND COALESCE(t.subcategory, '') <> ''
+      AND LOWER(t.subcategory) <> LOWER(COALESCE(t.category, ''))
+) s
+GROUP BY s.user_id, s.scope, s.month_start;
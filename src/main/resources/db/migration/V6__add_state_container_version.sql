@@ -0,0 +1,2 @@
+-- Optimistic version for full-entity container writes; balance deltas increment it in SQL.
+ALTER TABLE state_container ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
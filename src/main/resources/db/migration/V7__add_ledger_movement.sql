@@ -0,0 +1,53 @@
+-- Append-only movement ledger. Every balance change on a state_container is one row, keyed by
+-- idempotency key (causal event id + rule version) so a retried or concurrent duplicate commits once.
+-- kind: ASSET / LIABILITY replay the same SQL semantics as the balance update; SET declares an
+-- absolute balance (account setup, manual edits, opening balances).
+CREATE TABLE ledger_movement (
+    id BIGSERIAL PRIMARY KEY,
+    idempotency_key VARCHAR(255) NOT NULL,
+    container_id BIGINT NOT NULL REFERENCES state_container(id),
+    unit VARCHAR(20),
+    kind VARCHAR(20) NOT NULL,
+    quantity NUMERIC(19,4),
+    floor_at_zero BOOLEAN NOT NULL DEFAULT FALSE,
+    causal_event_id VARCHAR(200) NOT NULL,
+    rule_version VARCHAR(20) NOT NULL,
+    reason VARCHAR(100),
+    occurred_at TIMESTAMP NOT NULL,
+    recorded_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uq_ledger_movement_key UNIQUE (idempotency_key)
+);
+
+CREATE INDEX idx_ledger_movement_container ON ledger_movement (container_id, id);
+
+CREATE FUNCTION ledger_movement_append_only() RETURNS trigger AS $$
+BEGIN
+    RAISE EXCEPTION 'ledger_movement is append-only';
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_ledger_movement_append_only
+    BEFORE UPDATE OR DELETE ON ledger_movement
+    FOR EACH ROW EXECUTE FUNCTION ledger_movement_append_only();
+
+-- Folded balance of one container through last_movement_id.
+CREATE TABLE ledger_balance_snapshot (
+    id BIGSERIAL PRIMARY KEY,
+    container_id BIGINT NOT NULL REFERENCES state_container(id),
+    last_movement_id BIGINT NOT NULL REFERENCES ledger_movement(id),
+    balance NUMERIC(19,4),
+    as_of TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uq_ledger_balance_snapshot UNIQUE (container_id, last_movement_id)
+);
+
+CREATE INDEX idx_ledger_balance_snapshot_as_of ON ledger_balance_snapshot (container_id, as_of);
+
+-- Existing balances enter the ledger as opening declarations.
+INSERT INTO ledger_movement (idempotency_key, container_id, unit, kind, quantity, causal_event_id,
+                             rule_version, reason, occurred_at, recorded_at)
+SELECT 'opening:' || c.id || '@v1', c.id, c.currency, 'SET', c.current_value, 'opening:' || c.id,
+       'v1', 'OPENING_BALANCE', COALESCE(c.updated_at, c.created_at, CURRENT_TIMESTAMP),
+       COALESCE(c.updated_at, c.created_at, CURRENT_TIMESTAMP)
+FROM state_container c
+WHERE c.current_value IS NOT NULL;
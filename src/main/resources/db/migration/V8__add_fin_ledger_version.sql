@@ -0,0 +1,7 @@
+-- Per-user monotonic version of everything a query answer can depend on. Bumped after each
+-- committed expense, income, payment, correction or budget change; query caches key on it.
+CREATE TABLE fin_ledger_version (
+    user_id VARCHAR(255) PRIMARY KEY,
+    version BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
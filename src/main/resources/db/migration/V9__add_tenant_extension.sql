@@ -0,0 +1,13 @@
+-- Per-tenant override of which extensions are enabled. A tenant without rows gets the extensions
+-- whose descriptor installs them for new tenants; a row enables or disables one extension.
+CREATE TABLE tenant_extension (
+    id BIGSERIAL PRIMARY KEY,
+    tenant_id BIGINT NOT NULL,
+    extension_id VARCHAR(64) NOT NULL,
+    enabled BOOLEAN NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    CONSTRAINT uq_tenant_extension UNIQUE (tenant_id, extension_id)
+);
+
+CREATE INDEX idx_tenant_extension_updated_at ON tenant_extension (updated_at);
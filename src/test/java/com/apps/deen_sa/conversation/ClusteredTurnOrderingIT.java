@@ -0,0 +1,164 @@
+package com.apps.deen_sa.conversation;
+
+import com.apps.deen_sa.PersonalAiApplication;
+import com.apps.deen_sa.conversation.interpretation.ConversationTurn;
+import com.apps.deen_sa.integration.PostgresTestContainerInitializer;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two application instances against one Postgres with {@code conversation.ordering=cluster}. Turns
+ * for one user are started on alternating nodes in reverse order; each loads the session, appends
+ * its message and saves it, as a real turn does. Every message must end up in the session, in the
+ * order the messages were claimed.
+ */
+class ClusteredTurnOrderingIT {
+    private static final String PHONE = "919800000100";
+    private static final int TURNS = 24;
+
+    private static ConfigurableApplicationContext first;
+    private static ConfigurableApplicationContext second;
+
+    private Long userId;
+
+    @BeforeAll
+    static void startNodes() {
+        first = node();
+        Flyway flyway = first.getBean(Flyway.class);
+        flyway.clean();
+        flyway.migrate();
+        second = node();
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        if (second != null) second.close();
+        if (first != null) first.close();
+    }
+
+    @BeforeEach
+    void resetUser() {
+        first.getBean(ConversationSessionService.class).clearAll();
+        userId = first.getBean(AppUserService.class).resolve("WHATSAPP", PHONE).getId();
+    }
+
+    @Test
+    void turnsOnTwoNodesRunInClaimOrderWithoutLosingSessionState() throws Exception {
+        InboundMessageService inbound = first.getBean(InboundMessageService.class);
+        List<Long> claimed = new ArrayList<>();
+        for (int i = 0; i < TURNS; i++) claimed.add(inbound.claim("WHATSAPP", "wamid.order-" + i, PHONE));
+
+        runConcurrently(TURNS, worker -> {
+            int turn = TURNS - 1 - worker;
+            ConfigurableApplicationContext node = turn % 2 == 0 ? first : second;
+            appendTurn(node, "wamid.order-" + turn);
+            node.getBean(InboundMessageService.class).complete(claimed.get(turn));
+        });
+
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < TURNS; i++) expected.add("wamid.order-" + i);
+        assertThat(sessionTexts()).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void turnsWithoutAnInboundIdAreStillSerializedAcrossNodes() throws Exception {
+        runConcurrently(TURNS, worker -> appendTurn(worker % 2 == 0 ? first : second, null));
+
+        assertThat(sessionTexts()).hasSize(TURNS);
+    }
+
+    @Test
+    void aLeaseLeftByACrashedNodeExpires() {
+        // A lock outside any application context has no heartbeat, like a node that stopped mid-turn.
+        new LeasedUserTurnLock(first.getBean(JdbcTemplate.class), Duration.ofSeconds(2), Duration.ofMinutes(1))
+                .acquire("WHATSAPP", PHONE, null);
+
+        long started = System.nanoTime();
+        second.getBean(UserTurnLock.class).acquire("WHATSAPP", PHONE, null).close();
+
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isGreaterThan(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void aTurnLongerThanTheTtlKeepsItsLease() throws InterruptedException {
+        try (var held = first.getBean(UserTurnLock.class).acquire("WHATSAPP", PHONE, null)) {
+            Thread.sleep(Duration.ofSeconds(3));
+
+            assertThat(first.getBean(JdbcTemplate.class).queryForObject(
+                    "SELECT expires_at > clock_timestamp() FROM conversation_turn_lease WHERE external_user_id = ?",
+                    Boolean.class, PHONE)).isTrue();
+        }
+    }
+
+    private void appendTurn(ConfigurableApplicationContext node, String messageId) throws InterruptedException {
+        ConversationSessionService sessions = node.getBean(ConversationSessionService.class);
+        try (var held = node.getBean(UserTurnLock.class).acquire("WHATSAPP", PHONE, messageId)) {
+            ConversationContext context = sessions.load(userId, "WHATSAPP");
+            // Stands in for the model call between loading and saving the session.
+            Thread.sleep(20);
+            context.getRecentTurns().add(new ConversationTurn("user", messageId == null ? "anonymous" : messageId,
+                    Instant.now()));
+            sessions.save(context);
+        }
+    }
+
+    private List<String> sessionTexts() {
+        return first.getBean(ConversationSessionService.class).load(userId, "WHATSAPP").getRecentTurns().stream()
+                .map(ConversationTurn::text).toList();
+    }
+
+    private static ConfigurableApplicationContext node() {
+        return new SpringApplicationBuilder(PersonalAiApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .initializers(new PostgresTestContainerInitializer())
+                .properties("conversation.ordering=cluster", "conversation.turn-lease.ttl=PT2S",
+                        "conversation.turn-lease.heartbeat=PT0.5S", "conversation.turn-lease.max-wait=PT1M", "finance.container-cache.notify.enabled=false")
+                .run();
+    }
+
+    private static void runConcurrently(int workers, Worker worker) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Void>> results = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                int id = i;
+                Callable<Void> task = () -> {
+                    start.await();
+                    worker.run(id);
+                    return null;
+                };
+                results.add(pool.submit(task));
+            }
+            start.countDown();
+            for (Future<Void> result : results) result.get();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Worker {
+        void run(int worker) throws Exception;
+    }
+}
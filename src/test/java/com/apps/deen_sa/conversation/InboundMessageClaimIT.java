@@ -0,0 +1,181 @@
+package com.apps.deen_sa.conversation;
+
+import com.apps.deen_sa.integration.PostgresTestContainerInitializer;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Duplicate webhook deliveries racing each other: every message id must be claimed by exactly one
+ * caller and processed exactly once, however many copies arrive at the same time.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@ContextConfiguration(initializers = PostgresTestContainerInitializer.class)
+class InboundMessageClaimIT {
+    private static final int WORKERS = 32;
+    private static final int MESSAGES = 20;
+
+    @Autowired private Flyway flyway;
+    @Autowired private MockMvc mockMvc;
+    @Autowired private InboundMessageService inbound;
+    @Autowired private InboundMessageRepository repository;
+
+    @MockBean private ConversationChannelGateway conversation;
+    @MockBean private WhatsAppReplySender replySender;
+    @MockBean private UserFeatureFlagService featureFlags;
+    @MockBean private WhatsAppAdmission admission;
+
+    @BeforeEach
+    void resetDatabase() {
+        flyway.clean();
+        flyway.migrate();
+        when(featureFlags.hasAnyEnabledFeature(anyString(), anyString())).thenReturn(true);
+        when(admission.admit(anyString())).thenReturn(WhatsAppAdmission.Decision.ADMIT);
+        when(conversation.process(anyString(), anyString(), anyString(), anyString()))
+                .thenReturn(SpeechResult.info("Saved."));
+    }
+
+    @Test
+    void parallelClaimsOfTheSameMessageHaveExactlyOneWinner() throws Exception {
+        ConcurrentLinkedQueue<Long> winners = new ConcurrentLinkedQueue<>();
+
+        runConcurrently(worker -> {
+            for (int i = 0; i < MESSAGES; i++) {
+                Long id = inbound.claim("WHATSAPP", "wamid.single-" + i, "919800000001");
+                if (id != null) winners.add(id);
+            }
+        });
+
+        assertThat(winners).hasSize(MESSAGES).doesNotHaveDuplicates();
+        assertThat(repository.count()).isEqualTo(MESSAGES);
+    }
+
+    @Test
+    void parallelBatchClaimsSplitOverlappingDeliveriesWithoutDuplicates() throws Exception {
+        ConcurrentLinkedQueue<String> claimed = new ConcurrentLinkedQueue<>();
+
+        runConcurrently(worker -> {
+            Map<String, String> delivery = new LinkedHashMap<>();
+            for (int i = worker % 5; i < MESSAGES; i++) delivery.put("wamid.batch-" + i, "919800000002");
+            claimed.addAll(inbound.claimAll("WHATSAPP", delivery).keySet());
+        });
+
+        assertThat(claimed).hasSize(MESSAGES).doesNotHaveDuplicates();
+        assertThat(repository.count()).isEqualTo(MESSAGES);
+    }
+
+    @Test
+    void completedMessagesCannotBeFailedAfterwards() {
+        Long id = inbound.claim("WHATSAPP", "wamid.done", "919800000003");
+
+        inbound.complete(id);
+        inbound.fail(id);
+
+        assertThat(repository.findById(id)).get().extracting(InboundMessageEntity::getStatus).isEqualTo("PROCESSED");
+    }
+
+    @Test
+    void aReleasedClaimIsClaimedAgainButAFinishedOneIsNot() {
+        Long released = inbound.claim("WHATSAPP", "wamid.throttled", "919800000004");
+        Long finished = inbound.claim("WHATSAPP", "wamid.finished", "919800000004");
+        inbound.complete(finished);
+
+        inbound.release(released);
+        inbound.release(finished);
+
+        assertThat(inbound.claimAll("WHATSAPP", Map.of("wamid.throttled", "919800000004",
+                "wamid.finished", "919800000004"))).containsOnlyKeys("wamid.throttled");
+    }
+
+    @Test
+    void duplicateWebhookDeliveriesInParallelAreProcessedExactlyOnce() throws Exception {
+        String payload = payload(MESSAGES);
+
+        runConcurrently(worker -> mockMvc.perform(post("/webhook/whatsapp")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(payload))
+                .andExpect(status().isOk()));
+
+        await().atMost(Duration.ofSeconds(30)).untilAsserted(() ->
+                verify(conversation, atLeast(MESSAGES)).process(eq("WHATSAPP"), anyString(), anyString(), anyString()));
+        for (int i = 0; i < MESSAGES; i++) {
+            verify(conversation, times(1)).process("WHATSAPP", "919800000004", "wamid.hook-" + i, "spent " + i + " on tea");
+        }
+        await().atMost(Duration.ofSeconds(30)).untilAsserted(() ->
+                assertThat(repository.findAll()).hasSize(MESSAGES)
+                        .allSatisfy(message -> assertThat(message.getStatus()).isEqualTo("PROCESSED")));
+        verify(replySender, times(MESSAGES)).sendTextReply(eq("919800000004"), any());
+    }
+
+    private static String payload(int messages) {
+        List<String> items = new ArrayList<>();
+        for (int i = 0; i < messages; i++) {
+            items.add("""
+                    {"id": "wamid.hook-%d", "from": "919800000004", "type": "text", "text": {"body": "spent %d on tea"}}
+                    """.formatted(i, i));
+        }
+        return """
+                {"entry": [{"changes": [{"value": {"messages": [%s]}}]}]}
+                """.formatted(String.join(",", items));
+    }
+
+    private void runConcurrently(Worker worker) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(WORKERS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Void>> results = new ArrayList<>();
+            for (int i = 0; i < WORKERS; i++) {
+                int id = i;
+                Callable<Void> task = () -> {
+                    start.await();
+                    worker.run(id);
+                    return null;
+                };
+                results.add(pool.submit(task));
+            }
+            start.countDown();
+            for (Future<Void> result : results) result.get();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Worker {
+        void run(int worker) throws Exception;
+    }
+}
@@ -0,0 +1,85 @@
+package com.apps.deen_sa.conversation;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.YamlPropertiesFactoryBean;
+import org.springframework.boot.actuate.autoconfigure.availability.AvailabilityHealthContributorAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.availability.AvailabilityProbesAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.health.HealthContributorAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.health.HealthEndpointAutoConfiguration;
+import org.springframework.boot.actuate.health.HealthComponent;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.availability.ApplicationAvailabilityAutoConfiguration;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.core.io.ClassPathResource;
+
+import java.time.Duration;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** The readiness group as configured in application.yaml, with the warm-up driving it. */
+class StartupReadinessTest {
+    private static final String READINESS_GROUP = "management.endpoint.health.group.readiness.include";
+
+    private final ApplicationContextRunner context = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(ApplicationAvailabilityAutoConfiguration.class,
+                    HealthContributorAutoConfiguration.class, HealthEndpointAutoConfiguration.class,
+                    AvailabilityHealthContributorAutoConfiguration.class, AvailabilityProbesAutoConfiguration.class))
+            .withPropertyValues("management.endpoint.health.probes.enabled=true",
+                    READINESS_GROUP + "=" + configuredReadinessGroup())
+            .withBean("startupReadiness", StartupReadiness.class, () -> new StartupReadiness(Duration.ofSeconds(2)));
+
+    @Test
+    void readinessStaysOutOfServiceUntilTheWarmupCompletes() {
+        context.run(app -> {
+            AvailabilityChangeEvent.publish(app, ReadinessState.ACCEPTING_TRAFFIC);
+            StartupReadiness readiness = app.getBean(StartupReadiness.class);
+            HealthEndpoint health = app.getBean(HealthEndpoint.class);
+
+            readiness.warming();
+            assertThat(readinessOf(health)).isEqualTo(Status.OUT_OF_SERVICE);
+
+            readiness.warm(Duration.ofMillis(1_200));
+            assertThat(readinessOf(health)).isEqualTo(Status.UP);
+        });
+    }
+
+    @Test
+    void aFailedWarmupStillLetsTheNodeTakeTraffic() {
+        context.run(app -> {
+            AvailabilityChangeEvent.publish(app, ReadinessState.ACCEPTING_TRAFFIC);
+            StartupReadiness readiness = app.getBean(StartupReadiness.class);
+
+            readiness.warming();
+            readiness.failed(Duration.ofSeconds(30));
+
+            assertThat(readinessOf(app.getBean(HealthEndpoint.class))).isEqualTo(Status.UP);
+        });
+    }
+
+    @Test
+    void theApplicationsReadinessGroupIncludesTheWarmup() {
+        assertThat(configuredReadinessGroup().split(",")).contains("readinessState", "startupReadiness");
+    }
+
+    private static Status readinessOf(HealthEndpoint health) {
+        HealthComponent readiness = health.healthForPath("readiness");
+        return readiness.getStatus();
+    }
+
+    private static String configuredReadinessGroup() {
+        YamlPropertiesFactoryBean yaml = new YamlPropertiesFactoryBean();
+        yaml.setResources(new ClassPathResource("application.yaml"));
+        Properties properties = yaml.getObject();
+        StringBuilder members = new StringBuilder();
+        for (int i = 0; properties.containsKey(READINESS_GROUP + "[" + i + "]"); i++) {
+            if (i > 0) members.append(',');
+            members.append(properties.getProperty(READINESS_GROUP + "[" + i + "]"));
+        }
+        return members.isEmpty() ? properties.getProperty(READINESS_GROUP, "") : members.toString();
+    }
+}
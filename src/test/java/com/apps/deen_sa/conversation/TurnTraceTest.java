@@ -0,0 +1,104 @@
+package com.apps.deen_sa.conversation;
+
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+class TurnTraceTest {
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    private final List<TurnTrace.TurnRecord> completed = new ArrayList<>();
+    private TurnTrace trace;
+
+    @BeforeEach
+    void createTrace() {
+        ObservationRegistry observations = ObservationRegistry.create();
+        observations.observationConfig().observationHandler(new DefaultMeterObservationHandler(meters));
+        trace = new TurnTrace(observations, completed::add);
+    }
+
+    @Test
+    void nestedStagesAreCountedOnceInTheBreakdownButFullyInTheirTimers() throws Exception {
+        try (var turn = trace.begin("WHATSAPP", "text", "wamid.1")) {
+            try (var handler = trace.stage("handler")) {
+                Thread.sleep(20);
+                try (var chart = trace.stage("chart")) {
+                    Thread.sleep(40);
+                }
+            }
+        }
+
+        TurnTrace.TurnRecord turn = completed.getFirst();
+        assertThat(turn.messageId()).isEqualTo("wamid.1");
+        assertThat(turn.outcome()).isEqualTo("success");
+        assertThat(turn.stageMillis()).containsOnlyKeys("chart", "handler", "other");
+        assertThat(turn.stageMillis().get("chart")).isGreaterThanOrEqualTo(40);
+        assertThat(turn.stageMillis().get("handler")).isGreaterThanOrEqualTo(20).isLessThan(40);
+        assertThat(turn.stageMillis().values().stream().mapToDouble(Double::doubleValue).sum())
+                .isCloseTo(turn.totalMillis(), offset(0.01));
+        assertThat(meters.get("deen.turn.stage").tag("stage", "handler").timer().totalTime(TimeUnit.MILLISECONDS))
+                .isGreaterThanOrEqualTo(60);
+        assertThat(meters.get("deen.turn").tags("channel", "WHATSAPP", "kind", "text", "outcome", "success").timer().count())
+                .isOne();
+    }
+
+    @Test
+    void anInnerBeginJoinsTheOuterTurnAndRepeatedStagesAddUp() {
+        try (var outer = trace.begin("WHATSAPP", "text", "wamid.2")) {
+            try (var inner = trace.begin("WHATSAPP", "message", "wamid.2")) {
+                for (int i = 0; i < 3; i++) {
+                    try (var route = trace.stage("route")) {
+                        assertThat(route).isNotNull();
+                    }
+                }
+            }
+            trace.failed();
+        }
+
+        assertThat(completed).singleElement().satisfies(turn -> {
+            assertThat(turn.kind()).isEqualTo("text");
+            assertThat(turn.outcome()).isEqualTo("error");
+            assertThat(turn.stageMillis()).containsKeys("route", "other");
+        });
+        assertThat(meters.get("deen.turn.stage").tag("stage", "route").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void stagesOutsideATurnAreObservedWithoutARecord() {
+        try (var stage = trace.stage("chart")) {
+            assertThat(stage).isNotNull();
+        }
+
+        assertThat(completed).isEmpty();
+        assertThat(meters.get("deen.turn.stage").tag("stage", "chart").timer().count()).isOne();
+    }
+
+    @Test
+    void theRecorderListsTheSlowestRecentTurnsAndSkipsTheWarmUp() {
+        StartupReadiness readiness = new StartupReadiness(Duration.ofSeconds(2));
+        TurnTraceRecorder recorder = new TurnTraceRecorder(readiness, 3);
+        readiness.warming();
+        recorder.record(record(1, 900));
+        readiness.warm(Duration.ofSeconds(1));
+        for (int id = 2; id <= 5; id++) recorder.record(record(id, id * 10));
+
+        assertThat(recorder.window()).isEqualTo(3);
+        assertThat(recorder.slowest(2)).extracting(TurnTrace.TurnRecord::id).containsExactly(5L, 4L);
+    }
+
+    private static TurnTrace.TurnRecord record(long id, double millis) {
+        return new TurnTrace.TurnRecord(id, "WHATSAPP", "text", "wamid." + id, Instant.EPOCH, millis,
+                "success", Map.of("other", millis));
+    }
+}
@@ -0,0 +1,320 @@
+package com.apps.deen_sa.conversation;
+
+import com.apps.deen_sa.integration.AbstractIntegrationTestProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.client.RestClient;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Capacity check for the WhatsApp webhook: simulated users post webhook payloads over HTTP and wait
+ * for their reply to reach the stubbed Graph API, one turn at a time. WireMock stands in for OpenAI
+ * (the recorded {@code it_001} stubs) and for Graph, with log-normal latency injected on both. A
+ * reply is the first outgoing message to the user's number after the webhook was posted, taken
+ * from the WireMock request journal; both clocks are the host clock.
+ *
+ * <pre>
+ * RUN_LOAD_TESTS=true ./mvnw verify -Pintegration -Dit.test=WebhookLoadIT \
+ *     -Dloadtest.users=2000 -Dloadtest.model-latency=PT1.5S -Dloadtest.max-p95=PT20S
+ * </pre>
+ *
+ * The report is printed and written to {@code target/load-test/report.txt}. The test fails when the
+ * 95th percentile or the share of dropped turns exceeds the configured claim.
+ */
+@Tag("Load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@EnabledIfEnvironmentVariable(named = "RUN_LOAD_TESTS", matches = "(?i)true")
+class WebhookLoadIT extends AbstractIntegrationTestProperties {
+    private static final String WHATSAPP_STUBS = "classpath*:wiremock/it_live_usage_report_regressions/wiremock/mappings/whatsapp-*.json";
+
+    @LocalServerPort private int port;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private DataSource dataSource;
+    @Autowired private WhatsAppAdmission admission;
+
+    @Value("${wiremock.admin-url}") private String wireMockAdminUrl;
+    @Value("${loadtest.users:1000}") private int users;
+    @Value("${loadtest.turns:3}") private int turns;
+    @Value("${loadtest.ramp-up:PT30S}") private Duration rampUp;
+    @Value("${loadtest.reply-timeout:PT60S}") private Duration replyTimeout;
+    @Value("${loadtest.model-latency:PT0.8S}") private Duration modelLatency;
+    @Value("${loadtest.graph-latency:PT0.15S}") private Duration graphLatency;
+    @Value("${loadtest.latency-sigma:0.4}") private double latencySigma;
+    @Value("${loadtest.max-p95:PT30S}") private Duration maxP95;
+    @Value("${loadtest.max-dropped:0.01}") private double maxDropped;
+
+    private final Map<String, BlockingQueue<Long>> replies = new ConcurrentHashMap<>();
+
+    @Test
+    void it_load_webhook_capacity() throws Exception {
+        List<String> prompts = stubbedPrompts();
+        assertThat(prompts).as("prompts with a recorded model route").isNotEmpty();
+        loadGraphStubs();
+        injectLatency();
+        grantAccess();
+        admission.refreshEntitled();
+
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        List<Long> acks = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger dropped = new AtomicInteger();
+        AtomicBoolean running = new AtomicBoolean(true);
+        PoolSampler pool = new PoolSampler(dataSource.unwrap(HikariDataSource.class));
+        Thread journal = Thread.ofPlatform().daemon().name("load-journal").start(() -> pollJournal(running));
+        Thread sampler = Thread.ofPlatform().daemon().name("load-pool").start(() -> pool.sample(running));
+
+        long started = System.nanoTime();
+        try (HttpClient http = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+             ExecutorService simulated = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int user = 0; user < users; user++) {
+                int index = user;
+                long delay = rampUp.toMillis() * user / Math.max(1, users);
+                simulated.submit(() -> {
+                    Thread.sleep(delay);
+                    for (int turn = 0; turn < turns; turn++) {
+                        String phone = phone(index);
+                        BlockingQueue<Long> inbox = replies.computeIfAbsent(phone, ignored -> new LinkedBlockingQueue<>());
+                        inbox.clear();
+                        long sent = System.currentTimeMillis();
+                        String text = prompts.get((index + turn) % prompts.size());
+                        if (!post(http, "wamid.load-%d-%d".formatted(index, turn), phone, text, acks)) {
+                            rejected.incrementAndGet();
+                            continue;
+                        }
+                        Long repliedAt = inbox.poll(replyTimeout.toMillis(), TimeUnit.MILLISECONDS);
+                        if (repliedAt == null) dropped.incrementAndGet();
+                        else latencies.add(Math.max(0, repliedAt - sent));
+                    }
+                    return null;
+                });
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+        running.set(false);
+        journal.join();
+        sampler.join();
+
+        int attempted = users * turns;
+        String report = report(attempted, elapsed, latencies, acks, rejected.get(), dropped.get(), pool);
+        System.out.println(report);
+        Path output = Path.of("target", "load-test", "report.txt");
+        Files.createDirectories(output.getParent());
+        Files.writeString(output, report);
+
+        assertThat(percentile(latencies, 0.95)).as("p95 webhook-to-reply ms").isLessThanOrEqualTo(maxP95.toMillis());
+        assertThat((double) (rejected.get() + dropped.get()) / attempted).as("dropped share").isLessThanOrEqualTo(maxDropped);
+    }
+
+    private boolean post(HttpClient http, String messageId, String phone, String text, List<Long> acks) {
+        String payload = """
+                {"entry":[{"changes":[{"value":{"messages":[{
+                  "id":"%s","from":"%s","type":"text","text":{"body":"%s"}
+                }]}}]}]}
+                """.formatted(messageId, phone, text.replace("\\", "\\\\").replace("\"", "\\\""));
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/webhook/whatsapp"))
+                .header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofString(payload)).build();
+        long started = System.nanoTime();
+        try {
+            int status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            acks.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            return status == 200;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /** Routes every Graph message from the journal to the waiting user, oldest first. */
+    private void pollJournal(AtomicBoolean running) {
+        RestClient admin = RestClient.create(wireMockAdminUrl);
+        Set<String> seen = new HashSet<>();
+        long since = 0;
+        while (running.get()) {
+            try {
+                // Overlap by a second so events logged in the same millisecond as the last poll are not lost.
+                String uri = since == 0 ? "/requests" : "/requests?since=" + Instant.ofEpochMilli(since - 1000);
+                JsonNode events = objectMapper.readTree(admin.get().uri(uri).retrieve().body(String.class)).path("requests");
+                for (int i = events.size() - 1; i >= 0; i--) {
+                    JsonNode event = events.get(i);
+                    JsonNode request = event.path("request");
+                    since = Math.max(since, request.path("loggedDate").asLong());
+                    if (!seen.add(event.path("id").asText()) || !request.path("url").asText().endsWith("/messages")) continue;
+                    String to = objectMapper.readTree(request.path("body").asText()).path("to").asText();
+                    BlockingQueue<Long> inbox = replies.get(to);
+                    if (inbox != null) inbox.add(request.path("loggedDate").asLong());
+                }
+                Thread.sleep(250);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                System.out.println("WireMock journal poll failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /** Each route stub's first {@code contains} pattern is the exact user message it answers. */
+    private List<String> stubbedPrompts() throws Exception {
+        JsonNode mappings = objectMapper.readTree(RestClient.create(wireMockAdminUrl).get().uri("/mappings")
+                .retrieve().body(String.class)).path("mappings");
+        List<String> prompts = new ArrayList<>();
+        for (JsonNode mapping : mappings) {
+            JsonNode patterns = mapping.path("request").path("bodyPatterns");
+            boolean route = false;
+            for (JsonNode pattern : patterns) route |= "extension-route".equals(pattern.path("contains").asText());
+            if (route) prompts.add(patterns.get(0).path("contains").asText());
+        }
+        Collections.sort(prompts);
+        return prompts;
+    }
+
+    /** The recorded {@code it_001} set has no Graph stubs; borrow the reply and upload stubs. */
+    private void loadGraphStubs() throws Exception {
+        RestClient admin = RestClient.create(wireMockAdminUrl);
+        for (Resource stub : new PathMatchingResourcePatternResolver().getResources(WHATSAPP_STUBS)) {
+            admin.post().uri("/mappings").contentType(MediaType.APPLICATION_JSON)
+                    .body(stub.getContentAsString(StandardCharsets.UTF_8)).retrieve().toBodilessEntity();
+        }
+    }
+
+    private void injectLatency() throws Exception {
+        RestClient admin = RestClient.create(wireMockAdminUrl);
+        JsonNode mappings = objectMapper.readTree(admin.get().uri("/mappings").retrieve().body(String.class)).path("mappings");
+        for (JsonNode mapping : mappings) {
+            String path = mapping.path("request").path("urlPath").asText(mapping.path("request").path("url").asText());
+            Duration latency = path.startsWith("/v1/") ? modelLatency : path.startsWith("/v19.0/") ? graphLatency : Duration.ZERO;
+            if (latency.isZero()) continue;
+            ((ObjectNode) mapping.path("response")).putObject("delayDistribution")
+                    .put("type", "lognormal").put("median", latency.toMillis()).put("sigma", latencySigma);
+            admin.put().uri("/mappings/{id}", mapping.path("id").asText()).contentType(MediaType.APPLICATION_JSON)
+                    .body(objectMapper.writeValueAsString(mapping)).retrieve().toBodilessEntity();
+        }
+    }
+
+    private void grantAccess() {
+        List<Object[]> rows = new ArrayList<>();
+        for (int user = 0; user < users; user++) rows.add(new Object[]{phone(user)});
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO user_feature_flag (channel, external_user_id, role, enabled)
+                VALUES ('WHATSAPP', ?, 'USER', TRUE) ON CONFLICT (channel, external_user_id) DO NOTHING
+                """, rows);
+    }
+
+    private String report(int attempted, Duration elapsed, List<Long> latencies, List<Long> acks, int rejected,
+                          int dropped, PoolSampler pool) {
+        double seconds = Math.max(1, elapsed.toMillis()) / 1000.0;
+        Map<String, Integer> inbound = jdbcTemplate.queryForList(
+                "SELECT status, count(*) AS n FROM inbound_message WHERE external_message_id LIKE 'wamid.load-%' GROUP BY status")
+                .stream().collect(Collectors.toMap(row -> (String) row.get("status"), row -> ((Number) row.get("n")).intValue()));
+        return String.join("\n",
+                "Webhook load test: %d users x %d turns, ramp-up %ds, model %d ms, Graph %d ms (log-normal, sigma %.2f)"
+                        .formatted(users, turns, rampUp.toSeconds(), modelLatency.toMillis(), graphLatency.toMillis(), latencySigma),
+                "Turns:        %d attempted, %d replied, %d rejected by the webhook, %d without a reply in %ds"
+                        .formatted(attempted, latencies.size(), rejected, dropped, replyTimeout.toSeconds()),
+                "Throughput:   %.1f replies/s over %.1f s".formatted(latencies.size() / seconds, seconds),
+                "Reply ms:     " + percentiles(latencies),
+                "Webhook ack:  " + percentiles(acks),
+                "Inbound rows: " + inbound,
+                "DB pool:      max %d, peak active %d, peak waiting %d, saturated %.0f%% of samples"
+                        .formatted(pool.maximum, pool.peakActive, pool.peakWaiting, pool.saturatedShare() * 100),
+                "");
+    }
+
+    private static String percentiles(List<Long> values) {
+        return String.format(Locale.ROOT, "p50 %d, p90 %d, p95 %d, p99 %d, max %d", percentile(values, 0.50),
+                percentile(values, 0.90), percentile(values, 0.95), percentile(values, 0.99), percentile(values, 1.0));
+    }
+
+    private static long percentile(List<Long> values, double quantile) {
+        if (values.isEmpty()) return 0;
+        List<Long> sorted;
+        synchronized (values) {
+            sorted = new ArrayList<>(values);
+        }
+        Collections.sort(sorted);
+        int rank = (int) Math.ceil(quantile * sorted.size());
+        return sorted.get(Math.max(0, rank - 1));
+    }
+
+    private static String phone(int user) {
+        return "9170%08d".formatted(user);
+    }
+
+    /** Samples the Hikari pool every 50 ms; saturated means every connection was checked out. */
+    private static final class PoolSampler {
+        private final HikariPoolMXBean bean;
+        private final int maximum;
+        private int peakActive;
+        private int peakWaiting;
+        private long samples;
+        private long saturated;
+
+        PoolSampler(HikariDataSource dataSource) {
+            this.bean = dataSource.getHikariPoolMXBean();
+            this.maximum = dataSource.getMaximumPoolSize();
+        }
+
+        void sample(AtomicBoolean running) {
+            while (running.get()) {
+                int active = bean.getActiveConnections();
+                peakActive = Math.max(peakActive, active);
+                peakWaiting = Math.max(peakWaiting, bean.getThreadsAwaitingConnection());
+                samples++;
+                if (active >= maximum) saturated++;
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+
+        double saturatedShare() {
+            return samples == 0 ? 0 : (double) saturated / samples;
+        }
+    }
+}
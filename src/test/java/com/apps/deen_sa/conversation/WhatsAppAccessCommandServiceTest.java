@@ -7,7 +7,8 @@ import static org.mockito.Mockito.*;
 
 class WhatsAppAccessCommandServiceTest {
     private final UserFeatureFlagService access = mock(UserFeatureFlagService.class);
-    private final WhatsAppAccessCommandService commands = new WhatsAppAccessCommandService(access);
+    private final WhatsAppAdmission admission = mock(WhatsAppAdmission.class);
+    private final WhatsAppAccessCommandService commands = new WhatsAppAccessCommandService(access, admission);
 
     @Test
     void superAdminCanAddAUserFromWhatsApp() {
@@ -17,6 +18,18 @@ class WhatsAppAccessCommandServiceTest {
         assertThat(commands.execute("919876543210", "add user +91 98765 43211"))
                 .contains("Access enabled for +919876543211.");
         verify(access).grantWhatsAppAccess("919876543211");
+        verify(admission).refreshEntitled();
+    }
+
+    @Test
+    void aRevokedNumberIsDroppedFromAdmissionAtOnce() {
+        when(access.isSuperAdmin("WHATSAPP", "919876543210")).thenReturn(true);
+        when(access.normalizeExternalUserId("WHATSAPP", "919876543211")).thenReturn("919876543211");
+        when(access.revokeWhatsAppAccess("919876543211")).thenReturn(true);
+
+        assertThat(commands.execute("919876543210", "remove user 919876543211"))
+                .contains("Access removed for +919876543211.");
+        verify(admission).refreshEntitled();
     }
 
     @Test
@@ -24,5 +37,6 @@ class WhatsAppAccessCommandServiceTest {
         when(access.isSuperAdmin("WHATSAPP", "919876543212")).thenReturn(false);
         assertThat(commands.execute("919876543212", "remove user 919876543211")).isEmpty();
         verify(access, never()).revokeWhatsAppAccess(anyString());
+        verify(admission, never()).refreshEntitled();
     }
 }
@@ -0,0 +1,104 @@
+package com.apps.deen_sa.conversation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.apps.deen_sa.conversation.WhatsAppAdmission.Decision.ADMIT;
+import static com.apps.deen_sa.conversation.WhatsAppAdmission.Decision.DENY;
+import static com.apps.deen_sa.conversation.WhatsAppAdmission.Decision.IGNORE;
+import static com.apps.deen_sa.conversation.WhatsAppAdmission.Decision.THROTTLE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WhatsAppAdmissionTest {
+    private final UserFeatureFlagRepository repository = mock(UserFeatureFlagRepository.class);
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-05-01T10:00:00Z"));
+    private final AtomicInteger queued = new AtomicInteger();
+    private final WhatsAppAdmission admission = new WhatsAppAdmission(new UserFeatureFlagService(repository),
+            queued::get, 80, 3, Duration.ofSeconds(2), Duration.ofHours(1), 100, clock);
+
+    @BeforeEach
+    void loadEntitledNumbers() {
+        when(repository.findEnabledExternalUserIds("WHATSAPP")).thenReturn(List.of("919800000001"));
+        admission.refreshEntitled();
+    }
+
+    @Test
+    void unknownSendersAreDeniedOncePerIntervalWithoutAFeatureLookup() {
+        assertThat(admission.admit("+91 98000 00009")).isEqualTo(DENY);
+        assertThat(admission.admit("919800000009")).isEqualTo(IGNORE);
+        clock.advance(Duration.ofMinutes(61));
+
+        assertThat(admission.admit("919800000009")).isEqualTo(DENY);
+        verify(repository, never()).existsByChannelAndExternalUserIdAndEnabledTrue(anyString(), anyString());
+    }
+
+    @Test
+    void aFloodingSenderIsThrottledAfterItsBurstAndRefillsOverTime() {
+        assertThat(admission.admit("919800000001")).isEqualTo(ADMIT);
+        assertThat(admission.admit("919800000001")).isEqualTo(ADMIT);
+        assertThat(admission.admit("919800000001")).isEqualTo(ADMIT);
+        assertThat(admission.admit("919800000001")).isEqualTo(THROTTLE);
+
+        clock.advance(Duration.ofSeconds(2));
+        assertThat(admission.admit("919800000001")).isEqualTo(ADMIT);
+        assertThat(admission.admit("919800000001")).isEqualTo(THROTTLE);
+    }
+
+    @Test
+    void newlyGrantedNumbersAreAdmittedAfterTheNextRefresh() {
+        assertThat(admission.admit("919800000002")).isEqualTo(DENY);
+
+        when(repository.findEnabledExternalUserIds("WHATSAPP")).thenReturn(List.of("919800000001", "919800000002"));
+        admission.refreshEntitled();
+
+        assertThat(admission.admit("919800000002")).isEqualTo(ADMIT);
+    }
+
+    @Test
+    void aFailedRefreshKeepsThePreviousNumbers() {
+        when(repository.findEnabledExternalUserIds("WHATSAPP")).thenThrow(new IllegalStateException("database down"));
+
+        admission.refreshEntitled();
+
+        assertThat(admission.admit("919800000001")).isEqualTo(ADMIT);
+    }
+
+    @Test
+    void deliveriesAreShedOnlyWhileTheQueueIsOverTheThreshold() {
+        queued.set(79);
+        assertThat(admission.shed(2)).isFalse();
+
+        queued.set(80);
+        assertThat(admission.shed(2)).isTrue();
+        assertThat(admission.shed(0)).isFalse();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override public ZoneOffset getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(ZoneId zone) { return this; }
+        @Override public Instant instant() { return now; }
+    }
+}
@@ -1,5 +1,6 @@
 package com.apps.deen_sa.conversation;
 
+import io.micrometer.observation.ObservationRegistry;
 import org.junit.jupiter.api.Test;
 
 import static org.mockito.Mockito.mock;
@@ -16,15 +17,16 @@ class WhatsAppChartDeliveryTest {
         ResponseMedia chart = new ResponseMedia(new byte[]{1, 2, 3}, "image/png", "chart.png");
         SpeechResult result = SpeechResult.builder().status(SpeechStatus.INFO).message("You spent ₹12,000.")
                 .media(chart).build();
-        when(inbound.claim("WHATSAPP", "m1", "9199")).thenReturn(1L);
         when(flags.hasAnyEnabledFeature("WHATSAPP", "9199")).thenReturn(true);
         when(conversation.process("WHATSAPP", "9199", "m1", "show spending")).thenReturn(result);
         when(replies.sendImageReply("9199", chart, "You spent ₹12,000.")).thenReturn(true);
         WhatsAppMessageProcessor processor = new WhatsAppMessageProcessor(conversation, inbound, replies,
                 mock(WhatsAppMediaDownloader.class), mock(AudioTranscriber.class),
-                mock(AudioConfirmationService.class), flags, mock(WhatsAppAccessCommandService.class));
+                mock(AudioConfirmationService.class), flags, mock(WhatsAppAccessCommandService.class),
+                new LocalUserTurnLock(), mock(StatementImportGateway.class),
+                new TurnTrace(ObservationRegistry.NOOP, turn -> { }));
 
-        processor.processIncomingMessage("9199", "show spending", "m1");
+        processor.processClaimedMessage("9199", "show spending", "m1", 1L);
 
         verify(replies).sendImageReply("9199", chart, "You spent ₹12,000.");
         verify(inbound).complete(1L);
@@ -38,15 +40,16 @@ class WhatsAppChartDeliveryTest {
         UserFeatureFlagService flags = mock(UserFeatureFlagService.class);
         ResponseMedia chart = new ResponseMedia(new byte[]{1}, "image/png", "chart.png");
         SpeechResult result = SpeechResult.builder().status(SpeechStatus.INFO).message("Summary").media(chart).build();
-        when(inbound.claim("WHATSAPP", "m2", "9199")).thenReturn(2L);
         when(flags.hasAnyEnabledFeature("WHATSAPP", "9199")).thenReturn(true);
         when(conversation.process("WHATSAPP", "9199", "m2", "chart")).thenReturn(result);
         when(replies.sendImageReply("9199", chart, "Summary")).thenReturn(false);
         WhatsAppMessageProcessor processor = new WhatsAppMessageProcessor(conversation, inbound, replies,
                 mock(WhatsAppMediaDownloader.class), mock(AudioTranscriber.class),
-                mock(AudioConfirmationService.class), flags, mock(WhatsAppAccessCommandService.class));
+                mock(AudioConfirmationService.class), flags, mock(WhatsAppAccessCommandService.class),
+                new LocalUserTurnLock(), mock(StatementImportGateway.class),
+                new TurnTrace(ObservationRegistry.NOOP, turn -> { }));
 
-        processor.processIncomingMessage("9199", "chart", "m2");
+        processor.processClaimedMessage("9199", "chart", "m2", 2L);
 
         verify(replies).sendTextReply("9199", "Summary");
     }
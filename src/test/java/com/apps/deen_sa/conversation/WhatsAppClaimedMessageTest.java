@@ -0,0 +1,102 @@
+package com.apps.deen_sa.conversation;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Every claimed message leaves PROCESSING whichever way its handler ends; in cluster ordering a
+ * message left there would hold back the sender's later turns.
+ */
+class WhatsAppClaimedMessageTest {
+    private static final String MOBILE = "919876543210";
+
+    private final ConversationChannelGateway conversation = mock(ConversationChannelGateway.class);
+    private final InboundMessageService inbound = mock(InboundMessageService.class);
+    private final WhatsAppReplySender replies = mock(WhatsAppReplySender.class);
+    private final WhatsAppMediaDownloader media = mock(WhatsAppMediaDownloader.class);
+    private final AudioTranscriber transcriber = mock(AudioTranscriber.class);
+    private final UserFeatureFlagService flags = mock(UserFeatureFlagService.class);
+    private final AudioConfirmationService confirmations = mock(AudioConfirmationService.class);
+    private WhatsAppMessageProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        when(flags.hasAnyEnabledFeature("WHATSAPP", MOBILE)).thenReturn(true);
+        processor = new WhatsAppMessageProcessor(conversation, inbound, replies, media, transcriber,
+                confirmations, flags, mock(WhatsAppAccessCommandService.class),
+                new LocalUserTurnLock(), mock(StatementImportGateway.class),
+                new TurnTrace(ObservationRegistry.NOOP, turn -> { }));
+    }
+
+    @Test
+    void aVoiceNoteWithoutSpeechIsCompleted() {
+        when(media.download("media-1")).thenReturn(new byte[]{1});
+        when(transcriber.transcribe(any(), anyString())).thenReturn(" ");
+
+        processor.processClaimedAudio(MOBILE, "media-1", "audio/ogg", "m1", 11L);
+
+        verify(replies).sendTextReply(MOBILE, "I could not understand that voice note. Please try again.");
+        verify(inbound).complete(11L);
+    }
+
+    @Test
+    void aButtonWhoseTurnThrowsIsFailed() {
+        when(conversation.processTrustedAnswer("WHATSAPP", MOBILE, "m2", "yes"))
+                .thenThrow(new IllegalStateException("Timed out waiting for the turn lock"));
+
+        processor.processClaimedInteractiveReply(MOBILE, "answer:yes", "m2", 12L);
+
+        verify(inbound).fail(12L);
+        verify(inbound, never()).complete(12L);
+    }
+
+    @Test
+    void anInvalidConfirmationButtonIsFailed() {
+        processor.processClaimedInteractiveReply(MOBILE, "audio_confirm:not-a-uuid", "m3", 13L);
+
+        verify(inbound).fail(13L);
+    }
+
+    @Test
+    void aConfirmedVoiceNoteRunsAsTheTurnOfTheConfirmingReply() {
+        UUID id = UUID.randomUUID();
+        AudioConfirmationEntity confirmation = new AudioConfirmationEntity();
+        confirmation.setTranscribedText("paid 100 for tea");
+        when(confirmations.claim(id, MOBILE)).thenReturn(Optional.of(confirmation));
+        when(conversation.process("WHATSAPP", MOBILE, "m6", "paid 100 for tea")).thenReturn(SpeechResult.info("Saved."));
+
+        processor.processClaimedInteractiveReply(MOBILE, "audio_confirm:" + id, "m6", 16L);
+
+        verify(conversation).process("WHATSAPP", MOBILE, "m6", "paid 100 for tea");
+        verify(confirmations).complete(id);
+        verify(inbound).complete(16L);
+    }
+
+    @Test
+    void aReplyWithoutAButtonIsCompleted() {
+        processor.processClaimedInteractiveReply(MOBILE, null, "m4", 14L);
+
+        verify(inbound).complete(14L);
+    }
+
+    @Test
+    void aFailedAccessLookupFailsTheMessage() {
+        when(flags.hasAnyEnabledFeature("WHATSAPP", MOBILE)).thenThrow(new IllegalStateException("database down"));
+
+        processor.processClaimedMessage(MOBILE, "paid 100 for tea", "m5", 15L);
+
+        verify(inbound).fail(15L);
+        verify(conversation, never()).process(anyString(), anyString(), anyString(), anyString());
+    }
+}
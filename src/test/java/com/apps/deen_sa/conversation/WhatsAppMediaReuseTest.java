@@ -0,0 +1,67 @@
+package com.apps.deen_sa.conversation;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.endsWith;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WhatsAppMediaReuseTest {
+    private final RestTemplate rest = mock(RestTemplate.class);
+    private final WhatsAppMediaIdCache mediaIds = new WhatsAppMediaIdCache(10, Duration.ofDays(25));
+    private final WhatsAppReplySender sender = new WhatsAppReplySender(rest, mediaIds,
+            new TurnTrace(ObservationRegistry.NOOP, turn -> { }), "https://graph.test", "55", "token");
+    private final ResponseMedia chart = new ResponseMedia(new byte[]{1, 2, 3}, "image/png", "chart.png");
+
+    @Test
+    void identicalChartIsUploadedOnceAndThenSentById() {
+        when(rest.postForObject(endsWith("/media"), any(HttpEntity.class), eq(Map.class))).thenReturn(Map.of("id", "m-1"));
+
+        assertThat(sender.sendImageReply("9199", chart, "one")).isTrue();
+        assertThat(sender.sendImageReply("9199", new ResponseMedia(new byte[]{1, 2, 3}, "image/png", "again.png"), "two"))
+                .isTrue();
+
+        verify(rest, times(1)).postForObject(endsWith("/media"), any(HttpEntity.class), eq(Map.class));
+        verify(rest, times(2)).postForEntity(endsWith("/messages"), any(HttpEntity.class), eq(String.class));
+    }
+
+    @Test
+    void rejectedReusedIdIsDroppedAndTheChartUploadedAgain() {
+        mediaIds.put(WhatsAppMediaIdCache.hash(chart), "expired");
+        when(rest.postForObject(endsWith("/media"), any(HttpEntity.class), eq(Map.class))).thenReturn(Map.of("id", "m-2"));
+        when(rest.postForEntity(endsWith("/messages"), any(HttpEntity.class), eq(String.class)))
+                .thenThrow(new HttpClientErrorException(org.springframework.http.HttpStatus.BAD_REQUEST))
+                .thenReturn(ResponseEntity.ok("{}"));
+
+        assertThat(sender.sendImageReply("9199", chart, null)).isTrue();
+
+        assertThat(mediaIds.get(WhatsAppMediaIdCache.hash(chart))).isEqualTo("m-2");
+    }
+
+    @Test
+    void idsExpireAfterTheirTtl() {
+        Clock later = Clock.fixed(Instant.parse("2026-06-01T00:00:00Z"), ZoneOffset.UTC);
+        WhatsAppMediaIdCache expiring = new WhatsAppMediaIdCache(10, Duration.ofDays(-1), later);
+        expiring.put("h", "m-3");
+
+        expiring.sweepExpired();
+
+        assertThat(expiring.size()).isZero();
+    }
+}
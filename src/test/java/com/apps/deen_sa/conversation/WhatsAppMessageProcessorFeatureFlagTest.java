@@ -1,5 +1,6 @@
 package com.apps.deen_sa.conversation;
 
+import io.micrometer.observation.ObservationRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -27,15 +28,15 @@ class WhatsAppMessageProcessorFeatureFlagTest {
                 mock(AudioTranscriber.class),
                 mock(AudioConfirmationService.class),
                 featureFlags,
-                mock(WhatsAppAccessCommandService.class));
+                mock(WhatsAppAccessCommandService.class), new LocalUserTurnLock(), mock(StatementImportGateway.class),
+                new TurnTrace(ObservationRegistry.NOOP, turn -> { }));
     }
 
     @Test
     void blocksExpenseProcessingForAMobileWithoutAccess() {
-        when(inboundMessages.claim("WHATSAPP", "message-1", MOBILE)).thenReturn(42L);
         when(featureFlags.hasAnyEnabledFeature("WHATSAPP", MOBILE)).thenReturn(false);
 
-        processor.processIncomingMessage(MOBILE, "Paid 500 for groceries", "message-1");
+        processor.processClaimedMessage(MOBILE, "Paid 500 for groceries", "message-1", 42L);
 
         verify(conversation, never()).process("WHATSAPP", MOBILE, "message-1", "Paid 500 for groceries");
         verify(replies).sendTextReply(MOBILE,
@@ -45,12 +46,11 @@ class WhatsAppMessageProcessorFeatureFlagTest {
 
     @Test
     void processesMessagesForAnEnabledMobile() {
-        when(inboundMessages.claim("WHATSAPP", "message-2", MOBILE)).thenReturn(43L);
         when(featureFlags.hasAnyEnabledFeature("WHATSAPP", MOBILE)).thenReturn(true);
         when(conversation.process("WHATSAPP", MOBILE, "message-2", "Paid 500 for groceries"))
                 .thenReturn(SpeechResult.info("Expense saved."));
 
-        processor.processIncomingMessage(MOBILE, "Paid 500 for groceries", "message-2");
+        processor.processClaimedMessage(MOBILE, "Paid 500 for groceries", "message-2", 43L);
 
         verify(conversation).process("WHATSAPP", MOBILE, "message-2", "Paid 500 for groceries");
         verify(replies).sendTextReply(MOBILE, "Expense saved.");
@@ -0,0 +1,82 @@
+package com.apps.deen_sa.conversation;
+
+import com.apps.deen_sa.dto.WhatsAppWebhookPayload;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.util.Map;
+
+import static com.apps.deen_sa.conversation.WhatsAppAdmission.Decision.ADMIT;
+import static com.apps.deen_sa.conversation.WhatsAppAdmission.Decision.THROTTLE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * A message over the sender's rate is not acknowledged, so Meta delivers it again instead of it being
+ * lost, and only messages claimed for the first time are charged to the sender's rate.
+ */
+class WhatsAppWebhookThrottleTest {
+    private static final String DELIVERY = """
+            {"entry":[{"changes":[{"value":{"messages":[
+              {"id":"wamid.a","from":"919800000001","type":"text","text":{"body":"paid 100 for tea"}},
+              {"id":"wamid.b","from":"919800000002","type":"text","text":{"body":"paid 200 for milk"}}
+            ]}}]}]}
+            """;
+
+    private final WhatsAppMessageProcessor processor = mock(WhatsAppMessageProcessor.class);
+    private final InboundMessageService inbound = mock(InboundMessageService.class);
+    private final WhatsAppAdmission admission = mock(WhatsAppAdmission.class);
+    private final WhatsAppWebhookController controller = new WhatsAppWebhookController(processor, inbound, admission,
+            new TurnTrace(ObservationRegistry.NOOP, turn -> { }));
+
+    @Test
+    void aThrottledMessageIsReleasedAndTheDeliveryRefused() throws Exception {
+        when(admission.admit("919800000001")).thenReturn(ADMIT);
+        when(admission.admit("919800000002")).thenReturn(THROTTLE);
+        when(inbound.claimAll("WHATSAPP", Map.of("wamid.a", "919800000001", "wamid.b", "919800000002")))
+                .thenReturn(Map.of("wamid.a", 7L, "wamid.b", 8L));
+
+        var response = controller.receiveMessage(new ObjectMapper().readValue(DELIVERY, WhatsAppWebhookPayload.class));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        verify(processor).processClaimedMessage("919800000001", "paid 100 for tea", "wamid.a", 7L);
+        verify(processor, never()).processClaimedMessage(eq("919800000002"), anyString(), anyString(), any());
+        verify(inbound).release(8L);
+        verify(inbound, never()).release(7L);
+    }
+
+    @Test
+    void aRedeliveredMessageIsNotChargedAgain() throws Exception {
+        when(admission.admit("919800000002")).thenReturn(ADMIT);
+        when(inbound.claimAll("WHATSAPP", Map.of("wamid.a", "919800000001", "wamid.b", "919800000002")))
+                .thenReturn(Map.of("wamid.b", 8L));
+
+        var response = controller.receiveMessage(new ObjectMapper().readValue(DELIVERY, WhatsAppWebhookPayload.class));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        verify(admission, never()).admit("919800000001");
+        verify(processor).processClaimedMessage("919800000002", "paid 200 for milk", "wamid.b", 8L);
+    }
+
+    @Test
+    void aDeliveryWithinTheRateIsAcknowledged() throws Exception {
+        when(admission.shed(anyInt())).thenReturn(false);
+        when(admission.admit(anyString())).thenReturn(ADMIT);
+        when(inbound.claimAll("WHATSAPP", Map.of("wamid.a", "919800000001", "wamid.b", "919800000002")))
+                .thenReturn(Map.of("wamid.a", 7L, "wamid.b", 8L));
+
+        var response = controller.receiveMessage(new ObjectMapper().readValue(DELIVERY, WhatsAppWebhookPayload.class));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        verify(processor).processClaimedMessage("919800000002", "paid 200 for milk", "wamid.b", 8L);
+    }
+}
@@ -2,8 +2,10 @@ package com.apps.deen_sa.conversation.interpretation;
 
 import com.apps.deen_sa.conversation.ConversationContext;
 import com.apps.deen_sa.conversation.ConversationMessages;
+import com.apps.deen_sa.conversation.TurnTrace;
 import com.apps.deen_sa.conversation.UnprocessedConversationService;
 import com.apps.deen_sa.extension.runtime.ExtensionCatalog;
+import io.micrometer.observation.ObservationRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
@@ -47,7 +49,8 @@ class HelpRequestEvidenceTest {
                 QueryPeriod.NONE, List.of(), 0.8));
 
         var engine = new UnifiedConversationEngine(interpreter, catalog,
-                new MutationAuthorizationPolicy(), new ConversationMessages(), unprocessed);
+                new MutationAuthorizationPolicy(), new ConversationMessages(), unprocessed,
+                new TurnTrace(ObservationRegistry.NOOP, turn -> { }));
         var result = engine.process("Purple silence sideways banana orbit", context);
 
         assertThat(result.getMessage()).containsIgnoringCase("couldn't understand");
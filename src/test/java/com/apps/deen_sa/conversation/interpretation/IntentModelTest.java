@@ -0,0 +1,78 @@
+package com.apps.deen_sa.conversation.interpretation;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IntentModelTest {
+    private static final String[] ITEMS = {"groceries", "petrol", "tea", "auto", "lunch", "rent", "snacks", "movie"};
+
+    @Test
+    void learnsTheRoutedEventTypeFromCharacterNgrams() throws Exception {
+        IntentModel model = IntentModel.train(examples(), "test", 1 << 12, 12, 0.5, 7);
+
+        assertThat(model.predict("spent 640 on biryani").label()).isEqualTo("EXPENSE");
+        assertThat(model.predict("salary of 52000 got credited").label()).isEqualTo("INCOME");
+        assertThat(model.predict("how much did I spend on biryani this week").label()).isEqualTo(IntentModel.NONE);
+
+        ByteArrayOutputStream artifact = new ByteArrayOutputStream();
+        model.write(artifact);
+        IntentModel loaded = IntentModel.read(new ByteArrayInputStream(artifact.toByteArray()));
+        assertThat(loaded.version()).isEqualTo("test");
+        assertThat(loaded.predict("spent 640 on biryani")).isEqualTo(model.predict("spent 640 on biryani"));
+    }
+
+    @Test
+    void shadowModeOnlyCountsAgreementAndEnforceModeDecidesWhenConfident() {
+        IntentModel model = IntentModel.train(examples(), "test", 1 << 12, 12, 0.5, 7);
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        Metrics.addRegistry(meters);
+        try {
+            IntentPreClassifier shadow = new IntentPreClassifier(model, IntentPreClassifier.Mode.SHADOW, 0.5);
+            IntentModel.Prediction prediction = shadow.predict("spent 90 on tea");
+            assertThat(shadow.decide(prediction)).isNull();
+            shadow.compare(prediction, "EXPENSE");
+            assertThat(meters.get("deen.intent.preclassifier.shadow").tags("outcome", "agree", "label", "EXPENSE")
+                    .counter().count()).isOne();
+
+            IntentPreClassifier enforce = new IntentPreClassifier(model, IntentPreClassifier.Mode.ENFORCE, 0.5);
+            assertThat(enforce.decide(enforce.predict("spent 90 on tea"))).isEqualTo("EXPENSE");
+            assertThat(enforce.decide(enforce.predict("what did I spend today"))).isNull();
+            assertThat(new IntentPreClassifier(null, IntentPreClassifier.Mode.ENFORCE, 0.5).predict("spent 90")).isNull();
+        } finally {
+            Metrics.removeRegistry(meters);
+        }
+    }
+
+    @Test
+    void onlyNewEventTurnsAreLabelledWithTheirEventType() {
+        assertThat(IntentPreClassifier.label(TurnType.NEW_EVENT, "expense")).isEqualTo("EXPENSE");
+        assertThat(IntentPreClassifier.label(TurnType.QUERY, null)).isEqualTo(IntentModel.NONE);
+        assertThat(IntentPreClassifier.label(TurnType.CORRECTION, "EXPENSE")).isEqualTo(IntentModel.NONE);
+    }
+
+    private static List<IntentModel.Example> examples() {
+        List<IntentModel.Example> examples = new ArrayList<>();
+        int amount = 40;
+        for (String item : ITEMS) {
+            examples.add(new IntentModel.Example("spent " + amount + " on " + item, "EXPENSE"));
+            examples.add(new IntentModel.Example("paid " + amount + " for " + item + " by upi", "EXPENSE"));
+            examples.add(new IntentModel.Example("how much did I spend on " + item + " this month", IntentModel.NONE));
+            examples.add(new IntentModel.Example("what did I spend on " + item + " today", IntentModel.NONE));
+            amount += 35;
+        }
+        for (String source : new String[]{"salary", "refund", "interest", "bonus", "freelance payment"}) {
+            examples.add(new IntentModel.Example(source + " of 45000 credited", "INCOME"));
+            examples.add(new IntentModel.Example("received " + source + " 12000", "INCOME"));
+            examples.add(new IntentModel.Example("got my " + source + " credited today", "INCOME"));
+        }
+        return examples;
+    }
+}
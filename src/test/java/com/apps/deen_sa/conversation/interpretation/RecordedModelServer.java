@@ -0,0 +1,210 @@
+package com.apps.deen_sa.conversation.interpretation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local model endpoint for semantic evals. The OpenAI client is pointed at it in both modes. When
+ * recording, each request is forwarded upstream and a successful response is kept under the SHA-256
+ * of the request; when replaying, responses come only from the recordings, and an unrecorded request
+ * gets a 404. A request is hashed after sorting object keys at every level, including JSON held in
+ * string values such as the interpreter's input, so map ordering does not change the key. Calls and
+ * token usage are counted in both modes.
+ */
+final class RecordedModelServer implements AutoCloseable {
+    private final ObjectMapper mapper;
+    private final Path recordings;
+    private final URI upstream;
+    private final HttpServer server;
+    private final ExecutorService workers = Executors.newCachedThreadPool();
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private final Map<String, Recording> responses = new ConcurrentHashMap<>();
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong inputTokens = new AtomicLong();
+    private final AtomicLong cachedInputTokens = new AtomicLong();
+    private final AtomicLong outputTokens = new AtomicLong();
+
+    private RecordedModelServer(ObjectMapper mapper, Path recordings, URI upstream) throws IOException {
+        this.mapper = mapper;
+        this.recordings = recordings;
+        this.upstream = upstream;
+        if (Files.exists(recordings)) {
+            for (String line : Files.readAllLines(recordings, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) continue;
+                Recording recording = mapper.readValue(line, Recording.class);
+                responses.put(recording.key(), recording);
+            }
+        }
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(workers);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    /** Answers only from {@code recordings}; nothing leaves the machine. */
+    static RecordedModelServer replay(ObjectMapper mapper, Path recordings) throws IOException {
+        return new RecordedModelServer(mapper, recordings, null);
+    }
+
+    /** Forwards every call to {@code upstream} and adds its responses to {@code recordings} on close. */
+    static RecordedModelServer record(ObjectMapper mapper, Path recordings, URI upstream) throws IOException {
+        return new RecordedModelServer(mapper, recordings, upstream);
+    }
+
+    String baseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/v1";
+    }
+
+    boolean recording() {
+        return upstream != null;
+    }
+
+    Usage usage() {
+        return new Usage(calls.get(), misses.get(), inputTokens.get(), cachedInputTokens.get(), outputTokens.get());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            String path = exchange.getRequestURI().getPath();
+            String key = key(mapper, exchange.getRequestMethod(), path, body);
+            calls.incrementAndGet();
+            Recording recording = recording() ? forward(exchange, path, body, key) : responses.get(key);
+            if (recording == null) {
+                if (!recording()) misses.incrementAndGet();
+                respond(exchange, 404, "{\"error\":{\"message\":\"No recorded response for " + key + "\"}}");
+                return;
+            }
+            count(recording.response());
+            respond(exchange, 200, mapper.writeValueAsString(recording.response()));
+        }
+    }
+
+    private Recording forward(HttpExchange exchange, String path, byte[] body, String key) throws IOException {
+        String base = upstream.toString().replaceAll("/+$", "");
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(base + path.replaceFirst("^/v1", "")))
+                .timeout(Duration.ofSeconds(60)).method(exchange.getRequestMethod(), HttpRequest.BodyPublishers.ofByteArray(body))
+                .header("Content-Type", "application/json");
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        if (authorization != null) request.header("Authorization", authorization);
+        long started = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = client.send(request.build(), HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while calling " + upstream, interrupted);
+        }
+        if (response.statusCode() != 200) {
+            respond(exchange, response.statusCode(), response.body());
+            return null;
+        }
+        Recording recording = new Recording(key, mapper.readTree(response.body()),
+                (System.nanoTime() - started) / 1_000_000);
+        responses.put(key, recording);
+        return recording;
+    }
+
+    private void count(JsonNode response) {
+        JsonNode usage = response.path("usage");
+        inputTokens.addAndGet(usage.path("input_tokens").asLong());
+        cachedInputTokens.addAndGet(usage.path("input_tokens_details").path("cached_tokens").asLong());
+        outputTokens.addAndGet(usage.path("output_tokens").asLong());
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        if (exchange.getResponseCode() != -1) return;
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    static String key(ObjectMapper mapper, String method, String path, byte[] body) {
+        try {
+            Object canonical = body.length == 0 ? "" : canonical(mapper, mapper.readValue(body, Object.class));
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((method + " " + path + "\n").getBytes(StandardCharsets.UTF_8));
+            digest.update(mapper.writeValueAsBytes(canonical));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException invalid) {
+            throw new UncheckedIOException(invalid);
+        } catch (NoSuchAlgorithmException impossible) {
+            throw new IllegalStateException(impossible);
+        }
+    }
+
+    private static Object canonical(ObjectMapper mapper, Object value) {
+        if (value instanceof Map<?, ?> map) {
+            Map<String, Object> sorted = new TreeMap<>();
+            map.forEach((key, entry) -> sorted.put(String.valueOf(key), canonical(mapper, entry)));
+            return sorted;
+        }
+        if (value instanceof List<?> list) {
+            List<Object> items = new ArrayList<>(list.size());
+            list.forEach(item -> items.add(canonical(mapper, item)));
+            return items;
+        }
+        if (value instanceof String text && (text.startsWith("{") || text.startsWith("["))) {
+            try {
+                return Map.of("json", canonical(mapper, mapper.readValue(text, Object.class)));
+            } catch (IOException notJson) {
+                return text;
+            }
+        }
+        return value;
+    }
+
+    /** Stops the endpoint and, when recording, rewrites the recordings sorted by key. */
+    @Override
+    public void close() throws IOException {
+        server.stop(0);
+        workers.shutdownNow();
+        if (!recording()) return;
+        if (recordings.getParent() != null) Files.createDirectories(recordings.getParent());
+        List<String> lines = new ArrayList<>(responses.size());
+        for (Recording recording : new TreeMap<>(responses).values()) {
+            ObjectNode line = mapper.createObjectNode().put("key", recording.key())
+                    .put("latencyMillis", recording.latencyMillis());
+            line.set("response", recording.response());
+            lines.add(mapper.writeValueAsString(line));
+        }
+        Files.write(recordings, lines, StandardCharsets.UTF_8);
+    }
+
+    record Recording(String key, JsonNode response, long latencyMillis) { }
+
+    /** Totals since the endpoint started; {@code misses} are replayed requests with no recording. */
+    record Usage(long calls, long misses, long inputTokens, long cachedInputTokens, long outputTokens) { }
+}
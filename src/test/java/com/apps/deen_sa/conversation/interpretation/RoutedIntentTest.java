@@ -0,0 +1,59 @@
+package com.apps.deen_sa.conversation.interpretation;
+
+import com.apps.deen_sa.conversation.ConversationContext;
+import com.apps.deen_sa.conversation.ConversationMessages;
+import com.apps.deen_sa.conversation.TurnTrace;
+import com.apps.deen_sa.conversation.UnprocessedConversationService;
+import com.apps.deen_sa.extension.runtime.ExtensionCatalog;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/** The diagnostic {@code routedIntent} label is training data, so only the model router may produce it. */
+class RoutedIntentTest {
+    private static final String TEXT = "paid the plumber";
+    private static final TurnInterpretation QUERY = new TurnInterpretation(TurnType.QUERY, null, "en-IN", null,
+            List.of(), null, QueryPeriod.NONE, List.of(), 0.9);
+
+    private final ExtensionCatalog catalog = mock(ExtensionCatalog.class);
+
+    @Test
+    void aTurnTheModelRoutedIsLabelled() {
+        ConversationContext context = process((text, input) -> {
+            input.routeListener().modelRouted();
+            return QUERY;
+        });
+
+        assertThat(context.getMetadata()).containsEntry("routedIntent", IntentModel.NONE);
+    }
+
+    @Test
+    void aTurnThePreClassifierDecidedIsNotLabelled() {
+        ConversationContext context = process((text, input) -> QUERY);
+
+        assertThat(context.getMetadata()).doesNotContainKey("routedIntent");
+    }
+
+    private ConversationContext process(ConversationInterpreter interpreter) {
+        when(catalog.queryDeterministically(anyLong(), anyString())).thenReturn(Optional.empty());
+        when(catalog.extractDeterministically(anyLong(), anyString())).thenReturn(List.of());
+        when(catalog.routeDeterministically(anyLong(), anyString())).thenReturn(Optional.empty());
+        when(catalog.query(anyLong(), anyString())).thenReturn(Optional.empty());
+        ConversationContext context = new ConversationContext();
+        context.setUserId(1L);
+        context.setMetadata(new HashMap<>());
+        new UnifiedConversationEngine(interpreter, catalog, new MutationAuthorizationPolicy(),
+                new ConversationMessages(), mock(UnprocessedConversationService.class),
+                new TurnTrace(ObservationRegistry.NOOP, turn -> { })).process(TEXT, context);
+        return context;
+    }
+}
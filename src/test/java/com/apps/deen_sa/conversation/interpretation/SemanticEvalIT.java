@@ -0,0 +1,72 @@
+package com.apps.deen_sa.conversation.interpretation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Semantic-eval run over {@code conversation-turns.jsonl}; see {@link SemanticEvalRunner}. In
+ * {@code replay} mode (the default) every model response comes from
+ * {@code src/test/resources/semantic-evals/recordings.jsonl}, so the run is offline and repeatable.
+ * In {@code live} mode the corpus runs against the model named by {@code LIVE_MODEL_NAME} and the
+ * recordings are refreshed. Re-record after changing a prompt, schema or corpus case, or replay will
+ * report unrecorded calls. Until a live run has written the recordings, replay is skipped.
+ *
+ * <pre>
+ * RUN_SEMANTIC_EVALS=true ./mvnw verify -Pintegration -Dit.test=SemanticEvalIT
+ * RUN_SEMANTIC_EVALS=true OPENAI_API_KEY=... ./mvnw verify -Pintegration -Dit.test=SemanticEvalIT \
+ *     -Devals.mode=live -Devals.concurrency=4
+ * </pre>
+ *
+ * The report is printed and written to {@code target/semantic-evals/report-<mode>.json}. The test
+ * fails when a replayed call was never recorded or accuracy falls below {@code evals.min-accuracy}.
+ */
+@Tag("SemanticEval")
+@EnabledIfEnvironmentVariable(named = "RUN_SEMANTIC_EVALS", matches = "(?i)true")
+class SemanticEvalIT {
+    private static final Path RECORDINGS = Path.of("src/test/resources/semantic-evals/recordings.jsonl");
+
+    @Test
+    void it_semantic_evals() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        boolean live = "live".equals(System.getProperty("evals.mode", "replay").toLowerCase(Locale.ROOT));
+        int concurrency = Integer.getInteger("evals.concurrency", 4);
+        double minAccuracy = Double.parseDouble(System.getProperty("evals.min-accuracy", "0"));
+        String model = env("LIVE_MODEL_NAME", "gpt-4.1-mini");
+        assumeTrue(live || Files.exists(RECORDINGS), () -> "No " + RECORDINGS + " to replay; run once with "
+                + "-Devals.mode=live and commit the recordings");
+        String apiKey = live ? System.getenv("OPENAI_API_KEY") : "replay";
+        assertThat(apiKey).as("OPENAI_API_KEY for a live run").isNotBlank();
+
+        SemanticEvalRunner.Report report;
+        try (RecordedModelServer server = live
+                ? RecordedModelServer.record(mapper, RECORDINGS, URI.create(env("OPENAI_BASE_URL", "https://api.openai.com/v1")))
+                : RecordedModelServer.replay(mapper, RECORDINGS)) {
+            report = new SemanticEvalRunner(mapper, server, apiKey, model, concurrency).run(SemanticEvalRunner.corpus(mapper));
+        }
+
+        System.out.println(report.summary());
+        report.failures().forEach(failure -> System.out.println("  " + failure.name() + " [" + failure.route() + "] "
+                + String.join("; ", failure.mismatches())));
+        Path output = Path.of("target/semantic-evals/report-" + report.mode() + ".json");
+        Files.createDirectories(output.getParent());
+        mapper.writer(SerializationFeature.INDENT_OUTPUT).writeValue(output.toFile(), report);
+        assertThat(report.unrecordedCalls()).as("replayed calls without a recording").isZero();
+        assertThat(report.accuracy()).as("accuracy").isGreaterThanOrEqualTo(minAccuracy);
+    }
+
+    private static String env(String name, String fallback) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? fallback : value;
+    }
+}
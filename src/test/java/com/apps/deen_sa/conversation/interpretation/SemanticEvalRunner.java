@@ -0,0 +1,319 @@
+package com.apps.deen_sa.conversation.interpretation;
+
+import com.apps.deen_sa.conversation.ConversationContext;
+import com.apps.deen_sa.conversation.ConversationMessages;
+import com.apps.deen_sa.conversation.SpeechHandler;
+import com.apps.deen_sa.conversation.SpeechResult;
+import com.apps.deen_sa.conversation.TurnTrace;
+import com.apps.deen_sa.conversation.UnprocessedConversationService;
+import com.apps.deen_sa.extension.api.*;
+import com.apps.deen_sa.extension.runtime.ExtensionCatalog;
+import com.apps.deen_sa.extension.runtime.TenantExtensionRepository;
+import com.apps.deen_sa.finance.extension.PersonalFinanceExtension;
+import com.apps.deen_sa.finance.legacy.state.StateContainerService;
+import com.apps.deen_sa.llm.AiCallTelemetry;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openai.client.OpenAIClient;
+import com.openai.client.okhttp.OpenAIOkHttpClient;
+import io.micrometer.observation.ObservationRegistry;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Runs the semantic-eval corpus through {@link UnifiedConversationEngine} on a fixed pool, one fresh
+ * conversation per case, with the real interpreter talking to a {@link RecordedModelServer}. The
+ * finance extension supplies the real capability contracts, deterministic routers and prompts, but
+ * its handlers only record what reached them, so no database is needed. A case passes when every
+ * expectation it states holds. Model turns are judged on the interpreter's output. Deterministic
+ * turns are judged on what reached the capabilities, and their language is not checked because no
+ * model detects it. Fields are not checked when a deterministic route hands the handler only the raw
+ * text, because the handler extracts them itself.
+ */
+final class SemanticEvalRunner {
+    static final String CORPUS = "/semantic-evals/conversation-turns.jsonl";
+    /** Event types of the finance speech handlers, which the capability contracts are built from. */
+    private static final List<String> EVENT_TYPES = List.of("EXPENSE", "EXPENSE_CORRECTION", "INCOME",
+            "LIABILITY_PAYMENT", "ACCOUNT_SETUP", "BUDGET_SET");
+
+    private final ObjectMapper mapper;
+    private final RecordedModelServer server;
+    private final String apiKey;
+    private final String model;
+    private final int concurrency;
+    private final ConversationMessages messages = new ConversationMessages();
+    private final StateContainerService containers = mock(StateContainerService.class);
+
+    SemanticEvalRunner(ObjectMapper mapper, RecordedModelServer server, String apiKey, String model, int concurrency) {
+        this.mapper = mapper;
+        this.server = server;
+        this.apiKey = apiKey;
+        this.model = model;
+        this.concurrency = concurrency;
+    }
+
+    static List<JsonNode> corpus(ObjectMapper mapper) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                SemanticEvalRunner.class.getResourceAsStream(CORPUS), StandardCharsets.UTF_8))) {
+            List<JsonNode> cases = new ArrayList<>();
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (!line.isBlank()) cases.add(mapper.readTree(line));
+            }
+            return cases;
+        }
+    }
+
+    Report run(List<JsonNode> cases) throws Exception {
+        OpenAIClient client = OpenAIOkHttpClient.builder().apiKey(apiKey).baseUrl(server.baseUrl())
+                .maxRetries(server.recording() ? 2 : 0).build();
+        RecordedModelServer.Usage before = server.usage();
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<Result>> futures = new ArrayList<>(cases.size());
+            for (JsonNode spec : cases) futures.add(pool.submit(() -> evaluate(client, spec)));
+            List<Result> results = new ArrayList<>(futures.size());
+            for (Future<Result> future : futures) results.add(future.get());
+            RecordedModelServer.Usage after = server.usage();
+            return Report.of(server.recording() ? "live" : "replay", model, concurrency, results,
+                    new RecordedModelServer.Usage(after.calls() - before.calls(), after.misses() - before.misses(),
+                            after.inputTokens() - before.inputTokens(),
+                            after.cachedInputTokens() - before.cachedInputTokens(),
+                            after.outputTokens() - before.outputTokens()));
+        } finally {
+            pool.shutdownNow();
+            client.close();
+        }
+    }
+
+    private Result evaluate(OpenAIClient client, JsonNode spec) {
+        Observed observed = new Observed();
+        ExtensionCatalog catalog = catalog(observed);
+        ConversationInterpreter interpreter = new OpenAiConversationInterpreter(client, mapper, catalog,
+                new IntentPreClassifier("", "off", 1), new AiCallTelemetry(AiCallTelemetry.CostSink.NONE),
+                model, model, 0, 160);
+        UnifiedConversationEngine engine = new UnifiedConversationEngine((text, context) -> {
+            observed.interpreted = true;
+            observed.modelTurn = interpreter.interpret(text, context);
+            return observed.modelTurn;
+        }, catalog, new MutationAuthorizationPolicy(), messages, new UnprocessedConversationService(null) {
+            @Override public void record(String text, String reason, ConversationContext context) { }
+        }, new TurnTrace(ObservationRegistry.NOOP, turn -> { }));
+        ConversationContext context = context(spec);
+        String message = spec.path("message").asText();
+        long started = System.nanoTime();
+        try {
+            SpeechResult result = engine.process(message, context);
+            double millis = (System.nanoTime() - started) / 1e6;
+            return score(spec, observed, result, context, millis);
+        } catch (RuntimeException failure) {
+            double millis = (System.nanoTime() - started) / 1e6;
+            Throwable cause = failure.getCause() == null ? failure : failure.getCause();
+            return new Result(spec.path("name").asText(), observed.interpreted ? "model" : "deterministic",
+                    millis, false, false, List.of("error: " + cause.getMessage()));
+        }
+    }
+
+    /** A fresh conversation, with an expense waiting for {@code waitingForField} when the case has a last question. */
+    private static ConversationContext context(JsonNode spec) {
+        ConversationContext context = new ConversationContext();
+        context.setMetadata(new HashMap<>());
+        if (spec.hasNonNull("lastQuestion")) {
+            String field = spec.path("waitingForField").asText("category");
+            context.setActiveIntent(spec.path("pendingIntent").asText("EXPENSE"));
+            context.setWaitingForField(field);
+            context.setLastQuestion(spec.path("lastQuestion").asText());
+            context.setPendingEvents(new ArrayList<>(List.of(new PendingEvent("eval-pending", context.getActiveIntent(),
+                    null, Map.of(), List.of(field), List.of(), List.of()))));
+        }
+        return context;
+    }
+
+    private Result score(JsonNode spec, Observed observed, SpeechResult result, ConversationContext context,
+                         double millis) {
+        boolean model = observed.interpreted;
+        TurnInterpretation turn = model ? observed.modelTurn : observed.deterministicTurn(result, messages, context);
+        List<String> mismatches = new ArrayList<>();
+        expect(mismatches, "turnType", spec.path("expectedTurnType"), turn.turnType() == null ? null : turn.turnType().name());
+        expect(mismatches, "intent", spec.path("expectedIntent"), turn.intent());
+        expect(mismatches, "command", spec.path("expectedCommand"), turn.command());
+        expect(mismatches, "query", spec.path("expectedQuery"), turn.query() == null ? null : turn.query().name());
+        if (model) expect(mismatches, "language", spec.path("expectedLanguage"), turn.language());
+        if (spec.has("expectedEventCount") && spec.path("expectedEventCount").asInt() != turn.events().size()) {
+            mismatches.add("eventCount: expected " + spec.path("expectedEventCount").asInt() + ", got " + turn.events().size());
+        }
+        EventPatch first = turn.events().isEmpty() ? null : turn.events().getFirst();
+        Map<String, Object> fields = first == null ? Map.of() : first.fields().asMap();
+        if (!model && fields.keySet().equals(Set.of("rawText"))) return result(spec, false, millis, mismatches);
+        spec.path("expectedFields").fields().forEachRemaining(field -> {
+            Object actual = fields.get(field.getKey());
+            if (!sameValue(field.getValue().asText(), actual)) {
+                mismatches.add(field.getKey() + ": expected " + field.getValue().asText() + ", got " + actual);
+            }
+        });
+        spec.path("expectedEvidence").fields().forEachRemaining(field -> {
+            boolean found = first != null && first.evidence().stream().anyMatch(evidence -> evidence != null
+                    && field.getKey().equals(evidence.field()) && evidence.evidence() != null
+                    && evidence.evidence().contains(field.getValue().asText()));
+            if (!found) mismatches.add(field.getKey() + " evidence: expected " + field.getValue().asText());
+        });
+        return result(spec, model, millis, mismatches);
+    }
+
+    private static Result result(JsonNode spec, boolean model, double millis, List<String> mismatches) {
+        return new Result(spec.path("name").asText(), model ? "model" : "deterministic", millis, mismatches.isEmpty(),
+                mismatches.stream().noneMatch(value -> value.startsWith("turnType")), mismatches);
+    }
+
+    private static void expect(List<String> mismatches, String name, JsonNode expected, String actual) {
+        if (expected.isMissingNode() || expected.isNull()) return;
+        if (!expected.asText().equalsIgnoreCase(actual == null ? "" : actual)) {
+            mismatches.add(name + ": expected " + expected.asText() + ", got " + actual);
+        }
+    }
+
+    private static boolean sameValue(String expected, Object actual) {
+        if (actual == null) return false;
+        try {
+            return new BigDecimal(expected).compareTo(new BigDecimal(String.valueOf(actual))) == 0;
+        } catch (NumberFormatException text) {
+            return expected.equalsIgnoreCase(String.valueOf(actual));
+        }
+    }
+
+    /** The finance extension's contracts, routers and prompts, with handlers that record into {@code observed}. */
+    private ExtensionCatalog catalog(Observed observed) {
+        List<SpeechHandler> handlers = EVENT_TYPES.stream().<SpeechHandler>map(ContractOnly::new).toList();
+        BusinessExtension finance = new PersonalFinanceExtension(handlers, null, containers, null);
+        BusinessExtension recorded = new BusinessExtension() {
+            @Override public ExtensionDescriptor descriptor() { return finance.descriptor(); }
+            @Override public Collection<EventCapability> events() {
+                return finance.events().stream().<EventCapability>map(event -> new RecordingEvent(event, observed)).toList();
+            }
+            @Override public Collection<QueryCapability> queries() {
+                return finance.queries().stream().<QueryCapability>map(query -> new RecordingQuery(query, observed)).toList();
+            }
+            @Override public Collection<ContextContributor> contextContributors() { return finance.contextContributors(); }
+            @Override public Collection<DeterministicEventRouter> deterministicRouters() {
+                return finance.deterministicRouters();
+            }
+            @Override public Collection<InterpretationPromptContributor> promptContributors() {
+                return finance.promptContributors();
+            }
+            @Override public String help(String locale) { return finance.help(locale); }
+        };
+        return new ExtensionCatalog(List.of(recorded), mock(TenantExtensionRepository.class));
+    }
+
+    /** Gives the finance extension an event type to build a capability contract for; never handles anything. */
+    private record ContractOnly(String intentType) implements SpeechHandler {
+        @Override public SpeechResult handleSpeech(String text, ConversationContext context) {
+            throw new UnsupportedOperationException();
+        }
+        @Override public SpeechResult handleFollowup(String answer, ConversationContext context) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private record RecordingEvent(EventCapability delegate, Observed observed) implements EventCapability {
+        @Override public String eventType() { return delegate.eventType(); }
+        @Override public String schemaVersion() { return delegate.schemaVersion(); }
+        @Override public Set<String> fields() { return delegate.fields(); }
+        @Override public Map<String, String> fieldTypes() { return delegate.fieldTypes(); }
+        @Override public String extractionInstructions() { return delegate.extractionInstructions(); }
+        @Override public CapabilityResult handle(ExtensionEvent event, String rawText, CapabilityContext context,
+                                                 boolean continuation) {
+            if (event instanceof EventPatch patch) observed.events.add(patch);
+            observed.continuation |= continuation;
+            return CapabilityResult.saved("Recorded " + delegate.eventType(), null);
+        }
+    }
+
+    private record RecordingQuery(QueryCapability delegate, Observed observed) implements QueryCapability {
+        @Override public String queryType() { return delegate.queryType(); }
+        @Override public Set<String> periods() { return delegate.periods(); }
+        @Override public CapabilityResult handle(String period, CapabilityContext context) {
+            observed.query = period;
+            return CapabilityResult.info("Recorded " + period);
+        }
+    }
+
+    /** What one case's turn did; written only by the thread running that case. */
+    private static final class Observed {
+        private boolean interpreted;
+        private TurnInterpretation modelTurn;
+        private final List<EventPatch> events = new ArrayList<>();
+        private boolean continuation;
+        private String query;
+
+        /** The turn the deterministic path acted on, rebuilt from what reached the capabilities. */
+        TurnInterpretation deterministicTurn(SpeechResult result, ConversationMessages messages,
+                                             ConversationContext context) {
+            if (query != null) {
+                return new TurnInterpretation(TurnType.QUERY, "QUERY", null, null, List.of(), null,
+                        QueryPeriod.valueOf(query), List.of(), 1.0);
+            }
+            if (!events.isEmpty()) {
+                TurnType type = continuation ? TurnType.ANSWER_TO_PENDING_EVENT
+                        : events.size() > 1 ? TurnType.NEW_EVENTS : TurnType.NEW_EVENT;
+                return new TurnInterpretation(type, events.getFirst().eventType(), null, null, events, null,
+                        QueryPeriod.NONE, List.of(), 1.0);
+            }
+            String message = result == null ? null : result.getMessage();
+            String command = Objects.equals(message, messages.skipped(context.getLocale())) ? "SKIP_PENDING"
+                    : Objects.equals(message, messages.cancelled(context.getLocale())) ? "CANCEL_PENDING" : "HELP";
+            return new TurnInterpretation(TurnType.COMMAND, null, null, null, List.of(), command, QueryPeriod.NONE,
+                    List.of(), 1.0);
+        }
+    }
+
+    record Result(String name, String route, double latencyMillis, boolean passed, boolean turnTypeCorrect,
+                  List<String> mismatches) { }
+
+    record Latency(double p50, double p95, double p99, double max) {
+        static Latency of(List<Result> results) {
+            double[] millis = results.stream().mapToDouble(Result::latencyMillis).sorted().toArray();
+            if (millis.length == 0) return new Latency(0, 0, 0, 0);
+            return new Latency(rank(millis, 0.50), rank(millis, 0.95), rank(millis, 0.99), millis[millis.length - 1]);
+        }
+
+        private static double rank(double[] sorted, double percentile) {
+            return sorted[Math.max(0, (int) Math.ceil(percentile * sorted.length) - 1)];
+        }
+    }
+
+    /** Quality and cost of one run, side by side; model figures are per turn over every case. */
+    record Report(String mode, String model, int concurrency, int cases, int passed, double accuracy,
+                  double turnTypeAccuracy, double deterministicRate, Latency latencyMillis, double modelCallsPerTurn,
+                  double inputTokensPerTurn, double cachedInputTokensPerTurn, double outputTokensPerTurn,
+                  long unrecordedCalls, List<Result> failures) {
+        static Report of(String mode, String model, int concurrency, List<Result> results, RecordedModelServer.Usage usage) {
+            int cases = results.size();
+            double turns = Math.max(1, cases);
+            int passed = (int) results.stream().filter(Result::passed).count();
+            return new Report(mode, model, concurrency, cases, passed, passed / turns,
+                    results.stream().filter(Result::turnTypeCorrect).count() / turns,
+                    results.stream().filter(result -> result.route().equals("deterministic")).count() / turns,
+                    Latency.of(results), usage.calls() / turns, usage.inputTokens() / turns,
+                    usage.cachedInputTokens() / turns, usage.outputTokens() / turns, usage.misses(),
+                    results.stream().filter(result -> !result.passed()).toList());
+        }
+
+        String summary() {
+            return String.format(Locale.ROOT, "%s %s x%d: %d/%d passed (%.0f%%), turn type %.0f%%, deterministic %.0f%%, "
+                            + "latency p50 %.1f ms p95 %.1f ms, %.2f calls, %.0f input (%.0f cached) + %.0f output tokens "
+                            + "per turn, %d unrecorded calls", mode, model, concurrency, passed, cases, accuracy * 100,
+                    turnTypeAccuracy * 100, deterministicRate * 100, latencyMillis.p50(), latencyMillis.p95(),
+                    modelCallsPerTurn, inputTokensPerTurn, cachedInputTokensPerTurn, outputTokensPerTurn, unrecordedCalls);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.apps.deen_sa.conversation.interpretation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class SemanticEvalRunnerTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private HttpServer upstream;
+
+    @BeforeEach
+    void startUpstream() throws Exception {
+        upstream = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        upstream.createContext("/", exchange -> {
+            upstreamCalls.incrementAndGet();
+            String request = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            String output = request.contains("extension-route")
+                    ? "{\"turnType\":\"NEW_EVENT\",\"selectedEventType\":\"EXPENSE\",\"language\":\"en-IN\",\"command\":null,"
+                    + "\"query\":\"NONE\",\"analysisIntent\":null,\"presentationMood\":null,\"ambiguities\":[],\"confidence\":0.9}"
+                    : "{\"turnType\":\"NEW_EVENT\",\"intent\":\"EXPENSE\",\"language\":\"en-IN\",\"targetEventId\":null,"
+                    + "\"events\":[{\"eventId\":null,\"eventType\":\"EXPENSE\",\"fields\":{\"amount\":80},\"unresolvedFields\":[],"
+                    + "\"ambiguities\":[],\"evidence\":[{\"field\":\"amount\",\"value\":\"80\",\"evidence\":\"80\",\"confidence\":1}]}],"
+                    + "\"command\":null,\"query\":\"NONE\",\"analysisIntent\":null,\"presentationMood\":null,\"ambiguities\":[],"
+                    + "\"confidence\":0.9}";
+            byte[] body = mapper.writeValueAsBytes(response(output));
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        upstream.start();
+    }
+
+    @AfterEach
+    void stopUpstream() {
+        upstream.stop(0);
+    }
+
+    @Test
+    void replayReproducesARecordedRunWithoutCallingTheModel(@TempDir Path directory) throws Exception {
+        Path recordings = directory.resolve("recordings.jsonl");
+        List<JsonNode> cases = SemanticEvalRunner.corpus(mapper);
+
+        SemanticEvalRunner.Report live;
+        try (RecordedModelServer server = RecordedModelServer.record(mapper, recordings, upstreamUri())) {
+            live = new SemanticEvalRunner(mapper, server, "test-key", "gpt-test", 4).run(cases);
+        }
+        int recordedCalls = upstreamCalls.get();
+        SemanticEvalRunner.Report replay;
+        try (RecordedModelServer server = RecordedModelServer.replay(mapper, recordings)) {
+            replay = new SemanticEvalRunner(mapper, server, "unused", "gpt-test", 8).run(cases);
+        }
+
+        assertThat(recordedCalls).isPositive();
+        assertThat(upstreamCalls).hasValue(recordedCalls);
+        assertThat(live.cases()).isEqualTo(cases.size());
+        assertThat(live.modelCallsPerTurn()).isEqualTo(recordedCalls / (double) cases.size());
+        assertThat(live.inputTokensPerTurn()).isCloseTo(live.modelCallsPerTurn() * 100, within(1e-9));
+        assertThat(live.deterministicRate()).isBetween(0.0, 1.0).isNotIn(0.0, 1.0);
+        assertThat(replay.unrecordedCalls()).isZero();
+        assertThat(replay.passed()).isEqualTo(live.passed());
+        assertThat(replay.deterministicRate()).isEqualTo(live.deterministicRate());
+        assertThat(replay.modelCallsPerTurn()).isEqualTo(live.modelCallsPerTurn());
+        assertThat(replay.outputTokensPerTurn()).isEqualTo(live.outputTokensPerTurn());
+        assertThat(replay.failures()).extracting(SemanticEvalRunner.Result::name)
+                .containsExactlyElementsOf(live.failures().stream().map(SemanticEvalRunner.Result::name).toList());
+    }
+
+    @Test
+    void replayWithoutRecordingsFailsModelTurnsAndCountsTheMisses(@TempDir Path directory) throws Exception {
+        List<JsonNode> cases = SemanticEvalRunner.corpus(mapper);
+
+        SemanticEvalRunner.Report replay;
+        try (RecordedModelServer server = RecordedModelServer.replay(mapper, directory.resolve("none.jsonl"))) {
+            replay = new SemanticEvalRunner(mapper, server, "unused", "gpt-test", 4).run(cases);
+        }
+
+        assertThat(upstreamCalls).hasValue(0);
+        assertThat(replay.unrecordedCalls()).isPositive();
+        assertThat(replay.inputTokensPerTurn()).isZero();
+        assertThat(replay.failures()).filteredOn(result -> result.route().equals("model")).isNotEmpty()
+                .allSatisfy(result -> assertThat(result.mismatches()).singleElement().asString().startsWith("error:"));
+    }
+
+    @Test
+    void requestKeyIgnoresKeyOrderIncludingJsonHeldInStrings() throws Exception {
+        byte[] first = mapper.writeValueAsBytes(Map.of("model", "m", "input",
+                "{\"userMessage\":\"hi\",\"context\":{\"a\":1,\"b\":2}}"));
+        byte[] reordered = "{\"input\":\"{\\\"context\\\":{\\\"b\\\":2,\\\"a\\\":1},\\\"userMessage\\\":\\\"hi\\\"}\",\"model\":\"m\"}"
+                .getBytes(StandardCharsets.UTF_8);
+        byte[] different = mapper.writeValueAsBytes(Map.of("model", "m", "input",
+                "{\"userMessage\":\"hello\",\"context\":{\"a\":1,\"b\":2}}"));
+
+        String key = RecordedModelServer.key(mapper, "POST", "/v1/responses", first);
+
+        assertThat(RecordedModelServer.key(mapper, "POST", "/v1/responses", reordered)).isEqualTo(key);
+        assertThat(RecordedModelServer.key(mapper, "POST", "/v1/responses", different)).isNotEqualTo(key);
+    }
+
+    private URI upstreamUri() {
+        return URI.create("http://" + upstream.getAddress().getHostString() + ":" + upstream.getAddress().getPort() + "/v1");
+    }
+
+    private static Map<String, Object> response(String text) {
+        return Map.ofEntries(Map.entry("id", "resp_eval"), Map.entry("object", "response"), Map.entry("created_at", 0),
+                Map.entry("model", "gpt-test"), Map.entry("status", "completed"), Map.entry("parallel_tool_calls", false),
+                Map.entry("tool_choice", "auto"), Map.entry("tools", List.of()), Map.entry("temperature", 1),
+                Map.entry("top_p", 1),
+                Map.entry("instructions", ""), Map.entry("metadata", Map.of()),
+                Map.entry("output", List.of(Map.of("type", "message", "id", "msg_eval", "role", "assistant",
+                        "status", "completed", "content", List.of(Map.of("type", "output_text", "text", text,
+                                "annotations", List.of()))))),
+                Map.entry("usage", Map.of("input_tokens", 100, "input_tokens_details", Map.of("cached_tokens", 40),
+                        "output_tokens", 20, "output_tokens_details", Map.of("reasoning_tokens", 0), "total_tokens", 120)));
+    }
+}
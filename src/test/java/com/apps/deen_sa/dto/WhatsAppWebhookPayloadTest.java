@@ -13,7 +13,7 @@ class WhatsAppWebhookPayloadTest {
         WhatsAppWebhookPayload.Message message = new WhatsAppWebhookPayload.Message(
                 "wamid.list-1", "919876543210", "interactive", null, null,
                 new WhatsAppWebhookPayload.Interactive("list_reply", null,
-                        new WhatsAppWebhookPayload.ListReply("answer:SELECT_42", "1", null)));
+                        new WhatsAppWebhookPayload.ListReply("answer:SELECT_42", "1", null)), null);
         WhatsAppWebhookPayload payload = new WhatsAppWebhookPayload(List.of(
                 new WhatsAppWebhookPayload.Entry(List.of(new WhatsAppWebhookPayload.Change(
                         new WhatsAppWebhookPayload.Value(List.of(message)))))));
@@ -30,6 +30,7 @@ class WhatsAppWebhookPayloadTest {
                 "audio",
                 null,
                 new WhatsAppWebhookPayload.Audio("media-123", "audio/ogg; codecs=opus"),
+                null,
                 null
         );
         WhatsAppWebhookPayload payload = new WhatsAppWebhookPayload(List.of(
@@ -0,0 +1,176 @@
+package com.apps.deen_sa.export;
+
+import com.apps.deen_sa.controller.DataExportController;
+import com.apps.deen_sa.conversation.AppUserService;
+import com.apps.deen_sa.integration.PostgresTestContainerInitializer;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exports against Postgres: a user's export holds only their rows, its datasets come from one
+ * snapshot, a long history streams through the cursor without the heap growing with it, and the
+ * unauthenticated download endpoint is off unless enabled.
+ */
+@SpringBootTest(properties = "export.fetch-size=100")
+@ActiveProfiles("test")
+@ContextConfiguration(initializers = PostgresTestContainerInitializer.class)
+class DataExportIT {
+    private static final int LONG_HISTORY_ROWS = 200_000;
+
+    @Autowired private Flyway flyway;
+    @Autowired private UserDataExporter exporter;
+    @Autowired private AppUserService users;
+    @Autowired private JdbcTemplate jdbc;
+    @Autowired private DataExportController downloads;
+
+    private Long userId;
+    private Long otherUserId;
+
+    @BeforeEach
+    void resetDatabase() {
+        flyway.clean();
+        flyway.migrate();
+        userId = users.resolve("REST", "export").getId();
+        otherUserId = users.resolve("REST", "someone-else").getId();
+    }
+
+    @Test
+    void anExportHoldsOnlyTheUsersOwnRows() throws Exception {
+        Long account = container(userId);
+        container(otherUserId);
+        expenses(userId, 2);
+        expenses(otherUserId, 3);
+        jdbc.update("""
+                INSERT INTO state_mutation (transaction_id, container_id, adjustment_type, amount, reason, occurred_at)
+                SELECT id, ?, 'DEBIT', amount, 'EXPENSE', tx_time FROM state_change WHERE user_id = ?
+                """, account, userId.toString());
+        jdbc.update("INSERT INTO fin_monthly_budget (user_id, category, monthly_limit) VALUES (?, 'Food', 5000)", userId);
+
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        long rows = exporter.export(userId, List.of(ExportDataset.values()), ExportFormat.NDJSON, ndjson);
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        exporter.export(userId, List.of(ExportDataset.STATE_CHANGE), ExportFormat.CSV, csv);
+
+        List<String> lines = ndjson.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(rows).isEqualTo(6);
+        assertThat(lines).hasSize(6)
+                .filteredOn(line -> line.startsWith("{\"dataset\":\"state_change\"")).hasSize(2)
+                .allMatch(line -> line.contains("\"user_id\":\"" + userId + "\""))
+                .allMatch(line -> line.contains("\"details\":{\"source\": \"export-test\"}"));
+        assertThat(lines).filteredOn(line -> line.startsWith("{\"dataset\":\"state_mutation\"")).hasSize(2)
+                .allMatch(line -> line.contains("\"user_id\":" + userId + ","));
+        assertThat(csv.toString(StandardCharsets.UTF_8).lines()).hasSize(3).first().asString().startsWith("id,user_id,");
+    }
+
+    @Test
+    void aUsersDatasetsAreReadFromOneSnapshot() throws Exception {
+        Long account = container(userId);
+        expenses(userId, 1);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExportWriter ndjson = ExportFormat.NDJSON.open(out);
+        // Another connection commits an expense and its mutation between the two datasets being read.
+        ExportWriter racing = new ExportWriter() {
+            @Override
+            public void begin(ExportDataset dataset, List<ExportColumn> columns) throws IOException {
+                if (dataset == ExportDataset.STATE_MUTATION) CompletableFuture.runAsync(() -> {
+                    expenses(userId, 1);
+                    jdbc.update("""
+                            INSERT INTO state_mutation (transaction_id, container_id, adjustment_type, amount, reason, occurred_at)
+                            SELECT max(id), ?, 'DEBIT', 10, 'EXPENSE', now() FROM state_change WHERE user_id = ?
+                            """, account, userId.toString());
+                }).join();
+                ndjson.begin(dataset, columns);
+            }
+
+            @Override
+            public void row(Object[] values) throws IOException {
+                ndjson.row(values);
+            }
+
+            @Override
+            public void close() throws IOException {
+                ndjson.close();
+            }
+        };
+
+        try (racing) {
+            exporter.write(userId, List.of(ExportDataset.STATE_CHANGE, ExportDataset.STATE_MUTATION), dataset -> racing);
+        }
+
+        assertThat(out.toString(StandardCharsets.UTF_8).lines().toList()).singleElement().asString()
+                .startsWith("{\"dataset\":\"state_change\"");
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM state_mutation", Long.class)).isOne();
+    }
+
+    @Test
+    void theDownloadEndpointIsOffByDefault() {
+        assertThat(downloads.export("ndjson", null).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void aLongHistoryStreamsInFlatMemory() throws Exception {
+        expenses(userId, LONG_HISTORY_ROWS);
+        CountingOutputStream out = new CountingOutputStream();
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long before = runtime.totalMemory() - runtime.freeMemory();
+
+        long rows = exporter.export(userId, List.of(ExportDataset.STATE_CHANGE), ExportFormat.NDJSON, out);
+
+        System.gc();
+        long after = runtime.totalMemory() - runtime.freeMemory();
+        assertThat(rows).isEqualTo(LONG_HISTORY_ROWS);
+        assertThat(out.bytes).as("bytes written").isGreaterThan(64L * 1024 * 1024);
+        assertThat(after - before).as("heap growth").isLessThan(32L * 1024 * 1024);
+    }
+
+    private Long container(Long owner) {
+        return jdbc.queryForObject("""
+                INSERT INTO state_container (owner_type, owner_id, container_type, name, status, currency, current_value)
+                VALUES ('USER', ?, 'BANK_ACCOUNT', 'Savings', 'ACTIVE', 'INR', 1000)
+                RETURNING id
+                """, Long.class, owner);
+    }
+
+    private void expenses(Long owner, int count) {
+        jdbc.update("""
+                INSERT INTO state_change (user_id, transaction_type, amount, category, main_entity, tx_time, raw_text,
+                                          details, created_at, updated_at, completeness_level)
+                SELECT ?, 'EXPENSE', 10 + n % 990, 'Food', 'Merchant ' || n % 50,
+                       TIMESTAMP '2025-01-01' + n * INTERVAL '1 minute', 'spent on lunch, "again"',
+                       '{"source": "export-test"}'::jsonb, now(), now(), 'FINANCIAL'
+                FROM generate_series(1, ?) AS n
+                """, owner.toString(), count);
+    }
+
+    /** Discards what is written, so the test holds no copy of the export. */
+    private static final class CountingOutputStream extends OutputStream {
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
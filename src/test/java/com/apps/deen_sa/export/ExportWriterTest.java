@@ -0,0 +1,82 @@
+package com.apps.deen_sa.export;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExportWriterTest {
+    private static final List<ExportColumn> COLUMNS = List.of(
+            new ExportColumn("id", ExportColumn.Kind.NUMBER),
+            new ExportColumn("amount", ExportColumn.Kind.NUMBER),
+            new ExportColumn("raw_text", ExportColumn.Kind.TEXT),
+            new ExportColumn("details", ExportColumn.Kind.JSON),
+            new ExportColumn("financially_applied", ExportColumn.Kind.BOOLEAN),
+            new ExportColumn("tx_time", ExportColumn.Kind.TIMESTAMP),
+            new ExportColumn("corrected_at", ExportColumn.Kind.TIMESTAMP));
+
+    @Test
+    void ndjsonWritesOneTaggedObjectPerLineWithJsonColumnsInline() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ExportWriter writer = ExportFormat.NDJSON.open(out)) {
+            writer.begin(ExportDataset.STATE_CHANGE, COLUMNS);
+            writer.row(row(1, "450.00", "Dinner at \"Toit\"", "{\"importId\": \"a\"}", true));
+            writer.begin(ExportDataset.BUDGETS, List.of(new ExportColumn("updated_at", ExportColumn.Kind.TIMESTAMPTZ)));
+            writer.row(new Object[]{OffsetDateTime.parse("2026-04-01T10:15:30+05:30")});
+        }
+
+        assertThat(out.toString(StandardCharsets.UTF_8).split("\n", -1)).containsExactly(
+                "{\"dataset\":\"state_change\",\"id\":1,\"amount\":450.00,\"raw_text\":\"Dinner at \\\"Toit\\\"\","
+                        + "\"details\":{\"importId\": \"a\"},\"financially_applied\":true,"
+                        + "\"tx_time\":\"2026-04-01T19:42:10\",\"corrected_at\":null}",
+                "{\"dataset\":\"budgets\",\"updated_at\":\"2026-04-01T10:15:30+05:30\"}",
+                "");
+    }
+
+    @Test
+    void csvWritesTheHeaderOnceAndQuotesOnlyWhatNeedsIt() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ExportWriter writer = ExportFormat.CSV.open(out)) {
+            writer.begin(ExportDataset.STATE_CHANGE, COLUMNS);
+            writer.row(row(1, "1E+3", "Dinner, \"Toit\"\nIndiranagar", "{\"a\": 1}", false));
+            writer.begin(ExportDataset.STATE_CHANGE, COLUMNS);
+            writer.row(row(2, "20.00", "", null, null));
+        }
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("""
+                id,amount,raw_text,details,financially_applied,tx_time,corrected_at
+                1,1000,"Dinner, ""Toit""
+                Indiranagar","{""a"": 1}",false,2026-04-01T19:42:10,
+                2,20.00,"",,,2026-04-01T19:42:10,
+                """);
+    }
+
+    @Test
+    void csvRefusesASecondDataset() throws IOException {
+        ExportWriter writer = ExportFormat.CSV.open(new ByteArrayOutputStream());
+        writer.begin(ExportDataset.STATE_CHANGE, COLUMNS);
+
+        assertThatThrownBy(() -> writer.begin(ExportDataset.BUDGETS, COLUMNS)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void datasetsAreParsedInOrderWithoutRepeats() {
+        assertThat(ExportDataset.parse(" budgets,STATE_CHANGE,budgets"))
+                .containsExactly(ExportDataset.BUDGETS, ExportDataset.STATE_CHANGE);
+        assertThat(ExportDataset.parse(null)).containsExactly(ExportDataset.values());
+        assertThatThrownBy(() -> ExportDataset.parse("app_user")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Object[] row(long id, String amount, String text, String details, Boolean applied) {
+        return new Object[]{BigDecimal.valueOf(id), new BigDecimal(amount), text, details, applied,
+                LocalDateTime.parse("2026-04-01T19:42:10"), null};
+    }
+}
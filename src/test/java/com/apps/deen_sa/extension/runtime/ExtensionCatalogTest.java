@@ -0,0 +1,144 @@
+package com.apps.deen_sa.extension.runtime;
+
+import com.apps.deen_sa.extension.api.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ExtensionCatalogTest {
+    private final TenantExtensionRepository repository = mock(TenantExtensionRepository.class);
+    private final ExtensionCatalog catalog = new ExtensionCatalog(List.of(
+            new Stub("core", true, "EXPENSE"), new Stub("retail", false, "SALE")), repository);
+
+    @Test
+    void tenantsWithoutOverridesShareTheInstalledByDefaultSnapshot() {
+        assertThat(catalog.enabledExtensions(1L)).containsExactly("core");
+        assertThat(catalog.enabledEvents(1L)).extracting(EventCapability::eventType).containsExactly("EXPENSE");
+        assertThat(catalog.routeDeterministically(1L, "sold a chair")).isEmpty();
+        assertThat(catalog.interpretationInstructions(2L)).isSameAs(catalog.interpretationInstructions(1L));
+
+        catalog.enabledEvents(1L);
+        verify(repository, times(1)).findByTenantId(1L);
+    }
+
+    @Test
+    void enablingAnExtensionSwapsOnlyThatTenantsSnapshot() {
+        when(repository.findByTenantIdAndExtensionId(5L, "retail")).thenReturn(Optional.empty());
+        when(repository.findByTenantId(5L)).thenReturn(List.of(row(5L, "retail", true), row(5L, "core", false)));
+
+        catalog.setEnabled(5L, "retail", true);
+
+        verify(repository).save(any(TenantExtensionEntity.class));
+        assertThat(catalog.enabledExtensions(5L)).containsExactly("retail");
+        assertThat(catalog.routeDeterministically(5L, "sold a chair")).map(EventCapability::eventType).contains("SALE");
+        assertThat(catalog.extractDeterministically(5L, "spent 20")).isEmpty();
+        assertThat(catalog.help(5L, "en-IN")).isEqualTo("retail help en-IN");
+        assertThat(catalog.enabledExtensions(6L)).containsExactly("core");
+    }
+
+    @Test
+    void changesFromOtherNodesAreReloadedForCachedTenants() {
+        assertThat(catalog.enabledExtensions(7L)).containsExactly("core");
+        TenantExtensionEntity enabled = row(7L, "retail", true);
+        when(repository.findByUpdatedAtAfter(any(Instant.class))).thenReturn(List.of(enabled));
+        when(repository.findByTenantId(7L)).thenReturn(List.of(enabled));
+
+        catalog.refreshChangedTenants();
+
+        assertThat(catalog.enabledExtensions(7L)).containsExactly("core", "retail");
+        assertThat(catalog.interpretationInstructions(7L)).isEqualTo("core instructions\n\nretail instructions");
+    }
+
+    @Test
+    void aRowDeletedOnAnotherNodeIsNoticedByTheTenantsRowCount() {
+        when(repository.findByTenantId(8L)).thenReturn(List.of(row(8L, "retail", true)));
+        assertThat(catalog.enabledExtensions(8L)).containsExactly("core", "retail");
+        when(repository.findByTenantId(8L)).thenReturn(List.of());
+
+        catalog.refreshChangedTenants();
+
+        assertThat(catalog.enabledExtensions(8L)).containsExactly("core");
+    }
+
+    @Test
+    void unchangedTenantsAreNotReloaded() {
+        when(repository.findByTenantId(9L)).thenReturn(List.of(row(9L, "retail", true)));
+        catalog.enabledExtensions(9L);
+        TenantExtensionRepository.TenantRowCount count = mock(TenantExtensionRepository.TenantRowCount.class);
+        when(count.getTenantId()).thenReturn(9L);
+        when(count.getRowCount()).thenReturn(1L);
+        when(repository.countRowsByTenant()).thenReturn(List.of(count));
+
+        catalog.refreshChangedTenants();
+
+        verify(repository, times(1)).findByTenantId(9L);
+    }
+
+    @Test
+    void contextIsEvaluatedOnlyForTheEventTypesAContributorDeclares() {
+        assertThat(catalog.context(new ContextRequest(1L, 9L, "expense", "spent 20", 100)))
+                .containsExactly(Map.entry("core-accounts", "9:spent 20:100"));
+        assertThat(catalog.context(new ContextRequest(1L, 9L, "QUERY", "how much", 100))).isEmpty();
+        assertThat(catalog.context(new ContextRequest(1L, 9L, "SALE", "sold", 100))).isEmpty();
+    }
+
+    private static TenantExtensionEntity row(Long tenantId, String extensionId, boolean enabled) {
+        TenantExtensionEntity row = new TenantExtensionEntity();
+        row.setTenantId(tenantId);
+        row.setExtensionId(extensionId);
+        row.setEnabled(enabled);
+        return row;
+    }
+
+    private record Stub(String id, boolean installForNewTenant, String eventType) implements BusinessExtension {
+        @Override public ExtensionDescriptor descriptor() {
+            return new ExtensionDescriptor(id, "1.0.0", 1, id, installForNewTenant, Set.of("en-IN"), List.of());
+        }
+
+        @Override public Collection<EventCapability> events() {
+            EventCapability event = mock(EventCapability.class);
+            when(event.eventType()).thenReturn(eventType);
+            return List.of(event);
+        }
+
+        @Override public Collection<DeterministicEventRouter> deterministicRouters() {
+            return List.of(new DeterministicEventRouter() {
+                @Override public Optional<String> eventType(String text) {
+                    return text.startsWith("sold") ? Optional.of("SALE") : Optional.empty();
+                }
+
+                @Override public List<DeterministicEventCandidate> events(String text) {
+                    return text.startsWith("spent") ? List.of(new DeterministicEventCandidate("EXPENSE", Map.of("text", text))) : List.of();
+                }
+            });
+        }
+
+        @Override public Collection<ContextContributor> contextContributors() {
+            return List.of(new ContextContributor() {
+                @Override public String namespace() { return id + "-accounts"; }
+                @Override public Set<String> eventTypes() { return Set.of(eventType); }
+                @Override public Object contribute(Long tenantId, Long userId) { return "all"; }
+                @Override public Object contribute(ContextRequest request) {
+                    return request.userId() + ":" + request.message() + ":" + request.tokenBudget();
+                }
+            });
+        }
+
+        @Override public Collection<InterpretationPromptContributor> promptContributors() {
+            return List.of(() -> id + " instructions");
+        }
+
+        @Override public String help(String locale) {
+            return id + " help " + locale;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.apps.deen_sa.conversation.ConversationContext;
 import com.apps.deen_sa.conversation.SpeechStatus;
 import com.apps.deen_sa.conversation.interpretation.EventPatch;
 import com.apps.deen_sa.finance.expense.ExpenseCategoryResolver;
+import com.apps.deen_sa.finance.ledger.LedgerVersions;
 import com.apps.deen_sa.finance.legacy.state.StateChangeRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -24,7 +25,8 @@ class BudgetSetHandlerConfirmationTest {
     private final MonthlyBudgetRepository budgets = mock(MonthlyBudgetRepository.class);
     private final ExpenseCategoryResolver categories = mock(ExpenseCategoryResolver.class);
     private final StateChangeRepository expenses = mock(StateChangeRepository.class);
-    private final BudgetSetHandler handler = new BudgetSetHandler(budgets, categories, expenses);
+    private final BudgetSetHandler handler = new BudgetSetHandler(budgets, categories, expenses,
+            mock(LedgerVersions.class));
     private final ConversationContext context = new ConversationContext();
 
     @BeforeEach
@@ -0,0 +1,71 @@
+package com.apps.deen_sa.finance.budget;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BudgetSpendCountersTest {
+    private final BudgetSpendCounterRepository repository = mock(BudgetSpendCounterRepository.class);
+    private final BudgetSpendCounters counters = new BudgetSpendCounters(repository);
+    private final LocalDate april = LocalDate.parse("2026-04-01");
+
+    @Test
+    void countsAnExpenseOnceForEachDistinctBudgetScope() {
+        counters.add("7", LocalDate.parse("2026-04-18"), "Food", "Groceries", new BigDecimal("300"), 1);
+        counters.add("7", LocalDate.parse("2026-04-18"), "Food", "food", new BigDecimal("50"), 1);
+
+        verify(repository).add("7", "food", april, new BigDecimal("300"), 1);
+        verify(repository).add("7", "groceries", april, new BigDecimal("300"), 1);
+        verify(repository).add("7", "food", april, new BigDecimal("50"), 1);
+        verify(repository, times(2)).lockUser("7");
+        verify(repository, never()).pruneEmpty(anyString(), any());
+    }
+
+    @Test
+    void reconciliationOverwritesDriftedAndMissingCountersOnly() {
+        when(repository.computeMonth(eq("7"), any(Instant.class), any(Instant.class))).thenReturn(List.of(
+                new Object[]{"food", new BigDecimal("350.00"), 2L},
+                new Object[]{"groceries", new BigDecimal("300.00"), 1L},
+                new Object[]{"travel", new BigDecimal("90.00"), 1L}));
+        when(repository.findByUserIdAndMonthStart("7", april)).thenReturn(List.of(
+                counter("food", "350.00", 2), counter("groceries", "280.00", 1), counter("rent", "900.00", 1)));
+
+        int repaired = counters.reconcile("7", YearMonth.of(2026, 4), ZoneId.of("Asia/Kolkata"));
+
+        assertThat(repaired).isEqualTo(3);
+        InOrder order = inOrder(repository);
+        order.verify(repository).lockUser("7");
+        order.verify(repository).computeMonth(eq("7"), any(Instant.class), any(Instant.class));
+        verify(repository).overwrite("7", "groceries", april, new BigDecimal("300.00"), 1);
+        verify(repository).overwrite("7", "rent", april, BigDecimal.ZERO, 0);
+        verify(repository).overwrite("7", "travel", april, new BigDecimal("90.00"), 1);
+        verify(repository, never()).overwrite(eq("7"), eq("food"), any(), any(), anyInt());
+        verify(repository).pruneEmpty("7", april);
+    }
+
+    private BudgetSpendCounterEntity counter(String scope, String spent, int entries) {
+        BudgetSpendCounterEntity value = new BudgetSpendCounterEntity();
+        value.setScope(scope);
+        value.setSpent(new BigDecimal(spent));
+        value.setEntryCount(entries);
+        return value;
+    }
+}
@@ -35,6 +35,23 @@ class ExpenseCategoryResolverTest {
         assertThat(expense.getSubcategory()).isEqualTo("Groceries");
     }
 
+    @Test
+    void localResolutionUsesAliasesAndLeavesUnknownMerchantsUncategorised() {
+        ExpenseCategoryResolver resolver = new ExpenseCategoryResolver(taxonomy, matcherMustNotRun());
+        ExpenseDto known = new ExpenseDto();
+        known.setMerchantName("SWIGGY");
+        ExpenseDto unknown = new ExpenseDto();
+        unknown.setMerchantName("RAMESH KUMAR");
+
+        resolver.canonicalizeLocally(known, "UPI/DR/412345678901/SWIGGY/YESB/swiggy@yesbank/Payment");
+        resolver.canonicalizeLocally(unknown, "UPI/DR/412345678902/RAMESH KUMAR/SBIN/ramesh@oksbi/Payment");
+
+        assertThat(known.getSubcategory()).isEqualTo("Eating Out");
+        assertThat(known.getCategory()).isEqualTo("Food & Dining");
+        assertThat(unknown.getCategory()).isNull();
+        assertThat(unknown.getSubcategory()).isNull();
+    }
+
     @Test
     void rejectsInventedModelLabelsInsteadOfPersistingFreeText() {
         ExpenseCategoryResolver resolver = new ExpenseCategoryResolver(taxonomy, matcher("something unusual", "Made Up"));
@@ -244,7 +261,7 @@ class ExpenseCategoryResolverTest {
     }
 
     private TagSemanticMatcher matcherMustNotRun() {
-        return new TagSemanticMatcher(null, null) {
+        return new TagSemanticMatcher(null, null, null) {
             @Override public Map<String, String> match(List<String> canonical, List<String> values) {
                 throw new AssertionError("Configured aliases must resolve without a model call");
             }
@@ -252,7 +269,7 @@ class ExpenseCategoryResolverTest {
     }
 
     private TagSemanticMatcher matcher(String raw, String resolved) {
-        return new TagSemanticMatcher(null, null) {
+        return new TagSemanticMatcher(null, null, null) {
             @Override public Map<String, String> match(List<String> canonical, List<String> values) {
                 assertThat(canonical).contains("Groceries", "Fuel", "Medicines");
                 return Map.of(raw, resolved);
@@ -261,7 +278,7 @@ class ExpenseCategoryResolverTest {
     }
 
     private TagSemanticMatcher matcherWithin(String raw, String resolved) {
-        return new TagSemanticMatcher(null, null) {
+        return new TagSemanticMatcher(null, null, null) {
             @Override public Map<String, String> match(List<String> canonical, List<String> values) {
                 assertThat(canonical).containsExactlyInAnyOrder(
                         "Groceries", "Eating Out", "Snacks & Beverages", "Celebration Meal/Home Cooked");
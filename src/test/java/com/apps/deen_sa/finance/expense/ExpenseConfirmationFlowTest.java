@@ -16,6 +16,7 @@ import com.apps.deen_sa.finance.legacy.state.StateChangeEntity;
 import com.apps.deen_sa.finance.legacy.state.StateChangeRepository;
 import com.apps.deen_sa.finance.legacy.state.StateContainerEntity;
 import com.apps.deen_sa.finance.legacy.state.StateContainerService;
+import com.apps.deen_sa.finance.rollup.DailyRollupService;
 import com.apps.deen_sa.llm.impl.ExpenseClassifier;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -52,7 +53,7 @@ class ExpenseConfirmationFlowTest {
         handler = new ExpenseHandler(
                 mock(ExpenseClassifier.class), repository, containers, completeness,
                 mock(AdjustmentCommandFactory.class), mock(StateMutationService.class), normalizer,
-                new ObjectMapper().findAndRegisterModules(), budgets, enrichment);
+                new ObjectMapper().findAndRegisterModules(), budgets, enrichment, mock(DailyRollupService.class));
         context = new ConversationContext();
         context.setUserId(7L);
         when(normalizer.normalize(any(ExpenseDto.class), anyString(), any(ConversationContext.class)))
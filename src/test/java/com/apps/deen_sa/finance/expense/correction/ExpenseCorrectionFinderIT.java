@@ -0,0 +1,205 @@
+package com.apps.deen_sa.finance.expense.correction;
+
+import com.apps.deen_sa.conversation.AppUserService;
+import com.apps.deen_sa.finance.legacy.state.CompletenessLevelEnum;
+import com.apps.deen_sa.finance.legacy.state.StateChangeEntity;
+import com.apps.deen_sa.finance.legacy.state.StateChangeRepository;
+import com.apps.deen_sa.finance.legacy.state.StateChangeTypeEnum;
+import com.apps.deen_sa.finance.legacy.state.StateContainerEntity;
+import com.apps.deen_sa.finance.legacy.state.StateContainerRepository;
+import com.apps.deen_sa.integration.PostgresTestContainerInitializer;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The correction queries against V12: keyset pages, word and trigram search, and the amount and
+ * account filters. The plans are checked the way the driver runs a statement after its fifth
+ * execution, as a generic plan with every parameter unknown.
+ */
+@SpringBootTest(properties = "finance.expense-corrections.page-size=5")
+@ActiveProfiles("test")
+@ContextConfiguration(initializers = PostgresTestContainerInitializer.class)
+class ExpenseCorrectionFinderIT {
+    private static final Map<String, String> PARAMETER_TYPES = Map.ofEntries(
+            Map.entry("userId", "varchar"), Map.entry("search", "text"), Map.entry("beforeTime", "timestamp"),
+            Map.entry("beforeId", "bigint"), Map.entry("periodStart", "timestamp"), Map.entry("periodEnd", "timestamp"),
+            Map.entry("category", "varchar"), Map.entry("subcategory", "varchar"), Map.entry("minAmount", "numeric"),
+            Map.entry("maxAmount", "numeric"), Map.entry("sourceAccount", "varchar"), Map.entry("limit", "int"));
+
+    @Autowired private Flyway flyway;
+    @Autowired private ExpenseCorrectionFinder finder;
+    @Autowired private StateChangeRepository changes;
+    @Autowired private StateContainerRepository containers;
+    @Autowired private AppUserService users;
+    @Autowired private JdbcTemplate jdbc;
+
+    private String userId;
+
+    @BeforeEach
+    void resetDatabase() {
+        flyway.clean();
+        flyway.migrate();
+        userId = users.resolve("REST", "corrections").getId().toString();
+    }
+
+    @Test
+    void keysetPagesVisitEveryExpenseOnceNewestFirst() {
+        List<Long> saved = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            // Pairs share a timestamp, so the id has to break the tie between pages.
+            saved.add(changes.save(expense("2026-04-%02dT10:00:00Z".formatted(1 + i / 2), "100.00", "Tea Stall",
+                    null)).getId());
+        }
+        ExpenseCorrectionState state = new ExpenseCorrectionState();
+
+        List<Long> seen = new ArrayList<>();
+        for (ExpenseBrowsePage page = finder.find(userId, state); ; page = finder.find(userId, state)) {
+            assertThat(page.transactions()).hasSizeLessThanOrEqualTo(5);
+            page.transactions().forEach(row -> seen.add(row.getId()));
+            if (page.nextCursor() == null) break;
+            state.setBeforeTime(page.nextCursor().txTime());
+            state.setBeforeId(page.nextCursor().id());
+        }
+
+        assertThat(seen).containsExactlyElementsOf(saved.reversed());
+    }
+
+    @Test
+    void searchMatchesWordsAndMisspellings() {
+        StateChangeEntity plumber = changes.save(expense("2026-04-01T10:00:00Z", "800.00", "Ravi Plumber", null));
+        changes.save(expense("2026-04-02T10:00:00Z", "40.00", "Tea Stall", null));
+        ExpenseCorrectionState state = new ExpenseCorrectionState();
+
+        state.setSearchTerm("plumber");
+        assertThat(ids(finder.find(userId, state))).containsExactly(plumber.getId());
+
+        state.setSearchTerm("plumbr");
+        assertThat(ids(finder.find(userId, state))).containsExactly(plumber.getId());
+    }
+
+    @Test
+    void amountAndAccountFiltersNarrowThePage() {
+        StateContainerEntity hdfc = containers.save(bankAccount("HDFC Savings"));
+        StateChangeEntity match = changes.save(expense("2026-04-01T10:00:00Z", "500.00", "Grocer", hdfc.getId()));
+        changes.save(expense("2026-04-02T10:00:00Z", "5000.00", "Grocer", hdfc.getId()));
+        changes.save(expense("2026-04-03T10:00:00Z", "500.00", "Grocer", null));
+        ExpenseCorrectionState state = new ExpenseCorrectionState();
+        state.setMinAmount(new BigDecimal("100"));
+        state.setMaxAmount(new BigDecimal("1000"));
+        state.setSourceAccount("hdfc savings");
+
+        assertThat(ids(finder.find(userId, state))).containsExactly(match.getId());
+
+        state.setSourceAccount("bank_account");
+        state.setSearchTerm("grocer");
+        assertThat(ids(finder.find(userId, state))).containsExactly(match.getId());
+    }
+
+    @Test
+    void genericPlansKeepTheCursorAndTheSearchOnV12Indexes() {
+        jdbc.update("""
+                INSERT INTO state_change (user_id, transaction_type, amount, category, subcategory, main_entity,
+                                          tx_time, raw_text, created_at, updated_at, completeness_level)
+                SELECT 'bulk', 'EXPENSE', 10 + g % 500, 'Food', 'Eating Out',
+                       CASE WHEN g % 5000 = 0 THEN 'Ravi Plumber' ELSE 'Tea Stall' END,
+                       TIMESTAMP '2025-01-01' + g * INTERVAL '1 minute', 'paid at the stall',
+                       now(), now(), 'OPERATIONAL'
+                FROM generate_series(1, 50000) g
+                """);
+        jdbc.execute("ANALYZE state_change");
+        String cursor = "'bulk', TIMESTAMP '2025-01-20', 20000, NULL, NULL, NULL, NULL, NULL, NULL, NULL";
+
+        List<String> page = genericPlan("pageActiveExpenses", cursor + ", 6");
+        assertThat(page).anyMatch(line -> line.contains("idx_state_change_active_expense_time"));
+        assertThat(page).anyMatch(line -> line.contains("Index Cond") && line.contains("tx_time"));
+
+        List<String> search = genericPlan("searchActiveExpenses",
+                "'bulk', 'plumber', TIMESTAMP '9999-12-31', 9223372036854775807, NULL, NULL, NULL, NULL, NULL, NULL, NULL, 5000");
+        assertThat(search).anyMatch(line -> line.contains("idx_state_change_expense_search_fts"));
+        assertThat(search).anyMatch(line -> line.contains("idx_state_change_expense_search_trgm"));
+        assertThat(search).noneMatch(line -> line.contains("Seq Scan on state_change"));
+    }
+
+    /** EXPLAIN of the repository method's own SQL, prepared with its named parameters and forced generic. */
+    private List<String> genericPlan(String repositoryMethod, String arguments) {
+        Method method = Arrays.stream(StateChangeRepository.class.getMethods())
+                .filter(candidate -> candidate.getName().equals(repositoryMethod)).findFirst().orElseThrow();
+        String sql = method.getAnnotation(Query.class).value();
+        Set<String> names = new LinkedHashSet<>();
+        Matcher parameter = Pattern.compile(":(\\w+)").matcher(sql);
+        while (parameter.find()) names.add(parameter.group(1));
+        List<String> ordered = List.copyOf(names);
+        String positional = Pattern.compile(":(\\w+)").matcher(sql)
+                .replaceAll(found -> "\\$" + (ordered.indexOf(found.group(1)) + 1));
+        String types = String.join(", ", ordered.stream().map(PARAMETER_TYPES::get).toList());
+
+        return jdbc.execute((ConnectionCallback<List<String>>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET plan_cache_mode = force_generic_plan");
+                statement.execute("PREPARE correction_page(" + types + ") AS " + positional);
+                List<String> plan = new ArrayList<>();
+                try (ResultSet rows = statement.executeQuery("EXPLAIN EXECUTE correction_page(" + arguments + ")")) {
+                    while (rows.next()) plan.add(rows.getString(1));
+                } finally {
+                    statement.execute("DEALLOCATE correction_page");
+                    statement.execute("RESET plan_cache_mode");
+                }
+                return plan;
+            }
+        });
+    }
+
+    private static List<Long> ids(ExpenseBrowsePage page) {
+        return page.transactions().stream().map(StateChangeEntity::getId).toList();
+    }
+
+    private StateChangeEntity expense(String time, String amount, String merchant, Long sourceContainerId) {
+        StateChangeEntity value = new StateChangeEntity();
+        value.setUserId(userId);
+        value.setTransactionType(StateChangeTypeEnum.EXPENSE);
+        value.setAmount(new BigDecimal(amount));
+        value.setCategory("Home");
+        value.setMainEntity(merchant);
+        value.setTimestamp(Instant.parse(time));
+        value.setSourceContainerId(sourceContainerId);
+        value.setCompletenessLevel(CompletenessLevelEnum.OPERATIONAL);
+        return value;
+    }
+
+    private StateContainerEntity bankAccount(String name) {
+        StateContainerEntity value = new StateContainerEntity();
+        value.setOwnerType("USER");
+        value.setOwnerId(Long.valueOf(userId));
+        value.setContainerType("BANK_ACCOUNT");
+        value.setName(name);
+        value.setStatus("ACTIVE");
+        value.setCurrency("INR");
+        value.setCurrentValue(BigDecimal.ZERO);
+        value.setAvailableValue(BigDecimal.ZERO);
+        return value;
+    }
+}
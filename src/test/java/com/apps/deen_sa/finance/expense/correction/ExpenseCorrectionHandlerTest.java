@@ -72,6 +72,40 @@ class ExpenseCorrectionHandlerTest {
         assertThat(state.getValue().getAction()).isEqualTo(CorrectionAction.EDIT);
     }
 
+    @Test
+    void searchTextAmountRangeAndAccountNarrowTheFinderQuery() {
+        EventPatch search = new EventPatch(null, "EXPENSE_CORRECTION", java.util.Map.of("correctionAction", "DELETE",
+                "searchText", "swiggy", "minAmount", "450", "maxAmount", 450, "sourceAccount", "HDFC"),
+                List.of(), List.of(), List.of());
+
+        handler.handleInterpreted(search, "delete the swiggy order of 450 from HDFC", context);
+
+        org.mockito.ArgumentCaptor<ExpenseCorrectionState> state =
+                org.mockito.ArgumentCaptor.forClass(ExpenseCorrectionState.class);
+        verify(finder).find(org.mockito.ArgumentMatchers.eq("7"), state.capture());
+        assertThat(state.getValue().getSearchTerm()).isEqualTo("swiggy");
+        assertThat(state.getValue().getMinAmount()).isEqualByComparingTo("450");
+        assertThat(state.getValue().getMaxAmount()).isEqualByComparingTo("450");
+        assertThat(state.getValue().getSourceAccount()).isEqualTo("HDFC");
+    }
+
+    @Test
+    void showOlderContinuesFromTheLastRowsTimeAndId() {
+        StateChangeEntity second = new StateChangeEntity();
+        second.setId(43L); second.setAmount(new BigDecimal("300")); second.setMainEntity("Groceries");
+        second.setTimestamp(Instant.parse("2026-08-13T08:00:00Z"));
+        when(finder.find(org.mockito.ArgumentMatchers.eq("7"), org.mockito.ArgumentMatchers.any()))
+                .thenReturn(new ExpenseBrowsePage(List.of(second, expense),
+                        new ExpenseBrowsePage.Cursor(expense.getTimestamp(), expense.getId())));
+
+        SpeechResult browse = handler.handleInterpreted(event("EDIT", null, null), "edit an expense", context);
+
+        ExpenseCorrectionState state = (ExpenseCorrectionState) context.getPartialObject();
+        assertThat(browse.getActions()).extracting("title").contains("Show older");
+        assertThat(state.getBeforeTime()).isEqualTo(expense.getTimestamp());
+        assertThat(state.getBeforeId()).isEqualTo(42L);
+    }
+
     @Test
     void deleteRequiresExplicitConfirmationBeforeVoiding() {
         handler.handleInterpreted(event("DELETE", null, null), "delete a transaction", context);
@@ -0,0 +1,195 @@
+package com.apps.deen_sa.finance.expense.statement;
+
+import com.apps.deen_sa.controller.StatementImportController;
+import com.apps.deen_sa.conversation.AppUserService;
+import com.apps.deen_sa.finance.legacy.state.StateContainerEntity;
+import com.apps.deen_sa.finance.legacy.state.StateContainerRepository;
+import com.apps.deen_sa.finance.legacy.state.StateContainerService;
+import com.apps.deen_sa.integration.PostgresTestContainerInitializer;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.io.ByteArrayInputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statement imports against Postgres: re-importing a statement adds nothing, balances and rollups
+ * move once per batch by the batch total, and the first batch settles whether the amounts are signed,
+ * so a signed statement's credits are skipped. The import rate of a long statement is printed; it is
+ * only asserted on a perf run, with a floor that suits the machine:
+ *
+ * <pre>
+ * ./mvnw verify -Pintegration -Dit.test=StatementImportIT -Dimport.min-rows-per-second=10000
+ * </pre>
+ */
+@SpringBootTest(properties = "finance.import.batch-size=500")
+@ActiveProfiles("test")
+@ContextConfiguration(initializers = PostgresTestContainerInitializer.class)
+class StatementImportIT {
+    private static final int LARGE_STATEMENT_ROWS = 100_000;
+
+    @Autowired private Flyway flyway;
+    @Autowired private ExpenseStatementImporter importer;
+    @Autowired private AppUserService users;
+    @Autowired private StateContainerRepository containers;
+    @Autowired private StateContainerService containerService;
+    @Autowired private JdbcTemplate jdbc;
+    @Autowired private StatementImportController uploads;
+
+    private Long userId;
+
+    @BeforeEach
+    void resetDatabase() {
+        flyway.clean();
+        flyway.migrate();
+        userId = users.resolve("REST", "statement-import").getId();
+    }
+
+    @Test
+    void reimportingAStatementAddsNothingAndMovesTheBalanceOnce() throws Exception {
+        StateContainerEntity account = containers.save(bankAccount("HDFC Savings", "50000"));
+        containerService.declareBalance(account, "OPENING_BALANCE");
+        String statement = """
+                Date,Narration,Withdrawal Amt.,Deposit Amt.
+                01/04/26,UPI/DR/412345678901/SWIGGY/YESB/swiggy@yesbank/Payment,450.00,
+                01/04/26,UPI/DR/412345678902/SWIGGY/YESB/swiggy@yesbank/Payment,450.00,
+                02/04/26,NEFT CR-SALARY ACME,,75000.00
+                03/04/26,POS 4321XXXXXXXX5678 AMAZON PAY INDIA,"1,299.00",
+                bad date,UPI/DR/412345678903/ZEPTO/YESB/zepto@ybl/Payment,99.00,
+                """;
+
+        StatementImportReport first = importer.importCsv(userId, "hdfc savings", new StringReader(statement));
+        StatementImportReport second = importer.importCsv(userId, "hdfc savings", new StringReader(statement));
+
+        assertThat(first.imported()).isEqualTo(3);
+        assertThat(first.skipped()).isEqualTo(1);
+        assertThat(first.rejected()).isEqualTo(1);
+        assertThat(first.firstRejectedLine()).isEqualTo(6);
+        assertThat(first.sourceAccount()).isEqualTo("HDFC Savings");
+        assertThat(second.imported()).isZero();
+        assertThat(second.duplicates()).isEqualTo(3);
+        assertThat(containers.findById(account.getId()).orElseThrow().getCurrentValue()).isEqualByComparingTo("47801");
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM state_change WHERE financially_applied", Long.class))
+                .isEqualTo(3);
+        assertThat(jdbc.queryForObject("""
+                SELECT entry_count FROM fin_daily_rollup
+                WHERE user_id = ? AND local_date = ? AND subcategory = 'Eating Out'
+                """, Integer.class, userId.toString(), LocalDate.parse("2026-04-01"))).isEqualTo(2);
+    }
+
+    @Test
+    void aSignedStatementSkipsCreditsReadBeforeItsFirstDebit() throws Exception {
+        String statement = """
+                Date,Description,Amount
+                2026-04-01,NEFT CR-SALARY ACME,75000.00
+                2026-04-02,UPI/DR/412345678901/SWIGGY/YESB/swiggy@yesbank/Payment,-450.00
+                2026-04-03,UPI/CR/412345678902/RAHUL SHARMA/YESB/rahul@ybl/Payment,1000.00
+                """;
+
+        StatementImportReport report = importer.importCsv(userId, null, new StringReader(statement));
+
+        assertThat(report.imported()).isOne();
+        assertThat(report.skipped()).isEqualTo(2);
+        assertThat(jdbc.queryForObject("SELECT amount FROM state_change WHERE user_id = ?", BigDecimal.class,
+                userId.toString())).isEqualByComparingTo("450.00");
+    }
+
+    @Test
+    void theSignIsSettledByTheFirstBatchSoCommittedRowsAreNeverReread() throws Exception {
+        StringBuilder statement = new StringBuilder("Date,Description,Amount\n");
+        for (int i = 0; i < 500; i++) statement.append("2026-04-01,SHOP ").append(i).append(",10.00\n");
+        statement.append("2026-04-02,REVERSAL,-10.00\n");
+        statement.append("2026-04-03,SWIGGY,450.00\n");
+
+        StatementImportReport report = importer.importCsv(userId, null, new StringReader(statement.toString()));
+
+        assertThat(report.imported()).isEqualTo(501);
+        assertThat(report.rejected()).isOne();
+        assertThat(report.firstRejectedLine()).isEqualTo(502L);
+    }
+
+    @Test
+    void theUploadEndpointIsOffByDefault() throws Exception {
+        var response = uploads.importStatement(null, new ByteArrayInputStream(
+                "Date,Description,Amount\n2026-04-01,SWIGGY,-450.00\n".getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM state_change", Long.class)).isZero();
+    }
+
+    @Test
+    void aLongStatementImportsInFull() throws Exception {
+        double minRowsPerSecond = Double.parseDouble(System.getProperty("import.min-rows-per-second", "0"));
+
+        StatementImportReport report = importer.importCsv(userId, null, statement(LARGE_STATEMENT_ROWS));
+
+        System.out.printf("Imported %d statement rows in %d ms (%.0f rows/s)%n", report.imported(),
+                report.elapsed().toMillis(), report.rowsPerSecond());
+        assertThat(report.imported()).isEqualTo(LARGE_STATEMENT_ROWS);
+        assertThat(jdbc.queryForObject("SELECT SUM(amount) FROM fin_daily_rollup WHERE user_id = ?",
+                BigDecimal.class, userId.toString())).isEqualByComparingTo(expectedTotal(LARGE_STATEMENT_ROWS));
+        assertThat(report.rowsPerSecond()).as("rows per second").isGreaterThanOrEqualTo(minRowsPerSecond);
+    }
+
+    /** A generated statement streamed one line at a time, so the test itself never holds the file. */
+    private static Reader statement(int rows) {
+        return new Reader() {
+            private final String[] merchants = {"SWIGGY", "ZOMATO", "UBER INDIA", "BIGBASKET", "CORNER TEA STALL"};
+            private String line = "Date,Narration,Amount\n";
+            private int next;
+            private int position;
+
+            @Override
+            public int read(char[] buffer, int offset, int length) {
+                if (position == line.length()) {
+                    if (next == rows) return -1;
+                    LocalDate day = LocalDate.parse("2025-01-01").plusDays(next % 365);
+                    line = "%s,UPI/DR/%012d/%s/YESB/pay@ybl/Payment,%d.%02d%n".formatted(day, next,
+                            merchants[next % merchants.length], 10 + next % 990, next % 100);
+                    next++;
+                    position = 0;
+                }
+                int count = Math.min(length, line.length() - position);
+                line.getChars(position, position + count, buffer, offset);
+                position += count;
+                return count;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    private static BigDecimal expectedTotal(int rows) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < rows; i++) total = total.add(new BigDecimal((10 + i % 990) + "." + "%02d".formatted(i % 100)));
+        return total;
+    }
+
+    private StateContainerEntity bankAccount(String name, String balance) {
+        StateContainerEntity value = new StateContainerEntity();
+        value.setOwnerType("USER");
+        value.setOwnerId(userId);
+        value.setContainerType("BANK_ACCOUNT");
+        value.setName(name);
+        value.setStatus("ACTIVE");
+        value.setCurrency("INR");
+        value.setCurrentValue(new BigDecimal(balance));
+        value.setAvailableValue(new BigDecimal(balance));
+        return value;
+    }
+}
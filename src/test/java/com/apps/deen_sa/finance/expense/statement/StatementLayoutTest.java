@@ -0,0 +1,129 @@
+package com.apps.deen_sa.finance.expense.statement;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class StatementLayoutTest {
+
+    @Test
+    void readsQuotedFieldsWithCommasQuotesAndLineBreaks() throws IOException {
+        StatementCsvReader reader = new StatementCsvReader(new StringReader(
+                "\uFEFFDate,Narration,Amount\r\n01/04/2026, \"Dinner, \"\"Toit\"\"\nIndiranagar\",\"1,250.00\"\n\n"));
+
+        assertThat(reader.next()).containsExactly("Date", "Narration", "Amount");
+        assertThat(reader.next()).containsExactly("01/04/2026", "Dinner, \"Toit\"\nIndiranagar", "1,250.00");
+        assertThat(reader.next()).containsExactly("");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void bankStatementWithSeparateDebitAndCreditColumnsImportsOnlyDebits() throws IOException {
+        List<StatementRow> rows = rows("""
+                Account Number,XXXXXXXX1234
+                Statement From,01/04/2026,To,30/04/2026
+                Date,Narration,Chq./Ref.No.,Value Dt,Withdrawal Amt.,Deposit Amt.,Closing Balance
+                01/04/26,UPI-SWIGGY-SWIGGY@ICICI-ICIC0000001-412345678901-PAYMENT,0000412345678901,01/04/26,450.00,,9550.00
+                02/04/26,NEFT CR-SALARY ACME,0000000000000001,02/04/26,,50000.00,59550.00
+                03/04/26,POS 4321XXXXXXXX5678 AMAZON PAY INDIA,0000000000000002,03/04/26,"1,299.00",,58251.00
+                """);
+
+        assertThat(rows).extracting(StatementRow::date, StatementRow::merchant)
+                .containsExactly(
+                        tuple(LocalDate.parse("2026-04-01"), "SWIGGY"),
+                        tuple(LocalDate.parse("2026-04-03"), "AMAZON PAY INDIA"));
+        assertThat(rows.get(1).amount()).isEqualByComparingTo("1299.00");
+    }
+
+    @Test
+    void upiExportWithOneSignedAmountColumnSkipsCredits() throws IOException {
+        List<StatementRow> rows = rows("""
+                Transaction Date,Paid To,Type,Amount
+                2026-04-05 19:42:10,Blue Tokai Coffee,DEBIT,₹ 320
+                2026-04-05 21:00:00,Rahul Sharma,CREDIT,₹ 1000
+                06 Apr 2026,Uber India,Debit,-212.40
+                """);
+
+        assertThat(rows).extracting(StatementRow::merchant).containsExactly("Blue Tokai Coffee", "Uber India");
+        assertThat(rows).extracting(StatementRow::amount)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("320"), new BigDecimal("212.40"));
+        assertThat(rows.get(1).date()).isEqualTo(LocalDate.parse("2026-04-06"));
+    }
+
+    @Test
+    void aSignedAmountColumnWithoutATypeColumnImportsOnlyNegativeAmounts() {
+        StatementLayout layout = StatementLayout.detect(List.of("Date", "Description", "Amount")).orElseThrow();
+
+        StatementRow salary = layout.read(List.of("2026-04-01", "NEFT CR-SALARY ACME", "75,000.00"), 2);
+        StatementRow swiggy = layout.read(List.of("2026-04-02", "SWIGGY", "-450.00"), 3);
+
+        assertThat(salary.assumedDebit()).isTrue();
+        assertThat(swiggy.assumedDebit()).isFalse();
+        assertThat(swiggy.amount()).isEqualByComparingTo("450.00");
+        assertThat(layout.signed()).isTrue();
+        assertThat(layout.read(List.of("2026-04-03", "REFUND AMAZON", "1,299.00"), 4)).isNull();
+    }
+
+    @Test
+    void aStatementSettledAsUnsignedKeepsItsDebitsAndRejectsALaterNegativeAmount() {
+        StatementLayout layout = StatementLayout.detect(List.of("Date", "Description", "Amount")).orElseThrow();
+        layout.read(List.of("2026-04-01", "SWIGGY", "450.00"), 2);
+
+        assertThat(layout.settleSign()).isFalse();
+        assertThat(layout.read(List.of("2026-04-02", "ZEPTO", "99.00"), 3).assumedDebit()).isFalse();
+        assertThatThrownBy(() -> layout.read(List.of("2026-04-03", "UBER", "-212.40"), 4))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void unreadableRowsAreRejectedWithoutStoppingTheFile() {
+        StatementLayout layout = StatementLayout.detect(List.of("Date", "Description", "Amount")).orElseThrow();
+
+        assertThatThrownBy(() -> layout.read(List.of("yesterday", "Tea", "20"), 2))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(layout.read(List.of("07-04-2026", "Tea", "20 Dr"), 3).amount()).isEqualByComparingTo("20");
+        assertThat(layout.read(List.of("", "Closing balance", ""), 4)).isNull();
+    }
+
+    @Test
+    void recordsWithoutADateAndAmountAreNotMistakenForAHeader() {
+        assertThat(StatementLayout.detect(List.of("Account Number", "XXXXXXXX1234"))).isEmpty();
+        assertThat(StatementLayout.detect(List.of("Txn Date", "Remarks", "Debit", "Credit"))).isPresent();
+    }
+
+    @Test
+    void merchantIsTheFirstNarrationSegmentThatIsNotARailOrReference() {
+        assertThat(StatementLayout.merchantFrom("UPI/DR/412345678901/ZEPTO MARKETPLACE/YESB/zepto@ybl/Payment"))
+                .isEqualTo("ZEPTO MARKETPLACE");
+        assertThat(StatementLayout.merchantFrom("NEFT DR-HDFC0001234-ACME CORP-NETBANK")).isEqualTo("ACME CORP");
+        assertThat(StatementLayout.merchantFrom("412345678901")).isEqualTo("412345678901");
+    }
+
+    private static List<StatementRow> rows(String csv) throws IOException {
+        StatementCsvReader reader = new StatementCsvReader(new StringReader(csv));
+        StatementLayout layout = null;
+        List<StatementRow> rows = new ArrayList<>();
+        long line = 0;
+        for (List<String> record = reader.next(); record != null; record = reader.next()) {
+            line++;
+            if (layout == null) {
+                layout = StatementLayout.detect(record).orElse(null);
+                continue;
+            }
+            if (record.size() == 1 && record.getFirst().isEmpty()) continue;
+            StatementRow row = layout.read(record, line);
+            if (row != null) rows.add(row);
+        }
+        return rows;
+    }
+}
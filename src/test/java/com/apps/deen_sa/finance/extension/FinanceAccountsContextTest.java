@@ -0,0 +1,100 @@
+package com.apps.deen_sa.finance.extension;
+
+import com.apps.deen_sa.extension.api.ContextRequest;
+import com.apps.deen_sa.finance.legacy.state.StateContainerEntity;
+import com.apps.deen_sa.finance.legacy.state.StateContainerService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FinanceAccountsContextTest {
+    private static final String[][] ACCOUNTS = {
+            {"HDFC Savings", "BANK"}, {"ICICI Amazon Pay Card", "CREDIT"}, {"Cash Wallet", "CASH"},
+            {"SBI Salary", "BANK"}, {"Axis Flipkart Card", "CREDIT"}, {"Kotak 811", "BANK"},
+            {"Paytm Wallet", "CASH"}, {"HDFC Millennia Card", "CREDIT"}, {"Canara Joint", "BANK"},
+            {"IDFC First Wealth Card", "CREDIT"}, {"Federal Bank NRE", "BANK"}, {"Petty Cash Office", "CASH"},
+            {"Yes Bank Savings", "BANK"}, {"OneCard Metal", "CREDIT"}, {"AU Small Finance", "BANK"}};
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final StateContainerService containers = mock(StateContainerService.class);
+    private final FinanceAccountsContext accounts = new FinanceAccountsContext(containers);
+
+    FinanceAccountsContextTest() {
+        List<StateContainerEntity> active = new ArrayList<>();
+        for (int index = 0; index < ACCOUNTS.length; index++) {
+            StateContainerEntity account = new StateContainerEntity();
+            account.setId((long) index + 1);
+            account.setName(ACCOUNTS[index][0]);
+            account.setContainerType(ACCOUNTS[index][1]);
+            account.setLastActivityAt(Instant.parse("2026-01-01T00:00:00Z").plusSeconds(3600L * index));
+            active.add(account);
+        }
+        when(containers.getActiveContainers(1L)).thenReturn(active);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void accountsNamedInTheMessageComeFirstAndRecencyFillsTheBudget() {
+        var selected = (List<Map<String, Object>>) accounts.contribute(new ContextRequest(1L, 1L, "EXPENSE",
+                "paid 900 with my millenia card", 60));
+
+        // Millennia matches by name and kind; the other named cards match "card", newest first.
+        assertThat(selected).extracting(account -> account.get("name"))
+                .containsExactly("HDFC Millennia Card", "IDFC First Wealth Card", "Axis Flipkart Card");
+    }
+
+    @Test
+    void theLegacyContributionStillListsEveryAccount() {
+        assertThat((List<?>) accounts.contribute(1L, 1L)).hasSize(ACCOUNTS.length);
+    }
+
+    /**
+     * Before, every model call of a turn carried every account. Now routing carries none, queries and
+     * commands carry none, and an extraction carries what fits the budget. Tokens are estimated as
+     * four characters of JSON each, not counted with the model's tokenizer.
+     */
+    @Test
+    void theEvalCorpusSendsFewerContextTokens() throws Exception {
+        int before = 0;
+        int after = 0;
+        for (JsonNode turn : corpus()) {
+            String type = turn.path("expectedTurnType").asText();
+            String intent = turn.path("expectedIntent").asText();
+            boolean pending = type.equals("ANSWER_TO_PENDING_EVENT");
+            boolean extracts = !type.equals("QUERY") && !type.equals("COMMAND");
+            int everyAccount = estimatedTokens(accounts.contribute(1L, 1L));
+            before += everyAccount * ((pending ? 0 : 1) + (extracts ? 1 : 0));
+            if (extracts && FinanceAccountsContext.EVENT_TYPES.contains(intent)) {
+                after += estimatedTokens(accounts.contribute(new ContextRequest(1L, 1L, intent,
+                        turn.path("message").asText(), 160)));
+            }
+        }
+
+        assertThat(after).isLessThan(before / 2);
+    }
+
+    private int estimatedTokens(Object context) throws Exception {
+        return mapper.writeValueAsString(context).length() / 4;
+    }
+
+    private List<JsonNode> corpus() throws Exception {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                getClass().getResourceAsStream("/semantic-evals/conversation-turns.jsonl"), StandardCharsets.UTF_8))) {
+            List<JsonNode> turns = new ArrayList<>();
+            for (String line : reader.lines().filter(line -> !line.isBlank()).toList()) turns.add(mapper.readTree(line));
+            return turns;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.apps.deen_sa.finance.ledger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class LedgerVersionsTest {
+    private final LedgerVersionRepository repository = mock(LedgerVersionRepository.class);
+    private final LedgerVersions versions = new LedgerVersions(repository, mock(PlatformTransactionManager.class));
+
+    @AfterEach
+    void clearSynchronization() {
+        TransactionSynchronizationManager.unbindResourceIfPossible(LedgerVersions.class.getName() + ".pending");
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void bumpsOncePerUserInSortedOrderInsideTheCommittingTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        versions.bump("9");
+        versions.bump("12");
+        versions.bump("9");
+        verify(repository, never()).bump(anyString());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.beforeCommit(false));
+
+        InOrder order = inOrder(repository);
+        order.verify(repository).bump("12");
+        order.verify(repository).bump("9");
+        verify(repository, times(2)).bump(anyString());
+    }
+
+    @Test
+    void aRolledBackWriteLeavesTheVersionAlone() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        versions.bump("9");
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        verify(repository, never()).bump(anyString());
+    }
+}
@@ -0,0 +1,120 @@
+package com.apps.deen_sa.finance.ledger;
+
+import com.apps.deen_sa.finance.legacy.mutation.strategy.BalanceDelta;
+import com.apps.deen_sa.finance.legacy.state.StateContainerEntity;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MovementLedgerTest {
+    private final LedgerMovementRepository movements = mock(LedgerMovementRepository.class);
+    private final LedgerBalanceSnapshotRepository snapshots = mock(LedgerBalanceSnapshotRepository.class);
+    private final MovementLedger ledger = new MovementLedger(movements, snapshots);
+
+    @Test
+    void foldMirrorsTheBalanceUpdates() {
+        assertThat(MovementLedger.fold(null, List.of(
+                movement(1, MovementKind.SET, "500", false),
+                movement(2, MovementKind.ASSET, "-120.50", false)))).isEqualByComparingTo("379.50");
+        assertThat(MovementLedger.fold(null, movement(1, MovementKind.ASSET, "10", false))).isNull();
+        assertThat(MovementLedger.fold(null, movement(1, MovementKind.LIABILITY, "300", false)))
+                .isEqualByComparingTo("300");
+        assertThat(MovementLedger.fold(new BigDecimal("100"), movement(1, MovementKind.LIABILITY, "-250", true)))
+                .isEqualByComparingTo("0");
+        assertThat(MovementLedger.fold(new BigDecimal("100"), movement(1, MovementKind.LIABILITY, "-250", false)))
+                .isEqualByComparingTo("-150");
+    }
+
+    @Test
+    void balanceAtStartsFromTheNearestSnapshotAndFoldsOnlyTheTail() {
+        Instant at = Instant.parse("2026-05-01T10:00:00Z");
+        LedgerBalanceSnapshotEntity snapshot = new LedgerBalanceSnapshotEntity();
+        snapshot.setLastMovementId(40L);
+        snapshot.setBalance(new BigDecimal("900"));
+        when(snapshots.findFirstByContainerIdAndAsOfLessThanEqualOrderByLastMovementIdDesc(3L, at))
+                .thenReturn(Optional.of(snapshot));
+        when(movements.findByContainerIdAndIdGreaterThanAndRecordedAtLessThanEqualOrderByIdAsc(3L, 40L, at))
+                .thenReturn(List.of(movement(41, MovementKind.ASSET, "-100", false)));
+
+        assertThat(ledger.balanceAt(3L, at)).isEqualByComparingTo("800");
+    }
+
+    @Test
+    void duplicateCauseIsReportedSoTheBalanceIsLeftAlone() {
+        when(movements.append(eq("state_change:9:EXPENSE:3@v1"), eq(3L), any(), eq("ASSET"), any(), anyBoolean(),
+                any(), any(), any(), any(), any())).thenReturn(0);
+        MovementCause cause = MovementCause.forTransaction(9L, "EXPENSE", 3L, "v1", Instant.now());
+
+        assertThat(ledger.append(container(3L, "100"), BalanceDelta.asset(new BigDecimal("-5")), cause)).isFalse();
+    }
+
+    @Test
+    void declaringABalanceTheLedgerAlreadyHoldsIsANoOp() {
+        when(snapshots.findFirstByContainerIdOrderByLastMovementIdDesc(3L)).thenReturn(Optional.empty());
+        when(movements.findByContainerIdAndIdGreaterThanOrderByIdAsc(3L, 0L))
+                .thenReturn(List.of(movement(1, MovementKind.SET, "100.0000", false)));
+
+        assertThat(ledger.declare(container(3L, "100"), "CONTAINER_UPDATE")).isFalse();
+        verify(movements, never()).append(anyString(), any(), any(), anyString(), any(), anyBoolean(), any(), any(),
+                any(), any(), any());
+    }
+
+    @Test
+    void snapshotLocksTheContainerBeforeReadingTheTail() {
+        when(snapshots.findFirstByContainerIdOrderByLastMovementIdDesc(3L)).thenReturn(Optional.empty());
+        when(movements.findByContainerIdAndIdGreaterThanOrderByIdAsc(3L, 0L))
+                .thenReturn(List.of(movement(1, MovementKind.SET, "100", false), movement(2, MovementKind.ASSET, "-40", false)));
+        when(snapshots.insert(eq(3L), eq(2L), any(), any())).thenReturn(1);
+
+        assertThat(ledger.snapshot(3L)).isTrue();
+
+        InOrder order = inOrder(movements, snapshots);
+        order.verify(movements).lockContainer(3L);
+        order.verify(movements).findByContainerIdAndIdGreaterThanOrderByIdAsc(3L, 0L);
+        order.verify(snapshots).insert(eq(3L), eq(2L), argThat(balance -> balance.compareTo(new BigDecimal("60")) == 0),
+                any());
+    }
+
+    @Test
+    void transactionlessCommandsNeverCollide() {
+        MovementCause first = MovementCause.forTransaction(null, "STRESS", 3L, "v1", null);
+        MovementCause second = MovementCause.forTransaction(null, "STRESS", 3L, "v1", null);
+
+        assertThat(first.idempotencyKey()).isNotEqualTo(second.idempotencyKey());
+    }
+
+    private LedgerMovementEntity movement(long id, MovementKind kind, String quantity, boolean floor) {
+        LedgerMovementEntity value = new LedgerMovementEntity();
+        value.setId(id);
+        value.setKind(kind);
+        value.setQuantity(new BigDecimal(quantity));
+        value.setFloorAtZero(floor);
+        value.setRecordedAt(Instant.parse("2026-05-01T09:00:00Z"));
+        return value;
+    }
+
+    private StateContainerEntity container(Long id, String balance) {
+        StateContainerEntity value = new StateContainerEntity();
+        value.setId(id);
+        value.setCurrency("INR");
+        value.setCurrentValue(new BigDecimal(balance));
+        value.setVersion(4L);
+        return value;
+    }
+}
@@ -0,0 +1,194 @@
+package com.apps.deen_sa.finance.legacy.mutation;
+
+import com.apps.deen_sa.dto.StateMutationCommand;
+import com.apps.deen_sa.finance.ledger.MovementLedger;
+import com.apps.deen_sa.finance.legacy.state.CompletenessLevelEnum;
+import com.apps.deen_sa.finance.legacy.state.StateChangeEntity;
+import com.apps.deen_sa.finance.legacy.state.StateChangeRepository;
+import com.apps.deen_sa.finance.legacy.state.StateChangeTypeEnum;
+import com.apps.deen_sa.finance.legacy.state.StateContainerEntity;
+import com.apps.deen_sa.finance.legacy.state.StateContainerRepository;
+import com.apps.deen_sa.finance.legacy.state.StateContainerService;
+import com.apps.deen_sa.integration.PostgresTestContainerInitializer;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Stress suite for the balance engine: many workers mutate one account from stale entity copies,
+ * and the final balance must equal the sum of every applied delta.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@ContextConfiguration(initializers = PostgresTestContainerInitializer.class)
+class StateMutationConcurrencyIT {
+    private static final int WORKERS = 32;
+    private static final int MUTATIONS_PER_WORKER = 50;
+
+    @Autowired private Flyway flyway;
+    @Autowired private StateMutationService mutations;
+    @Autowired private StateMutationRepository audits;
+    @Autowired private StateContainerRepository containers;
+    @Autowired private StateContainerService containerService;
+    @Autowired private StateChangeRepository changes;
+    @Autowired private MovementLedger ledger;
+
+    @BeforeEach
+    void resetDatabase() {
+        flyway.clean();
+        flyway.migrate();
+    }
+
+    @Test
+    void concurrentDebitsAndCreditsOnOneBankAccountAreNeverLost() throws Exception {
+        StateContainerEntity account = containers.save(container("BANK_ACCOUNT", "100000", null));
+        containerService.declareBalance(account, "OPENING_BALANCE");
+
+        runConcurrently(worker -> {
+            StateContainerEntity stale = containers.findById(account.getId()).orElseThrow();
+            for (int i = 0; i < MUTATIONS_PER_WORKER; i++) {
+                MutationTypeEnum type = (worker + i) % 3 == 0 ? MutationTypeEnum.CREDIT : MutationTypeEnum.DEBIT;
+                mutations.apply(stale, command("2.00", type));
+            }
+        });
+
+        long credits = 0;
+        for (int worker = 0; worker < WORKERS; worker++)
+            for (int i = 0; i < MUTATIONS_PER_WORKER; i++) if ((worker + i) % 3 == 0) credits++;
+        long debits = (long) WORKERS * MUTATIONS_PER_WORKER - credits;
+        BigDecimal expected = new BigDecimal("100000").add(BigDecimal.valueOf(2 * (credits - debits)));
+
+        StateContainerEntity reloaded = containers.findById(account.getId()).orElseThrow();
+        assertThat(reloaded.getCurrentValue()).isEqualByComparingTo(expected);
+        assertThat(reloaded.getAvailableValue()).isEqualByComparingTo(expected);
+        assertThat(reloaded.getVersion()).isEqualTo((long) WORKERS * MUTATIONS_PER_WORKER);
+        assertThat(audits.count()).isEqualTo((long) WORKERS * MUTATIONS_PER_WORKER);
+        assertThat(ledger.currentBalance(account.getId())).isEqualByComparingTo(expected);
+        assertThat(ledger.snapshot(account.getId())).isTrue();
+        assertThat(ledger.currentBalance(account.getId())).isEqualByComparingTo(expected);
+    }
+
+    @Test
+    void racingRetriesOfOneTransactionMoveTheBalanceOnce() throws Exception {
+        StateContainerEntity account = containers.save(container("BANK_ACCOUNT", "1000", null));
+        containerService.declareBalance(account, "OPENING_BALANCE");
+        Long txId = changes.save(expense(account)).getId();
+
+        runConcurrently(worker -> mutations.apply(containers.findById(account.getId()).orElseThrow(),
+                new StateMutationCommand(new BigDecimal("25.00"), MutationTypeEnum.DEBIT, "EXPENSE", txId, Instant.now())));
+
+        assertThat(containers.findById(account.getId()).orElseThrow().getCurrentValue()).isEqualByComparingTo("975");
+        assertThat(audits.count()).isEqualTo(1);
+        assertThat(ledger.currentBalance(account.getId())).isEqualByComparingTo("975");
+    }
+
+    @Test
+    void concurrentCardSpendAndRefundsKeepOutstandingAndOverLimitConsistent() throws Exception {
+        StateContainerEntity card = containers.save(container("CREDIT_CARD", "0", "1000"));
+
+        runConcurrently(worker -> {
+            StateContainerEntity stale = containers.findById(card.getId()).orElseThrow();
+            for (int i = 0; i < MUTATIONS_PER_WORKER; i++) {
+                mutations.apply(stale, command("3.00", MutationTypeEnum.DEBIT));
+                if (i % 2 == 0) mutations.reverse(stale, command("1.00", MutationTypeEnum.DEBIT), "REFUND");
+            }
+        });
+
+        BigDecimal expected = BigDecimal.valueOf((long) WORKERS * (MUTATIONS_PER_WORKER * 3L - MUTATIONS_PER_WORKER / 2));
+        StateContainerEntity reloaded = containers.findById(card.getId()).orElseThrow();
+        assertThat(reloaded.getCurrentValue()).isEqualByComparingTo(expected);
+        assertThat(reloaded.getOverLimit()).isTrue();
+        assertThat(reloaded.getOverLimitAmount()).isEqualByComparingTo(expected.subtract(new BigDecimal("1000")));
+    }
+
+    @Test
+    void staleFullEntitySaveIsRejectedAfterADelta() {
+        StateContainerEntity account = containers.save(container("WALLET", "500", null));
+        StateContainerEntity stale = containers.findById(account.getId()).orElseThrow();
+        StateContainerEntity other = containers.findById(account.getId()).orElseThrow();
+
+        mutations.apply(other, command("100.00", MutationTypeEnum.DEBIT));
+        stale.setName("Renamed wallet");
+
+        assertThatThrownBy(() -> containerService.UpdateValueContainer(stale))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(containers.findById(account.getId()).orElseThrow().getCurrentValue())
+                .isEqualByComparingTo("400");
+        assertThat(other.getCurrentValue()).isEqualByComparingTo("400");
+    }
+
+    private void runConcurrently(Worker worker) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(WORKERS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Void>> results = new ArrayList<>();
+            for (int i = 0; i < WORKERS; i++) {
+                int id = i;
+                Callable<Void> task = () -> {
+                    start.await();
+                    worker.run(id);
+                    return null;
+                };
+                results.add(pool.submit(task));
+            }
+            start.countDown();
+            for (Future<Void> result : results) result.get();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private StateContainerEntity container(String type, String balance, String limit) {
+        StateContainerEntity value = new StateContainerEntity();
+        value.setOwnerType("USER");
+        value.setOwnerId(1L);
+        value.setContainerType(type);
+        value.setName(type.toLowerCase());
+        value.setStatus("ACTIVE");
+        value.setCurrency("INR");
+        value.setCurrentValue(new BigDecimal(balance));
+        value.setAvailableValue(new BigDecimal(balance));
+        value.setCapacityLimit(limit == null ? null : new BigDecimal(limit));
+        return value;
+    }
+
+    private StateChangeEntity expense(StateContainerEntity source) {
+        StateChangeEntity value = new StateChangeEntity();
+        value.setUserId("1");
+        value.setTransactionType(StateChangeTypeEnum.EXPENSE);
+        value.setAmount(new BigDecimal("25.00"));
+        value.setTimestamp(Instant.now());
+        value.setSourceContainerId(source.getId());
+        value.setCreatedAt(Instant.now());
+        value.setUpdatedAt(Instant.now());
+        value.setCompletenessLevel(CompletenessLevelEnum.FINANCIAL);
+        return value;
+    }
+
+    private StateMutationCommand command(String amount, MutationTypeEnum type) {
+        return new StateMutationCommand(new BigDecimal(amount), type, "STRESS", null, Instant.now());
+    }
+
+    @FunctionalInterface
+    private interface Worker {
+        void run(int worker) throws Exception;
+    }
+}
@@ -0,0 +1,103 @@
+package com.apps.deen_sa.finance.legacy.state.cache;
+
+import com.apps.deen_sa.finance.legacy.state.StateContainerEntity;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedStateContainerCacheTest {
+    private final BoundedStateContainerCache cache = new BoundedStateContainerCache(2, Duration.ofMinutes(5));
+
+    @Test
+    void concurrentMissesForOneOwnerShareASingleLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<StateContainerEntity>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> cache.getActiveContainers(7L, owner -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return List.of(account(owner, "100"));
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<List<StateContainerEntity>> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).hasSize(1);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void callersEditTheirOwnCopiesNotTheCachedSnapshot() {
+        cache.getActiveContainers(7L, owner -> List.of(account(owner, "100"))).get(0)
+                .setCurrentValue(new BigDecimal("1"));
+
+        StateContainerEntity again = cache.getActiveContainers(7L, owner -> List.of()).get(0);
+
+        assertThat(again.getCurrentValue()).isEqualByComparingTo("100");
+    }
+
+    @Test
+    void leastRecentlyUsedOwnerIsDroppedAtCapacity() {
+        cache.getActiveContainers(1L, owner -> List.of(account(owner, "1")));
+        cache.getActiveContainers(2L, owner -> List.of(account(owner, "2")));
+        cache.getActiveContainers(1L, owner -> List.of());
+        cache.getActiveContainers(3L, owner -> List.of(account(owner, "3")));
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getActiveContainers(1L, owner -> List.of())).hasSize(1);
+        assertThat(cache.getActiveContainers(2L, owner -> List.of())).isEmpty();
+    }
+
+    @Test
+    void loadOverlappingAnEvictionIsNotCached() {
+        cache.getActiveContainers(7L, owner -> {
+            cache.evict(7L);
+            return List.of(account(owner, "100"));
+        });
+
+        assertThat(cache.getActiveContainers(7L, owner -> List.of())).isEmpty();
+    }
+
+    @Test
+    void expiredEntriesAreSweptInTheBackground() {
+        BoundedStateContainerCache shortLived = new BoundedStateContainerCache(10, Duration.ZERO);
+        shortLived.getActiveContainers(7L, owner -> List.of(account(owner, "100")));
+
+        shortLived.sweepExpired();
+
+        assertThat(shortLived.size()).isZero();
+    }
+
+    private static StateContainerEntity account(Long owner, String balance) {
+        StateContainerEntity value = new StateContainerEntity();
+        value.setOwnerId(owner);
+        value.setCurrentValue(new BigDecimal(balance));
+        return value;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
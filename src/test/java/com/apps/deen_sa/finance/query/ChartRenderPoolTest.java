@@ -0,0 +1,94 @@
+package com.apps.deen_sa.finance.query;
+
+import com.apps.deen_sa.conversation.ResponseMedia;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChartRenderPoolTest {
+    private static final ResponseMedia CHART = new ResponseMedia(new byte[] {1}, "image/png", "chart.png");
+
+    private ChartRenderPool pool;
+
+    @AfterEach
+    void shutdown() {
+        if (pool != null) pool.shutdown();
+    }
+
+    @Test
+    void rendersOnThePoolAndReleasesTheBudget() {
+        pool = new ChartRenderPool(1, 1, 2_000_000, Duration.ofSeconds(5));
+
+        ChartRenderPool.Rendered rendered = pool.render(1_000_000, () -> {
+            assertThat(Thread.currentThread().getName()).startsWith("chart-render-");
+            return CHART;
+        });
+
+        assertThat(rendered.shed()).isFalse();
+        assertThat(rendered.media()).isSameAs(CHART);
+        assertThat(pool.pixelsInUse()).isZero();
+    }
+
+    @Test
+    void aRenderThatDoesNotFitTheRemainingBudgetIsShedToText() throws Exception {
+        pool = new ChartRenderPool(2, 2, 1_500_000, Duration.ofSeconds(5));
+        CountDownLatch started = new CountDownLatch(1), finish = new CountDownLatch(1);
+        CompletableFuture<ChartRenderPool.Rendered> first = CompletableFuture.supplyAsync(() ->
+                pool.render(1_000_000, () -> {
+                    started.countDown();
+                    await(finish);
+                    return CHART;
+                }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        ChartRenderPool.Rendered second = pool.render(1_000_000, () -> CHART);
+        finish.countDown();
+
+        assertThat(second.shed()).isTrue();
+        assertThat(second.media()).isNull();
+        assertThat(first.get(5, TimeUnit.SECONDS).media()).isSameAs(CHART);
+    }
+
+    @Test
+    void aSlowRenderIsAbandonedAfterTheWaitButKeepsItsBudgetUntilItEnds() throws Exception {
+        pool = new ChartRenderPool(1, 1, 4_000_000, Duration.ofMillis(50));
+        CountDownLatch finish = new CountDownLatch(1);
+
+        ChartRenderPool.Rendered rendered = pool.render(1_000_000, () -> {
+            await(finish);
+            return CHART;
+        });
+
+        assertThat(rendered.shed()).isTrue();
+        assertThat(pool.pixelsInUse()).isPositive();
+        finish.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (pool.pixelsInUse() > 0 && System.nanoTime() < deadline) Thread.sleep(5);
+        assertThat(pool.pixelsInUse()).isZero();
+    }
+
+    @Test
+    void nothingToDrawIsNotShedAndRendererFailuresStillSurface() {
+        pool = new ChartRenderPool(1, 1, 1_000_000, Duration.ofSeconds(5));
+
+        assertThat(pool.render(0, () -> CHART)).isEqualTo(new ChartRenderPool.Rendered(null, false));
+        assertThatThrownBy(() -> pool.render(1_000, () -> { throw new IllegalArgumentException("bad data"); }))
+                .isInstanceOf(IllegalArgumentException.class).hasMessage("bad data");
+        assertThat(pool.pixelsInUse()).isZero();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
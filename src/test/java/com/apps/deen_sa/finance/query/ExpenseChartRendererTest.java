@@ -104,4 +104,21 @@ class ExpenseChartRendererTest {
         assertThat(List.of(heatmap, comparison, flow, treemap)).allSatisfy(media ->
                 assertThat(media.content()).startsWith((byte) 0x89, (byte) 0x50, (byte) 0x4e, (byte) 0x47));
     }
+
+    @Test
+    void reusedCanvasesRenderIdenticallyAndOpaque() throws Exception {
+        Map<String, BigDecimal> many = new LinkedHashMap<>();
+        for (int i = 1; i <= 2; i++) many.put("Category " + i, BigDecimal.valueOf(i * 100L));
+        renderer.rankedBars("Tall", many, PresentationMood.FRUSTRATED, "en-IN");
+
+        ResponseMedia first = renderer.rankedBars("Short", Map.of("Food", new BigDecimal("900")),
+                PresentationMood.NEUTRAL, "en-IN");
+        ResponseMedia second = renderer.rankedBars("Short", Map.of("Food", new BigDecimal("900")),
+                PresentationMood.NEUTRAL, "en-IN");
+
+        assertThat(second.content()).isEqualTo(first.content());
+        java.awt.image.BufferedImage decoded = javax.imageio.ImageIO.read(new java.io.ByteArrayInputStream(first.content()));
+        assertThat(decoded.getColorModel().hasAlpha()).isFalse();
+        assertThat(decoded.getHeight()).isEqualTo(355);
+    }
 }
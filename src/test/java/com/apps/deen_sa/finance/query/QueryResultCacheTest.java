@@ -0,0 +1,41 @@
+package com.apps.deen_sa.finance.query;
+
+import com.apps.deen_sa.conversation.ResponseMedia;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryResultCacheTest {
+    private static final LocalDate DAY = LocalDate.parse("2026-05-10");
+
+    @Test
+    void aNewLedgerVersionMakesTheOldAnswerUnreachable() {
+        QueryResultCache cache = new QueryResultCache(1_000_000);
+        cache.put(key(1L, 3), new QueryResultCache.Answer("₹500 this month", null));
+
+        assertThat(cache.get(key(1L, 3)).message()).isEqualTo("₹500 this month");
+        assertThat(cache.get(key(1L, 4))).isNull();
+    }
+
+    @Test
+    void leastRecentlyUsedAnswersAreDroppedToStayWithinTheByteBudget() {
+        QueryResultCache cache = new QueryResultCache(2_500);
+        ResponseMedia chart = new ResponseMedia(new byte[1_000], "image/png", "chart.png");
+        cache.put(key(1L, 1), new QueryResultCache.Answer("one", chart));
+        cache.put(key(2L, 1), new QueryResultCache.Answer("two", chart));
+        cache.get(key(1L, 1));
+
+        cache.put(key(3L, 1), new QueryResultCache.Answer("three", chart));
+
+        assertThat(cache.bytes()).isLessThanOrEqualTo(2_500);
+        assertThat(cache.get(key(1L, 1))).isNotNull();
+        assertThat(cache.get(key(2L, 1))).isNull();
+        assertThat(cache.get(key(3L, 1))).isNotNull();
+    }
+
+    private static QueryResultCache.Key key(Long user, long version) {
+        return new QueryResultCache.Key(user, "THIS_MONTH", null, null, "en-IN", DAY, version);
+    }
+}
@@ -0,0 +1,105 @@
+package com.apps.deen_sa.finance.rollup;
+
+import com.apps.deen_sa.conversation.AppUserService;
+import com.apps.deen_sa.finance.legacy.state.CompletenessLevelEnum;
+import com.apps.deen_sa.finance.legacy.state.StateChangeEntity;
+import com.apps.deen_sa.finance.legacy.state.StateChangeRepository;
+import com.apps.deen_sa.finance.legacy.state.StateChangeTypeEnum;
+import com.apps.deen_sa.integration.PostgresTestContainerInitializer;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The {@code AT TIME ZONE} bucketing in the rebuild SQL against Postgres: it must put each expense on
+ * the same local day and month as the write path does, before and after a timezone change.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@ContextConfiguration(initializers = PostgresTestContainerInitializer.class)
+class DailyRollupIT {
+
+    @Autowired private Flyway flyway;
+    @Autowired private DailyRollupService rollups;
+    @Autowired private StateChangeRepository changes;
+    @Autowired private AppUserService users;
+    @Autowired private JdbcTemplate jdbc;
+
+    private Long userId;
+
+    @BeforeEach
+    void resetDatabase() {
+        flyway.clean();
+        flyway.migrate();
+        userId = users.resolve("REST", "rollups").getId();
+    }
+
+    @Test
+    void rebuildBucketsLikeTheWritePath() {
+        // 20:00 UTC on 31 March is already 1 April in Kolkata.
+        List<StateChangeEntity> saved = List.of(
+                changes.save(expense("2026-03-31T20:00:00Z", "450.00")),
+                changes.save(expense("2026-03-31T17:00:00Z", "120.00")));
+        rollups.recordAll(saved);
+        List<String> written = rollupRows();
+
+        rollups.rebuild(userId.toString());
+
+        assertThat(rollupRows()).isEqualTo(written).containsExactly(
+                "2026-03-31 120.00 1", "2026-04-01 450.00 1");
+        assertThat(counterRows()).containsExactly("2026-03-01 120.00 1", "2026-04-01 450.00 1");
+        for (StateChangeEntity change : saved) {
+            LocalDate javaDay = rollups.snapshot(changes.findById(change.getId()).orElseThrow()).localDate();
+            assertThat(rollupRows()).anyMatch(row -> row.startsWith(javaDay.toString()));
+        }
+    }
+
+    @Test
+    void changingTimezoneMovesHistoryIntoTheNewZone() {
+        rollups.recordAll(List.of(changes.save(expense("2026-03-31T20:00:00Z", "450.00"))));
+        assertThat(rollupRows()).containsExactly("2026-04-01 450.00 1");
+
+        assertThat(rollups.changeTimezone(userId, "UTC")).isTrue();
+
+        assertThat(rollupRows()).containsExactly("2026-03-31 450.00 1");
+        assertThat(counterRows()).containsExactly("2026-03-01 450.00 1");
+        assertThat(rollups.zoneFor(userId.toString()).getId()).isEqualTo("UTC");
+    }
+
+    private List<String> rollupRows() {
+        return jdbc.queryForList("""
+                SELECT local_date || ' ' || amount || ' ' || entry_count FROM fin_daily_rollup
+                WHERE user_id = ? ORDER BY local_date
+                """, String.class, userId.toString());
+    }
+
+    private List<String> counterRows() {
+        return jdbc.queryForList("""
+                SELECT month_start || ' ' || spent || ' ' || entry_count FROM fin_budget_spend_counter
+                WHERE user_id = ? AND scope = 'food' ORDER BY month_start
+                """, String.class, userId.toString());
+    }
+
+    private StateChangeEntity expense(String time, String amount) {
+        StateChangeEntity value = new StateChangeEntity();
+        value.setUserId(userId.toString());
+        value.setTransactionType(StateChangeTypeEnum.EXPENSE);
+        value.setAmount(new BigDecimal(amount));
+        value.setCategory("Food");
+        value.setTimestamp(Instant.parse(time));
+        value.setCompletenessLevel(CompletenessLevelEnum.OPERATIONAL);
+        return value;
+    }
+}
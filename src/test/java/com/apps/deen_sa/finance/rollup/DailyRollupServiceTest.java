@@ -0,0 +1,165 @@
+package com.apps.deen_sa.finance.rollup;
+
+import com.apps.deen_sa.conversation.AppUserEntity;
+import com.apps.deen_sa.conversation.AppUserRepository;
+import com.apps.deen_sa.finance.budget.BudgetSpendCounters;
+import com.apps.deen_sa.finance.expense.ExpenseRecordStatus;
+import com.apps.deen_sa.finance.ledger.LedgerVersions;
+import com.apps.deen_sa.finance.legacy.state.StateChangeEntity;
+import com.apps.deen_sa.finance.legacy.state.StateChangeTypeEnum;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DailyRollupServiceTest {
+    private final DailyRollupRepository repository = mock(DailyRollupRepository.class);
+    private final AppUserRepository users = mock(AppUserRepository.class);
+    private final BudgetSpendCounters budgetCounters = mock(BudgetSpendCounters.class);
+    private final LedgerVersions versions = mock(LedgerVersions.class);
+    private final DailyRollupService service = new DailyRollupService(repository, users, budgetCounters, versions);
+
+    @BeforeEach
+    void setUp() {
+        AppUserEntity user = new AppUserEntity();
+        user.setTimezone("Asia/Kolkata");
+        when(users.findById(7L)).thenReturn(Optional.of(user));
+    }
+
+    @Test
+    void bucketsExpenseByUsersLocalDayAndSourceAccount() {
+        StateChangeEntity expense = expense("2026-03-31T20:00:00Z", "450.00");
+
+        service.record(expense);
+
+        verify(repository).add("7", "EXPENSE", LocalDate.parse("2026-04-01"), "Food", "", 3L,
+                new BigDecimal("450.00"), 1);
+        verify(budgetCounters).add("7", LocalDate.parse("2026-04-01"), "Food", "", new BigDecimal("450.00"), 1);
+        verify(versions).bump("7");
+    }
+
+    @Test
+    void voidingMovesTheAmountOutOfItsBucketAndPrunesEmptyRows() {
+        StateChangeEntity expense = expense("2026-04-02T06:00:00Z", "120.00");
+        DailyRollupService.Bucket before = service.snapshot(expense);
+        expense.setRecordStatus(ExpenseRecordStatus.VOIDED);
+
+        service.moved(before, expense);
+
+        verify(repository).add("7", "EXPENSE", LocalDate.parse("2026-04-02"), "Food", "", 3L,
+                new BigDecimal("-120.00"), -1);
+        verify(repository).pruneEmpty("7");
+        verify(budgetCounters).add("7", LocalDate.parse("2026-04-02"), "Food", "", new BigDecimal("-120.00"), -1);
+    }
+
+    @Test
+    void untouchedDimensionsDoNotRewriteRollups() {
+        StateChangeEntity expense = expense("2026-04-02T06:00:00Z", "120.00");
+        DailyRollupService.Bucket before = service.snapshot(expense);
+        expense.setAmount(new BigDecimal("120"));
+        expense.setNeedsEnrichment(false);
+
+        service.moved(before, expense);
+
+        verify(repository, never()).add(anyString(), anyString(), any(), anyString(), anyString(), anyLong(), any(), anyInt());
+    }
+
+    @Test
+    void bulkRecordingWritesOneUpdatePerBucketAndBumpsTheVersionOnce() {
+        StateChangeEntity breakfast = expense("2026-04-02T03:00:00Z", "120.00");
+        StateChangeEntity lunch = expense("2026-04-02T07:00:00Z", "230.50");
+        StateChangeEntity nextDay = expense("2026-04-03T07:00:00Z", "80.00");
+
+        service.recordAll(List.of(breakfast, lunch, nextDay));
+
+        verify(repository).add("7", "EXPENSE", LocalDate.parse("2026-04-02"), "Food", "", 3L,
+                new BigDecimal("350.50"), 2);
+        verify(repository).add("7", "EXPENSE", LocalDate.parse("2026-04-03"), "Food", "", 3L,
+                new BigDecimal("80.00"), 1);
+        verify(budgetCounters).add("7", LocalDate.parse("2026-04-02"), "Food", "", new BigDecimal("350.50"), 2);
+        verify(users, times(1)).findById(7L);
+        verify(versions, times(1)).bump("7");
+    }
+
+    @Test
+    void incomeIsBucketedUnderItsDestinationAccount() {
+        StateChangeEntity income = expense("2026-04-02T06:00:00Z", "5000.00");
+        income.setTransactionType(StateChangeTypeEnum.INCOME);
+        income.setSourceContainerId(null);
+        income.setTargetContainerId(9L);
+
+        assertThat(service.snapshot(income).containerId()).isEqualTo(9L);
+        service.record(income);
+        verify(budgetCounters, never()).add(anyString(), any(), anyString(), anyString(), any(), anyInt());
+    }
+
+    @Test
+    void changingTimezoneRebuildsRollupsAndCountersUnderTheUserLock() {
+        AppUserEntity user = new AppUserEntity();
+        user.setTimezone("Asia/Kolkata");
+        when(users.findForUpdate(7L)).thenReturn(Optional.of(user));
+
+        assertThat(service.changeTimezone(7L, "Europe/London")).isTrue();
+        assertThat(service.changeTimezone(7L, "Europe/London")).isFalse();
+
+        assertThat(user.getTimezone()).isEqualTo("Europe/London");
+        verify(users, times(1)).saveAndFlush(user);
+        verify(repository, times(1)).deleteForUser("7");
+        verify(repository, times(1)).rebuildForUser("7");
+        verify(budgetCounters, times(1)).rebuild("7");
+        verify(versions, times(1)).bump("7");
+    }
+
+    @Test
+    void windowAnswersWholeDaysFromRollupsAndEdgesFromRawRows() {
+        ZoneId zone = ZoneId.of("Asia/Kolkata");
+        Instant start = Instant.parse("2026-03-31T18:30:00Z");
+        Instant end = Instant.parse("2026-04-15T09:00:00Z");
+
+        DailyRollupQueries.Window window = DailyRollupQueries.Window.of(start, end, zone);
+
+        assertThat(window.fromDay()).isEqualTo(LocalDate.parse("2026-04-01"));
+        assertThat(window.toDay()).isEqualTo(LocalDate.parse("2026-04-15"));
+        assertThat(window.dayStart()).isEqualTo(start);
+        assertThat(window.dayEnd()).isEqualTo(Instant.parse("2026-04-14T18:30:00Z"));
+    }
+
+    @Test
+    void rangeWithoutWholeDayIsAnsweredFromRawRows() {
+        Instant start = Instant.parse("2026-04-15T00:00:00Z");
+        Instant end = Instant.parse("2026-04-15T09:00:00Z");
+
+        DailyRollupQueries.Window window = DailyRollupQueries.Window.of(start, end, ZoneId.of("Asia/Kolkata"));
+
+        assertThat(window.fromDay()).isEqualTo(window.toDay());
+        assertThat(window.dayStart()).isEqualTo(end);
+        assertThat(window.dayEnd()).isEqualTo(end);
+    }
+
+    private StateChangeEntity expense(String time, String amount) {
+        StateChangeEntity value = new StateChangeEntity();
+        value.setUserId("7");
+        value.setTransactionType(StateChangeTypeEnum.EXPENSE);
+        value.setAmount(new BigDecimal(amount));
+        value.setCategory("Food");
+        value.setSourceContainerId(3L);
+        value.setTimestamp(Instant.parse(time));
+        return value;
+    }
+}
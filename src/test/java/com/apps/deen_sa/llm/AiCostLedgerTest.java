@@ -0,0 +1,145 @@
+package com.apps.deen_sa.llm;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class AiCostLedgerTest {
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-03-31T22:30:00Z"));
+    private final AiTenantSpendStore tenants = mock(AiTenantSpendStore.class);
+    private final AiCostLedger ledger = new AiCostLedger(new AiCostProperties("USD",
+            Map.of("gpt-4.1-mini", new AiCostProperties.Price(new BigDecimal("0.40"), new BigDecimal("0.10"),
+                    new BigDecimal("1.60"))),
+            new BigDecimal("0.01"), BigDecimal.ZERO, 0.5), tenants, clock);
+
+    @BeforeEach
+    void addRegistry() {
+        Metrics.addRegistry(meters);
+    }
+
+    @AfterEach
+    void removeRegistry() {
+        Metrics.removeRegistry(meters);
+    }
+
+    @Test
+    void pricesCachedInputSeparatelyAndAttributesItToTheScopedTenant() {
+        AiCallTelemetry telemetry = new AiCallTelemetry(ledger);
+        when(tenants.add(7L, LocalDate.parse("2026-03-31"), 600)).thenReturn(new AiTenantSpendStore.Totals(600, 600));
+
+        try (var tenant = telemetry.forTenant(7L)) {
+            telemetry.success("routing", "gpt-4.1-mini-2025-04-14", 1_000, 400, 200, System.nanoTime());
+        }
+        telemetry.success("routing", "gpt-4.1-mini", 1_000, 0, 0, System.nanoTime());
+
+        // 600 * 0.40 + 400 * 0.10 + 200 * 1.60 = 600 millionths of a dollar, then 400 more without a tenant.
+        assertThat(ledger.byPurpose().get("PT1H").get("routing"))
+                .isEqualTo(new AiCostLedger.Spend(2, new BigDecimal("0.001")));
+        verify(tenants).add(7L, LocalDate.parse("2026-03-31"), 600);
+        verifyNoMoreInteractions(tenants);
+        assertThat(meters.get("deen.ai.calls").tags("purpose", "routing", "model", "gpt-4.1-mini").counter().count())
+                .isOne();
+    }
+
+    @Test
+    void windowsRollAndTenantSpendIsBookedOnTheUtcDay() {
+        when(tenants.add(eq(1L), any(), anyLong())).thenReturn(new AiTenantSpendStore.Totals(0, 0));
+        when(tenants.top(LocalDate.parse("2026-04-01"), 1))
+                .thenReturn(List.of(new AiTenantSpendStore.Ranked(1L, 2_000, 6_000)));
+
+        ledger.record(1L, "extraction", "gpt-4.1-mini", 10_000, 0, 0);
+        clock.advance(Duration.ofHours(2));
+        ledger.record(1L, "extraction", "gpt-4.1-mini", 5_000, 0, 0);
+
+        Map<String, Map<String, AiCostLedger.Spend>> windows = ledger.byPurpose();
+        assertThat(windows.get("PT1H").get("extraction").amount()).isEqualByComparingTo("0.002");
+        assertThat(windows.get("PT24H").get("extraction").amount()).isEqualByComparingTo("0.006");
+        verify(tenants).add(1L, LocalDate.parse("2026-03-31"), 4_000);
+        verify(tenants).add(1L, LocalDate.parse("2026-04-01"), 2_000);
+        assertThat(ledger.topTenants(1)).singleElement().satisfies(tenant -> {
+            assertThat(tenant.today()).isEqualByComparingTo("0.002");
+            assertThat(tenant.monthToDate()).isEqualByComparingTo("0.006");
+        });
+    }
+
+    @Test
+    void budgetAlertsAreRaisedOncePerLevel() {
+        AtomicLong spent = new AtomicLong();
+        when(tenants.add(eq(3L), any(), anyLong())).thenAnswer(call -> {
+            long total = spent.addAndGet(call.getArgument(2));
+            return new AiTenantSpendStore.Totals(total, total);
+        });
+
+        for (int call = 0; call < 6; call++) ledger.record(3L, "query", "gpt-4.1-mini", 5_000, 0, 0);
+
+        assertThat(meters.get("deen.ai.budget.alerts").tags("period", "daily", "level", "warning").counter().count())
+                .isOne();
+        assertThat(meters.get("deen.ai.budget.alerts").tags("period", "daily", "level", "exceeded").counter().count())
+                .isOne();
+    }
+
+    @Test
+    void onlyTheCallThatCrossesTheSharedTotalAlerts() {
+        // Other nodes have already spent 7000 of the 10000 budget, past the 50% warning.
+        when(tenants.add(eq(4L), any(), anyLong())).thenReturn(new AiTenantSpendStore.Totals(9_000, 9_000),
+                new AiTenantSpendStore.Totals(11_000, 11_000));
+
+        ledger.record(4L, "query", "gpt-4.1-mini", 5_000, 0, 0);
+        ledger.record(4L, "query", "gpt-4.1-mini", 5_000, 0, 0);
+
+        assertThat(meters.find("deen.ai.budget.alerts").tags("level", "warning").counters())
+                .allSatisfy(warnings -> assertThat(warnings.count()).isZero());
+        assertThat(meters.get("deen.ai.budget.alerts").tags("period", "daily", "level", "exceeded").counter().count())
+                .isOne();
+    }
+
+    @Test
+    void aFailedSpendWriteIsCountedAndDoesNotFailTheCall() {
+        when(tenants.add(eq(5L), any(), anyLong())).thenThrow(new DataAccessResourceFailureException("down"));
+
+        ledger.record(5L, "query", "gpt-4.1-mini", 5_000, 0, 0);
+
+        assertThat(meters.get("deen.ai.cost.unrecorded").counter().count()).isOne();
+        assertThat(ledger.byPurpose().get("PT1H").get("query").calls()).isOne();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override public ZoneOffset getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(ZoneId zone) { return this; }
+        @Override public Instant instant() { return now; }
+    }
+}
@@ -0,0 +1,55 @@
+package com.apps.deen_sa.llm;
+
+import com.apps.deen_sa.integration.PostgresTestContainerInitializer;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@ContextConfiguration(initializers = PostgresTestContainerInitializer.class)
+class AiTenantSpendStoreIT {
+
+    @Autowired private Flyway flyway;
+    @Autowired private AiTenantSpendStore store;
+
+    @BeforeEach
+    void resetDatabase() {
+        flyway.clean();
+        flyway.migrate();
+    }
+
+    @Test
+    void eachCallAddsToTheDayAndTheMonthAndReturnsBothTotals() {
+        store.add(7L, LocalDate.parse("2026-03-30"), 1_000);
+
+        assertThat(store.add(7L, LocalDate.parse("2026-03-31"), 600))
+                .isEqualTo(new AiTenantSpendStore.Totals(600, 1_600));
+        assertThat(store.add(7L, LocalDate.parse("2026-03-31"), 400))
+                .isEqualTo(new AiTenantSpendStore.Totals(1_000, 2_000));
+        assertThat(store.add(7L, LocalDate.parse("2026-04-01"), 50))
+                .isEqualTo(new AiTenantSpendStore.Totals(50, 50));
+    }
+
+    @Test
+    void topRanksTheDayAndPruningKeepsTheMonths() {
+        store.add(1L, LocalDate.parse("2026-03-30"), 5_000);
+        store.add(1L, LocalDate.parse("2026-03-31"), 100);
+        store.add(2L, LocalDate.parse("2026-03-31"), 300);
+
+        assertThat(store.top(LocalDate.parse("2026-03-31"), 5)).containsExactly(
+                new AiTenantSpendStore.Ranked(2L, 300, 300), new AiTenantSpendStore.Ranked(1L, 100, 5_100));
+
+        assertThat(store.pruneDaysBefore(LocalDate.parse("2026-03-31"))).isOne();
+        assertThat(store.add(1L, LocalDate.parse("2026-03-31"), 0))
+                .isEqualTo(new AiTenantSpendStore.Totals(100, 5_100));
+    }
+}
@@ -0,0 +1,41 @@
+package com.apps.deen_sa.schduler;
+
+import com.apps.deen_sa.conversation.interpretation.MutationAuthorizationPolicy;
+import com.apps.deen_sa.conversation.interpretation.QueryPeriod;
+import com.apps.deen_sa.conversation.interpretation.TurnInterpretation;
+import com.apps.deen_sa.conversation.interpretation.TurnType;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WarmupInterpreterTest {
+    private final WarmupInterpreter interpreter = new WarmupInterpreter();
+
+    @Test
+    void everySamplePromptWithAnAmountPassesTheGroundingPolicy() {
+        LoadTestData data = new LoadTestData();
+        ReflectionTestUtils.invokeMethod(data, "load");
+        MutationAuthorizationPolicy policy = new MutationAuthorizationPolicy();
+
+        assertThat(data.prompts()).isNotEmpty().allSatisfy(prompt -> {
+            TurnInterpretation turn = interpreter.interpret(prompt, null);
+            assertThat(policy.isAuthorized(turn, prompt)).as(prompt).isTrue();
+        });
+    }
+
+    @Test
+    void suffixedAmountsAreScaledAndQuestionsBecomeQueries() {
+        TurnInterpretation setup = interpreter.interpret("Setup my bank account with 1L balance", null);
+        assertThat(setup.turnType()).isEqualTo(TurnType.NEW_EVENT);
+        assertThat((BigDecimal) setup.events().getFirst().facts().get("amount")).isEqualByComparingTo("100000");
+
+        assertThat(interpreter.interpret("What is my account balance?", null).query())
+                .isEqualTo(QueryPeriod.ACCOUNT_BALANCE);
+        assertThat(interpreter.interpret("How much did I spend this month?", null).query())
+                .isEqualTo(QueryPeriod.THIS_MONTH);
+        assertThat(interpreter.interpret("hello there", null).turnType()).isEqualTo(TurnType.AMBIGUOUS);
+    }
+}